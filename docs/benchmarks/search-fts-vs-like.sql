@@ -0,0 +1,76 @@
+-- Latency of the old LIKE search against the content_tsv full-text search.
+--
+-- Usage (against a scratch database, never production):
+--   psql -v rows=1000000  -f docs/benchmarks/search-fts-vs-like.sql
+--   psql -v rows=10000000 -f docs/benchmarks/search-fts-vs-like.sql
+--
+-- Builds a standalone search_bench table shaped like social_post (same generated tsvector column and
+-- indexes as V2__content_full_text_search.sql), fills it with synthetic posts drawn from a Zipf-like
+-- vocabulary, and prints EXPLAIN ANALYZE for each query shape. Compare the "Execution Time" lines.
+
+\if :{?rows}
+\else
+\set rows 1000000
+\endif
+
+DROP TABLE IF EXISTS search_bench;
+CREATE TABLE search_bench (
+    id             BIGINT PRIMARY KEY,
+    content        TEXT NOT NULL,
+    post_timestamp TIMESTAMPTZ NOT NULL,
+    content_tsv    tsvector GENERATED ALWAYS AS (to_tsvector('simple', content)) STORED
+);
+
+-- ~18 words per post. Word i of the vocabulary is drawn with probability ~ 1/i, so low-numbered words are
+-- common (term0 appears in roughly a third of posts) and high-numbered words are rare.
+INSERT INTO search_bench (id, content, post_timestamp)
+SELECT g,
+       (SELECT string_agg(
+                   CASE WHEN random() < 0.05 THEN '#tag' ELSE 'term' END
+                       || floor(exp(random() * ln(50000)))::int, ' ')
+        FROM generate_series(1, 18) WHERE g > 0),
+       now() - (g * interval '1 second')
+FROM generate_series(1, :rows) AS g;
+
+CREATE INDEX search_bench_tsv ON search_bench USING GIN (content_tsv);
+CREATE INDEX search_bench_ts_id ON search_bench (post_timestamp DESC, id DESC);
+VACUUM ANALYZE search_bench;
+
+-- 1. Old path: findByContentContainingIgnoreCase, as generated by Spring Data (rare term).
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM search_bench WHERE upper(content) LIKE upper('%term31337%') LIMIT 20;
+
+-- 1b. Old path, term with no matches: the whole table is scanned before returning an empty page.
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM search_bench WHERE upper(content) LIKE upper('%nosuchterm%') LIMIT 20;
+
+-- 2. Old path, common term (first page is found quickly, but page N must scan further).
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM search_bench WHERE upper(content) LIKE upper('%term7 %') OFFSET 2000 LIMIT 20;
+
+-- 3. Full-text, rare term, ranked.
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *, ts_rank_cd(content_tsv, q) AS rank
+FROM search_bench, websearch_to_tsquery('simple', 'term31337') q
+WHERE content_tsv @@ q ORDER BY rank DESC, id DESC LIMIT 21;
+
+-- 3b. Full-text, term with no matches.
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *, ts_rank_cd(content_tsv, q) AS rank
+FROM search_bench, websearch_to_tsquery('simple', 'nosuchterm') q
+WHERE content_tsv @@ q ORDER BY rank DESC, id DESC LIMIT 21;
+
+-- 4. Full-text, common term, newest first, keyset page deep into the result.
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *
+FROM search_bench, websearch_to_tsquery('simple', 'term7') q
+WHERE content_tsv @@ q AND (post_timestamp, id) < (now() - interval '100000 seconds', 100000)
+ORDER BY post_timestamp DESC, id DESC LIMIT 21;
+
+-- 5. Full-text, hashtag with anchored regex re-check on index matches.
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *, ts_rank_cd(content_tsv, q) AS rank
+FROM search_bench, websearch_to_tsquery('simple', '#tag4242') q
+WHERE content_tsv @@ q AND content ~* '#tag4242\M' ORDER BY rank DESC, id DESC LIMIT 21;
+
+DROP TABLE search_bench;
@@ -0,0 +1,65 @@
+package benchmark;
+
+import client.TweetResponseParser;
+import com.fasterxml.jackson.core.JsonFactory;
+import model.SocialPost;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the recorded search responses in {@code src/jmh/resources/fixtures} and builds post batches from them.
+ */
+final class Fixtures {
+
+    static final String SMALL = "search-recent-10.json";
+    static final String LARGE = "search-recent-100.json";
+
+    private Fixtures() {
+    }
+
+    /**
+     * @param name file name of the fixture
+     * @return the raw response body
+     */
+    static byte[] load(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Builds a batch of unsaved posts by parsing the 100-tweet fixture and repeating it with fresh source ids.
+     * Every {@code repeatEvery}-th post repeats the source id of an earlier one, the way consecutive pages
+     * and overlapping keywords return the same tweet more than once.
+     *
+     * @param count       number of posts
+     * @param repeatEvery distance between repeated posts, or 0 for none
+     * @return posts with platform, sourceId, author, content, postTimestamp and url set
+     */
+    static List<SocialPost> posts(int count, int repeatEvery) {
+        List<SocialPost> template;
+        try {
+            template = new TweetResponseParser(new JsonFactory()).parse(load(LARGE)).getPosts();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        List<SocialPost> posts = new ArrayList<>(count);
+        long nextId = 1_900_000_000_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            SocialPost post = template.get(i % template.size());
+            boolean repeat = repeatEvery > 0 && i > 0 && i % repeatEvery == 0;
+            String sourceId = repeat ? posts.get(i / 2).getSourceId() : Long.toString(nextId--);
+            posts.add(post.withSourceId(sourceId));
+        }
+        return posts;
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import config.NearDuplicateConfig;
+import model.SocialPost;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import util.SimHash;
+import util.SimHashIndex;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the near-duplicate check that NearDuplicateDetector runs on each ingested post.
+ * <p>
+ * {@code fingerprint} computes the SimHash of the recorded tweets' text. {@code lookupAndAdd} checks fingerprints
+ * of unrelated posts against an index that is full at the default {@code near-dup.*} settings and adds them,
+ * which is the steady state of a stream without duplicates: nothing matches, so every band's bucket is walked
+ * to its end. Each operation is one batch of 1000 posts.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NearDuplicateBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private List<SocialPost> posts;
+    private SimHashIndex index;
+    private SplittableRandom random;
+    private long nextKey;
+
+    @Setup
+    public void setUp() {
+        posts = Fixtures.posts(BATCH_SIZE, 0);
+        NearDuplicateConfig config = new NearDuplicateConfig(true, null, null, null, null);
+        index = new SimHashIndex(config.getCapacity(), config.getMaxDistance());
+        random = new SplittableRandom(42);
+        for (int i = 0; i < config.getCapacity(); i++) {
+            index.add(random.nextLong(), nextKey++, 0);
+        }
+    }
+
+    @Benchmark
+    public void fingerprint(Blackhole blackhole) {
+        for (SocialPost post : posts) {
+            blackhole.consume(SimHash.fingerprint(SimHash.terms(post.getContent())));
+        }
+    }
+
+    @Benchmark
+    public void lookupAndAdd(Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long fingerprint = random.nextLong();
+            long key = nextKey++;
+            boolean near = index.containsNear(fingerprint, key, 0);
+            if (!near) {
+                index.add(fingerprint, key, 0);
+            }
+            blackhole.consume(near);
+        }
+    }
+}
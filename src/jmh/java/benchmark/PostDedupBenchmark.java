@@ -0,0 +1,81 @@
+package benchmark;
+
+import config.DedupConfig;
+import model.SocialPost;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import util.BloomFilter;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recognising repeated posts within a fetched batch.
+ * <p>
+ * {@code mergeByKey} is the in-batch dedup that SocialPostService, PostDeduplicator and the bulk insert each do:
+ * a LinkedHashMap keyed by {@code platform:sourceId}. {@code probeFilter} builds the same keys and checks them
+ * against a warm Bloom filter sized like the default {@code dedup.*} settings, which is PostDeduplicator's
+ * in-memory step before the database lookup. {@code hashSetOfUnsavedPosts} and {@code hashSetOfSavedPosts}
+ * insert the posts into a HashSet, exercising {@link SocialPost#equals} and {@link SocialPost#hashCode} before
+ * and after ids are assigned. One post in ten repeats an earlier one. Each operation is one whole batch;
+ * run with {@code -prof gc} for allocation.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostDedupBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int batchSize;
+
+    private List<SocialPost> unsaved;
+    private List<SocialPost> saved;
+    private BloomFilter filter;
+
+    @Setup
+    public void setUp() {
+        unsaved = Fixtures.posts(batchSize, 10);
+        saved = unsaved.stream().map(post -> post.withId(Long.parseLong(post.getSourceId()))).toList();
+        DedupConfig config = new DedupConfig(null, null, null);
+        filter = new BloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate());
+        // Half of the batch is already stored.
+        for (int i = 0; i < unsaved.size(); i += 2) {
+            SocialPost post = unsaved.get(i);
+            filter.put(post.getPlatform() + ":" + post.getSourceId());
+        }
+    }
+
+    @Benchmark
+    public Map<String, SocialPost> mergeByKey() {
+        Map<String, SocialPost> unique = new LinkedHashMap<>();
+        for (SocialPost post : unsaved) {
+            unique.putIfAbsent(post.getPlatform() + ":" + post.getSourceId(), post);
+        }
+        return unique;
+    }
+
+    @Benchmark
+    public void probeFilter(Blackhole blackhole) {
+        for (SocialPost post : unsaved) {
+            blackhole.consume(filter.mightContain(post.getPlatform() + ":" + post.getSourceId()));
+        }
+    }
+
+    @Benchmark
+    public Set<SocialPost> hashSetOfUnsavedPosts() {
+        return new HashSet<>(unsaved);
+    }
+
+    @Benchmark
+    public Set<SocialPost> hashSetOfSavedPosts() {
+        return new HashSet<>(saved);
+    }
+}
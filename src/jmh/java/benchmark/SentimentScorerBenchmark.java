@@ -0,0 +1,88 @@
+package benchmark;
+
+import config.SentimentConfig;
+import model.SocialPost;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import service.LexiconSentimentScorer;
+import service.SentimentService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of sentiment scoring over tweet-sized posts.
+ * <p>
+ * {@code scoreSingleThread} measures the scorer alone; {@code scoreBatchParallel} measures the ingest stage,
+ * scoring a batch of {@value #BATCH} posts on the service's fork-join pool. Both report posts per second.
+ * Posts are generated from a fixed seed and mix lexicon words, negations, intensifiers, hashtags and URLs.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SentimentScorerBenchmark {
+
+    static final int BATCH = 10_000;
+
+    private static final String[] WORDS = {"the", "launch", "was", "great", "terrible", "not", "very", "love",
+            "hate", "update", "today", "really", "awful", "amazing", "don't", "like", "new", "phone", "battery",
+            "slow", "fast", "but", "service", "happy", "angry", "kinda", "good", "bad", "#fail", "#win", "@support",
+            "https://t.co/abc123", "NEVER", "best", "worst", "meh", "price", "team", "thanks", "broken"};
+
+    private LexiconSentimentScorer scorer;
+    private SentimentService service;
+    private List<String> texts;
+
+    @Setup
+    public void setUp() {
+        scorer = new LexiconSentimentScorer();
+        service = new SentimentService(scorer, null, null, new SentimentConfig(null, null, false, null, null));
+        Random random = new Random(42);
+        texts = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            StringBuilder text = new StringBuilder();
+            int words = 12 + random.nextInt(24);
+            for (int w = 0; w < words; w++) {
+                text.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(10) == 0 ? "! " : " ");
+            }
+            texts.add(text.toString());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void scoreSingleThread(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(scorer.score(text));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<SocialPost> scoreBatchParallel(UnscoredPosts batch) {
+        service.scoreAll(batch.posts);
+        return batch.posts;
+    }
+
+    /**
+     * A fresh batch of unscored posts for every invocation, since scoring sets the score in place.
+     */
+    @State(Scope.Thread)
+    public static class UnscoredPosts {
+        List<SocialPost> posts;
+
+        @Setup(Level.Invocation)
+        public void setUp(SentimentScorerBenchmark benchmark) {
+            posts = new ArrayList<>(BATCH);
+            for (String text : benchmark.texts) {
+                posts.add(SocialPost.builder().content(text).build());
+            }
+        }
+    }
+}
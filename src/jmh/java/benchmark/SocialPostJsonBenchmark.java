@@ -0,0 +1,67 @@
+package benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import model.SocialPost;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing SocialPost lists as JSON.
+ * <p>
+ * {@code writeArray} is a listing or search response body: the whole list as one JSON array.
+ * {@code writeNdjson} is the export path: one document per post, each followed by a newline.
+ * Posts are scored and carry ids and audit timestamps, as they do when read back from the database.
+ * The ObjectMapper is configured like Spring Boot's, with ISO-8601 timestamps. Each operation is one whole
+ * list; run with {@code -prof gc} for allocation.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SocialPostJsonBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int listSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ObjectWriter ndjsonWriter;
+    private List<SocialPost> posts;
+
+    @Setup
+    public void setUp() {
+        Instant stored = Instant.parse("2026-10-17T12:00:00Z");
+        posts = Fixtures.posts(listSize, 0).stream().map(post -> {
+            SocialPost copy = post.withId(Long.parseLong(post.getSourceId())).withCreatedAt(stored).withUpdatedAt(stored);
+            copy.setSentimentScoreAndLabel((copy.getContent().length() % 21 - 10) / 10.0);
+            return copy;
+        }).toList();
+        ndjsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Benchmark
+    public byte[] writeArray() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public byte[] writeNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(posts.size() * 512);
+        for (SocialPost post : posts) {
+            out.write(ndjsonWriter.writeValueAsBytes(post));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+package benchmark;
+
+import client.TweetPage;
+import client.TweetResponseParser;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.SocialPost;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping one search response to SocialPost objects.
+ * <p>
+ * {@code domTree} is the previous path: the body is decoded to a String, read into a JsonNode tree and then
+ * mapped. {@code streaming} is {@link TweetResponseParser} reading the body bytes as a stream. Both start from
+ * the raw response bytes, as they arrive from the connection. Fixtures are search/recent responses with the
+ * fields the API returns by default plus public metrics and entities; run with {@code -prof gc} for allocation.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TweetResponseParserBenchmark {
+
+    @Param({"search-recent-10.json", "search-recent-100.json"})
+    public String fixture;
+
+    private byte[] body;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TweetResponseParser parser = new TweetResponseParser(new JsonFactory());
+
+    @Setup
+    public void setUp() throws IOException {
+        body = Fixtures.load(fixture);
+        if (domTree().size() != streaming().getPosts().size()) {
+            throw new IllegalStateException("Parsers disagree on " + fixture);
+        }
+    }
+
+    @Benchmark
+    public TweetPage streaming() throws IOException {
+        return parser.parse(new ByteArrayInputStream(body));
+    }
+
+    @Benchmark
+    public List<SocialPost> domTree() {
+        try {
+            JsonNode root = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+            root.path("meta").path("next_token").asText(null);
+            root.path("meta").path("newest_id").asText(null);
+            return mapTree(root);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * The mapping TwitterApiClient used before the streaming parser.
+     */
+    private static List<SocialPost> mapTree(JsonNode root) {
+        List<SocialPost> posts = new ArrayList<>();
+        JsonNode data = root.path("data");
+        JsonNode users = root.path("includes").path("users");
+
+        HashMap<String, String> userMap = new HashMap<>();
+        if (users.isArray()) {
+            for (JsonNode user : users) {
+                userMap.put(user.path("id").asText(), user.path("username").asText());
+            }
+        }
+
+        if (data.isArray()) {
+            for (JsonNode tweet : data) {
+                String tweetId = tweet.path("id").asText();
+                String authorId = tweet.path("author_id").asText();
+                String username = userMap.getOrDefault(authorId, "");
+                SocialPost post = new SocialPost();
+                post.setPlatform("twitter");
+                post.setSourceId(tweetId);
+                post.setAuthor(username);
+                post.setContent(tweet.path("text").asText());
+                post.setPostTimestamp(OffsetDateTime.parse(tweet.path("created_at").asText()).toInstant());
+                post.setUrl(String.format("https://twitter.com/%s/status/%s", username, tweetId));
+                posts.add(post);
+            }
+        }
+        return posts;
+    }
+}
@@ -0,0 +1,69 @@
+package loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the response times and statuses of one endpoint and summarises them after the run.
+ * <p>
+ * Every sample is kept, so percentiles are exact rather than bucketed. A run of a few minutes produces at most
+ * a few million samples, which is a few tens of megabytes.
+ * </p>
+ */
+class LatencyRecorder {
+
+    private final String name;
+    private long[] nanos = new long[1 << 16];
+    private int count;
+    private long errors;
+    private final Map<String, Long> statuses = new TreeMap<>();
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param elapsedNanos response time
+     * @param status       HTTP status, or the exception's simple name if the request failed
+     * @param ok           whether the request succeeded
+     */
+    synchronized void record(long elapsedNanos, String status, boolean ok) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = elapsedNanos;
+        if (!ok) {
+            errors++;
+        }
+        statuses.merge(status, 1L, Long::sum);
+    }
+
+    /**
+     * @param seconds length of the measured period
+     * @return one formatted row of the report
+     */
+    synchronized String summary(double seconds) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        return String.format("%-8s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f   %s", name, count, errors, count / seconds,
+                millis(sorted, 0.50), millis(sorted, 0.99), millis(sorted, 0.999),
+                sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6, statuses);
+    }
+
+    static String header() {
+        return String.format("%-8s %9s %8s %9s %9s %9s %9s %9s   %s", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p99 ms", "p999 ms", "max ms", "statuses");
+    }
+
+    /**
+     * Nearest-rank percentile.
+     */
+    private static double millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+}
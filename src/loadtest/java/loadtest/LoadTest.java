@@ -0,0 +1,314 @@
+package loadtest;
+
+import com.example.TrendAnalyzerAPI.TrendAnalyzerApiApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test of the API against {@link StubSearchApi} and an embedded PostgreSQL.
+ * <p>
+ * Starts PostgreSQL (or uses the one given by {@code --jdbc-url}), the search stub and the application on a
+ * random port, primes one fetch per keyword, and then runs closed-loop clients against three endpoints at once:
+ * </p>
+ * <ul>
+ *     <li>{@code fetch}: {@code POST /api/fetch} for a random keyword. The job is then polled until it
+ *     finishes, and its submit-to-finish time is reported as {@code fetch-job}.</li>
+ *     <li>{@code search}: {@code GET /api/search} for a random word, by relevance or recency, following the
+ *     next cursor for up to three pages.</li>
+ *     <li>{@code posts}: {@code GET /api/posts}, following the next cursor for up to five pages.</li>
+ * </ul>
+ * <p>
+ * Requests that start during the warm-up are not recorded. The report gives throughput and p50, p99 and
+ * p999 latency per endpoint, the stub's request counts, and what the application stored.
+ * </p>
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--duration=60 --search-clients=8"
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("duration", "60"),
+            Map.entry("warmup", "15"),
+            Map.entry("fetch-clients", "2"),
+            Map.entry("search-clients", "8"),
+            Map.entry("posts-clients", "8"),
+            Map.entry("keywords", "20"),
+            Map.entry("api-latency-ms", "150"),
+            Map.entry("tweets-per-second", "20"),
+            Map.entry("history", "2000"),
+            Map.entry("rate-limit", "100000"),
+            Map.entry("jdbc-url", ""),
+            Map.entry("jdbc-user", "postgres"),
+            Map.entry("jdbc-password", ""));
+
+    private static final String[] KEYWORDS = {"android", "iphone", "spring", "java", "kotlin", "postgres", "kafka",
+            "docker", "kubernetes", "rust", "python", "linux", "github", "openai", "tesla", "bitcoin", "nvidia",
+            "playstation", "netflix", "spotify", "uber", "airbnb", "slack", "zoom", "figma", "stripe", "shopify",
+            "twitch", "reddit", "discord"};
+    private static final String[] SEARCH_TERMS = {"great", "terrible", "battery", "update", "crashing", "release",
+            "support", "price", "upgrade", "launch", "broken", "amazing", "slow", "fast", "disappointed"};
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final LatencyRecorder fetch = new LatencyRecorder("fetch");
+    private final LatencyRecorder fetchJob = new LatencyRecorder("fetch-job");
+    private final LatencyRecorder search = new LatencyRecorder("search");
+    private final LatencyRecorder posts = new LatencyRecorder("posts");
+    private String baseUrl;
+    private List<String> keywords;
+    private long measureFrom;
+    private long measureUntil;
+
+    LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = arg.startsWith("--") && eq > 2 ? arg.substring(2, eq) : null;
+            if (name == null || !DEFAULTS.containsKey(name)) {
+                System.err.println("Unknown option " + arg + "; options are " + DEFAULTS.keySet());
+                System.exit(2);
+            }
+            options.put(name, arg.substring(eq + 1));
+        }
+        new LoadTest(options).run();
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = options.get("jdbc-url");
+        String jdbcUser = options.get("jdbc-user");
+        String jdbcPassword = options.get("jdbc-password");
+        if (jdbcUrl.isEmpty()) {
+            postgres = EmbeddedPostgres.builder().start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+            jdbcUser = "postgres";
+            jdbcPassword = "";
+        }
+        StubSearchApi stub = new StubSearchApi(intOption("api-latency-ms"),
+                Double.parseDouble(options.get("tweets-per-second")), intOption("history"), intOption("rate-limit"));
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplication(TrendAnalyzerApiApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + jdbcUser,
+                "--spring.datasource.password=" + jdbcPassword,
+                "--twitter.api.base-url=" + stub.baseUrl(),
+                "--twitter.api.bearer-token=load-test",
+                "--twitter.api.rate-limit-requests=" + options.get("rate-limit"),
+                "--twitter.api.rate-limit-burst=" + Math.max(5, intOption("rate-limit") / 900),
+                "--polling.enabled=false",
+                "--logging.level.client=WARN",
+                "--logging.level.service=WARN");
+        try {
+            baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            keywords = List.of(KEYWORDS).subList(0, Math.min(KEYWORDS.length, intOption("keywords")));
+            prime();
+            drive();
+            report(context, stub);
+        } finally {
+            context.close();
+            stub.close();
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    /**
+     * Fetches every keyword once, so the read endpoints have posts to return from the start.
+     */
+    private void prime() throws Exception {
+        long started = System.nanoTime();
+        List<String> jobs = new ArrayList<>();
+        for (String keyword : keywords) {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/fetch?keyword=" + encode(keyword)))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            jobs.add(response.headers().firstValue("Location").orElseThrow());
+        }
+        for (String job : jobs) {
+            awaitJob(job);
+        }
+        System.out.printf("Primed %d keywords in %.1f s%n", keywords.size(), (System.nanoTime() - started) / 1e9);
+    }
+
+    private void drive() throws InterruptedException {
+        long warmupNanos = TimeUnit.SECONDS.toNanos(intOption("warmup"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(intOption("duration"));
+        measureFrom = System.nanoTime() + warmupNanos;
+        measureUntil = measureFrom + durationNanos;
+        System.out.printf("Warming up for %d s, then measuring for %d s%n", intOption("warmup"), intOption("duration"));
+
+        List<Thread> clients = new ArrayList<>();
+        clients.addAll(start("fetch", intOption("fetch-clients"), this::fetchOnce));
+        clients.addAll(start("search", intOption("search-clients"), this::searchOnce));
+        clients.addAll(start("posts", intOption("posts-clients"), this::listOnce));
+        for (Thread client : clients) {
+            client.join();
+        }
+    }
+
+    private List<Thread> start(String name, int count, Runnable iteration) {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < measureUntil) {
+                    iteration.run();
+                }
+            }, "load-" + name + "-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        return threads;
+    }
+
+    private void fetchOnce() {
+        String keyword = keywords.get(ThreadLocalRandom.current().nextInt(keywords.size()));
+        long submitted = System.nanoTime();
+        HttpResponse<String> response = timed(fetch, HttpRequest.newBuilder(uri("/api/fetch?keyword=" + encode(keyword)))
+                .POST(HttpRequest.BodyPublishers.noBody()));
+        if (response == null || response.statusCode() != 202) {
+            return;
+        }
+        String job = response.headers().firstValue("Location").orElseThrow();
+        try {
+            String status = awaitJob(job);
+            record(fetchJob, submitted, status, "SUCCEEDED".equals(status));
+        } catch (IOException | RuntimeException ex) {
+            record(fetchJob, submitted, ex.getClass().getSimpleName(), false);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void searchOnce() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String term = random.nextBoolean()
+                ? SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]
+                : keywords.get(random.nextInt(keywords.size()));
+        String path = "/api/search?q=" + encode(term) + "&sort=" + (random.nextInt(4) == 0 ? "RECENT" : "RELEVANCE");
+        followPages(search, path, 1 + random.nextInt(3));
+    }
+
+    private void listOnce() {
+        followPages(posts, "/api/posts?size=50", 1 + ThreadLocalRandom.current().nextInt(5));
+    }
+
+    private void followPages(LatencyRecorder recorder, String path, int pages) {
+        String cursor = null;
+        for (int page = 0; page < pages; page++) {
+            String url = cursor == null ? path : path + "&cursor=" + encode(cursor);
+            HttpResponse<String> response = timed(recorder, HttpRequest.newBuilder(uri(url)).GET());
+            if (response == null || response.statusCode() != 200) {
+                return;
+            }
+            cursor = response.headers().firstValue("X-Next-Cursor").orElse(null);
+            if (cursor == null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Polls a fetch job until it finishes.
+     *
+     * @return the job's final status
+     */
+    private String awaitJob(String location) throws IOException, InterruptedException {
+        while (true) {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri(location)).GET());
+            String status = objectMapper.readTree(response.body()).path("status").asText();
+            if ("SUCCEEDED".equals(status) || "FAILED".equals(status)) {
+                return status;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+    }
+
+    private HttpResponse<String> timed(LatencyRecorder recorder, HttpRequest.Builder request) {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(request);
+            int status = response.statusCode();
+            record(recorder, started, Integer.toString(status), status < 400);
+            return response;
+        } catch (IOException ex) {
+            record(recorder, started, ex.getClass().getSimpleName(), false);
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void record(LatencyRecorder recorder, long started, String status, boolean ok) {
+        if (started >= measureFrom && started < measureUntil) {
+            recorder.record(System.nanoTime() - started, status, ok);
+        }
+    }
+
+    private void report(ConfigurableApplicationContext context, StubSearchApi stub) {
+        double seconds = intOption("duration");
+        System.out.println();
+        System.out.println(LatencyRecorder.header());
+        for (LatencyRecorder recorder : List.of(fetch, fetchJob, search, posts)) {
+            System.out.println(recorder.summary(seconds));
+        }
+        System.out.println();
+        Long stored = context.getBean(JdbcTemplate.class).queryForObject("SELECT count(*) FROM social_post", Long.class);
+        Collection<Timer> ingest = context.getBean(MeterRegistry.class).find("ingest.duration").tag("path", "fetch").timers();
+        long runs = ingest.stream().mapToLong(Timer::count).sum();
+        double runMillis = ingest.stream().mapToDouble(timer -> timer.totalTime(TimeUnit.MILLISECONDS)).sum();
+        System.out.printf("Stub API: %d requests, %d tweets served, %d throttled%n",
+                stub.requests(), stub.tweetsServed(), stub.throttled());
+        System.out.printf("Stored posts: %d%n", stored);
+        System.out.printf("Fetch runs: %d, mean %.1f ms%n", runs, runs == 0 ? 0.0 : runMillis / runs);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private int intOption(String name) {
+        return Integer.parseInt(options.get(name));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
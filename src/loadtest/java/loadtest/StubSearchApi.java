@@ -0,0 +1,311 @@
+package loadtest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the v2 {@code GET /2/tweets/search/recent} endpoint.
+ * <p>
+ * Every query gets its own timeline of synthetic tweets: a backlog of {@code history} tweets when it is first
+ * searched, then {@code tweetsPerSecond} new ones per second. Searches return the newest tweets first, honour
+ * {@code since_id} and {@code max_results}, and page through older tweets with {@code next_token}, so a first
+ * fetch paginates through the backlog while later fetches only see what arrived since. Tweet text mixes the
+ * query with everyday words, hashtags, mentions and links, and each page expands its authors in
+ * {@code includes.users}.
+ * </p>
+ * <p>
+ * Responses carry {@code x-rate-limit-*} headers for a 15-minute window shared by all queries; a request over
+ * the limit gets a 429. Each response is delayed by about {@code latencyMillis}, randomly between half and
+ * one and a half times that, to stand in for the network and the API's own processing time.
+ * </p>
+ */
+class StubSearchApi implements AutoCloseable {
+
+    static final String PATH = "/2/tweets/search/recent";
+
+    private static final long WINDOW_SECONDS = 900;
+    private static final long KEYWORD_ID_SPACING = 1_000_000_000_000L;
+    private static final long BASE_ID = 1_800_000_000_000_000_000L;
+    private static final int AUTHORS = 5000;
+
+    private static final String[] WORDS = {"the", "new", "release", "is", "great", "terrible", "not", "very",
+            "love", "hate", "update", "today", "really", "awful", "amazing", "don't", "like", "phone", "battery",
+            "slow", "fast", "but", "service", "happy", "angry", "kinda", "good", "bad", "best", "worst", "meh",
+            "price", "team", "thanks", "broken", "launch", "just", "tried", "finally", "again", "why", "does",
+            "anyone", "know", "how", "to", "fix", "this", "works", "for", "me", "with", "after", "week", "using",
+            "support", "keeps", "crashing", "smooth", "upgrade", "waiting", "honestly", "impressed", "disappointed"};
+    private static final String[] HASHTAGS = {"#tech", "#fail", "#win", "#news", "#dev", "#launch", "#help"};
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final long latencyMillis;
+    private final double tweetsPerSecond;
+    private final int history;
+    private final int rateLimit;
+
+    private final Map<String, Timeline> timelines = new ConcurrentHashMap<>();
+    private final AtomicInteger nextKeyword = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong tweetsServed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private long windowEnd;
+    private int windowRequests;
+
+    /**
+     * @param latencyMillis   mean delay of each response
+     * @param tweetsPerSecond new tweets per query and second
+     * @param history         tweets each query already has when first searched
+     * @param rateLimit       requests allowed per 15-minute window
+     */
+    StubSearchApi(long latencyMillis, double tweetsPerSecond, int history, int rateLimit) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.tweetsPerSecond = tweetsPerSecond;
+        this.history = history;
+        this.rateLimit = rateLimit;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return the value for {@code twitter.api.base-url}
+     */
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/2";
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long tweetsServed() {
+        return tweetsServed.get();
+    }
+
+    long throttled() {
+        return throttled.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            Map<String, String> params = queryParams(exchange.getRequestURI().getRawQuery());
+            long nowSeconds = Instant.now().getEpochSecond();
+            int remaining;
+            long reset;
+            synchronized (this) {
+                if (nowSeconds >= windowEnd) {
+                    windowEnd = nowSeconds + WINDOW_SECONDS;
+                    windowRequests = 0;
+                }
+                remaining = rateLimit - ++windowRequests;
+                reset = windowEnd;
+            }
+            exchange.getResponseHeaders().set("x-rate-limit-limit", Integer.toString(rateLimit));
+            exchange.getResponseHeaders().set("x-rate-limit-remaining", Integer.toString(Math.max(0, remaining)));
+            exchange.getResponseHeaders().set("x-rate-limit-reset", Long.toString(reset));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            delay();
+            if (remaining < 0) {
+                throttled.incrementAndGet();
+                send(exchange, 429, "{\"title\":\"Too Many Requests\",\"status\":429}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            String query = params.get("query");
+            if (query == null || query.isBlank()) {
+                send(exchange, 400, "{\"title\":\"Invalid Request\",\"status\":400}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            send(exchange, 200, page(query, params));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Renders one page of the query's timeline, newest first.
+     */
+    private byte[] page(String query, Map<String, String> params) throws IOException {
+        Timeline timeline = timelines.computeIfAbsent(query, q -> new Timeline(nextKeyword.getAndIncrement()));
+        long newest = timeline.newestSequence();
+        long from = params.containsKey("next_token") ? Long.parseLong(params.get("next_token")) : newest;
+        long oldest = Math.max(0, params.containsKey("since_id")
+                ? Long.parseLong(params.get("since_id")) - timeline.baseId + 1 : 0);
+        int maxResults = Math.max(10, Math.min(100, Integer.parseInt(params.getOrDefault("max_results", "10"))));
+        long to = Math.max(oldest, from - maxResults + 1);
+        int count = (int) Math.max(0, from - to + 1);
+        tweetsServed.addAndGet(count);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512 + count * 400);
+        Set<Integer> authors = new LinkedHashSet<>();
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            if (count > 0) {
+                json.writeArrayFieldStart("data");
+                for (long sequence = from; sequence >= to; sequence--) {
+                    int author = writeTweet(json, query, timeline, sequence);
+                    authors.add(author);
+                }
+                json.writeEndArray();
+                json.writeObjectFieldStart("includes");
+                json.writeArrayFieldStart("users");
+                for (int author : authors) {
+                    json.writeStartObject();
+                    json.writeStringField("id", Integer.toString(1_000_000 + author));
+                    json.writeStringField("name", "User " + author);
+                    json.writeStringField("username", "user_" + author);
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeObjectFieldStart("meta");
+            json.writeNumberField("result_count", count);
+            if (count > 0) {
+                json.writeStringField("newest_id", Long.toString(timeline.baseId + from));
+                json.writeStringField("oldest_id", Long.toString(timeline.baseId + to));
+            }
+            if (count > 0 && to > oldest) {
+                json.writeStringField("next_token", Long.toString(to - 1));
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a tweet whose content depends only on its id, so re-fetching it yields the same post.
+     *
+     * @return the author's number
+     */
+    private int writeTweet(JsonGenerator json, String query, Timeline timeline, long sequence) throws IOException {
+        long id = timeline.baseId + sequence;
+        Random random = new Random(id);
+        int author = random.nextInt(AUTHORS);
+        StringBuilder text = new StringBuilder();
+        int words = 8 + random.nextInt(24);
+        int keywordAt = random.nextInt(words);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            text.append(w == keywordAt ? query : WORDS[random.nextInt(WORDS.length)]);
+        }
+        if (random.nextInt(3) == 0) {
+            text.append(' ').append(HASHTAGS[random.nextInt(HASHTAGS.length)]);
+        }
+        if (random.nextInt(4) == 0) {
+            text.append(" @user_").append(random.nextInt(AUTHORS));
+        }
+        if (random.nextInt(5) == 0) {
+            text.append(" https://t.co/").append(Long.toString(random.nextLong() & Long.MAX_VALUE, 36), 0, 10);
+        }
+
+        json.writeStartObject();
+        json.writeStringField("id", Long.toString(id));
+        json.writeStringField("author_id", Integer.toString(1_000_000 + author));
+        json.writeStringField("created_at", timeline.createdAt(sequence).toString());
+        json.writeStringField("text", text.toString());
+        json.writeArrayFieldStart("edit_history_tweet_ids");
+        json.writeString(Long.toString(id));
+        json.writeEndArray();
+        json.writeEndObject();
+        return author;
+    }
+
+    private void delay() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        long micros = (long) (latencyMillis * 1000 * (0.5 + ThreadLocalRandom.current().nextDouble()));
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * One query's tweets, numbered from 0 (oldest) upwards; a tweet's id is the timeline's base id plus its number.
+     */
+    private class Timeline {
+
+        final long baseId;
+        final long startedAt = System.nanoTime();
+        final Instant startedAtInstant = Instant.now();
+
+        Timeline(int keyword) {
+            this.baseId = BASE_ID + keyword * KEYWORD_ID_SPACING;
+        }
+
+        long newestSequence() {
+            double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+            return history - 1 + (long) (elapsedSeconds * tweetsPerSecond);
+        }
+
+        /**
+         * Spreads the backlog over the hour before the first search, and later tweets at the arrival rate.
+         */
+        Instant createdAt(long sequence) {
+            if (sequence < history) {
+                long secondsBefore = (history - sequence) * 3600L / Math.max(1, history);
+                return startedAtInstant.minusSeconds(secondsBefore);
+            }
+            return startedAtInstant.plusMillis((long) ((sequence - history) * 1000 / Math.max(tweetsPerSecond, 1e-9)));
+        }
+    }
+}
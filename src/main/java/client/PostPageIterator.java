@@ -0,0 +1,39 @@
+package client;
+
+import model.SocialPost;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Iterator over the pages of a paginated platform search, as returned by a {@link SocialSource}.
+ * <p>
+ * Pages are handed out newest first. Callers should close the iterator when they stop early, so a page fetched
+ * ahead of them is cancelled.
+ * </p>
+ */
+public interface PostPageIterator extends Iterator<List<SocialPost>>, AutoCloseable {
+
+    /**
+     * @return number of pages requested from the platform so far
+     */
+    int getPagesRequested();
+
+    /**
+     * @return the newest post id of the whole result set, used as the keyword's next checkpoint; null before the
+     *         first page or if the results were empty
+     */
+    Long getNewestId();
+
+    /**
+     * @return true once the page the platform reported as the last of the result set has been handed out,
+     *         as opposed to iteration stopping at a page or post budget
+     */
+    boolean isReachedEnd();
+
+    /**
+     * Cancels a page fetched ahead, if any, and ends the iteration.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,32 @@
+package client;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of the platform's request quota as last reported by rate-limit response headers.
+ */
+@Value
+public class RateLimitStatus {
+
+    /**
+     * Requests allowed per window.
+     */
+    int limit;
+
+    /**
+     * Requests left in the current window, less those already reserved by in-flight calls.
+     */
+    int remaining;
+
+    /**
+     * When the current window ends and the quota is refilled.
+     */
+    Instant resetAt;
+
+    /**
+     * Length of a rate-limit window.
+     */
+    long windowMillis;
+}
@@ -0,0 +1,169 @@
+package client;
+
+import exception.TwitterApiException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Paces calls to a rate-limited API from its {@code x-rate-limit-*} response headers.
+ * <p>
+ * The requests left in the current window are spread evenly over the time until its reset, so a burst of
+ * callers cannot drain the quota early and then stall for the rest of the window. Idle time builds up credit
+ * for at most {@code burst} back-to-back calls. When the quota is used up, callers wait for the reset instead of
+ * failing; only a wait longer than {@code maxWaitMillis} is reported as an error.
+ * Until the first response arrives, the configured limit and window are assumed.
+ * </p>
+ */
+@Slf4j
+public class RateLimitTracker {
+
+    private static final long RESET_MARGIN_MILLIS = 1000;
+
+    private final long windowMillis;
+    private final int burst;
+    private final long maxWaitMillis;
+    private final Clock clock;
+
+    private int limit;
+    private int remaining;
+    private long resetAtMillis;
+    private long nextSlotMillis;
+
+    /**
+     * @param limit         requests per window assumed until the API reports its own limit
+     * @param windowMillis  length of a rate-limit window
+     * @param burst         calls that may be made back to back after an idle period
+     * @param maxWaitMillis longest a caller waits for quota before the call fails
+     * @param clock         time source
+     */
+    public RateLimitTracker(int limit, long windowMillis, int burst, long maxWaitMillis, Clock clock) {
+        this.limit = Math.max(1, limit);
+        this.remaining = this.limit;
+        this.windowMillis = windowMillis;
+        this.burst = Math.max(1, burst);
+        this.maxWaitMillis = maxWaitMillis;
+        this.clock = clock;
+        this.resetAtMillis = clock.millis() + windowMillis;
+    }
+
+    /**
+     * Blocks until a call may be made within the quota, and reserves it.
+     *
+     * @throws TwitterApiException with status 429 if the quota would not allow a call within the maximum wait
+     */
+    public void acquire() {
+        long waited = 0;
+        while (true) {
+            long wait = reserve(clock.millis());
+            if (wait == 0) {
+                if (waited > 0) {
+                    log.debug("Waited {} ms for rate-limit quota", waited);
+                }
+                return;
+            }
+            if (waited + wait > maxWaitMillis) {
+                throw new TwitterApiException(429, "Rate limit quota exhausted until " + Instant.ofEpochMilli(resetAtMillis()), null);
+            }
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new TwitterApiException(503, "Interrupted while waiting for rate-limit quota", null, ex);
+            }
+            waited += wait;
+        }
+    }
+
+    /**
+     * Books the next call slot if one is available now.
+     *
+     * @return 0 if the call was reserved, otherwise how long to wait before asking again
+     */
+    synchronized long reserve(long now) {
+        if (now >= resetAtMillis) {
+            // The window has rolled over without a response telling us so; assume the quota was refilled.
+            remaining = limit;
+            resetAtMillis = now + windowMillis;
+        }
+        if (remaining <= 0) {
+            return resetAtMillis - now + RESET_MARGIN_MILLIS;
+        }
+        long spacing = (resetAtMillis - now) / remaining;
+        long slot = Math.max(nextSlotMillis, now - burst * spacing);
+        if (slot > now) {
+            return slot - now;
+        }
+        nextSlotMillis = slot + spacing;
+        remaining--;
+        return 0;
+    }
+
+    /**
+     * Adopts the quota reported by a response.
+     *
+     * @param headers response headers; missing or malformed rate-limit headers are ignored
+     */
+    public synchronized void update(HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+        Long reportedLimit = longHeader(headers, "x-rate-limit-limit");
+        Long reportedRemaining = longHeader(headers, "x-rate-limit-remaining");
+        Long reportedReset = longHeader(headers, "x-rate-limit-reset");
+        if (reportedLimit != null && reportedLimit > 0) {
+            limit = reportedLimit.intValue();
+        }
+        boolean newWindow = reportedReset != null && reportedReset * 1000 != resetAtMillis;
+        if (newWindow) {
+            resetAtMillis = reportedReset * 1000;
+            nextSlotMillis = 0;
+        }
+        if (reportedRemaining != null) {
+            // Within a window the local count already includes reservations of calls still in flight, which the
+            // response may not reflect yet; only a lower reported count (quota shared with other clients) wins.
+            remaining = newWindow ? reportedRemaining.intValue() : (int) Math.min(remaining, reportedRemaining);
+        }
+    }
+
+    /**
+     * Records a 429 response: no calls are made until the reset it reports, or its Retry-After delay.
+     *
+     * @param headers response headers of the 429
+     */
+    public synchronized void onTooManyRequests(HttpHeaders headers) {
+        update(headers);
+        remaining = 0;
+        Long retryAfterSeconds = headers == null ? null : longHeader(headers, HttpHeaders.RETRY_AFTER);
+        if (retryAfterSeconds != null) {
+            resetAtMillis = Math.max(resetAtMillis, clock.millis() + retryAfterSeconds * 1000);
+        } else if (headers == null || headers.getFirst("x-rate-limit-reset") == null) {
+            resetAtMillis = Math.max(resetAtMillis, clock.millis() + windowMillis);
+        }
+    }
+
+    /**
+     * @return the current quota
+     */
+    public synchronized RateLimitStatus status() {
+        return new RateLimitStatus(limit, remaining, Instant.ofEpochMilli(resetAtMillis), windowMillis);
+    }
+
+    private synchronized long resetAtMillis() {
+        return resetAtMillis;
+    }
+
+    private static Long longHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
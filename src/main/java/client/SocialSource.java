@@ -0,0 +1,38 @@
+package client;
+
+/**
+ * A platform that posts can be searched on by keyword, such as Twitter or Reddit.
+ * <p>
+ * Every source registered as a bean takes part in keyword fetches and polls: a fetch asks all sources at once,
+ * each on its own bulkhead, and stores their results together. Sources map results to SocialPost objects whose
+ * platform is {@link #getPlatform()}, and express their checkpoint as a post id that grows with recency.
+ * </p>
+ */
+public interface SocialSource {
+
+    /**
+     * @return the platform name stored with each post, lower case (e.g. "twitter")
+     */
+    String getPlatform();
+
+    /**
+     * Searches posts by keyword that are newer than the given checkpoint, within the source's configured page
+     * and post budgets, fetching each next page while the caller handles the current one.
+     *
+     * @param keyword the keyword to search for
+     * @param sinceId only posts with a higher id are returned; null for no lower bound
+     * @return an iterator handing out one page of posts at a time
+     */
+    PostPageIterator search(String keyword, Long sinceId);
+
+    /**
+     * Searches the newest posts by keyword, requesting each page only when the caller asks for it, so a caller
+     * that stops at a post it already has spends no request on older pages.
+     *
+     * @param keyword the keyword to search for
+     * @param sinceId only posts with a higher id are returned; null for no lower bound
+     * @param maxPages maximum number of pages to request
+     * @return an iterator handing out one page of posts at a time
+     */
+    PostPageIterator searchNewest(String keyword, Long sinceId, int maxPages);
+}
@@ -0,0 +1,55 @@
+package client;
+
+import lombok.Value;
+
+/**
+ * Snapshot of filtered-stream ingestion counters since startup.
+ */
+@Value
+public class StreamStatus {
+
+    /**
+     * Whether a stream connection is currently open.
+     */
+    boolean connected;
+
+    /**
+     * Posts read from the stream into the buffer.
+     */
+    long received;
+
+    /**
+     * Posts handed to the database writer.
+     */
+    long written;
+
+    /**
+     * Posts the writer stored as new, i.e. written less duplicates.
+     */
+    long stored;
+
+    /**
+     * Posts waiting in the buffer.
+     */
+    int buffered;
+
+    /**
+     * Capacity of the buffer.
+     */
+    int bufferCapacity;
+
+    /**
+     * Connections opened after the first one.
+     */
+    long reconnects;
+
+    /**
+     * Connections dropped because the buffer stayed full for {@code stream.backpressure-timeout-millis}.
+     */
+    long stalls;
+
+    /**
+     * Batch writes that failed and were retried.
+     */
+    long writeFailures;
+}
@@ -0,0 +1,36 @@
+package client;
+
+import lombok.Value;
+import model.SocialPost;
+
+import java.util.List;
+
+/**
+ * One page of a Twitter API v2 search response, mapped to SocialPost objects.
+ */
+@Value
+public class TweetPage {
+
+    /**
+     * Posts contained in this page, in the order returned by the API.
+     */
+    List<SocialPost> posts;
+
+    /**
+     * The meta.next_token of the response, or null if this is the last page.
+     */
+    String nextToken;
+
+    /**
+     * The meta.newest_id of the response: the highest tweet id in the whole result set, reported on every page.
+     * Null if the response had no tweets or the id is not numeric.
+     */
+    Long newestId;
+
+    /**
+     * @return true if the API reported a further page after this one
+     */
+    public boolean hasNext() {
+        return nextToken != null && !nextToken.isEmpty();
+    }
+}
@@ -0,0 +1,182 @@
+package client;
+
+import exception.TwitterApiException;
+import model.SocialPost;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Iterator over the pages of a paginated tweet search, following meta.next_token.
+ * <p>
+ * Pages are handed out as soon as they arrive. While the caller processes page n, page n+1 is
+ * already being fetched in the background, so at most two pages are held at any time regardless
+ * of how many pages the search spans. Iteration stops at the configured page or post budget.
+ * </p>
+ * Callers should close the iterator when they stop early: closing interrupts an in-flight prefetch, so it stops
+ * waiting for rate-limit quota and does not send its request if it has not been sent yet.
+ * Callers that decide page by page whether to continue can turn prefetching off, so no request is spent on a
+ * page they will not read.
+ */
+public class TweetPageIterator implements PostPageIterator {
+
+    /**
+     * Fetches a single page for the given next_token (null for the first page) and page size.
+     */
+    @FunctionalInterface
+    interface PageFetcher {
+        TweetPage fetch(String nextToken, int maxResults) throws TwitterApiException;
+    }
+
+    private final PageFetcher fetcher;
+    private final ExecutorService executor;
+    private final int pageSize;
+    private final int maxPages;
+    private final int maxPosts;
+    private final boolean prefetch;
+
+    private Future<TweetPage> pending;
+    private String deferredToken;
+    private boolean deferred;
+    private int pagesRequested;
+    private int postsReturned;
+    private Long newestId;
+    private boolean reachedEnd;
+    private boolean closed;
+
+    TweetPageIterator(PageFetcher fetcher, ExecutorService executor, int pageSize, int maxPages, int maxPosts) {
+        this(fetcher, executor, pageSize, maxPages, maxPosts, true);
+    }
+
+    TweetPageIterator(PageFetcher fetcher, ExecutorService executor, int pageSize, int maxPages, int maxPosts,
+                      boolean prefetch) {
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.maxPosts = maxPosts;
+        this.prefetch = prefetch;
+        if (maxPages > 0 && maxPosts > 0) {
+            requestPage(null);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !closed && (pending != null || deferred);
+    }
+
+    /**
+     * Returns the next page, blocking until it has arrived, and starts fetching the page after it
+     * (or, without prefetching, remembers where it starts).
+     *
+     * @return the posts of the next page, trimmed to the remaining post budget
+     * @throws TwitterApiException if fetching the page failed
+     */
+    @Override
+    public List<SocialPost> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TweetPage page;
+        if (pending != null) {
+            page = await(pending);
+            pending = null;
+        } else {
+            deferred = false;
+            page = fetcher.fetch(deferredToken, maxResults());
+        }
+
+        if (newestId == null) {
+            newestId = page.getNewestId();
+        }
+        List<SocialPost> posts = page.getPosts();
+        int remaining = maxPosts - postsReturned;
+        boolean trimmed = posts.size() > remaining;
+        if (trimmed) {
+            posts = posts.subList(0, remaining);
+        }
+        reachedEnd = !page.hasNext() && !trimmed;
+        postsReturned += posts.size();
+
+        if (page.hasNext() && pagesRequested < maxPages && postsReturned < maxPosts) {
+            requestPage(page.getNextToken());
+        }
+        return posts;
+    }
+
+    /**
+     * @return number of pages requested from the API so far
+     */
+    @Override
+    public int getPagesRequested() {
+        return pagesRequested;
+    }
+
+    /**
+     * @return the newest tweet id of the whole result set, as reported with the first page; null before the
+     *         first page or if the results were empty
+     */
+    @Override
+    public Long getNewestId() {
+        return newestId;
+    }
+
+    /**
+     * @return true once a page has been handed out that the API reported as the last of the result set,
+     *         as opposed to iteration stopping at the page or post budget
+     */
+    @Override
+    public boolean isReachedEnd() {
+        return reachedEnd;
+    }
+
+    /**
+     * Interrupts an in-flight prefetch, if any, and ends the iteration.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        deferred = false;
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    private void requestPage(String nextToken) {
+        pagesRequested++;
+        if (prefetch) {
+            int maxResults = maxResults();
+            pending = executor.submit(() -> fetcher.fetch(nextToken, maxResults));
+        } else {
+            deferredToken = nextToken;
+            deferred = true;
+        }
+    }
+
+    private int maxResults() {
+        return Math.max(10, Math.min(pageSize, maxPosts - postsReturned));
+    }
+
+    private static TweetPage await(Future<TweetPage> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new TwitterApiException(500, "Interrupted while waiting for tweet page", null, ex);
+        } catch (CancellationException ex) {
+            throw new TwitterApiException(500, "Tweet page fetch was cancelled", null, ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof TwitterApiException apiException) {
+                throw apiException;
+            }
+            throw new TwitterApiException(500, String.valueOf(ex.getCause()), null, ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import model.PostEntities;
+import model.SocialPost;
+import util.EntityExtractor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps a Twitter API v2 search response to a {@link TweetPage} straight from the JSON token stream.
+ * <p>
+ * The body is read once, without buffering it as a String or building a JsonNode tree. Tweets are turned into
+ * SocialPost objects as they are read, and {@code includes.users} is collected in the same pass. Authors and
+ * URLs are filled in after the last token, so it does not matter whether {@code includes} comes before or after
+ * {@code data}. Fields the mapping does not use are skipped without being materialized. A tweet without an
+ * {@code id} or a valid {@code created_at} fails the whole document with an IOException.
+ * </p>
+ * <p>
+ * Hashtags, mentions and expanded links are taken from each tweet's {@code entities} when the request asked
+ * for them; otherwise {@link SocialPost#getEntities()} stays null and they are extracted from the text on insert.
+ * </p>
+ * <p>
+ * Filtered-stream messages have the same shape with a single tweet object as {@code data}, and map to a page
+ * of one post without a next token.
+ * </p>
+ */
+public class TweetResponseParser {
+
+    static final String PLATFORM = "twitter";
+
+    private final JsonFactory jsonFactory;
+
+    public TweetResponseParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Parses a response body while it is read from the stream, closing the stream afterwards.
+     *
+     * @param body the response body
+     * @return the mapped page
+     * @throws IOException if the body cannot be read or is not valid JSON
+     */
+    public TweetPage parse(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return parse(parser);
+        }
+    }
+
+    /**
+     * Parses a response body held in memory.
+     *
+     * @param body the response body
+     * @return the mapped page
+     * @throws IOException if the body is not valid JSON
+     */
+    public TweetPage parse(byte[] body) throws IOException {
+        return parse(body, 0, body.length);
+    }
+
+    /**
+     * Parses a response body, or one line of a filtered stream, held in part of a buffer.
+     *
+     * @param buffer holds the JSON document
+     * @param offset index of its first byte
+     * @param length its length in bytes
+     * @return the mapped page
+     * @throws IOException if the document is not valid JSON
+     */
+    public TweetPage parse(byte[] buffer, int offset, int length) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(buffer, offset, length)) {
+            return parse(parser);
+        }
+    }
+
+    private TweetPage parse(JsonParser parser) throws IOException {
+        List<SocialPost> posts = new ArrayList<>();
+        List<String> authorIds = new ArrayList<>();
+        Map<String, String> usernames = new HashMap<>();
+        String nextToken = null;
+        String newestId = null;
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object at the root of the response");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+                    if (element == JsonToken.START_OBJECT) {
+                        readTweet(parser, posts, authorIds);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                readTweet(parser, posts, authorIds);
+            } else if ("includes".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String includesField = parser.currentName();
+                    if (parser.nextToken() == JsonToken.START_ARRAY && "users".equals(includesField)) {
+                        for (JsonToken user = parser.nextToken(); user != JsonToken.END_ARRAY; user = parser.nextToken()) {
+                            if (user == JsonToken.START_OBJECT) {
+                                readUser(parser, usernames);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("meta".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String metaField = parser.currentName();
+                    parser.nextToken();
+                    if ("next_token".equals(metaField)) {
+                        nextToken = parser.getValueAsString();
+                    } else if ("newest_id".equals(metaField)) {
+                        newestId = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        for (int i = 0; i < posts.size(); i++) {
+            SocialPost post = posts.get(i);
+            String username = usernames.getOrDefault(authorIds.get(i), "");
+            post.setAuthor(username);
+            post.setUrl("https://twitter.com/" + username + "/status/" + post.getSourceId());
+        }
+        return new TweetPage(posts, nextToken, newestId(newestId, posts));
+    }
+
+    private static void readTweet(JsonParser parser, List<SocialPost> posts, List<String> authorIds) throws IOException {
+        String id = "";
+        String authorId = "";
+        String text = "";
+        String createdAt = null;
+        PostEntities entities = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getValueAsString("");
+                case "author_id" -> authorId = parser.getValueAsString("");
+                case "text" -> text = parser.getValueAsString("");
+                case "created_at" -> createdAt = parser.getValueAsString();
+                case "entities" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        entities = readEntities(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (id.isEmpty()) {
+            throw new IOException("Tweet without id");
+        }
+        if (createdAt == null) {
+            throw new IOException("Tweet " + id + " without created_at");
+        }
+        SocialPost post = new SocialPost();
+        post.setPlatform(PLATFORM);
+        post.setSourceId(id);
+        post.setContent(text);
+        try {
+            post.setPostTimestamp(OffsetDateTime.parse(createdAt).toInstant());
+        } catch (DateTimeParseException ex) {
+            throw new IOException("Tweet " + id + " has an invalid created_at: " + createdAt, ex);
+        }
+        post.setEntities(entities);
+        posts.add(post);
+        authorIds.add(authorId);
+    }
+
+    /**
+     * Reads a tweet's {@code entities}: hashtags[].tag, mentions[].username and urls[].expanded_url (or url).
+     */
+    private static PostEntities readEntities(JsonParser parser) throws IOException {
+        Set<String> hashtags = new LinkedHashSet<>();
+        Set<String> mentions = new LinkedHashSet<>();
+        Set<String> urls = new LinkedHashSet<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+                if (element != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                String tag = null;
+                String username = null;
+                String url = null;
+                String expandedUrl = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String entityField = parser.currentName();
+                    parser.nextToken();
+                    switch (entityField) {
+                        case "tag" -> tag = parser.getValueAsString();
+                        case "username" -> username = parser.getValueAsString();
+                        case "url" -> url = parser.getValueAsString();
+                        case "expanded_url" -> expandedUrl = parser.getValueAsString();
+                        default -> parser.skipChildren();
+                    }
+                }
+                switch (field) {
+                    case "hashtags" -> addIfPresent(hashtags, EntityExtractor.hashtag(tag));
+                    case "mentions" -> addIfPresent(mentions, EntityExtractor.mention(username));
+                    case "urls" -> {
+                        String link = expandedUrl != null ? expandedUrl : url;
+                        if (EntityExtractor.domain(link) != null) {
+                            urls.add(link);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        return new PostEntities(new ArrayList<>(hashtags), new ArrayList<>(mentions), new ArrayList<>(urls));
+    }
+
+    private static void addIfPresent(Set<String> values, String value) {
+        if (value != null) {
+            values.add(value);
+        }
+    }
+
+    private static void readUser(JsonParser parser, Map<String, String> usernames) throws IOException {
+        String id = "";
+        String username = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("id".equals(field)) {
+                id = parser.getValueAsString("");
+            } else if ("username".equals(field)) {
+                username = parser.getValueAsString("");
+            } else {
+                parser.skipChildren();
+            }
+        }
+        usernames.put(id, username);
+    }
+
+    /**
+     * Uses meta.newest_id, falling back to the highest id on the page for responses that omit it.
+     */
+    private static Long newestId(String reported, List<SocialPost> posts) {
+        Long newest = parseTweetId(reported);
+        if (newest == null) {
+            for (SocialPost post : posts) {
+                Long id = parseTweetId(post.getSourceId());
+                if (id != null && (newest == null || id > newest)) {
+                    newest = id;
+                }
+            }
+        }
+        return newest;
+    }
+
+    private static Long parseTweetId(String id) {
+        if (id == null || id.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
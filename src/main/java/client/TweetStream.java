@@ -0,0 +1,108 @@
+package client;
+
+import lombok.extern.slf4j.Slf4j;
+import model.SocialPost;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An open filtered-stream connection, handing out posts as their lines arrive.
+ * <p>
+ * The stream is newline-delimited JSON: one tweet per line, blank keep-alive lines in between, and the
+ * occasional system message (such as an operational disconnect) without a tweet. Lines are read into one
+ * reused buffer and parsed in place. Not thread-safe, except for {@link #close()}, which may be called from
+ * another thread to abort a blocked read.
+ * </p>
+ */
+@Slf4j
+public class TweetStream implements Closeable {
+
+    private static final int MAX_LINE_BYTES = 1 << 20;
+
+    private final HttpUriRequestBase request;
+    private final ClassicHttpResponse response;
+    private final InputStream in;
+    private final TweetResponseParser parser;
+    private byte[] line = new byte[8192];
+    private List<SocialPost> pending = List.of();
+    private int pendingIndex;
+
+    TweetStream(HttpUriRequestBase request, ClassicHttpResponse response, TweetResponseParser parser) throws IOException {
+        this.request = request;
+        this.response = response;
+        this.in = new BufferedInputStream(response.getEntity().getContent(), 16 * 1024);
+        this.parser = parser;
+    }
+
+    /**
+     * Blocks until the next post arrives.
+     *
+     * @return the next post, or null if the server ended the stream
+     * @throws IOException if the connection fails, times out or delivers a line that is not valid JSON or holds
+     *         a tweet without id or created_at
+     */
+    public SocialPost next() throws IOException {
+        while (pendingIndex >= pending.size()) {
+            int length = readLine();
+            if (length < 0) {
+                return null;
+            }
+            if (length == 0) {
+                continue;
+            }
+            pending = parser.parse(line, 0, length).getPosts();
+            pendingIndex = 0;
+            if (pending.isEmpty()) {
+                log.warn("Stream message without a tweet: {}", new String(line, 0, length, StandardCharsets.UTF_8));
+            }
+        }
+        return pending.get(pendingIndex++);
+    }
+
+    /**
+     * Reads the next line into the buffer, without its line terminator.
+     *
+     * @return the line's length, 0 for a blank line, or -1 at the end of the stream
+     */
+    private int readLine() throws IOException {
+        int length = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                return length;
+            }
+            if (b == '\r' || (length == 0 && b == ' ')) {
+                continue;
+            }
+            if (length == line.length) {
+                if (length >= MAX_LINE_BYTES) {
+                    throw new IOException("Stream line exceeds " + MAX_LINE_BYTES + " bytes");
+                }
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = (byte) b;
+        }
+        return length > 0 ? length : -1;
+    }
+
+    /**
+     * Aborts the connection; a read blocked in {@link #next()} fails with an IOException.
+     */
+    @Override
+    public void close() {
+        request.cancel();
+        try {
+            response.close();
+        } catch (IOException ex) {
+            log.debug("Error closing stream response", ex);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import config.StreamConfig;
+import config.TwitterConfig;
+import exception.TwitterApiException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opens Twitter API v2 filtered-stream connections.
+ * <p>
+ * A stream is one long-lived response, so it gets its own small HTTP client rather than a connection from the
+ * search client's pool: its read timeout is the keep-alive deadline ({@code stream.read-timeout-seconds}),
+ * not the search response timeout. Connecting uses {@code twitter.api.connect-timeout-millis}.
+ * Reconnecting is left to the caller; see {@link TweetStreamIngester}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class TweetStreamClient {
+
+    private final TwitterConfig twitterConfig;
+    private final StreamConfig streamConfig;
+    private final CloseableHttpClient httpClient;
+    private final TweetResponseParser responseParser = new TweetResponseParser(new JsonFactory());
+
+    public TweetStreamClient(TwitterConfig twitterConfig, StreamConfig streamConfig) {
+        this.twitterConfig = twitterConfig;
+        this.streamConfig = streamConfig;
+        Timeout readTimeout = Timeout.ofSeconds(streamConfig.getReadTimeoutSeconds());
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(2)
+                        .setMaxConnPerRoute(2)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(twitterConfig.getConnectTimeoutMillis()))
+                                .setSocketTimeout(readTimeout)
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom().setResponseTimeout(readTimeout).build())
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    /**
+     * Connects to the filtered stream.
+     *
+     * @return the open stream; the caller must close it
+     * @throws TwitterApiException if the API answers with an error status
+     * @throws IOException if the connection cannot be established
+     */
+    public TweetStream open() throws IOException {
+        URI uri = UriComponentsBuilder.fromUriString(twitterConfig.getBaseUrl())
+                .path(streamConfig.getPath())
+                .queryParam("tweet.fields", "created_at,author_id,entities")
+                .queryParam("expansions", "author_id")
+                .queryParam("user.fields", "username")
+                .encode()
+                .build()
+                .toUri();
+        HttpGet request = new HttpGet(uri);
+        request.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + twitterConfig.getBearerToken());
+        request.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+
+        log.info("Connecting to Twitter filtered stream at {}", uri);
+        ClassicHttpResponse response = httpClient.executeOpen(null, request, null);
+        if (response.getCode() != 200) {
+            try {
+                String body = response.getEntity() == null ? null : EntityUtils.toString(response.getEntity());
+                Map<String, String> headers = new HashMap<>();
+                for (Header header : response.getHeaders()) {
+                    headers.put(header.getName(), header.getValue());
+                }
+                log.error("Twitter stream connect failed: {} Body: {}", response.getCode(), body);
+                throw new TwitterApiException(response.getCode(), body, headers);
+            } catch (ParseException ex) {
+                throw new TwitterApiException(response.getCode(), ex.getMessage(), null);
+            } finally {
+                response.close();
+            }
+        }
+        return new TweetStream(request, response, responseParser);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        try {
+            httpClient.close();
+        } catch (IOException ex) {
+            log.warn("Error closing Twitter stream HTTP client", ex);
+        }
+    }
+}
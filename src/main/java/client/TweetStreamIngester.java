@@ -0,0 +1,319 @@
+package client;
+
+import config.StreamConfig;
+import exception.TwitterApiException;
+import lombok.extern.slf4j.Slf4j;
+import model.SocialPost;
+import org.springframework.http.HttpStatus;
+import util.SpscRingBuffer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps a filtered-stream connection open and moves its posts to a batch writer through a bounded buffer.
+ * <p>
+ * A reader thread takes posts off the connection into a {@link SpscRingBuffer}. A writer thread drains the buffer
+ * in batches of up to {@code stream.batch-size} posts, or whatever arrived within {@code stream.flush-millis}.
+ * When the writer falls behind, for example because the database is slow or down, the buffer fills up and the
+ * reader stops reading. TCP flow control then pushes back on the server. If the buffer stays full for
+ * {@code stream.backpressure-timeout-millis}, the reader drops the connection instead of letting the server cut
+ * it off, and waits for the buffer to drain to half before it reconnects. The post in hand is kept, not lost.
+ * </p>
+ * <p>
+ * Reconnects follow the API's guidance. Network errors, timeouts and ended streams back off linearly from
+ * {@code stream.network-retry-millis}, up to 64 steps. HTTP errors back off exponentially from
+ * {@code stream.http-retry-millis}, and 429s from {@code stream.rate-limit-retry-millis}. All delays are capped
+ * at {@code stream.max-retry-millis}. The delays reset once a connection delivers a post. A failed batch write
+ * is retried with the network delay, and its posts stay in hand meanwhile.
+ * </p>
+ */
+@Slf4j
+public class TweetStreamIngester {
+
+    /**
+     * Stores a batch of streamed posts.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+
+        /**
+         * @param posts posts in arrival order
+         * @return number of posts stored as new
+         */
+        int write(List<SocialPost> posts);
+    }
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int MAX_NETWORK_STEPS = 64;
+
+    private final TweetStreamClient client;
+    private final StreamConfig config;
+    private final BatchWriter writer;
+    private final SpscRingBuffer<SocialPost> buffer;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean readerStopped;
+    private volatile TweetStream current;
+    private Thread readerThread;
+    private Thread writerThread;
+    private SocialPost carried;
+
+    public TweetStreamIngester(TweetStreamClient client, StreamConfig config, BatchWriter writer) {
+        this.client = client;
+        this.config = config;
+        this.writer = writer;
+        this.buffer = new SpscRingBuffer<>(config.getBufferCapacity());
+    }
+
+    /**
+     * Starts the reader and writer threads.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        readerStopped = false;
+        readerThread = new Thread(this::readLoop, "tweet-stream-reader");
+        readerThread.setDaemon(true);
+        writerThread = new Thread(this::writeLoop, "tweet-stream-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        readerThread.start();
+    }
+
+    /**
+     * Closes the connection and stops both threads, writing buffered posts first.
+     *
+     * @param timeoutMillis how long to wait for buffered posts to be written
+     */
+    public synchronized void stop(long timeoutMillis) {
+        if (!running) {
+            return;
+        }
+        running = false;
+        TweetStream stream = current;
+        if (stream != null) {
+            stream.close();
+        }
+        readerThread.interrupt();
+        try {
+            readerThread.join(timeoutMillis);
+            writerThread.join(timeoutMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return true while the threads are running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return the current counters
+     */
+    public StreamStatus status() {
+        return new StreamStatus(current != null, received.get(), written.get(), stored.get(), buffer.size(),
+                buffer.capacity(), reconnects.get(), stalls.get(), writeFailures.get());
+    }
+
+    private void readLoop() {
+        try {
+            readUntilStopped();
+        } finally {
+            readerStopped = true;
+            log.info("Twitter filtered stream reader stopped");
+        }
+    }
+
+    private void readUntilStopped() {
+        int networkFailures = 0;
+        int httpFailures = 0;
+        int rateLimitFailures = 0;
+        boolean first = true;
+        while (running) {
+            if (!first) {
+                reconnects.incrementAndGet();
+            }
+            first = false;
+            long delay;
+            boolean stalled = false;
+            try (TweetStream stream = client.open()) {
+                current = stream;
+                log.info("Twitter filtered stream connected");
+                if (carried != null) {
+                    if (!offer(carried)) {
+                        throw new IOException("Buffer still full after reconnect");
+                    }
+                    received.incrementAndGet();
+                    carried = null;
+                }
+                SocialPost post;
+                while (running && (post = stream.next()) != null) {
+                    networkFailures = 0;
+                    httpFailures = 0;
+                    rateLimitFailures = 0;
+                    if (!offer(post)) {
+                        carried = post;
+                        if (!running) {
+                            break;
+                        }
+                        stalled = true;
+                        break;
+                    }
+                    received.incrementAndGet();
+                }
+                if (running && carried == null) {
+                    log.warn("Twitter filtered stream ended by the server");
+                }
+                delay = networkDelay(++networkFailures);
+            } catch (TwitterApiException ex) {
+                if (ex.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    delay = exponentialDelay(config.getRateLimitRetryMillis(), ++rateLimitFailures);
+                } else {
+                    delay = exponentialDelay(config.getHttpRetryMillis(), ++httpFailures);
+                }
+            } catch (IOException | RuntimeException ex) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Twitter filtered stream failed: {}", ex.toString());
+                delay = networkDelay(++networkFailures);
+            } finally {
+                current = null;
+            }
+            if (stalled) {
+                // Counted once the connection is closed, so a stall is never reported while still connected.
+                stalls.incrementAndGet();
+                log.warn("Stream buffer full for {} ms; dropped the connection until the writer catches up",
+                        config.getBackpressureTimeoutMillis());
+            }
+            if (!running) {
+                break;
+            }
+            log.info("Reconnecting to Twitter filtered stream in {} ms", delay);
+            if (!sleep(delay) || !awaitRoom()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Offers a post, waiting up to the backpressure timeout for room in the buffer.
+     */
+    private boolean offer(SocialPost post) {
+        if (buffer.offer(post)) {
+            return true;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getBackpressureTimeoutMillis());
+        while (running && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(PARK_NANOS);
+            if (buffer.offer(post)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits until the buffer is at most half full, so a reconnect does not stall again right away.
+     */
+    private boolean awaitRoom() {
+        while (running && buffer.size() > buffer.capacity() / 2) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return running;
+    }
+
+    private void writeLoop() {
+        List<SocialPost> batch = new ArrayList<>(config.getBatchSize());
+        long flushNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushMillis());
+        long firstAt = 0;
+        // Runs until the reader has stopped and everything it buffered is written.
+        while (!readerStopped || buffer.size() > 0 || !batch.isEmpty()) {
+            buffer.drainTo(batch, config.getBatchSize() - batch.size());
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(PARK_NANOS);
+                continue;
+            }
+            long now = System.nanoTime();
+            if (firstAt == 0) {
+                firstAt = now;
+            }
+            if (running && batch.size() < config.getBatchSize() && now - firstAt < flushNanos) {
+                LockSupport.parkNanos(PARK_NANOS);
+                continue;
+            }
+            if (!writeBatch(batch)) {
+                log.error("Dropping {} streamed posts on shutdown after a failed write", batch.size());
+            }
+            batch.clear();
+            firstAt = 0;
+        }
+        log.info("Twitter filtered stream writer stopped");
+    }
+
+    /**
+     * Writes a batch, retrying until it succeeds. After shutdown, only one more attempt is made.
+     */
+    private boolean writeBatch(List<SocialPost> batch) {
+        for (int failures = 0; ; ) {
+            try {
+                int storedCount = writer.write(batch);
+                written.addAndGet(batch.size());
+                stored.addAndGet(storedCount);
+                return true;
+            } catch (RuntimeException ex) {
+                writeFailures.incrementAndGet();
+                log.error("Failed to store {} streamed posts; retrying", batch.size(), ex);
+                if (!running || !sleep(networkDelay(++failures))) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private long networkDelay(int failures) {
+        return Math.min(config.getMaxRetryMillis(), config.getNetworkRetryMillis() * Math.min(failures, MAX_NETWORK_STEPS));
+    }
+
+    private long exponentialDelay(long initialMillis, int failures) {
+        return Math.min(config.getMaxRetryMillis(), initialMillis << Math.min(failures - 1, 20));
+    }
+
+    /**
+     * @return false if interrupted or stopped while sleeping
+     */
+    private boolean sleep(long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        try {
+            while (running) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return true;
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100)));
+            }
+        } catch (InterruptedException ex) {
+            if (running) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return false;
+    }
+}
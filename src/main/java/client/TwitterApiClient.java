@@ -1,141 +1,340 @@
 package client;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import config.SourceConfig;
 import config.TwitterConfig;
 import exception.TwitterApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
 import lombok.extern.slf4j.Slf4j;
 import model.SocialPost;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.time.OffsetDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Component responsible for calling Twitter API v2 to search recent tweets by keyword.
  * Handles authentication, rate limiting, and pagination.
+ * Registered as the {@link SocialSource} for platform {@value TweetResponseParser#PLATFORM}.
+ * <p>
+ * Every call first reserves quota from a {@link RateLimitTracker}, which spreads calls across the rate-limit
+ * window and makes callers wait for the reset rather than fail. A 429 response is retried after the reset.
+ * The wait is capped so that it and one request fit within the platform's {@code sources} timeout; a fetch that
+ * waited longer would be cancelled by the fan-out anyway.
+ * </p>
+ * <p>
+ * Requests go through a pooled Apache HttpClient that keeps connections alive between calls, so polling does
+ * not pay a TCP and TLS handshake per request. Connect, read and pool-wait timeouts and the pool size come
+ * from {@link TwitterConfig}; pool usage is published as {@code httpcomponents.httpclient.pool.*} gauges
+ * tagged {@code httpclient=twitter-api}. Response bodies are mapped by {@link TweetResponseParser} while they
+ * are read from the connection, without buffering them first.
+ * </p>
+ * <p>
+ * Each call is timed in two parts: {@code twitter.api.response} until the response headers arrive, tagged with
+ * the status, and {@code twitter.api.parse} for reading and mapping the body. The quota is published as
+ * {@code twitter.api.rate_limit.*} gauges.
+ * </p>
  */
 @Slf4j
 @Component
-public class TwitterApiClient {
+public class TwitterApiClient implements SocialSource {
+
+    private static final int MAX_RATE_LIMIT_RETRIES = 2;
 
     private final TwitterConfig config;
+    private final CloseableHttpClient httpClient;
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TweetResponseParser responseParser = new TweetResponseParser(new JsonFactory());
+    private final ExecutorService pageFetchExecutor;
+    private final RateLimitTracker rateLimit;
+    private final MeterRegistry meterRegistry;
+    private final Timer parseTimer;
+    private final Counter rateLimitRetries;
 
     @Autowired
-    public TwitterApiClient(TwitterConfig config) {
+    public TwitterApiClient(TwitterConfig config, SourceConfig sourceConfig, MeterRegistry meterRegistry) {
         this.config = config;
-        this.restTemplate = new RestTemplate();
-        // Example: configure timeouts from config
-        // var factory = (SimpleClientHttpRequestFactory) restTemplate.getRequestFactory();
-        // factory.setConnectTimeout(config.getConnectTimeout());
-        // factory.setReadTimeout(config.getReadTimeout());
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxConnections())
+                .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeoutMillis()))
+                        .setSocketTimeout(Timeout.ofSeconds(config.getTimeoutSeconds()))
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(config.getConnectionRequestTimeoutMillis()))
+                        .setResponseTimeout(Timeout.ofSeconds(config.getTimeoutSeconds()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(config.getIdleConnectionSeconds()))
+                .build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        // No more prefetches can be on the wire than there are connections; further ones wait in the queue.
+        ThreadPoolExecutor pageFetchPool = new ThreadPoolExecutor(config.getMaxConnections(),
+                config.getMaxConnections(), 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                pageFetchThreadFactory());
+        pageFetchPool.allowCoreThreadTimeOut(true);
+        this.pageFetchExecutor = pageFetchPool;
+        int sourceTimeoutSeconds = sourceConfig.bulkheadFor(TweetResponseParser.PLATFORM).getTimeoutSeconds();
+        int maxWaitSeconds = Math.min(config.getRateLimitMaxWaitSeconds(),
+                Math.max(0, sourceTimeoutSeconds - config.getTimeoutSeconds()));
+        if (maxWaitSeconds < config.getRateLimitMaxWaitSeconds()) {
+            log.warn("twitter.api.rate-limit-max-wait-seconds={} does not fit the {} s source timeout; waiting at most {} s",
+                    config.getRateLimitMaxWaitSeconds(), sourceTimeoutSeconds, maxWaitSeconds);
+        }
+        this.rateLimit = new RateLimitTracker(config.getRateLimitRequests(),
+                TimeUnit.SECONDS.toMillis(config.getRateLimitWindowSeconds()), config.getRateLimitBurst(),
+                TimeUnit.SECONDS.toMillis(maxWaitSeconds), Clock.systemUTC());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "twitter-api").bindTo(meterRegistry);
+        this.meterRegistry = meterRegistry;
+        this.parseTimer = Timer.builder("twitter.api.parse")
+                .description("Time to read and map a search response body, after its headers arrived")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rateLimitRetries = Counter.builder("twitter.api.rate_limit.retries")
+                .description("Search calls answered with 429 and retried after the reset")
+                .register(meterRegistry);
+        Gauge.builder("twitter.api.rate_limit.remaining", rateLimit, r -> r.status().getRemaining())
+                .description("Search requests left in the current rate-limit window").register(meterRegistry);
+        Gauge.builder("twitter.api.rate_limit.limit", rateLimit, r -> r.status().getLimit())
+                .description("Search requests allowed per rate-limit window").register(meterRegistry);
+        Gauge.builder("twitter.api.rate_limit.reset", rateLimit,
+                        r -> Math.max(0, r.status().getResetAt().toEpochMilli() - System.currentTimeMillis()) / 1000.0)
+                .description("Time until the rate-limit window resets").baseUnit("seconds").register(meterRegistry);
+    }
+
+    @Override
+    public String getPlatform() {
+        return TweetResponseParser.PLATFORM;
+    }
+
+    @Override
+    public PostPageIterator search(String keyword, Long sinceId) {
+        return searchTweetsPaged(keyword, sinceId);
+    }
+
+    @Override
+    public PostPageIterator searchNewest(String keyword, Long sinceId, int maxPages) {
+        return searchTweetsPaged(keyword, sinceId, maxPages, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * @return the search quota as last reported by the API
+     */
+    public RateLimitStatus getRateLimitStatus() {
+        return rateLimit.status();
     }
 
     /**
      * Searches recent tweets by keyword using Twitter API v2.
+     * Only the first page of results is returned; see {@link #searchTweetsPaged(String)} to follow next_token.
      * @param keyword the keyword to search for
      * @return list of SocialPost objects
      * @throws TwitterApiException if API call fails or rate limited
      */
     public List<SocialPost> searchTweets(String keyword) throws TwitterApiException {
-        String url = String.format("%s/tweets/search/recent?query=%s&tweet.fields=created_at,author_id&expansions=author_id&user.fields=username",
-                config.getBaseUrl(), keyword);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(config.getBearerToken());
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+        return searchTweets(keyword, null);
+    }
 
-        log.info("Calling Twitter API for keyword: {}", keyword);
+    /**
+     * Searches recent tweets by keyword that are newer than the given tweet id.
+     * Only the first page of results is returned.
+     * @param keyword the keyword to search for
+     * @param sinceId only tweets with a higher id are returned; null for no lower bound
+     * @return list of SocialPost objects
+     * @throws TwitterApiException if API call fails or rate limited
+     */
+    public List<SocialPost> searchTweets(String keyword, Long sinceId) throws TwitterApiException {
+        return fetchPage(keyword, sinceId, null, config.getPageSize()).getPosts();
+    }
 
-        try {
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
+    /**
+     * Searches recent tweets by keyword, following meta.next_token until the configured
+     * page budget ({@code twitter.api.max-pages}) or post budget ({@code twitter.api.max-posts}) is reached.
+     * Pages are fetched one ahead of the caller, so the caller can persist a page while the next is in flight.
+     * @param keyword the keyword to search for
+     * @return an iterator handing out one page of SocialPost objects at a time
+     */
+    public TweetPageIterator searchTweetsPaged(String keyword) {
+        return searchTweetsPaged(keyword, null);
+    }
 
-            // Rate limit detection
-            if (isRateLimited(response.getHeaders())) {
-                log.warn("Twitter API rate limit reached. Headers: {}", response.getHeaders());
-                throw new TwitterApiException(response.getStatusCodeValue(), response.getBody(), response.getHeaders().toSingleValueMap());
-            }
+    /**
+     * Searches recent tweets by keyword that are newer than the given tweet id, within the configured
+     * page and post budgets, prefetching one page ahead.
+     * @param keyword the keyword to search for
+     * @param sinceId only tweets with a higher id are returned; null for no lower bound
+     * @return an iterator handing out one page of SocialPost objects at a time
+     */
+    public TweetPageIterator searchTweetsPaged(String keyword, Long sinceId) {
+        return searchTweetsPaged(keyword, sinceId, config.getMaxPages(), config.getMaxPosts(), true);
+    }
 
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                log.error("Twitter API non-2xx response: {} Body: {}", response.getStatusCodeValue(), response.getBody());
-                throw new TwitterApiException(response.getStatusCodeValue(), response.getBody(), response.getHeaders().toSingleValueMap());
-            }
+    /**
+     * Searches recent tweets by keyword, following meta.next_token up to the given budgets.
+     * @param keyword the keyword to search for
+     * @param maxPages maximum number of pages to request
+     * @param maxPosts maximum number of posts to hand out
+     * @return an iterator handing out one page of SocialPost objects at a time
+     */
+    public TweetPageIterator searchTweetsPaged(String keyword, int maxPages, int maxPosts) {
+        return searchTweetsPaged(keyword, null, maxPages, maxPosts, true);
+    }
 
-            List<SocialPost> posts = parseTweets(response.getBody());
-            log.info("Twitter API call successful for keyword: {}. Fetched {} tweets.", keyword, posts.size());
-            // Pagination: structure for future use (single page for now)
-            // String nextToken = extractNextToken(response.getBody());
-            return posts;
-        } catch (HttpStatusCodeException ex) {
-            log.error("Twitter API error: {} Headers: {}", ex.getResponseBodyAsString(), ex.getResponseHeaders());
-            throw new TwitterApiException(ex.getRawStatusCode(), ex.getResponseBodyAsString(), ex.getResponseHeaders().toSingleValueMap());
-        } catch (Exception ex) {
-            log.error("Error calling Twitter API", ex);
-            throw new TwitterApiException(500, ex.getMessage(), null);
-        }
+    /**
+     * Searches recent tweets by keyword that are newer than the given tweet id, following meta.next_token
+     * up to the given budgets.
+     * @param keyword the keyword to search for
+     * @param sinceId only tweets with a higher id are returned; null for no lower bound
+     * @param maxPages maximum number of pages to request
+     * @param maxPosts maximum number of posts to hand out
+     * @param prefetch whether to fetch each next page while the caller handles the current one; without it,
+     *                 a page is only requested when the caller asks for it
+     * @return an iterator handing out one page of SocialPost objects at a time
+     */
+    public TweetPageIterator searchTweetsPaged(String keyword, Long sinceId, int maxPages, int maxPosts,
+                                               boolean prefetch) {
+        return new TweetPageIterator((nextToken, maxResults) -> fetchPage(keyword, sinceId, nextToken, maxResults),
+                pageFetchExecutor, config.getPageSize(), maxPages, maxPosts, prefetch);
     }
 
-    private boolean isRateLimited(HttpHeaders headers) {
-        List<String> retryAfter = headers.get("retry-after");
-        List<String> rateLimitRemaining = headers.get("x-rate-limit-remaining");
-        if ((retryAfter != null && !retryAfter.isEmpty()) ||
-                (rateLimitRemaining != null && !rateLimitRemaining.isEmpty() && "0".equals(rateLimitRemaining.get(0)))) {
-            return true;
+    /**
+     * Fetches a single page of recent tweets.
+     * @param keyword the keyword to search for
+     * @param sinceId only tweets with a higher id are returned; null for no lower bound
+     * @param nextToken pagination token from the previous page, or null for the first page
+     * @param maxResults number of tweets to request (10..100)
+     * @return the mapped page including its next_token
+     * @throws TwitterApiException if API call fails, or rate-limit quota is not available within the maximum wait
+     */
+    TweetPage fetchPage(String keyword, Long sinceId, String nextToken, int maxResults) throws TwitterApiException {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(config.getBaseUrl())
+                .path("/tweets/search/recent")
+                .queryParam("query", "{query}")
+                .queryParam("max_results", maxResults)
+                .queryParam("tweet.fields", "created_at,author_id,entities")
+                .queryParam("expansions", "author_id")
+                .queryParam("user.fields", "username");
+        if (sinceId != null) {
+            uri.queryParam("since_id", sinceId);
         }
-        return false;
-    }
+        if (nextToken != null) {
+            uri.queryParam("next_token", "{nextToken}");
+        }
+        URI url = uri.encode().buildAndExpand(keyword, nextToken).toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(config.getBearerToken());
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
 
-    private List<SocialPost> parseTweets(String json) throws Exception {
-        List<SocialPost> posts = new ArrayList<>();
-        JsonNode root = objectMapper.readTree(json);
-        JsonNode data = root.path("data");
-        JsonNode users = root.path("includes").path("users");
-
-        // Map author_id to username
-        HashMap<String, String> userMap = new HashMap<>();
-        if (users.isArray()) {
-            for (JsonNode user : users) {
-                userMap.put(user.path("id").asText(), user.path("username").asText());
+        for (int attempt = 0; ; attempt++) {
+            rateLimit.acquire();
+            if (Thread.currentThread().isInterrupted()) {
+                // A closed page iterator interrupted its prefetch; do not spend the request.
+                throw new TwitterApiException(503, "Tweet page fetch was cancelled", null);
+            }
+            log.info("Calling Twitter API for keyword: {} (since_id: {}, next_token: {})", keyword, sinceId, nextToken);
+            long started = System.nanoTime();
+            try {
+                TweetPage page = restTemplate.execute(url, HttpMethod.GET,
+                        request -> request.getHeaders().putAll(headers),
+                        response -> {
+                            long headersAt = System.nanoTime();
+                            recordResponse(String.valueOf(response.getStatusCode().value()), headersAt - started);
+                            rateLimit.update(response.getHeaders());
+                            // Only 2xx responses get here; the default error handler throws for the others.
+                            TweetPage parsed;
+                            try {
+                                parsed = responseParser.parse(response.getBody());
+                            } catch (IOException ex) {
+                                // The response is already recorded under its status; do not record it as IO_ERROR too.
+                                log.error("Unreadable Twitter API response", ex);
+                                throw new TwitterApiException(500, ex.getMessage(), null, ex);
+                            }
+                            parseTimer.record(System.nanoTime() - headersAt, TimeUnit.NANOSECONDS);
+                            return parsed;
+                        });
+                log.info("Twitter API call successful for keyword: {}. Fetched {} tweets.", keyword, page.getPosts().size());
+                return page;
+            } catch (TwitterApiException ex) {
+                throw ex;
+            } catch (HttpStatusCodeException ex) {
+                recordResponse(String.valueOf(ex.getStatusCode().value()), System.nanoTime() - started);
+                rateLimit.update(ex.getResponseHeaders());
+                if (ex.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value() && attempt < MAX_RATE_LIMIT_RETRIES) {
+                    rateLimitRetries.increment();
+                    rateLimit.onTooManyRequests(ex.getResponseHeaders());
+                    log.warn("Twitter API rate limit reached; retrying after reset at {}", rateLimit.status().getResetAt());
+                    continue;
+                }
+                log.error("Twitter API error: {} Headers: {}", ex.getResponseBodyAsString(), ex.getResponseHeaders());
+                throw new TwitterApiException(ex.getStatusCode().value(), ex.getResponseBodyAsString(), ex.getResponseHeaders().toSingleValueMap());
+            } catch (Exception ex) {
+                recordResponse("IO_ERROR", System.nanoTime() - started);
+                log.error("Error calling Twitter API", ex);
+                throw new TwitterApiException(500, ex.getMessage(), null, ex);
             }
         }
+    }
 
-        if (data.isArray()) {
-            for (JsonNode tweet : data) {
-                String tweetId = tweet.path("id").asText();
-                String authorId = tweet.path("author_id").asText();
-                String username = userMap.getOrDefault(authorId, "");
-                String text = tweet.path("text").asText();
-                String createdAt = tweet.path("created_at").asText();
-                String url = String.format("https://twitter.com/%s/status/%s", username, tweetId);
-
-                SocialPost post = new SocialPost();
-                post.setPlatform("twitter");
-                post.setSourceId(tweetId);
-                post.setAuthor(username);
-                post.setContent(text);
-                post.setPostTimestamp(OffsetDateTime.parse(createdAt).toInstant());
-                post.setUrl(url);
-                post.setSentimentScore(null);
-                post.setSentimentLabel(null);
-
-                posts.add(post);
-            }
+    /**
+     * Records the time from sending a search request until its response headers (or a failure) arrived.
+     */
+    private void recordResponse(String status, long nanos) {
+        Timer.builder("twitter.api.response")
+                .description("Time from sending a search request until its response headers arrived")
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pageFetchExecutor.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException ex) {
+            log.warn("Error closing Twitter API HTTP client", ex);
         }
-        return posts;
     }
 
-    // For future pagination support
-    // private String extractNextToken(String json) throws Exception {
-    //     JsonNode root = objectMapper.readTree(json);
-    //     return root.path("meta").path("next_token").asText(null);
-    // }
-}
\ No newline at end of file
+    private static ThreadFactory pageFetchThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "twitter-page-fetch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
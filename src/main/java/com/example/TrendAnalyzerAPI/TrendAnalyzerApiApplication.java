@@ -1,13 +1,37 @@
 package com.example.TrendAnalyzerAPI;
 
-
+import config.ArchiveConfig;
+import config.DedupConfig;
+import config.FetchJobConfig;
+import config.ImportConfig;
+import config.IngestConfig;
+import config.NearDuplicateConfig;
+import config.PartitionConfig;
+import config.PollingConfig;
+import config.QueryCacheConfig;
+import config.RollupConfig;
+import config.SentimentConfig;
+import config.SourceConfig;
+import config.StreamConfig;
+import config.TrendConfig;
 import config.TwitterConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
-@EnableConfigurationProperties(TwitterConfig.class)
+@SpringBootApplication(scanBasePackages = {"com.example.TrendAnalyzerAPI", "client", "config", "controller",
+		"exception", "repository", "service"})
+@EnableJpaRepositories(basePackages = "repository")
+@EntityScan(basePackages = "model")
+@EnableConfigurationProperties({TwitterConfig.class, DedupConfig.class, IngestConfig.class,
+		TrendConfig.class, SentimentConfig.class, FetchJobConfig.class,
+		PollingConfig.class, QueryCacheConfig.class, StreamConfig.class, SourceConfig.class,
+		RollupConfig.class, PartitionConfig.class, ArchiveConfig.class,
+		ImportConfig.class, NearDuplicateConfig.class})
+@EnableScheduling
 public class TrendAnalyzerApiApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,96 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the segment archive of old posts and its replay.
+ */
+@ConfigurationProperties(prefix = "archive")
+public class ArchiveConfig {
+
+    /**
+     * Whether partitions older than {@link #afterDays} are moved into segment files.
+     */
+    private final boolean enabled;
+
+    /**
+     * Directory holding the segment files; created if missing.
+     */
+    private final String directory;
+
+    /**
+     * Age, by post timestamp, after which posts are archived; a partition is archived once all of its range is older.
+     */
+    private final int afterDays;
+
+    /**
+     * How often expired partitions are looked for.
+     */
+    private final long intervalMillis;
+
+    /**
+     * Maximum posts per segment file; a larger partition is split over several files.
+     */
+    private final int segmentRows;
+
+    /**
+     * Segments replayed at once; 0 means one per available processor.
+     */
+    private final int replayParallelism;
+
+    /**
+     * Count-Min Sketch counters per row for the terms of a replay, which may cover months of posts.
+     */
+    private final int replaySketchWidth;
+
+    /**
+     * Count-Min Sketch rows (hash functions) for the terms of a replay.
+     */
+    private final int replaySketchDepth;
+
+    public ArchiveConfig(Boolean enabled, String directory, Integer afterDays, Long intervalMillis,
+                         Integer segmentRows, Integer replayParallelism, Integer replaySketchWidth,
+                         Integer replaySketchDepth) {
+        this.enabled = enabled != null && enabled;
+        this.directory = (directory == null || directory.isBlank()) ? "archive" : directory;
+        this.afterDays = (afterDays == null) ? 90 : Math.max(1, afterDays);
+        this.intervalMillis = (intervalMillis == null) ? 3_600_000 : Math.max(1, intervalMillis);
+        this.segmentRows = (segmentRows == null) ? 1_000_000 : Math.max(1, segmentRows);
+        this.replayParallelism = (replayParallelism == null || replayParallelism <= 0)
+                ? Runtime.getRuntime().availableProcessors() : replayParallelism;
+        this.replaySketchWidth = (replaySketchWidth == null) ? 65_536 : replaySketchWidth;
+        this.replaySketchDepth = (replaySketchDepth == null) ? 4 : replaySketchDepth;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public int getAfterDays() {
+        return afterDays;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public int getSegmentRows() {
+        return segmentRows;
+    }
+
+    public int getReplayParallelism() {
+        return replayParallelism;
+    }
+
+    public int getReplaySketchWidth() {
+        return replaySketchWidth;
+    }
+
+    public int getReplaySketchDepth() {
+        return replaySketchDepth;
+    }
+}
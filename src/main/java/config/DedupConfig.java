@@ -0,0 +1,43 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the in-memory post deduplication layer.
+ */
+@ConfigurationProperties(prefix = "dedup")
+public class DedupConfig {
+
+    /**
+     * Number of stored posts the Bloom filter is sized for.
+     */
+    private final long expectedInsertions;
+
+    /**
+     * Target false-positive rate of the Bloom filter at {@link #expectedInsertions}.
+     */
+    private final double falsePositiveRate;
+
+    /**
+     * Rows read per query while warming the filter from the database on startup.
+     */
+    private final int warmupBatchSize;
+
+    public DedupConfig(Long expectedInsertions, Double falsePositiveRate, Integer warmupBatchSize) {
+        this.expectedInsertions = (expectedInsertions == null) ? 10_000_000L : expectedInsertions;
+        this.falsePositiveRate = (falsePositiveRate == null) ? 0.01 : falsePositiveRate;
+        this.warmupBatchSize = (warmupBatchSize == null) ? 10_000 : warmupBatchSize;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public int getWarmupBatchSize() {
+        return warmupBatchSize;
+    }
+}
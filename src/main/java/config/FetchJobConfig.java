@@ -0,0 +1,65 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for background fetch jobs.
+ */
+@ConfigurationProperties(prefix = "fetch-jobs")
+public class FetchJobConfig {
+
+    /**
+     * Jobs that run at the same time.
+     */
+    private final int concurrency;
+
+    /**
+     * Jobs that may wait for a free worker; submissions beyond concurrency plus this are rejected.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Run each job on its own virtual thread instead of a platform thread pool. Needs Java 21;
+     * ignored with a warning on older runtimes.
+     */
+    private final boolean virtualThreads;
+
+    /**
+     * How long finished jobs stay queryable.
+     */
+    private final long retentionMinutes;
+
+    /**
+     * Upper bound on finished jobs kept for status queries; the oldest are dropped first.
+     */
+    private final int maxRetainedJobs;
+
+    public FetchJobConfig(Integer concurrency, Integer queueCapacity, Boolean virtualThreads, Long retentionMinutes,
+                          Integer maxRetainedJobs) {
+        this.concurrency = (concurrency == null) ? 4 : Math.max(1, concurrency);
+        this.queueCapacity = (queueCapacity == null) ? 100 : Math.max(0, queueCapacity);
+        this.virtualThreads = (virtualThreads != null) && virtualThreads;
+        this.retentionMinutes = (retentionMinutes == null) ? 60 : retentionMinutes;
+        this.maxRetainedJobs = (maxRetainedJobs == null) ? 1000 : Math.max(1, maxRetainedJobs);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public long getRetentionMinutes() {
+        return retentionMinutes;
+    }
+
+    public int getMaxRetainedJobs() {
+        return maxRetainedJobs;
+    }
+}
@@ -0,0 +1,67 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Configuration properties for the bulk import of NDJSON tweet dumps.
+ */
+@ConfigurationProperties(prefix = "import")
+public class ImportConfig {
+
+    /**
+     * Dump files to import at startup, in order; nothing is imported when empty.
+     */
+    private final List<String> files;
+
+    /**
+     * Bytes read, parsed and loaded as one unit; a chunk is extended to the end of its last line.
+     */
+    private final int chunkBytes;
+
+    /**
+     * Chunks parsed and loaded at once, each on its own database connection; 0 means one per available processor.
+     */
+    private final int parallelism;
+
+    /**
+     * How often import progress is logged.
+     */
+    private final long progressIntervalMillis;
+
+    /**
+     * Whether the application exits once the import is done, with status 1 if it failed.
+     */
+    private final boolean exitWhenDone;
+
+    public ImportConfig(List<String> files, Integer chunkBytes, Integer parallelism, Long progressIntervalMillis,
+                        Boolean exitWhenDone) {
+        this.files = (files == null) ? List.of() : files.stream().filter(file -> !file.isBlank()).toList();
+        this.chunkBytes = (chunkBytes == null) ? 32 * 1024 * 1024 : Math.max(64 * 1024, chunkBytes);
+        this.parallelism = (parallelism == null || parallelism <= 0)
+                ? Runtime.getRuntime().availableProcessors() : parallelism;
+        this.progressIntervalMillis = (progressIntervalMillis == null) ? 10_000 : Math.max(1, progressIntervalMillis);
+        this.exitWhenDone = exitWhenDone == null || exitWhenDone;
+    }
+
+    public List<String> getFiles() {
+        return files;
+    }
+
+    public int getChunkBytes() {
+        return chunkBytes;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getProgressIntervalMillis() {
+        return progressIntervalMillis;
+    }
+
+    public boolean isExitWhenDone() {
+        return exitWhenDone;
+    }
+}
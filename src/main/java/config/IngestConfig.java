@@ -0,0 +1,81 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the bulk ingest write path.
+ */
+@ConfigurationProperties(prefix = "ingest")
+public class IngestConfig {
+
+    /**
+     * Rows written per bulk INSERT statement.
+     */
+    private final int batchSize;
+
+    /**
+     * Database sequence that supplies SocialPost ids; must match the entity's sequence generator.
+     */
+    private final String idSequence;
+
+    /**
+     * Whether fetched and streamed posts are handed to a background writer that commits the posts of concurrent
+     * fetches together, instead of each fetch writing its own transaction.
+     */
+    private final boolean writeBehind;
+
+    /**
+     * Most posts waiting for the background writer; fetches wait for room when it is full.
+     */
+    private final int writeBufferCapacity;
+
+    /**
+     * The background writer commits once this many posts are waiting.
+     */
+    private final int commitPosts;
+
+    /**
+     * How long the background writer lingers for more writes after the oldest waiting one arrived, unless
+     * ingest.commit-posts are already waiting. 0 commits whatever waits as soon as the previous commit is done,
+     * which batches by itself under load.
+     */
+    private final long commitMillis;
+
+    public IngestConfig(Integer batchSize, String idSequence, Boolean writeBehind, Integer writeBufferCapacity,
+                        Integer commitPosts, Long commitMillis) {
+        this.batchSize = (batchSize == null) ? 500 : Math.max(1, batchSize);
+        this.idSequence = (idSequence == null || idSequence.isBlank()) ? "social_post_id_seq" : idSequence;
+        if (!this.idSequence.matches("[A-Za-z_][A-Za-z0-9_.]*")) {
+            throw new IllegalArgumentException("ingest.id-sequence is not a valid sequence name: " + idSequence);
+        }
+        this.writeBehind = writeBehind == null || writeBehind;
+        this.commitPosts = (commitPosts == null) ? 5000 : Math.max(1, commitPosts);
+        this.writeBufferCapacity = (writeBufferCapacity == null)
+                ? 50_000 : Math.max(this.commitPosts, writeBufferCapacity);
+        this.commitMillis = (commitMillis == null) ? 0 : Math.max(0, commitMillis);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public String getIdSequence() {
+        return idSequence;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    public int getWriteBufferCapacity() {
+        return writeBufferCapacity;
+    }
+
+    public int getCommitPosts() {
+        return commitPosts;
+    }
+
+    public long getCommitMillis() {
+        return commitMillis;
+    }
+}
@@ -0,0 +1,64 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for dropping near-duplicate posts, such as copy-paste spam and retweet floods, at ingest.
+ */
+@ConfigurationProperties(prefix = "near-dup")
+public class NearDuplicateConfig {
+
+    /**
+     * Whether fetched and streamed posts are checked for near-duplicates before they are stored.
+     */
+    private final boolean enabled;
+
+    /**
+     * How long a stored post keeps later near-duplicates from being stored.
+     */
+    private final long windowMinutes;
+
+    /**
+     * Number of recent posts remembered; when full, the oldest are forgotten even inside the window.
+     */
+    private final int capacity;
+
+    /**
+     * Largest number of differing fingerprint bits (of 64) for two posts to count as near-duplicates, 0 to 7.
+     */
+    private final int maxDistance;
+
+    /**
+     * Posts with fewer distinct terms (mentions, URLs and stop words excluded) are never treated as near-duplicates.
+     */
+    private final int minTerms;
+
+    public NearDuplicateConfig(Boolean enabled, Long windowMinutes, Integer capacity, Integer maxDistance,
+                               Integer minTerms) {
+        this.enabled = enabled != null && enabled;
+        this.windowMinutes = (windowMinutes == null) ? 60 : Math.max(1, windowMinutes);
+        this.capacity = (capacity == null) ? 262_144 : Math.max(1024, capacity);
+        this.maxDistance = (maxDistance == null) ? 3 : Math.max(0, Math.min(7, maxDistance));
+        this.minTerms = (minTerms == null) ? 6 : Math.max(1, minTerms);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    public int getMinTerms() {
+        return minTerms;
+    }
+}
@@ -0,0 +1,64 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the post_timestamp range partitions of social_post and their retention.
+ */
+@ConfigurationProperties(prefix = "partitions")
+public class PartitionConfig {
+
+    /**
+     * Days covered by each new partition, e.g. 1 for daily or 7 for weekly partitions.
+     */
+    private final int intervalDays;
+
+    /**
+     * Number of partitions kept ready beyond the current one, so inserts never wait for a partition to be created.
+     */
+    private final int aheadCount;
+
+    /**
+     * How often partitions are created ahead and, with retention enabled, expired ones dropped.
+     */
+    private final long maintenanceIntervalMillis;
+
+    /**
+     * Whether partitions older than {@link #retentionDays} are dropped.
+     */
+    private final boolean retentionEnabled;
+
+    /**
+     * How long posts are kept, by post timestamp; a partition is dropped once all of its range is older.
+     */
+    private final int retentionDays;
+
+    public PartitionConfig(Integer intervalDays, Integer aheadCount, Long maintenanceIntervalMillis,
+                           Boolean retentionEnabled, Integer retentionDays) {
+        this.intervalDays = (intervalDays == null) ? 7 : Math.max(1, intervalDays);
+        this.aheadCount = (aheadCount == null) ? 4 : Math.max(1, aheadCount);
+        this.maintenanceIntervalMillis = (maintenanceIntervalMillis == null) ? 3_600_000 : Math.max(1, maintenanceIntervalMillis);
+        this.retentionEnabled = retentionEnabled != null && retentionEnabled;
+        this.retentionDays = (retentionDays == null) ? 365 : Math.max(1, retentionDays);
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public int getAheadCount() {
+        return aheadCount;
+    }
+
+    public long getMaintenanceIntervalMillis() {
+        return maintenanceIntervalMillis;
+    }
+
+    public boolean isRetentionEnabled() {
+        return retentionEnabled;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+}
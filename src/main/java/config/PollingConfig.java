@@ -0,0 +1,108 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Configuration properties for the keyword polling scheduler.
+ */
+@ConfigurationProperties(prefix = "polling")
+public class PollingConfig {
+
+    /**
+     * Whether registered keywords are polled.
+     */
+    private final boolean enabled;
+
+    /**
+     * Keywords registered at startup; more can be registered through the API.
+     */
+    private final List<String> keywords;
+
+    /**
+     * Polls that run at the same time.
+     */
+    private final int concurrency;
+
+    /**
+     * Pages followed per poll; the first page holds the newest posts.
+     */
+    private final int maxPagesPerPoll;
+
+    /**
+     * Poll interval of a newly registered keyword, before its post velocity is known.
+     */
+    private final int initialIntervalSeconds;
+
+    /**
+     * Shortest interval between polls of one keyword.
+     */
+    private final int minIntervalSeconds;
+
+    /**
+     * Longest interval between polls of one keyword, however quiet it is.
+     */
+    private final int maxIntervalSeconds;
+
+    /**
+     * New posts a poll should find; intervals are sized so the expected yield per call is about this many.
+     */
+    private final int targetPostsPerPoll;
+
+    /**
+     * Weight of the latest poll in a keyword's smoothed post velocity, in (0, 1].
+     */
+    private final double velocitySmoothing;
+
+    public PollingConfig(Boolean enabled, List<String> keywords, Integer concurrency, Integer maxPagesPerPoll,
+                         Integer initialIntervalSeconds, Integer minIntervalSeconds, Integer maxIntervalSeconds,
+                         Integer targetPostsPerPoll, Double velocitySmoothing) {
+        this.enabled = (enabled == null) || enabled;
+        this.keywords = (keywords == null) ? List.of() : List.copyOf(keywords);
+        this.concurrency = (concurrency == null) ? 2 : Math.max(1, concurrency);
+        this.maxPagesPerPoll = (maxPagesPerPoll == null) ? 3 : Math.max(1, maxPagesPerPoll);
+        this.minIntervalSeconds = (minIntervalSeconds == null) ? 30 : Math.max(1, minIntervalSeconds);
+        this.maxIntervalSeconds = (maxIntervalSeconds == null) ? 1800 : Math.max(this.minIntervalSeconds, maxIntervalSeconds);
+        this.initialIntervalSeconds = (initialIntervalSeconds == null) ? 60
+                : Math.max(this.minIntervalSeconds, Math.min(this.maxIntervalSeconds, initialIntervalSeconds));
+        this.targetPostsPerPoll = (targetPostsPerPoll == null) ? 50 : Math.max(1, targetPostsPerPoll);
+        this.velocitySmoothing = (velocitySmoothing == null) ? 0.3 : Math.max(0.01, Math.min(1, velocitySmoothing));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getMaxPagesPerPoll() {
+        return maxPagesPerPoll;
+    }
+
+    public int getInitialIntervalSeconds() {
+        return initialIntervalSeconds;
+    }
+
+    public int getMinIntervalSeconds() {
+        return minIntervalSeconds;
+    }
+
+    public int getMaxIntervalSeconds() {
+        return maxIntervalSeconds;
+    }
+
+    public int getTargetPostsPerPoll() {
+        return targetPostsPerPoll;
+    }
+
+    public double getVelocitySmoothing() {
+        return velocitySmoothing;
+    }
+}
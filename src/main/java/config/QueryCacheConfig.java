@@ -0,0 +1,43 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the cache of post listing and search results.
+ */
+@ConfigurationProperties(prefix = "query-cache")
+public class QueryCacheConfig {
+
+    /**
+     * Whether listing and search results are cached at all.
+     */
+    private final boolean enabled;
+
+    /**
+     * Upper bound on cached result pages; beyond it entries are evicted by Caffeine's frequency-based policy.
+     */
+    private final long maxEntries;
+
+    /**
+     * How long a cached page is served before it is read again, even without new posts.
+     */
+    private final long ttlSeconds;
+
+    public QueryCacheConfig(Boolean enabled, Long maxEntries, Long ttlSeconds) {
+        this.enabled = (enabled == null) || enabled;
+        this.maxEntries = (maxEntries == null) ? 1000 : Math.max(1, maxEntries);
+        this.ttlSeconds = (ttlSeconds == null) ? 30 : Math.max(1, ttlSeconds);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+}
@@ -0,0 +1,54 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the post count rollups behind volume queries.
+ */
+@ConfigurationProperties(prefix = "rollups")
+public class RollupConfig {
+
+    /**
+     * How often counts gathered at ingest are written to the minute rollup, in one batched upsert.
+     */
+    private final long flushMillis;
+
+    /**
+     * How often minute counters past their retention are dropped and old hour counters are compacted into days.
+     */
+    private final long compactionIntervalMillis;
+
+    /**
+     * How long minute counters are kept; older counts are only available per hour.
+     */
+    private final int minuteRetentionHours;
+
+    /**
+     * How long counters keep hour resolution before they are compacted into days.
+     */
+    private final int hourRetentionDays;
+
+    public RollupConfig(Long flushMillis, Long compactionIntervalMillis, Integer minuteRetentionHours,
+                        Integer hourRetentionDays) {
+        this.flushMillis = (flushMillis == null) ? 1000 : Math.max(1, flushMillis);
+        this.compactionIntervalMillis = (compactionIntervalMillis == null) ? 300_000 : Math.max(1, compactionIntervalMillis);
+        this.minuteRetentionHours = (minuteRetentionHours == null) ? 48 : Math.max(1, minuteRetentionHours);
+        this.hourRetentionDays = (hourRetentionDays == null) ? 90 : Math.max(1, hourRetentionDays);
+    }
+
+    public long getFlushMillis() {
+        return flushMillis;
+    }
+
+    public long getCompactionIntervalMillis() {
+        return compactionIntervalMillis;
+    }
+
+    public int getMinuteRetentionHours() {
+        return minuteRetentionHours;
+    }
+
+    public int getHourRetentionDays() {
+        return hourRetentionDays;
+    }
+}
@@ -0,0 +1,65 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for sentiment scoring on ingest and the backfill of unscored posts.
+ */
+@ConfigurationProperties(prefix = "sentiment")
+public class SentimentConfig {
+
+    /**
+     * Batches with at least this many posts are scored in parallel; smaller ones on the calling thread.
+     */
+    private final int parallelThreshold;
+
+    /**
+     * Worker threads used for parallel scoring.
+     */
+    private final int parallelism;
+
+    /**
+     * Whether the scheduled backfill of unscored posts runs.
+     */
+    private final boolean backfillEnabled;
+
+    /**
+     * Unscored posts read, scored and updated per backfill round.
+     */
+    private final int backfillBatchSize;
+
+    /**
+     * Delay between the end of one backfill run and the start of the next.
+     */
+    private final long backfillIntervalMillis;
+
+    public SentimentConfig(Integer parallelThreshold, Integer parallelism, Boolean backfillEnabled,
+                           Integer backfillBatchSize, Long backfillIntervalMillis) {
+        this.parallelThreshold = (parallelThreshold == null) ? 2000 : Math.max(1, parallelThreshold);
+        this.parallelism = (parallelism == null || parallelism <= 0)
+                ? Runtime.getRuntime().availableProcessors() : parallelism;
+        this.backfillEnabled = (backfillEnabled == null) || backfillEnabled;
+        this.backfillBatchSize = (backfillBatchSize == null) ? 10000 : Math.max(1, backfillBatchSize);
+        this.backfillIntervalMillis = (backfillIntervalMillis == null) ? 60000 : backfillIntervalMillis;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean isBackfillEnabled() {
+        return backfillEnabled;
+    }
+
+    public int getBackfillBatchSize() {
+        return backfillBatchSize;
+    }
+
+    public long getBackfillIntervalMillis() {
+        return backfillIntervalMillis;
+    }
+}
@@ -0,0 +1,106 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Configuration properties for the per-platform bulkheads that keyword fetches run on.
+ * <p>
+ * The top-level values apply to every source; {@code sources.platforms.<platform>.*} overrides them for one
+ * platform, field by field.
+ * </p>
+ */
+@ConfigurationProperties(prefix = "sources")
+public class SourceConfig {
+
+    /**
+     * Fetches that run against one platform at the same time.
+     */
+    private final int concurrency;
+
+    /**
+     * Fetches that may wait for one platform; a fetch beyond concurrency plus this skips the platform.
+     */
+    private final int queueCapacity;
+
+    /**
+     * How long a fetch waits for one platform, queueing included, before it stores the others without it.
+     */
+    private final int timeoutSeconds;
+
+    /**
+     * Overrides per platform name.
+     */
+    private final Map<String, Bulkhead> platforms;
+
+    public SourceConfig(Integer concurrency, Integer queueCapacity, Integer timeoutSeconds,
+                        Map<String, Bulkhead> platforms) {
+        this.concurrency = (concurrency == null) ? 4 : Math.max(1, concurrency);
+        this.queueCapacity = (queueCapacity == null) ? 32 : Math.max(0, queueCapacity);
+        this.timeoutSeconds = (timeoutSeconds == null) ? 120 : Math.max(1, timeoutSeconds);
+        this.platforms = (platforms == null) ? Map.of() : platforms.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(e -> e.getKey().toLowerCase(Locale.ROOT), Map.Entry::getValue));
+    }
+
+    /**
+     * @param platform the platform name
+     * @return the platform's limits, with unset fields taken from the top-level values
+     */
+    public Bulkhead bulkheadFor(String platform) {
+        Bulkhead override = platforms.get(platform.toLowerCase(Locale.ROOT));
+        if (override == null) {
+            return new Bulkhead(concurrency, queueCapacity, timeoutSeconds);
+        }
+        return new Bulkhead(
+                override.concurrency != null ? Math.max(1, override.concurrency) : concurrency,
+                override.queueCapacity != null ? Math.max(0, override.queueCapacity) : queueCapacity,
+                override.timeoutSeconds != null ? Math.max(1, override.timeoutSeconds) : timeoutSeconds);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public Map<String, Bulkhead> getPlatforms() {
+        return platforms;
+    }
+
+    /**
+     * Limits of one platform's bulkhead; null fields fall back to the top-level values.
+     */
+    public static class Bulkhead {
+
+        private final Integer concurrency;
+        private final Integer queueCapacity;
+        private final Integer timeoutSeconds;
+
+        public Bulkhead(Integer concurrency, Integer queueCapacity, Integer timeoutSeconds) {
+            this.concurrency = concurrency;
+            this.queueCapacity = queueCapacity;
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        public Integer getConcurrency() {
+            return concurrency;
+        }
+
+        public Integer getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public Integer getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for filtered-stream ingestion.
+ */
+@ConfigurationProperties(prefix = "stream")
+public class StreamConfig {
+
+    /**
+     * Whether a filtered-stream connection is kept open on startup. Rules are managed through the API's
+     * stream rules endpoint, outside this application.
+     */
+    private final boolean enabled;
+
+    /**
+     * Path of the stream endpoint, relative to {@code twitter.api.base-url}.
+     */
+    private final String path;
+
+    /**
+     * The stream is considered dead, and reconnected, when no data or keep-alive arrives for this long.
+     * The API sends a keep-alive every 20 seconds.
+     */
+    private final int readTimeoutSeconds;
+
+    /**
+     * Posts held between the connection and the database writer; rounded up to a power of two.
+     */
+    private final int bufferCapacity;
+
+    /**
+     * Upper bound on posts written per insert.
+     */
+    private final int batchSize;
+
+    /**
+     * Longest a received post waits for its batch to fill before the batch is written anyway.
+     */
+    private final long flushMillis;
+
+    /**
+     * Longest the reader waits for room in a full buffer before it drops the connection and reconnects later.
+     */
+    private final long backpressureTimeoutMillis;
+
+    /**
+     * Reconnect delay after a network error, raised linearly by this step up to 16 seconds' worth.
+     */
+    private final long networkRetryMillis;
+
+    /**
+     * First reconnect delay after an HTTP error response, doubled on each consecutive error.
+     */
+    private final long httpRetryMillis;
+
+    /**
+     * First reconnect delay after a 429 response, doubled on each consecutive 429.
+     */
+    private final long rateLimitRetryMillis;
+
+    /**
+     * Upper bound on any reconnect delay.
+     */
+    private final long maxRetryMillis;
+
+    public StreamConfig(Boolean enabled, String path, Integer readTimeoutSeconds, Integer bufferCapacity,
+                        Integer batchSize, Long flushMillis, Long backpressureTimeoutMillis, Long networkRetryMillis,
+                        Long httpRetryMillis, Long rateLimitRetryMillis, Long maxRetryMillis) {
+        this.enabled = (enabled != null) && enabled;
+        this.path = (path == null || path.isBlank()) ? "/tweets/search/stream" : path;
+        this.readTimeoutSeconds = (readTimeoutSeconds == null) ? 30 : Math.max(1, readTimeoutSeconds);
+        this.bufferCapacity = (bufferCapacity == null) ? 8192 : Math.max(2, bufferCapacity);
+        this.batchSize = (batchSize == null) ? 500 : Math.max(1, batchSize);
+        this.flushMillis = (flushMillis == null) ? 200 : Math.max(1, flushMillis);
+        this.backpressureTimeoutMillis = (backpressureTimeoutMillis == null) ? 30000 : Math.max(1, backpressureTimeoutMillis);
+        this.networkRetryMillis = (networkRetryMillis == null) ? 250 : Math.max(1, networkRetryMillis);
+        this.httpRetryMillis = (httpRetryMillis == null) ? 5000 : Math.max(1, httpRetryMillis);
+        this.rateLimitRetryMillis = (rateLimitRetryMillis == null) ? 60000 : Math.max(1, rateLimitRetryMillis);
+        this.maxRetryMillis = (maxRetryMillis == null) ? 320000 : Math.max(1, maxRetryMillis);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getReadTimeoutSeconds() {
+        return readTimeoutSeconds;
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getFlushMillis() {
+        return flushMillis;
+    }
+
+    public long getBackpressureTimeoutMillis() {
+        return backpressureTimeoutMillis;
+    }
+
+    public long getNetworkRetryMillis() {
+        return networkRetryMillis;
+    }
+
+    public long getHttpRetryMillis() {
+        return httpRetryMillis;
+    }
+
+    public long getRateLimitRetryMillis() {
+        return rateLimitRetryMillis;
+    }
+
+    public long getMaxRetryMillis() {
+        return maxRetryMillis;
+    }
+}
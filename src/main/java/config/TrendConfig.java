@@ -0,0 +1,64 @@
+package config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the in-memory trending-terms engine.
+ */
+@ConfigurationProperties(prefix = "trends")
+public class TrendConfig {
+
+    /**
+     * Counters per Count-Min Sketch row, per time bucket.
+     */
+    private final int sketchWidth;
+
+    /**
+     * Count-Min Sketch rows (hash functions), per time bucket.
+     */
+    private final int sketchDepth;
+
+    /**
+     * Independently locked heavy-hitter stripes per time bucket.
+     */
+    private final int topKStripes;
+
+    /**
+     * Heavy-hitter candidates kept per stripe.
+     */
+    private final int topKPerStripe;
+
+    /**
+     * How long a computed top-terms answer is reused before it is recomputed.
+     */
+    private final long queryCacheMillis;
+
+    public TrendConfig(Integer sketchWidth, Integer sketchDepth, Integer topKStripes, Integer topKPerStripe,
+                       Long queryCacheMillis) {
+        this.sketchWidth = (sketchWidth == null) ? 4096 : sketchWidth;
+        this.sketchDepth = (sketchDepth == null) ? 4 : sketchDepth;
+        this.topKStripes = (topKStripes == null) ? 8 : topKStripes;
+        this.topKPerStripe = (topKPerStripe == null) ? 32 : topKPerStripe;
+        this.queryCacheMillis = (queryCacheMillis == null) ? 1000 : queryCacheMillis;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public int getSketchDepth() {
+        return sketchDepth;
+    }
+
+    public int getTopKStripes() {
+        return topKStripes;
+    }
+
+    public int getTopKPerStripe() {
+        return topKPerStripe;
+    }
+
+    public long getQueryCacheMillis() {
+        return queryCacheMillis;
+    }
+}
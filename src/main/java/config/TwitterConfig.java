@@ -15,12 +15,93 @@ public class TwitterConfig {
     @NotBlank
     private final String bearerToken;
 
+    /**
+     * Longest wait for response data on an open connection (socket read timeout).
+     */
     private final int timeoutSeconds;
 
-    public TwitterConfig(String baseUrl, String bearerToken, Integer timeoutSeconds) {
+    /**
+     * Longest wait for a TCP (and TLS) connection to be established.
+     */
+    private final int connectTimeoutMillis;
+
+    /**
+     * Longest wait for a free connection from the pool before a call fails.
+     */
+    private final int connectionRequestTimeoutMillis;
+
+    /**
+     * Upper bound on pooled connections across all routes.
+     */
+    private final int maxConnections;
+
+    /**
+     * Upper bound on pooled connections to a single host; all search calls share one route.
+     */
+    private final int maxConnectionsPerRoute;
+
+    /**
+     * Pooled connections idle for longer than this are closed in the background.
+     */
+    private final int idleConnectionSeconds;
+
+    /**
+     * Tweets requested per page (max_results); the API accepts 10..100.
+     */
+    private final int pageSize;
+
+    /**
+     * Upper bound on pages followed via next_token for a single paginated fetch.
+     */
+    private final int maxPages;
+
+    /**
+     * Upper bound on posts handed out by a single paginated fetch.
+     */
+    private final int maxPosts;
+
+    /**
+     * Search requests allowed per rate-limit window, assumed until the API reports its own x-rate-limit-limit.
+     */
+    private final int rateLimitRequests;
+
+    /**
+     * Length of the API's rate-limit window.
+     */
+    private final int rateLimitWindowSeconds;
+
+    /**
+     * Calls that may be made back to back after an idle period before pacing applies.
+     */
+    private final int rateLimitBurst;
+
+    /**
+     * Longest a call waits for rate-limit quota before it fails with 429; capped to fit the platform's
+     * {@code sources.timeout-seconds}.
+     */
+    private final int rateLimitMaxWaitSeconds;
+
+    public TwitterConfig(String baseUrl, String bearerToken, Integer timeoutSeconds,
+                         Integer connectTimeoutMillis, Integer connectionRequestTimeoutMillis,
+                         Integer maxConnections, Integer maxConnectionsPerRoute, Integer idleConnectionSeconds,
+                         Integer pageSize, Integer maxPages, Integer maxPosts,
+                         Integer rateLimitRequests, Integer rateLimitWindowSeconds, Integer rateLimitBurst,
+                         Integer rateLimitMaxWaitSeconds) {
         this.baseUrl = baseUrl;
         this.bearerToken = bearerToken;
         this.timeoutSeconds = (timeoutSeconds == null) ? 5 : timeoutSeconds;
+        this.connectTimeoutMillis = (connectTimeoutMillis == null) ? 2000 : connectTimeoutMillis;
+        this.connectionRequestTimeoutMillis = (connectionRequestTimeoutMillis == null) ? 1000 : connectionRequestTimeoutMillis;
+        this.maxConnections = (maxConnections == null) ? 20 : Math.max(1, maxConnections);
+        this.maxConnectionsPerRoute = (maxConnectionsPerRoute == null) ? 10 : Math.max(1, maxConnectionsPerRoute);
+        this.idleConnectionSeconds = (idleConnectionSeconds == null) ? 30 : Math.max(1, idleConnectionSeconds);
+        this.pageSize = (pageSize == null) ? 100 : Math.max(10, Math.min(100, pageSize));
+        this.maxPages = (maxPages == null) ? 10 : maxPages;
+        this.maxPosts = (maxPosts == null) ? 1000 : maxPosts;
+        this.rateLimitRequests = (rateLimitRequests == null) ? 450 : Math.max(1, rateLimitRequests);
+        this.rateLimitWindowSeconds = (rateLimitWindowSeconds == null) ? 900 : Math.max(1, rateLimitWindowSeconds);
+        this.rateLimitBurst = (rateLimitBurst == null) ? 5 : Math.max(1, rateLimitBurst);
+        this.rateLimitMaxWaitSeconds = (rateLimitMaxWaitSeconds == null) ? 60 : Math.max(0, rateLimitMaxWaitSeconds);
     }
 
     public String getBaseUrl() {
@@ -34,4 +115,52 @@ public class TwitterConfig {
     public int getTimeoutSeconds() {
         return timeoutSeconds;
     }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getConnectionRequestTimeoutMillis() {
+        return connectionRequestTimeoutMillis;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public int getIdleConnectionSeconds() {
+        return idleConnectionSeconds;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    public int getMaxPosts() {
+        return maxPosts;
+    }
+
+    public int getRateLimitRequests() {
+        return rateLimitRequests;
+    }
+
+    public int getRateLimitWindowSeconds() {
+        return rateLimitWindowSeconds;
+    }
+
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public int getRateLimitMaxWaitSeconds() {
+        return rateLimitMaxWaitSeconds;
+    }
 }
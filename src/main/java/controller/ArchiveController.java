@@ -0,0 +1,77 @@
+package controller;
+
+import exception.ApiException;
+import model.ArchivedSegment;
+import model.ReplayReport;
+import model.VolumeGranularity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import service.PostArchiveService;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * REST controller for the archive of old posts.
+ */
+@RestController
+@RequestMapping("/api/archive")
+public class ArchiveController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final PostArchiveService postArchiveService;
+
+    /**
+     * Constructor for ArchiveController.
+     * @param postArchiveService the service managing and replaying archived posts
+     */
+    @Autowired
+    public ArchiveController(PostArchiveService postArchiveService) {
+        this.postArchiveService = postArchiveService;
+    }
+
+    /**
+     * List the archive's segment files.
+     * @return segments ordered by their oldest post
+     */
+    @GetMapping("/segments")
+    public List<ArchivedSegment> getSegments() {
+        return postArchiveService.findSegments();
+    }
+
+    /**
+     * Replay archived posts through the sentiment and trend analysis.
+     * @param from ISO-8601 start instant
+     * @param to ISO-8601 end instant (exclusive); defaults to now
+     * @param granularity bucket size of the sentiment series: minute, hour or day
+     * @param term only count posts containing this word, #hashtag or @mention
+     * @param limit number of top terms to return, capped at 100
+     * @param rescore score posts with the current scorer (default) instead of using their stored labels
+     * @return posts per bucket and sentiment label, and the most frequent terms
+     */
+    @GetMapping("/replay")
+    public ReplayReport replay(
+            @RequestParam("from") String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "granularity", defaultValue = "day") String granularity,
+            @RequestParam(value = "term", required = false) String term,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "rescore", defaultValue = "true") boolean rescore) {
+        Instant end = to == null ? Instant.now() : parseInstant("to", to);
+        return postArchiveService.replay(parseInstant("from", from), end, VolumeGranularity.fromCode(granularity),
+                term, Math.max(1, Math.min(MAX_LIMIT, limit)), rescore);
+    }
+
+    private static Instant parseInstant(String name, String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new ApiException("Invalid " + name + ": " + value + " (expected an ISO-8601 instant)");
+        }
+    }
+}
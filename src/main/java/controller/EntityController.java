@@ -0,0 +1,111 @@
+package controller;
+
+import exception.ApiException;
+import model.CursorPage;
+import model.EntityCount;
+import model.EntityType;
+import model.SocialPost;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import service.PostEntityService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * REST controller for hashtag, mention and linked-domain queries.
+ * The entity type in the path is one of {@code hashtags}, {@code mentions} or {@code domains}.
+ */
+@RestController
+@RequestMapping("/api/entities")
+public class EntityController {
+
+    private static final int MAX_LIMIT = 100;
+    private static final Duration DEFAULT_WINDOW = Duration.ofHours(24);
+
+    private final PostEntityService postEntityService;
+
+    /**
+     * Constructor for EntityController.
+     * @param postEntityService the service answering entity queries
+     */
+    @Autowired
+    public EntityController(PostEntityService postEntityService) {
+        this.postEntityService = postEntityService;
+    }
+
+    /**
+     * Get the hashtags, mentions or domains found in the most posts of a time range.
+     * @param type hashtags, mentions or domains
+     * @param from ISO-8601 start instant; defaults to 24 hours before the end
+     * @param to ISO-8601 end instant (exclusive); defaults to now
+     * @param limit number of values to return, capped at 100
+     * @return values ordered by their number of posts, highest first
+     */
+    @GetMapping("/{type}")
+    public List<EntityCount> getTop(
+            @PathVariable("type") String type,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        Instant end = to == null ? Instant.now() : parseInstant("to", to);
+        Instant start = from == null ? end.minus(DEFAULT_WINDOW) : parseInstant("from", from);
+        return postEntityService.top(EntityType.fromCode(type), start, end, Math.max(1, Math.min(MAX_LIMIT, limit)));
+    }
+
+    /**
+     * Count the posts containing a hashtag, mention or domain.
+     * @param type hashtags, mentions or domains
+     * @param value the hashtag, username or domain, with or without its # or @; case-insensitive
+     * @param from ISO-8601 start instant; omit for no lower bound
+     * @param to ISO-8601 end instant (exclusive); omit for no upper bound
+     * @return the normalized value and its number of posts
+     */
+    @GetMapping("/{type}/{value}/count")
+    public EntityCount getCount(
+            @PathVariable("type") String type,
+            @PathVariable("value") String value,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to) {
+        return postEntityService.count(EntityType.fromCode(type), value,
+                from == null ? null : parseInstant("from", from), to == null ? null : parseInstant("to", to));
+    }
+
+    /**
+     * Get the posts containing a hashtag, mention or domain, newest first, keyset-paginated.
+     * The cursor for the next page is returned in the {@code X-Next-Cursor} header; it is absent on the last page.
+     * @param type hashtags, mentions or domains
+     * @param value the hashtag, username or domain, with or without its # or @; case-insensitive
+     * @param cursor cursor from the previous page's X-Next-Cursor header
+     * @param size page size, capped at 100
+     * @return list of social posts
+     */
+    @GetMapping("/{type}/{value}/posts")
+    public ResponseEntity<List<SocialPost>> getPosts(
+            @PathVariable("type") String type,
+            @PathVariable("value") String value,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        CursorPage<SocialPost> page = postEntityService.findPosts(EntityType.fromCode(type), value, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(SocialPostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    private static Instant parseInstant(String name, String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new ApiException("Invalid " + name + ": " + value + " (expected an ISO-8601 instant)");
+        }
+    }
+}
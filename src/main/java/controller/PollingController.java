@@ -0,0 +1,58 @@
+package controller;
+
+import model.PolledKeyword;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import service.KeywordPollingScheduler;
+
+import java.util.List;
+
+/**
+ * REST controller for the set of keywords polled in the background.
+ */
+@RestController
+@RequestMapping("/api/polling/keywords")
+public class PollingController {
+
+    private final KeywordPollingScheduler pollingScheduler;
+
+    /**
+     * Constructor for PollingController.
+     * @param pollingScheduler the scheduler polling registered keywords
+     */
+    @Autowired
+    public PollingController(KeywordPollingScheduler pollingScheduler) {
+        this.pollingScheduler = pollingScheduler;
+    }
+
+    /**
+     * List polled keywords with their adapted interval, post velocity and counts.
+     * @return the registered keywords
+     */
+    @GetMapping
+    public List<PolledKeyword> getKeywords() {
+        return pollingScheduler.getKeywords();
+    }
+
+    /**
+     * Register a keyword for polling; its first poll is due immediately.
+     * @param keyword keyword to poll
+     * @return the keyword's polling state
+     */
+    @PostMapping
+    public ResponseEntity<PolledKeyword> register(@RequestParam("keyword") String keyword) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(pollingScheduler.register(keyword));
+    }
+
+    /**
+     * Stop polling a keyword.
+     * @param keyword keyword to remove
+     */
+    @DeleteMapping("/{keyword}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void unregister(@PathVariable("keyword") String keyword) {
+        pollingScheduler.unregister(keyword);
+    }
+}
@@ -1,12 +1,19 @@
 package controller;
 
+import model.CursorPage;
+import model.FetchJob;
+import model.SearchSort;
 import model.SocialPost;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Pageable;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import service.FetchJobService;
 import service.SocialPostService;
 
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -17,45 +24,94 @@ import java.util.List;
 @Validated
 public class SocialPostController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final SocialPostService socialPostService;
+    private final FetchJobService fetchJobService;
 
     /**
      * Constructor for SocialPostController.
      * @param socialPostService the service to handle social post operations
+     * @param fetchJobService the service running fetches in the background
      */
     @Autowired
-    public SocialPostController(SocialPostService socialPostService) {
+    public SocialPostController(SocialPostService socialPostService, FetchJobService fetchJobService) {
         this.socialPostService = socialPostService;
+        this.fetchJobService = fetchJobService;
     }
 
     /**
-     * Get all social posts, optionally paginated.
+     * Get social posts newest first, keyset-paginated.
+     * The cursor for the next page is returned in the {@code X-Next-Cursor} header; it is absent on the last page.
+     * @param cursor cursor from the previous page's X-Next-Cursor header
+     * @param size page size, capped at 100
      * @return list of social posts
      */
     @GetMapping("/posts")
-    public List<SocialPost> getAllPosts() {
-        return socialPostService.getAllPosts();
+    public ResponseEntity<List<SocialPost>> getAllPosts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        return withNextCursor(socialPostService.getPosts(cursor, size));
+    }
+
+    /**
+     * Export all social posts as newline-delimited JSON, selected with {@code Accept: application/x-ndjson}.
+     * The response is streamed while rows are read, so it has no size limit.
+     * @return streaming response body
+     */
+    @GetMapping(value = "/posts", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        StreamingResponseBody body = socialPostService::exportPosts;
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
     }
 
     /**
-     * Fetch and save posts by keyword.
+     * Start fetching and saving posts by keyword in the background.
+     * Returns 202 with the job; poll the URL in the Location header for progress. A keyword that already
+     * has a queued or running job returns that job.
      * @param keyword fetch keyword
+     * @return the submitted job
      */
     @PostMapping("/fetch")
-    public void fetchAndSavePosts(@RequestParam("keyword") String keyword) {
-        socialPostService.fetchAndSavePosts(keyword);
+    public ResponseEntity<FetchJob> fetchAndSavePosts(@RequestParam("keyword") String keyword) {
+        FetchJob job = fetchJobService.submit(keyword);
+        return ResponseEntity.accepted().location(URI.create("/api/fetch/" + job.getId())).body(job);
     }
 
     /**
-     * Search posts by keyword.
+     * Get the status and counts of a fetch job.
+     * @param jobId id returned when the job was submitted
+     * @return the job and its progress
+     */
+    @GetMapping("/fetch/{jobId}")
+    public FetchJob getFetchJob(@PathVariable("jobId") String jobId) {
+        return fetchJobService.getJob(jobId);
+    }
+
+    /**
+     * Search posts by full-text query, keyset-paginated.
+     * The cursor for the next page is returned in the {@code X-Next-Cursor} header; it is absent on the last page.
      * @param q search query
-     * @param pageable pagination information
+     * @param sort result ordering, relevance by default
+     * @param cursor cursor from the previous page's X-Next-Cursor header
+     * @param size page size, capped at 100
      * @return list of matching social posts
      */
     @GetMapping("/search")
-    public List<SocialPost> searchPosts(
+    public ResponseEntity<List<SocialPost>> searchPosts(
             @RequestParam("q") String q,
-            Pageable pageable) {
-        return socialPostService.searchPosts(q, pageable);
+            @RequestParam(value = "sort", defaultValue = "RELEVANCE") SearchSort sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return withNextCursor(socialPostService.searchPosts(q, sort, cursor, size));
+    }
+
+    private static <T> ResponseEntity<List<T>> withNextCursor(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package controller;
+
+import exception.ApiException;
+import model.TrendWindow;
+import model.TrendingTerm;
+import model.VolumeBucket;
+import model.VolumeGranularity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import service.PostVolumeService;
+import service.TrendService;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * REST controller for trend queries.
+ */
+@RestController
+@RequestMapping("/api/trends")
+public class TrendController {
+
+    private static final int MAX_LIMIT = 100;
+    private static final int DEFAULT_BUCKETS = 60;
+
+    private final TrendService trendService;
+    private final PostVolumeService postVolumeService;
+
+    /**
+     * Constructor for TrendController.
+     * @param trendService the service computing trends
+     * @param postVolumeService the service answering post volume queries
+     */
+    @Autowired
+    public TrendController(TrendService trendService, PostVolumeService postVolumeService) {
+        this.trendService = trendService;
+        this.postVolumeService = postVolumeService;
+    }
+
+    /**
+     * Get the most frequent terms (words, #hashtags, @mentions) in recently ingested posts.
+     * @param window look-back window: 5m, 1h or 24h
+     * @param limit number of terms to return, capped at 100
+     * @return terms ordered by estimated count, highest first
+     */
+    @GetMapping("/terms")
+    public List<TrendingTerm> getTopTerms(
+            @RequestParam(value = "window", defaultValue = "1h") String window,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return trendService.topTerms(TrendWindow.fromCode(window), Math.max(1, Math.min(MAX_LIMIT, limit)));
+    }
+
+    /**
+     * Get the number of posts stored per time bucket, by sentiment label, from the rollup tables.
+     * @param keyword search keyword; omit for all keywords
+     * @param platform platform name, e.g. twitter; omit for all platforms
+     * @param granularity bucket size: minute, hour or day
+     * @param from ISO-8601 start instant; defaults to 60 buckets before the end
+     * @param to ISO-8601 end instant (exclusive); defaults to now
+     * @return one bucket per step, oldest first, empty buckets included
+     */
+    @GetMapping("/volume")
+    public List<VolumeBucket> getVolume(
+            @RequestParam(value = "keyword", required = false) String keyword,
+            @RequestParam(value = "platform", required = false) String platform,
+            @RequestParam(value = "granularity", defaultValue = "hour") String granularity,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to) {
+        VolumeGranularity bucketSize = VolumeGranularity.fromCode(granularity);
+        Instant end = to == null ? Instant.now() : parseInstant("to", to);
+        Instant start = from == null ? end.minus(bucketSize.getDuration().multipliedBy(DEFAULT_BUCKETS))
+                : parseInstant("from", from);
+        return postVolumeService.volume(keyword, platform, bucketSize, start, end);
+    }
+
+    private static Instant parseInstant(String name, String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new ApiException("Invalid " + name + ": " + value + " (expected an ISO-8601 instant)");
+        }
+    }
+}
@@ -54,6 +54,12 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, request, "EXTERNAL_API_ERROR");
     }
 
+    @ExceptionHandler(JobRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleJobRejected(JobRejectedException ex, WebRequest request) {
+        logger.warn("Job rejected: {}", ex.getMessage());
+        return buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, request, "JOB_REJECTED");
+    }
+
     @ExceptionHandler(ApiException.class)
     public ResponseEntity<Map<String, Object>> handleApiException(ApiException ex, WebRequest request) {
         logger.warn("API exception: {}", ex.getMessage());
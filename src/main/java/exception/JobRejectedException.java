@@ -0,0 +1,17 @@
+package exception;
+
+/**
+ * Exception thrown when a background job cannot be accepted because the job queue is full.
+ * Clients should retry later.
+ */
+public class JobRejectedException extends ApiException {
+
+    /**
+     * Constructs a new JobRejectedException with a detailed message.
+     *
+     * @param message the detail message
+     */
+    public JobRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package model;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * A segment file of archived posts.
+ */
+@Value
+public class ArchivedSegment {
+
+    String name;
+
+    /**
+     * Post timestamp of the oldest post in the segment.
+     */
+    Instant firstTimestamp;
+
+    /**
+     * Post timestamp of the newest post in the segment.
+     */
+    Instant lastTimestamp;
+
+    long posts;
+
+    long bytes;
+}
@@ -0,0 +1,23 @@
+package model;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated result.
+ * @param <T> the item type
+ */
+@Value
+public class CursorPage<T> {
+
+    /**
+     * Items in this page.
+     */
+    List<T> items;
+
+    /**
+     * Cursor for the following page, or null if this is the last page.
+     */
+    String nextCursor;
+}
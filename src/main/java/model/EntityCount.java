@@ -0,0 +1,17 @@
+package model;
+
+import lombok.Value;
+
+/**
+ * A hashtag, mention or domain and the number of posts containing it.
+ */
+@Value
+public class EntityCount {
+
+    /**
+     * The normalized value, e.g. a lower-cased hashtag without its {@code #}.
+     */
+    String value;
+
+    long posts;
+}
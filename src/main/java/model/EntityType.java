@@ -0,0 +1,58 @@
+package model;
+
+import exception.ApiException;
+
+/**
+ * Kinds of post entities kept in side tables for lookups by value.
+ */
+public enum EntityType {
+    HASHTAG("hashtags", "post_hashtag", "tag"),
+    MENTION("mentions", "post_mention", "username"),
+    DOMAIN("domains", "post_url", "domain");
+
+    private final String code;
+    private final String table;
+    private final String column;
+
+    EntityType(String code, String table, String column) {
+        this.code = code;
+        this.table = table;
+        this.column = column;
+    }
+
+    /**
+     * @return the form used in request paths, e.g. "hashtags"
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @return the side table holding one row per post and value
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * @return the side table's value column
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Parses the request form of an entity type.
+     * @param code "hashtags", "mentions" or "domains"
+     * @return the matching type
+     * @throws ApiException if the code is not supported
+     */
+    public static EntityType fromCode(String code) {
+        for (EntityType type : values()) {
+            if (type.code.equalsIgnoreCase(code)) {
+                return type;
+            }
+        }
+        throw new ApiException("Unsupported entity type: " + code + " (expected hashtags, mentions or domains)");
+    }
+}
@@ -0,0 +1,113 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A keyword fetch submitted for background execution, with its progress so far.
+ * <p>
+ * Progress fields are updated by the worker running the job and may be read concurrently by status requests;
+ * each field is individually consistent, and counts only grow.
+ * </p>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FetchJob {
+
+    /**
+     * Lifecycle of a fetch job.
+     */
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    private final String id;
+    private final String keyword;
+    private final Instant submittedAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private final AtomicInteger pagesFetched = new AtomicInteger();
+    private final AtomicInteger postsFetched = new AtomicInteger();
+    private final AtomicInteger postsSaved = new AtomicInteger();
+
+    public FetchJob(String id, String keyword, Instant submittedAt) {
+        this.id = id;
+        this.keyword = keyword;
+        this.submittedAt = submittedAt;
+    }
+
+    public void markRunning(Instant now) {
+        startedAt = now;
+        status = Status.RUNNING;
+    }
+
+    /**
+     * Adds one stored batch to the job's counts.
+     * @param pages pages read from the platforms for the batch
+     * @param fetched posts returned by the platforms for the batch
+     * @param saved posts of the batch that were new and stored
+     */
+    public void recordBatch(int pages, int fetched, int saved) {
+        pagesFetched.addAndGet(pages);
+        postsFetched.addAndGet(fetched);
+        postsSaved.addAndGet(saved);
+    }
+
+    public void markSucceeded(Instant now) {
+        finishedAt = now;
+        status = Status.SUCCEEDED;
+    }
+
+    public void markFailed(Instant now, String error) {
+        this.error = error;
+        finishedAt = now;
+        status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public int getPagesFetched() {
+        return pagesFetched.get();
+    }
+
+    public int getPostsFetched() {
+        return postsFetched.get();
+    }
+
+    public int getPostsSaved() {
+        return postsSaved.get();
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import exception.ApiException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated result: the sort value and id of the last row returned.
+ * Serialized as an opaque URL-safe string that clients pass back to get the next page.
+ */
+@Value
+public class KeysetCursor {
+
+    /**
+     * Sort value of the last row (e.g. an epoch-micros timestamp or a rank), as text.
+     */
+    String sortValue;
+
+    /**
+     * Id of the last row, the tie-breaker for equal sort values.
+     */
+    long id;
+
+    /**
+     * Creates a cursor positioned after a row ordered by (timestamp, id).
+     * @param timestamp the row's timestamp, kept at microsecond precision like the database column
+     * @param id the row's id
+     * @return the cursor
+     */
+    public static KeysetCursor ofTimestamp(Instant timestamp, long id) {
+        return new KeysetCursor(String.valueOf(ChronoUnit.MICROS.between(Instant.EPOCH, timestamp)), id);
+    }
+
+    /**
+     * @return the sort value as a timestamp, for cursors created by {@link #ofTimestamp(Instant, long)}
+     * @throws ApiException if the cursor does not hold a timestamp
+     */
+    public Instant sortTimestamp() {
+        try {
+            return Instant.EPOCH.plus(Long.parseLong(sortValue), ChronoUnit.MICROS);
+        } catch (NumberFormatException ex) {
+            throw new ApiException("Cursor does not match the requested sort order", ex);
+        }
+    }
+
+    /**
+     * @return the opaque cursor string
+     */
+    public String encode() {
+        String raw = sortValue + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a cursor string produced by {@link #encode()}.
+     * @param cursor the opaque cursor string, may be null or blank
+     * @return the cursor, or null if none was given
+     * @throws ApiException if the cursor is malformed
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new ApiException("Invalid cursor: " + cursor, ex);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * A keyword registered for periodic polling, with the cadence the scheduler has adapted to it.
+ */
+@Value
+public class PolledKeyword {
+
+    String keyword;
+
+    /**
+     * Current delay between polls.
+     */
+    long intervalSeconds;
+
+    /**
+     * Smoothed rate of new posts observed for the keyword.
+     */
+    double postsPerMinute;
+
+    Instant lastPolledAt;
+
+    Instant nextPollAt;
+
+    /**
+     * New posts stored by the most recent poll.
+     */
+    int lastNewPosts;
+
+    long totalNewPosts;
+
+    long polls;
+}
@@ -0,0 +1,27 @@
+package model;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Hashtags, mentions and links of a post, normalized by {@link util.EntityExtractor}.
+ */
+@Value
+public class PostEntities {
+
+    /**
+     * Lower-cased hashtags without the leading {@code #}.
+     */
+    List<String> hashtags;
+
+    /**
+     * Lower-cased usernames without the leading {@code @}.
+     */
+    List<String> mentions;
+
+    /**
+     * Absolute http(s) URLs, expanded where the platform reported the expansion.
+     */
+    List<String> urls;
+}
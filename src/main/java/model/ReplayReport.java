@@ -0,0 +1,50 @@
+package model;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of replaying archived posts through the sentiment and trend analysis.
+ */
+@Value
+public class ReplayReport {
+
+    /**
+     * Start of the first bucket.
+     */
+    Instant from;
+
+    /**
+     * End of the last bucket, exclusive.
+     */
+    Instant to;
+
+    /**
+     * Segment files read.
+     */
+    int segments;
+
+    /**
+     * Archived posts in the range.
+     */
+    long postsScanned;
+
+    /**
+     * Posts in the range that contain the requested term; all of them when no term was given.
+     */
+    long postsMatched;
+
+    long elapsedMillis;
+
+    /**
+     * Matched posts per time bucket, by sentiment label.
+     */
+    List<VolumeBucket> buckets;
+
+    /**
+     * Most frequent terms of the matched posts.
+     */
+    List<TrendingTerm> topTerms;
+}
@@ -0,0 +1,15 @@
+package model;
+
+/**
+ * Ordering of full-text search results.
+ */
+public enum SearchSort {
+    /**
+     * Best match first, by ts_rank_cd.
+     */
+    RELEVANCE,
+    /**
+     * Newest post first.
+     */
+    RECENT
+}
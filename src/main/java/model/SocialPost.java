@@ -1,5 +1,6 @@
 package model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
@@ -20,7 +21,7 @@ import java.time.Instant;
 @Entity
 @Table(
         name = "social_post",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"platform", "source_id"}),
+        uniqueConstraints = @UniqueConstraint(columnNames = {"platform", "source_id", "post_timestamp"}),
         indexes = {
                 @Index(name = "idx_platform", columnList = "platform")
         }
@@ -28,10 +29,13 @@ import java.time.Instant;
 public class SocialPost {
 
     /**
-     * Auto-generated primary key.
+     * Auto-generated primary key, drawn from social_post_id_seq.
+     * A sequence (rather than IDENTITY) lets Hibernate batch inserts and lets the bulk
+     * insert path assign ids inside a single statement.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "social_post_seq")
+    @SequenceGenerator(name = "social_post_seq", sequenceName = "social_post_id_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -56,17 +60,17 @@ public class SocialPost {
     private String author;
 
     /**
-     * Post content (potentially long text).
+     * Post content (potentially long text), stored inline as a text column.
      */
     @NotBlank
-    @Lob
-    @Column(nullable = false)
+    @Column(nullable = false, columnDefinition = "text")
     private String content;
 
     /**
-     * Timestamp when the post was created on the platform.
+     * Timestamp when the post was created on the platform; social_post is range-partitioned by it.
+     * Set to the insert time when the platform does not report one.
      */
-    @Column(name = "post_timestamp")
+    @Column(name = "post_timestamp", nullable = false)
     private Instant postTimestamp;
 
     /**
@@ -102,6 +106,14 @@ public class SocialPost {
     @Column
     private Instant updatedAt;
 
+    /**
+     * Hashtags, mentions and links as reported by the platform, written to the entity side tables on insert.
+     * Not a column; null when the platform did not report them, in which case they are extracted from the content.
+     */
+    @Transient
+    @JsonIgnore
+    private PostEntities entities;
+
     /**
      * Helper method to set sentimentScore and derive sentimentLabel if label is null.
      * @param score the sentiment score
@@ -109,13 +121,7 @@ public class SocialPost {
     public void setSentimentScoreAndLabel(Double score) {
         this.sentimentScore = score;
         if (this.sentimentLabel == null && score != null) {
-            if (score > 0.1) {
-                this.sentimentLabel = SentimentLabel.POSITIVE;
-            } else if (score < -0.1) {
-                this.sentimentLabel = SentimentLabel.NEGATIVE;
-            } else {
-                this.sentimentLabel = SentimentLabel.NEUTRAL;
-            }
+            this.sentimentLabel = SentimentLabel.fromScore(score);
         }
     }
 
@@ -123,7 +129,20 @@ public class SocialPost {
      * Sentiment label enum.
      */
     public enum SentimentLabel {
-        POSITIVE, NEUTRAL, NEGATIVE
+        POSITIVE, NEUTRAL, NEGATIVE;
+
+        /**
+         * @param score a sentiment score in [-1, 1]
+         * @return POSITIVE above 0.1, NEGATIVE below -0.1, NEUTRAL otherwise
+         */
+        public static SentimentLabel fromScore(double score) {
+            if (score > 0.1) {
+                return POSITIVE;
+            } else if (score < -0.1) {
+                return NEGATIVE;
+            }
+            return NEUTRAL;
+        }
     }
 
     /**
@@ -0,0 +1,48 @@
+package model;
+
+import exception.ApiException;
+
+import java.time.Duration;
+
+/**
+ * Look-back windows supported by trending-term queries.
+ */
+public enum TrendWindow {
+    FIVE_MINUTES("5m", Duration.ofMinutes(5)),
+    ONE_HOUR("1h", Duration.ofHours(1)),
+    ONE_DAY("24h", Duration.ofHours(24));
+
+    private final String code;
+    private final Duration duration;
+
+    TrendWindow(String code, Duration duration) {
+        this.code = code;
+        this.duration = duration;
+    }
+
+    /**
+     * @return the short form used in requests, e.g. "5m"
+     */
+    public String getCode() {
+        return code;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Parses the short form of a window.
+     * @param code "5m", "1h" or "24h"
+     * @return the matching window
+     * @throws ApiException if the code is not supported
+     */
+    public static TrendWindow fromCode(String code) {
+        for (TrendWindow window : values()) {
+            if (window.code.equalsIgnoreCase(code)) {
+                return window;
+            }
+        }
+        throw new ApiException("Unsupported trend window: " + code + " (expected 5m, 1h or 24h)");
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+import lombok.Value;
+
+/**
+ * A term and its estimated number of occurrences within a trend window.
+ */
+@Value
+public class TrendingTerm {
+
+    String term;
+
+    /**
+     * Estimated occurrences; may slightly overcount, never undercounts.
+     */
+    long count;
+}
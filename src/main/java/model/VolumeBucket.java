@@ -0,0 +1,30 @@
+package model;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Number of posts stored for one time bucket of a volume query, by sentiment label.
+ */
+@Value
+public class VolumeBucket {
+
+    /**
+     * Start of the bucket, UTC-aligned.
+     */
+    Instant start;
+
+    long total;
+
+    long positive;
+
+    long neutral;
+
+    long negative;
+
+    /**
+     * Posts stored without a sentiment score.
+     */
+    long unscored;
+}
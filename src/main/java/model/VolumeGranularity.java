@@ -0,0 +1,58 @@
+package model;
+
+import exception.ApiException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bucket sizes supported by post volume queries.
+ */
+public enum VolumeGranularity {
+    MINUTE("minute", Duration.ofMinutes(1)),
+    HOUR("hour", Duration.ofHours(1)),
+    DAY("day", Duration.ofDays(1));
+
+    private final String code;
+    private final Duration duration;
+
+    VolumeGranularity(String code, Duration duration) {
+        this.code = code;
+        this.duration = duration;
+    }
+
+    /**
+     * @return the form used in requests, and the PostgreSQL date_trunc field, e.g. "hour"
+     */
+    public String getCode() {
+        return code;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @param instant any instant
+     * @return the start of the UTC-aligned bucket containing it
+     */
+    public Instant floor(Instant instant) {
+        long millis = duration.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(instant.toEpochMilli(), millis) * millis);
+    }
+
+    /**
+     * Parses the request form of a granularity.
+     * @param code "minute", "hour" or "day"
+     * @return the matching granularity
+     * @throws ApiException if the code is not supported
+     */
+    public static VolumeGranularity fromCode(String code) {
+        for (VolumeGranularity granularity : values()) {
+            if (granularity.code.equalsIgnoreCase(code)) {
+                return granularity;
+            }
+        }
+        throw new ApiException("Unsupported granularity: " + code + " (expected minute, hour or day)");
+    }
+}
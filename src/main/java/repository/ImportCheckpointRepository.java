@@ -0,0 +1,70 @@
+package repository;
+
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Bulk import checkpoints: how far into each dump file posts have been stored.
+ * <p>
+ * Chunks of a file may be loaded out of order, but the checkpoint only moves past a chunk once every chunk
+ * before it is stored, so resuming from it never skips a post. Posts after it may already be stored; they are
+ * recognised as duplicates when read again.
+ * </p>
+ */
+@Repository
+public class ImportCheckpointRepository {
+
+    private static final String FIND_SQL =
+            "SELECT file_size, byte_offset, posts_read, posts_inserted FROM import_checkpoint WHERE source = ?";
+
+    private static final String SAVE_SQL = "INSERT INTO import_checkpoint "
+            + "(source, file_size, byte_offset, posts_read, posts_inserted, updated_at) VALUES (?, ?, ?, ?, ?, now()) "
+            + "ON CONFLICT (source) DO UPDATE SET file_size = EXCLUDED.file_size, byte_offset = EXCLUDED.byte_offset, "
+            + "posts_read = EXCLUDED.posts_read, posts_inserted = EXCLUDED.posts_inserted, updated_at = now()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ImportCheckpointRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param source absolute path of the dump file
+     * @return the file's checkpoint, or null if it has never been imported
+     */
+    public Checkpoint find(String source) {
+        List<Checkpoint> rows = jdbcTemplate.query(FIND_SQL, (rs, row) -> new Checkpoint(rs.getLong("file_size"),
+                rs.getLong("byte_offset"), rs.getLong("posts_read"), rs.getLong("posts_inserted")), source);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Records how far the file has been stored.
+     * @param source absolute path of the dump file
+     * @param checkpoint the new position and totals
+     */
+    public void save(String source, Checkpoint checkpoint) {
+        jdbcTemplate.update(SAVE_SQL, source, checkpoint.getFileSize(), checkpoint.getByteOffset(),
+                checkpoint.getPostsRead(), checkpoint.getPostsInserted());
+    }
+
+    /**
+     * Position of an import within a dump file, and the posts read and stored before it.
+     */
+    @Value
+    public static class Checkpoint {
+        long fileSize;
+
+        /**
+         * Start of the first line not yet known to be stored.
+         */
+        long byteOffset;
+
+        long postsRead;
+
+        long postsInserted;
+    }
+}
@@ -0,0 +1,58 @@
+package repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Per-keyword fetch checkpoints: the newest platform post id already stored for a search keyword.
+ * <p>
+ * Keywords are matched ignoring case and surrounding whitespace. A checkpoint only moves forward, so
+ * concurrent fetches of the same keyword can write in any order. Callers advance it inside the transaction
+ * that stores the posts it covers, so it never gets ahead of the data.
+ * </p>
+ */
+@Repository
+public class KeywordCheckpointRepository {
+
+    private static final String FIND_SQL =
+            "SELECT since_id FROM keyword_checkpoint WHERE platform = ? AND keyword = ?";
+
+    private static final String ADVANCE_SQL =
+            "INSERT INTO keyword_checkpoint (platform, keyword, since_id, updated_at) VALUES (?, ?, ?, now()) "
+                    + "ON CONFLICT (platform, keyword) DO UPDATE "
+                    + "SET since_id = GREATEST(keyword_checkpoint.since_id, EXCLUDED.since_id), updated_at = now()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public KeywordCheckpointRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param platform the platform name
+     * @param keyword the search keyword
+     * @return the newest post id stored for the keyword, or null if it has never been fetched
+     */
+    public Long findSinceId(String platform, String keyword) {
+        List<Long> rows = jdbcTemplate.queryForList(FIND_SQL, Long.class, platform, normalize(keyword));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Moves the keyword's checkpoint forward to sinceId; a lower value leaves it unchanged.
+     * Joins the caller's transaction.
+     * @param platform the platform name
+     * @param keyword the search keyword
+     * @param sinceId the newest post id now stored for the keyword
+     */
+    public void advance(String platform, String keyword, long sinceId) {
+        jdbcTemplate.update(ADVANCE_SQL, platform, normalize(keyword), sinceId);
+    }
+
+    private static String normalize(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,187 @@
+package repository;
+
+import config.ArchiveConfig;
+import model.SocialPost.SentimentLabel;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import repository.PostPartitionRepository.Partition;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Segment files of archived posts in {@code archive.directory}, and the move of whole partitions into them.
+ * <p>
+ * A partition is archived in one transaction: writes to it are blocked, its rows are streamed in post timestamp
+ * order into segment files named after it ({@code <partition>.<n>.seg}), the files are forced to disk, recorded
+ * in archive_segment, and the partition is dropped. Files without a record were left behind by an archive whose
+ * transaction did not commit; they are deleted when segments are loaded and before a partition of that name is
+ * archived again. A partition recreated for a range that was archived before, e.g. by a bulk import, is archived
+ * into further files next to the earlier ones. Audit timestamps are not archived.
+ * </p>
+ */
+@Repository
+public class PostArchiveRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_COLUMNS = "id, platform, source_id, author, content, post_timestamp, url, "
+            + "sentiment_score, sentiment_label";
+
+    private static final String FIND_FILES_SQL = "SELECT file_name FROM archive_segment";
+
+    private static final String FIND_PARTITION_FILES_SQL =
+            "SELECT file_name FROM archive_segment WHERE partition_name = ?";
+
+    private static final String RECORD_SQL = "INSERT INTO archive_segment (file_name, partition_name, posts, created_at) "
+            + "VALUES (?, ?, ?, now())";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostPartitionRepository partitionRepository;
+    private final Path directory;
+    private final int segmentRows;
+
+    public PostArchiveRepository(JdbcTemplate jdbcTemplate, PostPartitionRepository partitionRepository,
+                                 ArchiveConfig config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionRepository = partitionRepository;
+        this.directory = Paths.get(config.getDirectory());
+        this.segmentRows = config.getSegmentRows();
+    }
+
+    /**
+     * Opens every recorded segment file of the archive directory, deleting files that were never recorded.
+     * @return the segments, oldest first; empty if the directory does not exist
+     * @throws IOException if the directory cannot be read or a segment file is invalid
+     */
+    public List<PostSegment> loadSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        Set<String> recorded = new HashSet<>(jdbcTemplate.queryForList(FIND_FILES_SQL, String.class));
+        List<PostSegment> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + PostSegment.SUFFIX + "*")) {
+            for (Path file : files) {
+                if (recorded.contains(file.getFileName().toString())) {
+                    segments.add(PostSegment.open(file));
+                } else {
+                    Files.delete(file);
+                }
+            }
+        }
+        segments.sort(Comparator.comparing(PostSegment::getFirstTimestamp).thenComparing(PostSegment::getName));
+        return segments;
+    }
+
+    /**
+     * Moves every row of a partition into new segment files and drops the partition.
+     * @param partition a partition returned by {@link PostPartitionRepository#findPartitions()}
+     * @return the new segments, oldest first; empty if the partition held no rows
+     * @throws IOException if a segment file cannot be written, in which case the partition is kept
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public List<PostSegment> archivePartition(Partition partition) throws IOException {
+        partitionRepository.lock();
+        jdbcTemplate.execute("LOCK TABLE " + partition.getName() + " IN SHARE MODE");
+        Files.createDirectories(directory);
+        Set<String> recorded = new HashSet<>(jdbcTemplate.queryForList(FIND_PARTITION_FILES_SQL, String.class,
+                partition.getName()));
+        deleteUnrecordedFiles(partition.getName(), recorded);
+        List<Path> files = new ArrayList<>();
+        try {
+            writeSegments(partition.getName(), recorded.size(), files);
+            forceDirectory();
+        } catch (IOException | RuntimeException ex) {
+            deleteUnrecordedFiles(partition.getName(), recorded);
+            throw ex;
+        }
+        List<PostSegment> segments = new ArrayList<>(files.size());
+        for (Path file : files) {
+            PostSegment segment = PostSegment.open(file);
+            jdbcTemplate.update(RECORD_SQL, file.getFileName().toString(), partition.getName(), segment.getRowCount());
+            segments.add(segment);
+        }
+        partitionRepository.dropPartition(partition);
+        return segments;
+    }
+
+    private void writeSegments(String partition, int firstNumber, List<Path> files) throws IOException {
+        PostSegmentWriter[] writer = new PostSegmentWriter[1];
+        try {
+            RowCallbackHandler handler = rs -> {
+                try {
+                    if (writer[0] != null && writer[0].isFull(segmentRows)) {
+                        writer[0].finish();
+                        writer[0].close();
+                        writer[0] = null;
+                    }
+                    if (writer[0] == null) {
+                        Path file = directory.resolve(partition + "." + (firstNumber + files.size())
+                                + PostSegment.SUFFIX);
+                        writer[0] = new PostSegmentWriter(file);
+                        files.add(file);
+                    }
+                    double score = rs.getDouble("sentiment_score");
+                    boolean unscored = rs.wasNull();
+                    String label = rs.getString("sentiment_label");
+                    writer[0].append(rs.getLong("id"), rs.getString("platform"), rs.getString("source_id"),
+                            rs.getString("author"), rs.getString("content"),
+                            rs.getTimestamp("post_timestamp").toInstant(), rs.getString("url"),
+                            unscored ? null : score, label == null ? null : SentimentLabel.valueOf(label));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            };
+            jdbcTemplate.query(con -> {
+                PreparedStatement statement = con.prepareStatement("SELECT " + SELECT_COLUMNS + " FROM " + partition
+                        + " ORDER BY post_timestamp, id");
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, handler);
+            if (writer[0] != null) {
+                writer[0].finish();
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            if (writer[0] != null) {
+                writer[0].close();
+            }
+        }
+    }
+
+    private void deleteUnrecordedFiles(String partition, Set<String> recorded) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, partition + ".*")) {
+            for (Path file : files) {
+                if (!recorded.contains(file.getFileName().toString())) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes the new file names durable before the rows they replace are dropped.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            // Not every platform can sync a directory; the files themselves are already on disk.
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package repository;
+
+/**
+ * Projection of a SocialPost's id and content, used by jobs that only need to read the text.
+ */
+public interface PostContentView {
+
+    Long getId();
+
+    String getContent();
+}
@@ -0,0 +1,26 @@
+package repository;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Identifies one post counter of the minute rollup: a minute, keyword, platform and sentiment label.
+ */
+@Value
+public class PostCountKey {
+
+    Instant minute;
+
+    /**
+     * Normalized search keyword, or empty for posts that did not come from a keyword search.
+     */
+    String keyword;
+
+    String platform;
+
+    /**
+     * Sentiment label name, or {@value PostCountRollupRepository#UNSCORED}.
+     */
+    String sentimentLabel;
+}
@@ -0,0 +1,184 @@
+package repository;
+
+import lombok.Value;
+import model.VolumeGranularity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Post count rollups: counters per UTC time bucket, keyword, platform and sentiment label, in one table per
+ * resolution (post_count_minute, post_count_hour, post_count_day).
+ * <p>
+ * Counters are only ever incremented: each batch goes to the minute and the hour table in one
+ * {@code INSERT ... SELECT FROM unnest(...) ON CONFLICT DO UPDATE} statement, so the hour table is complete on its
+ * own. Compaction drops minute counters past their retention, and moves hour counters past theirs into the day
+ * table in a single statement, so the hour and day tables together hold every count exactly once.
+ * </p>
+ */
+@Repository
+public class PostCountRollupRepository {
+
+    /**
+     * Sentiment label stored for posts without a score.
+     */
+    public static final String UNSCORED = "NONE";
+
+    private static final String INCREMENT_SQL =
+            "WITH counts AS (SELECT * FROM unnest(?::varchar[], ?::timestamptz[], ?::varchar[], ?::varchar[], "
+                    + "?::bigint[]) AS c(keyword, bucket_start, platform, sentiment_label, post_count)), "
+                    + "minutes AS (INSERT INTO post_count_minute (keyword, bucket_start, platform, sentiment_label, "
+                    + "post_count) SELECT * FROM counts "
+                    + "ON CONFLICT (keyword, bucket_start, platform, sentiment_label) DO UPDATE "
+                    + "SET post_count = post_count_minute.post_count + EXCLUDED.post_count) "
+                    + "INSERT INTO post_count_hour (keyword, bucket_start, platform, sentiment_label, post_count) "
+                    + "SELECT keyword, date_trunc('hour', bucket_start, 'UTC'), platform, sentiment_label, "
+                    + "sum(post_count) FROM counts GROUP BY 1, 2, 3, 4 "
+                    + "ON CONFLICT (keyword, bucket_start, platform, sentiment_label) DO UPDATE "
+                    + "SET post_count = post_count_hour.post_count + EXCLUDED.post_count";
+
+    private static final String PRUNE_MINUTES_SQL = "DELETE FROM post_count_minute WHERE bucket_start < ?";
+
+    private static final String COMPACT_HOURS_SQL =
+            "WITH moved AS (DELETE FROM post_count_hour WHERE bucket_start < ? RETURNING *) "
+                    + "INSERT INTO post_count_day (keyword, bucket_start, platform, sentiment_label, post_count) "
+                    + "SELECT keyword, date_trunc('day', bucket_start, 'UTC'), platform, sentiment_label, sum(post_count) "
+                    + "FROM moved GROUP BY 1, 2, 3, 4 "
+                    + "ON CONFLICT (keyword, bucket_start, platform, sentiment_label) DO UPDATE "
+                    + "SET post_count = post_count_day.post_count + EXCLUDED.post_count";
+
+    private static final String SELECT_SQL = "SELECT bucket_start, sentiment_label, post_count FROM %s WHERE %s";
+
+    private static final String SERIES_SQL =
+            "SELECT date_trunc(?, bucket_start, 'UTC') AS bucket, sentiment_label, sum(post_count) AS posts "
+                    + "FROM (%s) counts GROUP BY 1, 2 ORDER BY 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostCountRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds to the minute and hour counters, creating those that do not exist yet.
+     * @param increments amount to add per counter
+     */
+    public void increment(Map<PostCountKey, Long> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        int n = increments.size();
+        String[] keywords = new String[n];
+        Timestamp[] minutes = new Timestamp[n];
+        String[] platforms = new String[n];
+        String[] labels = new String[n];
+        Long[] counts = new Long[n];
+        int i = 0;
+        for (Map.Entry<PostCountKey, Long> entry : increments.entrySet()) {
+            PostCountKey key = entry.getKey();
+            keywords[i] = key.getKeyword();
+            minutes[i] = Timestamp.from(key.getMinute());
+            platforms[i] = key.getPlatform();
+            labels[i] = key.getSentimentLabel();
+            counts[i] = entry.getValue();
+            i++;
+        }
+        jdbcTemplate.execute((Connection connection) -> {
+            PreparedStatement statement = connection.prepareStatement(INCREMENT_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", keywords));
+            statement.setArray(2, connection.createArrayOf("timestamptz", minutes));
+            statement.setArray(3, connection.createArrayOf("varchar", platforms));
+            statement.setArray(4, connection.createArrayOf("varchar", labels));
+            statement.setArray(5, connection.createArrayOf("bigint", counts));
+            return statement;
+        }, PreparedStatement::executeUpdate);
+    }
+
+    /**
+     * Drops minute counters older than the cutoff; the hour table already holds their counts.
+     * @param cutoff exclusive upper bound of the minutes to drop
+     * @return number of minute counters dropped
+     */
+    public int pruneMinutes(Instant cutoff) {
+        return jdbcTemplate.update(PRUNE_MINUTES_SQL, Timestamp.from(cutoff));
+    }
+
+    /**
+     * Moves hour counters older than the cutoff into the day table.
+     * @param cutoff exclusive upper bound of the hours to move; should be day-aligned
+     * @return number of day counters written
+     */
+    public int compactHours(Instant cutoff) {
+        return jdbcTemplate.update(COMPACT_HOURS_SQL, Timestamp.from(cutoff));
+    }
+
+    /**
+     * Sums counters into buckets of the given granularity: minute counters from minuteFrom on, and hour and day
+     * counters before it. Counters stored at a coarser resolution than requested are reported in the bucket
+     * their own period starts in.
+     * @param granularity bucket size of the result
+     * @param keyword normalized keyword, or null for all keywords
+     * @param platform platform name, or null for all platforms
+     * @param from inclusive start
+     * @param to exclusive end
+     * @param minuteFrom where minute counters take over from hour counters; at or after {@code to} to read no
+     *                   minute counters
+     * @return one row per non-empty bucket and label, oldest first
+     */
+    public List<BucketCount> findCounts(VolumeGranularity granularity, String keyword, String platform,
+                                        Instant from, Instant to, Instant minuteFrom) {
+        List<String> parts = new ArrayList<>(3);
+        List<Object> args = new ArrayList<>();
+        args.add(granularity.getCode());
+        Instant coarseTo = minuteFrom.isBefore(to) ? minuteFrom : to;
+        if (from.isBefore(coarseTo)) {
+            parts.add(select("post_count_hour", keyword, platform, from, coarseTo, args));
+            parts.add(select("post_count_day", keyword, platform, from, coarseTo, args));
+        }
+        Instant fineFrom = minuteFrom.isAfter(from) ? minuteFrom : from;
+        if (fineFrom.isBefore(to)) {
+            parts.add(select("post_count_minute", keyword, platform, fineFrom, to, args));
+        }
+        if (parts.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(String.format(SERIES_SQL, String.join(" UNION ALL ", parts)),
+                (ResultSet rs, int row) -> new BucketCount(rs.getTimestamp("bucket").toInstant(),
+                        rs.getString("sentiment_label"), rs.getLong("posts")),
+                args.toArray());
+    }
+
+    private static String select(String table, String keyword, String platform, Instant from, Instant to,
+                                 List<Object> args) {
+        StringBuilder where = new StringBuilder("bucket_start >= ? AND bucket_start < ?");
+        args.add(Timestamp.from(from));
+        args.add(Timestamp.from(to));
+        if (keyword != null) {
+            where.append(" AND keyword = ?");
+            args.add(keyword);
+        }
+        if (platform != null) {
+            where.append(" AND platform = ?");
+            args.add(platform);
+        }
+        return String.format(SELECT_SQL, table, where);
+    }
+
+    /**
+     * Post count of one bucket and sentiment label.
+     */
+    @Value
+    public static class BucketCount {
+        Instant bucket;
+        String sentimentLabel;
+        long posts;
+    }
+}
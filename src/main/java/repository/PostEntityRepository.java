@@ -0,0 +1,256 @@
+package repository;
+
+import model.EntityCount;
+import model.EntityType;
+import model.KeysetCursor;
+import model.PostEntities;
+import model.SocialPost;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import util.EntityExtractor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The post_hashtag, post_mention and post_url side tables: one row per post and entity value, keyed by
+ * (value, post_timestamp, post_id).
+ * <p>
+ * Rows are written by {@link SocialPostBulkRepositoryImpl} in the transaction that inserts their posts: all three
+ * tables in one {@code INSERT ... SELECT FROM unnest(...)} statement, or with COPY for bulk imports. Counts and
+ * top values read only the tables' indexes; post lookups walk the primary key newest first and join the page of
+ * posts by their primary key.
+ * Rows of dropped partitions are deleted by {@link PostPartitionRepository}.
+ * </p>
+ */
+@Repository
+public class PostEntityRepository {
+
+    private static final String INSERT_SQL =
+            "WITH hashtags AS (INSERT INTO post_hashtag (tag, post_timestamp, post_id) "
+                    + "SELECT * FROM unnest(?::varchar[], ?::timestamptz[], ?::bigint[]) ON CONFLICT DO NOTHING), "
+                    + "mentions AS (INSERT INTO post_mention (username, post_timestamp, post_id) "
+                    + "SELECT * FROM unnest(?::varchar[], ?::timestamptz[], ?::bigint[]) ON CONFLICT DO NOTHING) "
+                    + "INSERT INTO post_url (domain, post_timestamp, post_id, url) "
+                    + "SELECT * FROM unnest(?::varchar[], ?::timestamptz[], ?::bigint[], ?::text[]) "
+                    + "ON CONFLICT DO NOTHING";
+
+    private static final String COUNT_SQL = "SELECT count(*) FROM %s WHERE %s = ? AND post_timestamp >= ? "
+            + "AND post_timestamp < ?";
+
+    private static final String TOP_SQL = "SELECT %2$s AS value, count(*) AS posts FROM %1$s "
+            + "WHERE post_timestamp >= ? AND post_timestamp < ? GROUP BY %2$s ORDER BY posts DESC, value LIMIT ?";
+
+    private static final String POSTS_SQL = "SELECT p.* FROM (SELECT post_timestamp, post_id FROM %s WHERE %s = ?%s "
+            + "ORDER BY post_timestamp DESC, post_id DESC LIMIT ?) e "
+            + "JOIN social_post p ON p.id = e.post_id AND p.post_timestamp = e.post_timestamp "
+            + "ORDER BY p.post_timestamp DESC, p.id DESC";
+
+    private static final Timestamp MIN_TIMESTAMP = Timestamp.from(Instant.parse("0001-01-01T00:00:00Z"));
+    private static final Timestamp MAX_TIMESTAMP = Timestamp.from(Instant.parse("9999-12-31T00:00:00Z"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SocialPostRowMapper rowMapper = new SocialPostRowMapper();
+
+    public PostEntityRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records the entities of newly inserted posts: those reported by the platform, or else those found in the
+     * content. Posts without an id are skipped.
+     * @param posts posts that were just inserted
+     */
+    public void insert(Collection<SocialPost> posts) {
+        EntityRows rows = new EntityRows(posts);
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((Connection connection) -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", rows.hashtags.values.toArray()));
+            statement.setArray(2, connection.createArrayOf("timestamptz", rows.hashtags.timestamps()));
+            statement.setArray(3, connection.createArrayOf("bigint", rows.hashtags.postIds.toArray()));
+            statement.setArray(4, connection.createArrayOf("varchar", rows.mentions.values.toArray()));
+            statement.setArray(5, connection.createArrayOf("timestamptz", rows.mentions.timestamps()));
+            statement.setArray(6, connection.createArrayOf("bigint", rows.mentions.postIds.toArray()));
+            statement.setArray(7, connection.createArrayOf("varchar", rows.domains.values.toArray()));
+            statement.setArray(8, connection.createArrayOf("timestamptz", rows.domains.timestamps()));
+            statement.setArray(9, connection.createArrayOf("bigint", rows.domains.postIds.toArray()));
+            statement.setArray(10, connection.createArrayOf("text", rows.urls.toArray()));
+            return statement;
+        }, PreparedStatement::executeUpdate);
+    }
+
+    /**
+     * Same as {@link #insert(Collection)}, streaming the rows with one {@code COPY} per table, for large batches.
+     * Only for posts inserted in the current transaction: their ids are new, so none of their rows can exist yet.
+     * @param posts posts that were just inserted
+     */
+    public void copy(Collection<SocialPost> posts) {
+        EntityRows rows = new EntityRows(posts);
+        jdbcTemplate.execute((Connection connection) -> {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                copyRows(copy, EntityType.HASHTAG, rows.hashtags, null);
+                copyRows(copy, EntityType.MENTION, rows.mentions, null);
+                copyRows(copy, EntityType.DOMAIN, rows.domains, rows.urls);
+            } catch (IOException ex) {
+                throw new SQLException("COPY into the entity tables failed", ex);
+            }
+            return null;
+        });
+    }
+
+    private static void copyRows(CopyManager copy, EntityType type, Column column, List<String> urls)
+            throws SQLException, IOException {
+        if (column.values.isEmpty()) {
+            return;
+        }
+        StringBuilder text = new StringBuilder(column.values.size() * 48);
+        for (int i = 0; i < column.values.size(); i++) {
+            appendCopyValue(text, column.values.get(i)).append('\t').append(column.instants.get(i)).append('\t')
+                    .append(column.postIds.get(i).longValue());
+            if (urls != null) {
+                appendCopyValue(text.append('\t'), urls.get(i));
+            }
+            text.append('\n');
+        }
+        String columns = type.getColumn() + ", post_timestamp, post_id" + (urls != null ? ", url" : "");
+        copy.copyIn("COPY " + type.getTable() + " (" + columns + ") FROM STDIN",
+                new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)), 1 << 16);
+    }
+
+    private static StringBuilder appendCopyValue(StringBuilder text, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> text.append("\\\\");
+                case '\t' -> text.append("\\t");
+                case '\n' -> text.append("\\n");
+                case '\r' -> text.append("\\r");
+                case '\0' -> {
+                    // PostgreSQL text cannot hold NUL.
+                }
+                default -> text.append(c);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * @param type the entity type
+     * @param value the normalized value
+     * @param from inclusive start of the post timestamps, or null for no lower bound
+     * @param to exclusive end of the post timestamps, or null for no upper bound
+     * @return number of posts with the value
+     */
+    public long count(EntityType type, String value, Instant from, Instant to) {
+        Long count = jdbcTemplate.queryForObject(String.format(COUNT_SQL, type.getTable(), type.getColumn()),
+                Long.class, value, from == null ? MIN_TIMESTAMP : Timestamp.from(from),
+                to == null ? MAX_TIMESTAMP : Timestamp.from(to));
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @param type the entity type
+     * @param from inclusive start of the post timestamps
+     * @param to exclusive end of the post timestamps
+     * @param limit maximum number of values to return
+     * @return the values found in the most posts of the range, most posts first
+     */
+    public List<EntityCount> top(EntityType type, Instant from, Instant to, int limit) {
+        return jdbcTemplate.query(String.format(TOP_SQL, type.getTable(), type.getColumn()),
+                (rs, row) -> new EntityCount(rs.getString("value"), rs.getLong("posts")),
+                Timestamp.from(from), Timestamp.from(to), limit);
+    }
+
+    /**
+     * @param type the entity type
+     * @param value the normalized value
+     * @param after position after the last post of the previous page, or null for the first page
+     * @param limit maximum number of posts to return
+     * @return posts with the value, newest first
+     */
+    public List<SocialPost> findPosts(EntityType type, String value, KeysetCursor after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(String.format(POSTS_SQL, type.getTable(), type.getColumn(), ""), rowMapper,
+                    value, limit);
+        }
+        return jdbcTemplate.query(String.format(POSTS_SQL, type.getTable(), type.getColumn(),
+                        " AND (post_timestamp, post_id) < (?, ?)"), rowMapper,
+                value, Timestamp.from(after.sortTimestamp()), after.getId(), limit);
+    }
+
+    /**
+     * The side table rows of a batch of posts, one {@link Column} per table.
+     */
+    private static final class EntityRows {
+
+        private final Column hashtags = new Column();
+        private final Column mentions = new Column();
+        private final Column domains = new Column();
+        private final List<String> urls = new ArrayList<>();
+
+        EntityRows(Collection<SocialPost> posts) {
+            for (SocialPost post : posts) {
+                if (post.getId() == null || post.getPostTimestamp() == null) {
+                    continue;
+                }
+                PostEntities entities = post.getEntities() != null
+                        ? post.getEntities() : EntityExtractor.extract(post.getContent());
+                for (String tag : entities.getHashtags()) {
+                    hashtags.add(tag, post);
+                }
+                for (String username : entities.getMentions()) {
+                    mentions.add(username, post);
+                }
+                Set<String> postDomains = new HashSet<>();
+                for (String url : entities.getUrls()) {
+                    String domain = EntityExtractor.domain(url);
+                    if (domain != null && postDomains.add(domain)) {
+                        domains.add(domain, post);
+                        urls.add(url);
+                    }
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return hashtags.values.isEmpty() && mentions.values.isEmpty() && domains.values.isEmpty();
+        }
+    }
+
+    /**
+     * Values of one side table with the post timestamp and id of each row.
+     */
+    private static final class Column {
+
+        private final List<String> values = new ArrayList<>();
+        private final List<Instant> instants = new ArrayList<>();
+        private final List<Long> postIds = new ArrayList<>();
+
+        void add(String value, SocialPost post) {
+            values.add(value);
+            instants.add(post.getPostTimestamp());
+            postIds.add(post.getId());
+        }
+
+        Object[] timestamps() {
+            return instants.stream().map(Timestamp::from).toArray();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package repository;
+
+/**
+ * Projection of the identifying columns of a SocialPost, used where the full entity is not needed.
+ */
+public interface PostKeyView {
+
+    Long getId();
+
+    String getPlatform();
+
+    String getSourceId();
+}
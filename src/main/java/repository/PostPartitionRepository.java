@@ -0,0 +1,167 @@
+package repository;
+
+import lombok.Value;
+import model.EntityType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The post_timestamp range partitions of social_post.
+ * <p>
+ * Partitions are named {@code social_post_pYYYYMMDD} after the UTC start of their range. Rows outside every
+ * partition land in {@code social_post_default}; creating a partition moves the default partition's rows in its
+ * range into it, since PostgreSQL refuses to create a partition over rows held by the default one. Changes take a
+ * transaction-scoped advisory lock, so instances sharing a database do not race each other. The post keys (see
+ * {@link SocialPostBulkRepositoryImpl}) and the entity side tables (see {@link PostEntityRepository}) are not
+ * partitioned; deleting posts deletes their rows there as well.
+ * </p>
+ */
+@Repository
+public class PostPartitionRepository {
+
+    /**
+     * Partition that holds rows outside every range partition.
+     */
+    public static final String DEFAULT_PARTITION = "social_post_default";
+
+    private static final String COLUMNS = "id, platform, source_id, author, content, post_timestamp, url, "
+            + "sentiment_score, sentiment_label, created_at, updated_at";
+
+    private static final DateTimeFormatter NAME_FORMAT =
+            DateTimeFormatter.ofPattern("'social_post_p'yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private static final String FIND_SQL =
+            "SELECT c.relname AS name, b.bounds[1]::timestamptz AS range_from, b.bounds[2]::timestamptz AS range_to "
+                    + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                    + "CROSS JOIN LATERAL (SELECT regexp_match(pg_get_expr(c.relpartbound, c.oid), "
+                    + "'FROM \\(''(.+)''\\) TO \\(''(.+)''\\)') AS bounds) b "
+                    + "WHERE i.inhparent = 'social_post'::regclass AND b.bounds IS NOT NULL "
+                    + "ORDER BY range_from";
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('social_post_partitions'))";
+
+    private static final String DEFAULT_ROWS_IN_RANGE_SQL = "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION
+            + " WHERE post_timestamp >= ? AND post_timestamp < ?)";
+
+    private static final String DELETE_DEFAULT_ROWS_SQL = deleteDefaultRowsSql();
+
+    /**
+     * Tables holding rows per post by post_timestamp: the post keys and the entity tables.
+     */
+    private static final List<String> SIDE_TABLES = sideTables();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the range partitions, oldest first; the default partition is not included
+     */
+    public List<Partition> findPartitions() {
+        return jdbcTemplate.query(FIND_SQL, (ResultSet rs, int row) -> new Partition(rs.getString("name"),
+                rs.getTimestamp("range_from").toInstant(), rs.getTimestamp("range_to").toInstant()));
+    }
+
+    /**
+     * Takes the transaction-scoped advisory lock that serializes partition changes; must run in a transaction.
+     */
+    public void lock() {
+        jdbcTemplate.execute(LOCK_SQL);
+    }
+
+    /**
+     * Creates a partition for [from, to), moving rows of that range out of the default partition.
+     * @param from inclusive start of the range
+     * @param to exclusive end of the range
+     * @return the name of the new partition, or null if a partition of that name already exists
+     */
+    @Transactional
+    public String createPartition(Instant from, Instant to) {
+        String name = NAME_FORMAT.format(from);
+        lock();
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name)) {
+            return null;
+        }
+        String bounds = String.format("FOR VALUES FROM ('%s') TO ('%s')", from, to);
+        Boolean defaultRows = jdbcTemplate.queryForObject(DEFAULT_ROWS_IN_RANGE_SQL, Boolean.class,
+                Timestamp.from(from), Timestamp.from(to));
+        if (!defaultRows) {
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF social_post " + bounds);
+            return name;
+        }
+        jdbcTemplate.execute("CREATE TABLE " + name
+                + " (LIKE social_post INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING GENERATED)");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                        + " WHERE post_timestamp >= ? AND post_timestamp < ? RETURNING " + COLUMNS + ") "
+                        + "INSERT INTO " + name + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved",
+                Timestamp.from(from), Timestamp.from(to));
+        jdbcTemplate.execute("ALTER TABLE social_post ATTACH PARTITION " + name + " " + bounds);
+        return name;
+    }
+
+    /**
+     * Drops a range partition and every row in it.
+     * @param partition a partition returned by {@link #findPartitions()}
+     */
+    @Transactional
+    public void dropPartition(Partition partition) {
+        lock();
+        for (String table : SIDE_TABLES) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE post_timestamp >= ? AND post_timestamp < ?",
+                    Timestamp.from(partition.getFrom()), Timestamp.from(partition.getTo()));
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition.getName());
+    }
+
+    /**
+     * Deletes rows of the default partition older than the cutoff.
+     * @param cutoff exclusive upper bound of the post timestamps to delete
+     * @return number of rows deleted
+     */
+    public int deleteDefaultRowsBefore(Instant cutoff) {
+        Integer deleted = jdbcTemplate.queryForObject(DELETE_DEFAULT_ROWS_SQL, Integer.class, Timestamp.from(cutoff));
+        return deleted == null ? 0 : deleted;
+    }
+
+    private static List<String> sideTables() {
+        List<String> tables = new ArrayList<>();
+        tables.add("social_post_key");
+        for (EntityType type : EntityType.values()) {
+            tables.add(type.getTable());
+        }
+        return List.copyOf(tables);
+    }
+
+    private static String deleteDefaultRowsSql() {
+        StringBuilder sql = new StringBuilder("WITH deleted AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE post_timestamp < ? RETURNING id, platform, source_id, post_timestamp), "
+                + "key_deleted AS (DELETE FROM social_post_key k USING deleted d "
+                + "WHERE k.platform = d.platform AND k.source_id = d.source_id)");
+        for (EntityType type : EntityType.values()) {
+            sql.append(", ").append(type.getTable()).append("_deleted AS (DELETE FROM ").append(type.getTable())
+                    .append(" e USING deleted d WHERE e.post_timestamp = d.post_timestamp AND e.post_id = d.id)");
+        }
+        return sql.append(" SELECT count(*) FROM deleted").toString();
+    }
+
+    /**
+     * A range partition of social_post.
+     */
+    @Value
+    public static class Partition {
+        String name;
+        Instant from;
+        Instant to;
+    }
+}
@@ -0,0 +1,314 @@
+package repository;
+
+import model.SocialPost.SentimentLabel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A read-only, memory-mapped segment file of archived posts, written by {@link PostSegmentWriter}.
+ * <p>
+ * The file is little-endian: a {@value #HEADER_BYTES}-byte header (magic, version, row count, rows per block,
+ * first and last post timestamp, directory offset), the string blocks, the fixed-width columns and a directory.
+ * Rows are sorted by post timestamp. The fixed-width columns (id, post timestamp in epoch millis, platform and
+ * author dictionary codes, sentiment score with NaN for none, sentiment label ordinal with -1 for none) are
+ * stored whole and read straight from the mapping, so a time range is found by binary search without reading
+ * any text. Source id, content and url are stored in blocks of {@value #BLOCK_ROWS} rows, each compressed with
+ * Deflate on its own, so a scan inflates only the blocks its range touches. Platform and author names are
+ * stored once, in per-segment dictionaries.
+ * </p>
+ * Instances are immutable and safe for concurrent scans.
+ */
+public final class PostSegment {
+
+    static final int MAGIC = 0x54534547;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int BLOCK_ROWS = 4096;
+    static final String SUFFIX = ".seg";
+
+    /**
+     * Variable-width columns of a block, in storage order.
+     */
+    static final int SOURCE_ID = 0;
+    static final int CONTENT = 1;
+    static final int URL = 2;
+    static final int STRING_COLUMNS = 3;
+
+    private static final SentimentLabel[] LABELS = SentimentLabel.values();
+
+    private final Path path;
+    private final ByteBuffer data;
+    private final int rowCount;
+    private final int blockRows;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+    private final int idsOffset;
+    private final int timestampsOffset;
+    private final int platformsOffset;
+    private final int authorsOffset;
+    private final int scoresOffset;
+    private final int labelsOffset;
+    private final int[] blockOffsets;
+    private final String[] platforms;
+    private final String[] authors;
+
+    private PostSegment(Path path, ByteBuffer data) {
+        this.path = path;
+        this.data = data;
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("not a version " + VERSION + " post segment");
+        }
+        this.rowCount = data.getInt(8);
+        this.blockRows = data.getInt(12);
+        this.firstTimestamp = data.getLong(16);
+        this.lastTimestamp = data.getLong(24);
+        ByteBuffer directory = data.duplicate().order(ByteOrder.LITTLE_ENDIAN).position((int) data.getLong(32));
+        this.idsOffset = (int) directory.getLong();
+        this.timestampsOffset = (int) directory.getLong();
+        this.platformsOffset = (int) directory.getLong();
+        this.authorsOffset = (int) directory.getLong();
+        this.scoresOffset = (int) directory.getLong();
+        this.labelsOffset = (int) directory.getLong();
+        this.blockOffsets = new int[directory.getInt()];
+        for (int i = 0; i < blockOffsets.length; i++) {
+            blockOffsets[i] = (int) directory.getLong();
+        }
+        this.platforms = readDictionary(directory);
+        this.authors = readDictionary(directory);
+        if (rowCount < 0 || blockRows <= 0 || blockOffsets.length != (rowCount + blockRows - 1) / blockRows
+                || labelsOffset + rowCount > data.capacity()) {
+            throw new IllegalArgumentException("inconsistent directory");
+        }
+    }
+
+    /**
+     * Maps a segment file into memory.
+     * @param path the segment file
+     * @return the open segment
+     * @throws IOException if the file cannot be read or is not a valid segment
+     */
+    public static PostSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid post segment " + path + ": unexpected size " + size);
+            }
+            // The mapping stays valid after the channel is closed.
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                return new PostSegment(path, data);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+                throw new IOException("Invalid post segment " + path + ": " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * @return the file name without its suffix, e.g. social_post_p20260105.0
+     */
+    public String getName() {
+        String fileName = path.getFileName().toString();
+        return fileName.endsWith(SUFFIX) ? fileName.substring(0, fileName.length() - SUFFIX.length()) : fileName;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return post timestamp of the first row, to the millisecond, or the epoch for an empty segment
+     */
+    public Instant getFirstTimestamp() {
+        return Instant.ofEpochMilli(firstTimestamp);
+    }
+
+    /**
+     * @return post timestamp of the last row, to the millisecond, or the epoch for an empty segment
+     */
+    public Instant getLastTimestamp() {
+        return Instant.ofEpochMilli(lastTimestamp);
+    }
+
+    public long getSizeBytes() {
+        return data.capacity();
+    }
+
+    /**
+     * Visits the rows whose post timestamp, to the millisecond, is in [from, to), oldest first.
+     * The visitor receives the same {@link Row} instance for every row; it is only valid during the call.
+     *
+     * @param from inclusive start
+     * @param to exclusive end
+     * @param visitor receives each row in range
+     * @return number of rows visited
+     * @throws UncheckedIOException if a block of the file is corrupt
+     */
+    public long scan(Instant from, Instant to, Consumer<Row> visitor) {
+        int start = lowerBound(from.toEpochMilli());
+        int end = lowerBound(to.toEpochMilli());
+        if (start >= end) {
+            return 0;
+        }
+        Row row = new Row();
+        Inflater inflater = new Inflater();
+        try {
+            for (int block = start / blockRows; block * blockRows < end; block++) {
+                row.load(block, inflater);
+                int last = Math.min(end, (block + 1) * blockRows);
+                for (int i = Math.max(start, block * blockRows); i < last; i++) {
+                    row.index = i;
+                    visitor.accept(row);
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return end - start;
+    }
+
+    /**
+     * @return index of the first row with a timestamp of at least the given millis, or the row count if none
+     */
+    private int lowerBound(long millis) {
+        int low = 0;
+        int high = rowCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (data.getLong(timestampsOffset + mid * Long.BYTES) < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String[] readDictionary(ByteBuffer directory) {
+        String[] values = new String[directory.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = new byte[directory.getInt()];
+            directory.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    /**
+     * Cursor over the rows of a scan. Fixed-width columns are read from the mapping; strings are decoded from the
+     * current block only when asked for.
+     */
+    public final class Row {
+
+        private int index;
+        private int blockFirst;
+        private int blockSize;
+        private byte[] raw = new byte[0];
+        private ByteBuffer rawInts = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+        private final int[] columnStarts = new int[STRING_COLUMNS];
+
+        private Row() {
+        }
+
+        public long getId() {
+            return data.getLong(idsOffset + index * Long.BYTES);
+        }
+
+        public long getPostTimestampMillis() {
+            return data.getLong(timestampsOffset + index * Long.BYTES);
+        }
+
+        public Instant getPostTimestamp() {
+            return Instant.ofEpochMilli(getPostTimestampMillis());
+        }
+
+        public String getPlatform() {
+            return platforms[data.getInt(platformsOffset + index * Integer.BYTES)];
+        }
+
+        public String getAuthor() {
+            return authors[data.getInt(authorsOffset + index * Integer.BYTES)];
+        }
+
+        public String getSourceId() {
+            return string(SOURCE_ID);
+        }
+
+        public String getContent() {
+            return string(CONTENT);
+        }
+
+        /**
+         * @return the url, or null if the post had none
+         */
+        public String getUrl() {
+            String url = string(URL);
+            return url.isEmpty() ? null : url;
+        }
+
+        /**
+         * @return the sentiment score stored when the post was archived, or null if it had none
+         */
+        public Double getSentimentScore() {
+            double score = data.getDouble(scoresOffset + index * Double.BYTES);
+            return Double.isNaN(score) ? null : score;
+        }
+
+        /**
+         * @return the sentiment label stored when the post was archived, or null if it had none
+         */
+        public SentimentLabel getSentimentLabel() {
+            byte ordinal = data.get(labelsOffset + index);
+            return ordinal < 0 ? null : LABELS[ordinal];
+        }
+
+        private String string(int column) {
+            int offsets = columnStarts[column];
+            int row = index - blockFirst;
+            int start = rawInts.getInt(offsets + row * Integer.BYTES);
+            int end = rawInts.getInt(offsets + (row + 1) * Integer.BYTES);
+            int bytes = offsets + (blockSize + 1) * Integer.BYTES;
+            return new String(raw, bytes + start, end - start, StandardCharsets.UTF_8);
+        }
+
+        private void load(int block, Inflater inflater) {
+            int offset = blockOffsets[block];
+            int rawLength = data.getInt(offset);
+            int compressedLength = data.getInt(offset + Integer.BYTES);
+            if (raw.length < rawLength) {
+                raw = new byte[Math.max(rawLength, raw.length * 2)];
+                rawInts = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            inflater.reset();
+            inflater.setInput(data.slice(offset + 2 * Integer.BYTES, compressedLength));
+            try {
+                if (inflater.inflate(raw, 0, rawLength) != rawLength || !inflater.finished()) {
+                    throw new DataFormatException("block length mismatch");
+                }
+            } catch (DataFormatException ex) {
+                throw new UncheckedIOException(new IOException("Corrupt block " + block + " in " + path, ex));
+            }
+            blockFirst = block * blockRows;
+            blockSize = Math.min(blockRows, rowCount - blockFirst);
+            int start = 0;
+            for (int column = 0; column < STRING_COLUMNS; column++) {
+                columnStarts[column] = start;
+                start += (blockSize + 1) * Integer.BYTES + rawInts.getInt(start + blockSize * Integer.BYTES);
+            }
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package repository;
+
+import model.SocialPost.SentimentLabel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes one {@link PostSegment} file. Posts must be appended in post timestamp order.
+ * <p>
+ * Fixed-width columns are gathered in memory and written after the string blocks, which are compressed and
+ * written as each fills. The file is written under a temporary name, forced to disk and only then moved to its
+ * final name, so a segment file is either complete or absent. Closing a writer that was not finished deletes
+ * the temporary file.
+ * </p>
+ */
+final class PostSegmentWriter implements Closeable {
+
+    /**
+     * Size a segment stays below, well inside what a single mapping can address.
+     */
+    static final long MAX_BYTES = 1L << 30;
+
+    /**
+     * Bytes per row of the fixed-width columns, written when the segment is finished.
+     */
+    private static final int FIXED_ROW_BYTES = 2 * Long.BYTES + 2 * Integer.BYTES + Double.BYTES + 1;
+
+    private final Path target;
+    private final Path temporary;
+    private final FileChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final Dictionary platforms = new Dictionary();
+    private final Dictionary authors = new Dictionary();
+    private final StringColumn[] blockColumns = new StringColumn[PostSegment.STRING_COLUMNS];
+    private long position;
+    private int rows;
+    private int blockFirst;
+    private long[] ids = new long[1024];
+    private long[] timestamps = new long[1024];
+    private int[] platformCodes = new int[1024];
+    private int[] authorCodes = new int[1024];
+    private double[] scores = new double[1024];
+    private byte[] labels = new byte[1024];
+    private long[] blockOffsets = new long[16];
+    private int blocks;
+    private byte[] raw = new byte[1 << 16];
+    private byte[] compressed = new byte[1 << 16];
+    private boolean finished;
+
+    /**
+     * @param target path of the segment file to write; it must not exist yet
+     * @throws IOException if the temporary file cannot be created
+     */
+    PostSegmentWriter(Path target) throws IOException {
+        this.target = target;
+        this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        for (int i = 0; i < blockColumns.length; i++) {
+            blockColumns[i] = new StringColumn();
+        }
+        for (int i = 0; i < PostSegment.HEADER_BYTES; i++) {
+            put((byte) 0);
+        }
+    }
+
+    /**
+     * Appends a post.
+     * @throws IllegalArgumentException if the post is older than the previous one
+     * @throws IOException if writing a completed block fails
+     */
+    void append(long id, String platform, String sourceId, String author, String content, Instant postTimestamp,
+                String url, Double sentimentScore, SentimentLabel sentimentLabel) throws IOException {
+        long millis = postTimestamp.toEpochMilli();
+        if (rows > 0 && millis < timestamps[rows - 1]) {
+            throw new IllegalArgumentException("Posts must be appended in post timestamp order");
+        }
+        if (rows == ids.length) {
+            grow();
+        }
+        ids[rows] = id;
+        timestamps[rows] = millis;
+        platformCodes[rows] = platforms.code(platform);
+        authorCodes[rows] = authors.code(author);
+        scores[rows] = sentimentScore == null ? Double.NaN : sentimentScore;
+        labels[rows] = sentimentLabel == null ? -1 : (byte) sentimentLabel.ordinal();
+        blockColumns[PostSegment.SOURCE_ID].add(sourceId);
+        blockColumns[PostSegment.CONTENT].add(content);
+        blockColumns[PostSegment.URL].add(url);
+        rows++;
+        if (rows - blockFirst == PostSegment.BLOCK_ROWS) {
+            writeBlock();
+        }
+    }
+
+    int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * @return whether the segment holds the given number of rows, or would grow past {@link #MAX_BYTES} if it
+     *         took many more
+     */
+    boolean isFull(int maxRows) {
+        long projected = position + raw.length + (long) rows * FIXED_ROW_BYTES + platforms.bytes + authors.bytes;
+        return rows >= maxRows || projected >= MAX_BYTES;
+    }
+
+    /**
+     * Writes the remaining block, the fixed-width columns and the directory, and moves the file into place.
+     * @throws IOException if writing or moving the file fails
+     */
+    void finish() throws IOException {
+        writeBlock();
+        align();
+        long idsOffset = position;
+        for (int i = 0; i < rows; i++) {
+            putLong(ids[i]);
+        }
+        long timestampsOffset = position;
+        for (int i = 0; i < rows; i++) {
+            putLong(timestamps[i]);
+        }
+        long platformsOffset = position;
+        for (int i = 0; i < rows; i++) {
+            putInt(platformCodes[i]);
+        }
+        long authorsOffset = position;
+        for (int i = 0; i < rows; i++) {
+            putInt(authorCodes[i]);
+        }
+        align();
+        long scoresOffset = position;
+        for (int i = 0; i < rows; i++) {
+            putLong(Double.doubleToRawLongBits(scores[i]));
+        }
+        long labelsOffset = position;
+        for (int i = 0; i < rows; i++) {
+            put(labels[i]);
+        }
+        align();
+        long directoryOffset = position;
+        for (long offset : new long[]{idsOffset, timestampsOffset, platformsOffset, authorsOffset, scoresOffset,
+                labelsOffset}) {
+            putLong(offset);
+        }
+        putInt(blocks);
+        for (int i = 0; i < blocks; i++) {
+            putLong(blockOffsets[i]);
+        }
+        platforms.writeTo(this);
+        authors.writeTo(this);
+        flush();
+
+        ByteBuffer header = ByteBuffer.allocate(PostSegment.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(PostSegment.MAGIC).putInt(PostSegment.VERSION).putInt(rows).putInt(PostSegment.BLOCK_ROWS)
+                .putLong(rows == 0 ? 0 : timestamps[0]).putLong(rows == 0 ? 0 : timestamps[rows - 1])
+                .putLong(directoryOffset).flip();
+        long at = 0;
+        while (header.hasRemaining()) {
+            at += channel.write(header, at);
+        }
+        channel.force(true);
+        channel.close();
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        if (!finished) {
+            channel.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        int size = rows - blockFirst;
+        if (size == 0) {
+            return;
+        }
+        int rawLength = 0;
+        for (StringColumn column : blockColumns) {
+            rawLength += column.encodedLength();
+        }
+        if (raw.length < rawLength) {
+            raw = new byte[Math.max(rawLength, raw.length * 2)];
+        }
+        ByteBuffer encoded = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+        for (StringColumn column : blockColumns) {
+            column.writeTo(encoded);
+            column.clear();
+        }
+        deflater.reset();
+        deflater.setInput(raw, 0, rawLength);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+        if (blocks == blockOffsets.length) {
+            blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+        }
+        blockOffsets[blocks++] = position;
+        putInt(rawLength);
+        putInt(compressedLength);
+        put(compressed, 0, compressedLength);
+        blockFirst = rows;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        platformCodes = Arrays.copyOf(platformCodes, capacity);
+        authorCodes = Arrays.copyOf(authorCodes, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        labels = Arrays.copyOf(labels, capacity);
+    }
+
+    private void align() throws IOException {
+        while (position % Long.BYTES != 0) {
+            put((byte) 0);
+        }
+    }
+
+    private void put(byte value) throws IOException {
+        ensureRoom(1);
+        out.put(value);
+        position++;
+    }
+
+    private void putInt(int value) throws IOException {
+        ensureRoom(Integer.BYTES);
+        out.putInt(value);
+        position += Integer.BYTES;
+    }
+
+    private void putLong(long value) throws IOException {
+        ensureRoom(Long.BYTES);
+        out.putLong(value);
+        position += Long.BYTES;
+    }
+
+    private void put(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            ensureRoom(1);
+            int chunk = Math.min(length, out.remaining());
+            out.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+            position += chunk;
+        }
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (out.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * UTF-8 strings of one column of the current block: end offsets, then the bytes. Null is stored as empty.
+     */
+    private static final class StringColumn {
+        private int[] ends = new int[PostSegment.BLOCK_ROWS];
+        private byte[] bytes = new byte[1 << 16];
+        private int count;
+        private int length;
+
+        void add(String value) {
+            byte[] encoded = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            if (length + encoded.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + encoded.length, bytes.length * 2));
+            }
+            System.arraycopy(encoded, 0, bytes, length, encoded.length);
+            length += encoded.length;
+            ends[count++] = length;
+        }
+
+        int encodedLength() {
+            return (count + 1) * Integer.BYTES + length;
+        }
+
+        void writeTo(ByteBuffer target) {
+            target.putInt(0);
+            for (int i = 0; i < count; i++) {
+                target.putInt(ends[i]);
+            }
+            target.put(bytes, 0, length);
+        }
+
+        void clear() {
+            count = 0;
+            length = 0;
+        }
+    }
+
+    /**
+     * Distinct strings of a column, coded by first appearance.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private long bytes;
+
+        int code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                codes.put(value, code);
+                values.add(encoded);
+                bytes += Integer.BYTES + encoded.length;
+            }
+            return code;
+        }
+
+        void writeTo(PostSegmentWriter writer) throws IOException {
+            writer.putInt(values.size());
+            for (byte[] value : values) {
+                writer.putInt(value.length);
+                writer.put(value, 0, value.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package repository;
+
+import model.SocialPost;
+
+import java.util.List;
+
+/**
+ * Bulk write operations for SocialPost that bypass per-entity persistence.
+ * The insert operations also record the hashtags, mentions and links of the posts they insert
+ * (see {@link PostEntityRepository}).
+ */
+public interface SocialPostBulkRepository {
+
+    /**
+     * Inserts the posts in batches of {@code ingest.batch-size} rows per statement, skipping any post whose
+     * (platform, sourceId) already exists. The primary key of social_post_key decides, in the same statement as
+     * the insert, so concurrent writers cannot race each other into duplicates.
+     * @param posts the posts to insert, each with its timestamp
+     * @return the posts that were actually inserted, with their generated ids set
+     * @throws IllegalArgumentException if a post has no timestamp
+     */
+    List<SocialPost> insertIgnoringDuplicates(List<SocialPost> posts);
+
+    /**
+     * Streams the posts with one {@code COPY} into a session-local staging table and moves the rows not stored
+     * yet into social_post with one {@code INSERT ... SELECT}, for batches of tens of thousands of posts.
+     * A post is skipped when its (platform, sourceId) is stored, decided by social_post_key as for
+     * {@link #insertIgnoringDuplicates(List)}.
+     * @param posts the posts to insert, each with its platform timestamp
+     * @return the posts that were actually inserted, with their generated ids set
+     * @throws IllegalArgumentException if a post has no timestamp
+     */
+    List<SocialPost> copyIgnoringDuplicates(List<SocialPost> posts);
+
+    /**
+     * Sets the sentiment score and label of existing posts in batches of {@code ingest.batch-size} rows per
+     * statement. The label is derived from the score with {@link SocialPost.SentimentLabel#fromScore(double)}.
+     * Rows that were scored in the meantime are left untouched.
+     * @param ids the post ids
+     * @param scores the scores, index-aligned with ids
+     * @return number of rows updated
+     */
+    int updateSentimentScores(long[] ids, double[] scores);
+}
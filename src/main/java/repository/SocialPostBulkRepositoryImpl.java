@@ -0,0 +1,287 @@
+package repository;
+
+import config.IngestConfig;
+import model.SocialPost;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * JDBC implementation of {@link SocialPostBulkRepository}.
+ * <p>
+ * Each batch is sent as one {@code INSERT ... SELECT FROM unnest(...) ON CONFLICT DO NOTHING RETURNING}
+ * statement with one array parameter per column. The statement text is the same for every batch size,
+ * so PostgreSQL can reuse the prepared plan, and ids are drawn from the sequence inside the statement.
+ * </p>
+ * <p>
+ * social_post is partitioned by post_timestamp, so its own unique key is (platform, source_id, post_timestamp).
+ * (platform, source_id) is enforced by the non-partitioned social_post_key table: each statement first adds the
+ * keys of its rows there with {@code ON CONFLICT DO NOTHING} and inserts only the rows whose key it added. The
+ * key's primary key decides, so concurrent writers of the same post cannot both insert it, whatever its
+ * timestamp, and each row costs one index probe rather than one per partition. Posts must have a timestamp,
+ * since it is the partition key.
+ * </p>
+ * <p>
+ * Both insert paths record the hashtags, mentions and links of the inserted posts through
+ * {@link PostEntityRepository} in the same transaction.
+ * </p>
+ * <p>
+ * The COPY path stages rows in a temporary table that lives as long as the pooled connection and is emptied at
+ * every commit, so it is created once per connection and never shared between transactions.
+ * </p>
+ */
+public class SocialPostBulkRepositoryImpl implements SocialPostBulkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostEntityRepository postEntityRepository;
+    private final IngestConfig config;
+    private final String insertSql;
+    private final String copyInsertSql;
+    private final String updateSentimentSql;
+
+    private static final String CREATE_STAGING_SQL = "CREATE TEMP TABLE IF NOT EXISTS social_post_staging ("
+            + "platform varchar, source_id varchar, author varchar, content text, post_timestamp timestamptz, "
+            + "url varchar, sentiment_score float8, sentiment_label varchar) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_SQL = "COPY social_post_staging (platform, source_id, author, content, "
+            + "post_timestamp, url, sentiment_score, sentiment_label) FROM STDIN";
+
+    public SocialPostBulkRepositoryImpl(JdbcTemplate jdbcTemplate, PostEntityRepository postEntityRepository,
+                                        IngestConfig config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postEntityRepository = postEntityRepository;
+        this.config = config;
+        this.insertSql = "WITH r AS (SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::text[], "
+                + "?::timestamptz[], ?::varchar[], ?::float8[], ?::varchar[]) "
+                + "AS r(platform, source_id, author, content, post_timestamp, url, sentiment_score, sentiment_label)), "
+                + claimKeysSql("r")
+                + insertClaimedSql("r", config.getIdSequence());
+        this.copyInsertSql = "WITH " + claimKeysSql("social_post_staging")
+                + insertClaimedSql("social_post_staging", config.getIdSequence());
+        this.updateSentimentSql = "UPDATE social_post p SET sentiment_score = v.score, sentiment_label = v.label, "
+                + "updated_at = now() "
+                + "FROM unnest(?::bigint[], ?::float8[], ?::varchar[]) AS v(id, score, label) "
+                + "WHERE p.id = v.id AND p.sentiment_score IS NULL";
+    }
+
+    /**
+     * Adds the keys of the source rows to social_post_key, as CTE {@code k} holding the keys that were new.
+     */
+    private static String claimKeysSql(String source) {
+        return "k AS (INSERT INTO social_post_key (platform, source_id, post_timestamp) "
+                + "SELECT platform, source_id, post_timestamp FROM " + source + " "
+                + "ON CONFLICT (platform, source_id) DO NOTHING RETURNING platform, source_id) ";
+    }
+
+    /**
+     * Inserts the source rows whose key was added by {@link #claimKeysSql(String)}.
+     */
+    private static String insertClaimedSql(String source, String idSequence) {
+        return "INSERT INTO social_post (id, platform, source_id, author, content, post_timestamp, url, "
+                + "sentiment_score, sentiment_label, created_at, updated_at) "
+                + "SELECT nextval('" + idSequence + "'), s.platform, s.source_id, s.author, s.content, "
+                + "s.post_timestamp, s.url, s.sentiment_score, s.sentiment_label, now(), now() "
+                + "FROM " + source + " s JOIN k ON k.platform = s.platform AND k.source_id = s.source_id "
+                + "ON CONFLICT (platform, source_id, post_timestamp) DO NOTHING "
+                + "RETURNING id, platform, source_id";
+    }
+
+    @Override
+    @Transactional
+    public List<SocialPost> insertIgnoringDuplicates(List<SocialPost> posts) {
+        List<SocialPost> inserted = new ArrayList<>();
+        int batchSize = config.getBatchSize();
+        for (int from = 0; from < posts.size(); from += batchSize) {
+            inserted.addAll(insertBatch(posts.subList(from, Math.min(posts.size(), from + batchSize))));
+        }
+        postEntityRepository.insert(inserted);
+        return inserted;
+    }
+
+    @Override
+    @Transactional
+    public List<SocialPost> copyIgnoringDuplicates(List<SocialPost> posts) {
+        Map<String, SocialPost> byKey = new LinkedHashMap<>();
+        for (SocialPost post : posts) {
+            requireTimestamp(post);
+            byKey.putIfAbsent(post.getPlatform() + ":" + post.getSourceId(), post);
+        }
+        if (byKey.isEmpty()) {
+            return List.of();
+        }
+        byte[] rows = copyText(byKey.values());
+        List<SocialPost> inserted = new ArrayList<>(byKey.size());
+        jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_SQL);
+                connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_SQL, new ByteArrayInputStream(rows), 1 << 16);
+                try (ResultSet rs = statement.executeQuery(copyInsertSql)) {
+                    while (rs.next()) {
+                        SocialPost post = byKey.get(rs.getString("platform") + ":" + rs.getString("source_id"));
+                        post.setId(rs.getLong("id"));
+                        inserted.add(post);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new SQLException("COPY into social_post_staging failed", ex);
+            }
+            return null;
+        });
+        postEntityRepository.copy(inserted);
+        return inserted;
+    }
+
+    @Override
+    @Transactional
+    public int updateSentimentScores(long[] ids, double[] scores) {
+        if (ids.length != scores.length) {
+            throw new IllegalArgumentException("ids and scores must have the same length");
+        }
+        int updated = 0;
+        int batchSize = config.getBatchSize();
+        for (int from = 0; from < ids.length; from += batchSize) {
+            int to = Math.min(ids.length, from + batchSize);
+            Long[] batchIds = new Long[to - from];
+            Double[] batchScores = new Double[to - from];
+            String[] batchLabels = new String[to - from];
+            for (int i = from; i < to; i++) {
+                batchIds[i - from] = ids[i];
+                batchScores[i - from] = scores[i];
+                batchLabels[i - from] = SocialPost.SentimentLabel.fromScore(scores[i]).name();
+            }
+            Integer rows = jdbcTemplate.execute((Connection connection) -> {
+                PreparedStatement statement = connection.prepareStatement(updateSentimentSql);
+                statement.setArray(1, array(connection, "bigint", batchIds));
+                statement.setArray(2, array(connection, "float8", batchScores));
+                statement.setArray(3, array(connection, "varchar", batchLabels));
+                return statement;
+            }, PreparedStatement::executeUpdate);
+            updated += rows == null ? 0 : rows;
+        }
+        return updated;
+    }
+
+    private List<SocialPost> insertBatch(List<SocialPost> batch) {
+        Map<String, SocialPost> byKey = new LinkedHashMap<>();
+        for (SocialPost post : batch) {
+            requireTimestamp(post);
+            byKey.putIfAbsent(post.getPlatform() + ":" + post.getSourceId(), post);
+        }
+        List<SocialPost> inserted = new ArrayList<>(byKey.size());
+        jdbcTemplate.execute((Connection connection) -> {
+            PreparedStatement statement = connection.prepareStatement(insertSql);
+            bindColumns(connection, statement, byKey.values());
+            return statement;
+        }, (PreparedStatement statement) -> {
+            try (var rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    SocialPost post = byKey.get(rs.getString("platform") + ":" + rs.getString("source_id"));
+                    post.setId(rs.getLong("id"));
+                    inserted.add(post);
+                }
+            }
+            return null;
+        });
+        return inserted;
+    }
+
+    private static void requireTimestamp(SocialPost post) {
+        if (post.getPostTimestamp() == null) {
+            throw new IllegalArgumentException("Post " + post.getSourceId() + " has no timestamp");
+        }
+    }
+
+    private static void bindColumns(Connection connection, PreparedStatement statement, Collection<SocialPost> posts)
+            throws SQLException {
+        int n = posts.size();
+        String[] platforms = new String[n];
+        String[] sourceIds = new String[n];
+        String[] authors = new String[n];
+        String[] contents = new String[n];
+        Timestamp[] timestamps = new Timestamp[n];
+        String[] urls = new String[n];
+        Double[] scores = new Double[n];
+        String[] labels = new String[n];
+        int i = 0;
+        for (SocialPost post : posts) {
+            platforms[i] = post.getPlatform();
+            sourceIds[i] = post.getSourceId();
+            authors[i] = post.getAuthor();
+            contents[i] = post.getContent();
+            timestamps[i] = post.getPostTimestamp() == null ? null : Timestamp.from(post.getPostTimestamp());
+            urls[i] = post.getUrl();
+            scores[i] = post.getSentimentScore();
+            labels[i] = post.getSentimentLabel() == null ? null : post.getSentimentLabel().name();
+            i++;
+        }
+        statement.setArray(1, array(connection, "varchar", platforms));
+        statement.setArray(2, array(connection, "varchar", sourceIds));
+        statement.setArray(3, array(connection, "varchar", authors));
+        statement.setArray(4, array(connection, "text", contents));
+        statement.setArray(5, array(connection, "timestamptz", timestamps));
+        statement.setArray(6, array(connection, "varchar", urls));
+        statement.setArray(7, array(connection, "float8", scores));
+        statement.setArray(8, array(connection, "varchar", labels));
+    }
+
+    /**
+     * Encodes posts in COPY text format: tab-separated columns, one line per row, {@code \N} for null.
+     */
+    private static byte[] copyText(Collection<SocialPost> posts) {
+        StringBuilder text = new StringBuilder(posts.size() * 256);
+        for (SocialPost post : posts) {
+            appendCopyValue(text, post.getPlatform()).append('\t');
+            appendCopyValue(text, post.getSourceId()).append('\t');
+            appendCopyValue(text, post.getAuthor()).append('\t');
+            appendCopyValue(text, post.getContent()).append('\t');
+            text.append(post.getPostTimestamp()).append('\t');
+            appendCopyValue(text, post.getUrl()).append('\t');
+            if (post.getSentimentScore() == null) {
+                text.append("\\N");
+            } else {
+                text.append(post.getSentimentScore().doubleValue());
+            }
+            text.append('\t');
+            appendCopyValue(text, post.getSentimentLabel() == null ? null : post.getSentimentLabel().name())
+                    .append('\n');
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static StringBuilder appendCopyValue(StringBuilder text, String value) {
+        if (value == null) {
+            return text.append("\\N");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> text.append("\\\\");
+                case '\t' -> text.append("\\t");
+                case '\n' -> text.append("\\n");
+                case '\r' -> text.append("\\r");
+                case '\0' -> {
+                    // PostgreSQL text cannot hold NUL; the insert path would reject it too.
+                }
+                default -> text.append(c);
+            }
+        }
+        return text;
+    }
+
+    private static Array array(Connection connection, String type, Object[] values) throws SQLException {
+        return connection.createArrayOf(type, values);
+    }
+}
@@ -2,16 +2,30 @@ package repository;
 
 
 import model.SocialPost;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Spring Data JPA repository for managing SocialPost entities.
  */
-public interface SocialPostRepository extends JpaRepository<SocialPost, Long> {
+public interface SocialPostRepository extends JpaRepository<SocialPost, Long>, SocialPostBulkRepository,
+        SocialPostSearchRepository {
 
     /**
      * Finds SocialPosts by platform with pagination.
@@ -29,8 +43,42 @@ public interface SocialPostRepository extends JpaRepository<SocialPost, Long> {
      */
     Optional<SocialPost> findByPlatformAndSourceId(String platform, String sourceId);
 
+    /**
+     * Returns which of the given sourceIds are already stored for the platform.
+     * Served by the primary key of the unpartitioned social_post_key table, so the cost depends only on the
+     * number of ids, not on the table size or the number of partitions.
+     * @param platform the platform name
+     * @param sourceIds the source identifiers to look up
+     * @return the subset of sourceIds that already exist
+     */
+    @Query(value = "select source_id from social_post_key where platform = :platform and source_id in (:sourceIds)",
+            nativeQuery = true)
+    List<String> findExistingSourceIds(@Param("platform") String platform, @Param("sourceIds") Collection<String> sourceIds);
+
+    /**
+     * Reads the identifying columns of posts with an id greater than afterId, in id order.
+     * Used for keyset-paginated scans that must not load full entities.
+     * @param afterId the last id already seen (0 to start from the beginning)
+     * @param limit maximum number of rows to return
+     * @return the next slice of post keys
+     */
+    @Query("select p.id as id, p.platform as platform, p.sourceId as sourceId from SocialPost p where p.id > :afterId order by p.id")
+    List<PostKeyView> findKeysAfter(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Reads the content of posts without a sentiment score and with an id greater than afterId, in id order.
+     * Served by the partial index over unscored rows, so the scan does not revisit scored posts.
+     * @param afterId the last id already seen (0 to start from the beginning)
+     * @param limit maximum number of rows to return
+     * @return the next slice of unscored posts
+     */
+    @Query("select p.id as id, p.content as content from SocialPost p "
+            + "where p.sentimentScore is null and p.id > :afterId order by p.id")
+    List<PostContentView> findUnscoredAfter(@Param("afterId") long afterId, Limit limit);
+
     /**
      * Finds SocialPosts whose content contains the given keyword (case-insensitive), with pagination.
+     * This is a sequential scan; prefer {@link #searchFullText} for user-facing search.
      * @param keyword the keyword to search for
      * @param pageable pagination information
      * @return a page of SocialPosts containing the keyword
@@ -44,16 +92,52 @@ public interface SocialPostRepository extends JpaRepository<SocialPost, Long> {
      */
     Page<SocialPost> findAllByOrderByPostTimestampDesc(Pageable pageable);
 
+    /**
+     * Returns the newest posts with a timestamp, newest first; the first page of a keyset-paginated listing.
+     * @param limit maximum number of posts to return
+     * @return the newest posts ordered by (postTimestamp, id) descending
+     */
+    @Query("select p from SocialPost p where p.postTimestamp is not null order by p.postTimestamp desc, p.id desc")
+    List<SocialPost> findLatest(Limit limit);
+
+    /**
+     * Returns the posts that follow the given keyset position in (postTimestamp, id) descending order.
+     * Served by the (post_timestamp DESC, id DESC) index, so every page costs the same however deep it is.
+     * @param postTimestamp timestamp of the last post of the previous page
+     * @param id id of the last post of the previous page
+     * @param limit maximum number of posts to return
+     * @return the next page of posts
+     */
+    @Query("select p from SocialPost p where (p.postTimestamp, p.id) < (:postTimestamp, :id) "
+            + "order by p.postTimestamp desc, p.id desc")
+    List<SocialPost> findLatestBefore(@Param("postTimestamp") Instant postTimestamp, @Param("id") long id, Limit limit);
+
+    /**
+     * Streams every post in (postTimestamp, id) descending order through a server-side cursor.
+     * Must be consumed inside a transaction, and the stream must be closed.
+     * @return a lazily fetched stream of all posts
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select p from SocialPost p order by p.postTimestamp desc, p.id desc")
+    Stream<SocialPost> streamAllByRecency();
+
+    /**
+     * Rows fetched per round trip by {@link #streamAllByRecency()}.
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
     /**
      * Saves the SocialPost if it does not already exist by platform and sourceId.
+     * The key is claimed in social_post_key in the same statement as the insert, so concurrent callers cannot both
+     * insert. The post must have a timestamp.
      * @param post the SocialPost to save
      * @return Optional containing the saved SocialPost if it was not present, otherwise Optional.empty()
      */
     default Optional<SocialPost> saveIfNotExists(SocialPost post) {
-        Optional<SocialPost> existing = findByPlatformAndSourceId(post.getPlatform(), post.getSourceId());
-        if (existing.isPresent()) {
-            return Optional.empty();
-        }
-        return Optional.of(save(post));
+        return insertIgnoringDuplicates(List.of(post)).stream().findFirst();
     }
 }
\ No newline at end of file
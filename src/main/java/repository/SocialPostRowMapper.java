@@ -0,0 +1,46 @@
+package repository;
+
+import model.SocialPost;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Maps social_post rows selected by native queries to detached SocialPost objects.
+ * Expects the entity's column names; extra columns in the result set are ignored.
+ */
+public class SocialPostRowMapper implements RowMapper<SocialPost> {
+
+    /**
+     * Column list matching this mapper, for use in SELECT clauses.
+     */
+    public static final String COLUMNS = "id, platform, source_id, author, content, post_timestamp, url, "
+            + "sentiment_score, sentiment_label, created_at, updated_at";
+
+    @Override
+    public SocialPost mapRow(ResultSet rs, int rowNum) throws SQLException {
+        double score = rs.getDouble("sentiment_score");
+        boolean unscored = rs.wasNull();
+        String label = rs.getString("sentiment_label");
+        return SocialPost.builder()
+                .id(rs.getLong("id"))
+                .platform(rs.getString("platform"))
+                .sourceId(rs.getString("source_id"))
+                .author(rs.getString("author"))
+                .content(rs.getString("content"))
+                .postTimestamp(toInstant(rs.getTimestamp("post_timestamp")))
+                .url(rs.getString("url"))
+                .sentimentScore(unscored ? null : score)
+                .sentimentLabel(label == null ? null : SocialPost.SentimentLabel.valueOf(label))
+                .createdAt(toInstant(rs.getTimestamp("created_at")))
+                .updatedAt(toInstant(rs.getTimestamp("updated_at")))
+                .build();
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
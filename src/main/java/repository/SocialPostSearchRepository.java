@@ -0,0 +1,25 @@
+package repository;
+
+import model.CursorPage;
+import model.KeysetCursor;
+import model.SearchSort;
+import model.SocialPost;
+
+/**
+ * Full-text search over SocialPost content backed by the content_tsv GIN index.
+ */
+public interface SocialPostSearchRepository {
+
+    /**
+     * Searches post content with web-search syntax: bare words are AND-ed, "quoted text" is a phrase,
+     * {@code or} is an alternative and {@code -word} excludes. Hashtags and mentions ({@code #java},
+     * {@code @user}) must appear with their prefix.
+     * Results are keyset-paginated; with {@link SearchSort#RECENT} posts without a timestamp are not returned.
+     * @param query the search query
+     * @param sort result ordering
+     * @param after cursor of the last row of the previous page, or null for the first page
+     * @param limit maximum number of posts to return
+     * @return the matching posts and the cursor of the following page
+     */
+    CursorPage<SocialPost> searchFullText(String query, SearchSort sort, KeysetCursor after, int limit);
+}
@@ -0,0 +1,156 @@
+package repository;
+
+import exception.ApiException;
+import model.CursorPage;
+import model.KeysetCursor;
+import model.SearchSort;
+import model.SocialPost;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC implementation of {@link SocialPostSearchRepository}.
+ * <p>
+ * The query is parsed with {@code websearch_to_tsquery('simple', ...)} and matched against the indexed
+ * content_tsv column. Because the text search parser drops the {@code #}/{@code @} prefix, hashtag and
+ * mention terms are re-checked with a regex anchored on both sides, which only runs on rows the GIN index
+ * already matched. {@code websearch_to_tsquery} reads {@code or} as separating alternatives of AND-ed terms,
+ * so the re-check follows the same shape: a row passes if one alternative both matches and contains all of
+ * that alternative's tags. Negated tags are left to the text search alone.
+ * </p>
+ */
+public class SocialPostSearchRepositoryImpl implements SocialPostSearchRepository {
+
+    private static final Pattern TAG_TERM = Pattern.compile("(?<![-\\w])([#@])(\\w+)");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SocialPostRowMapper rowMapper = new SocialPostRowMapper();
+
+    public SocialPostSearchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public CursorPage<SocialPost> searchFullText(String query, SearchSort sort, KeysetCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("limit", limit + 1);
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(SocialPostRowMapper.COLUMNS)
+                .append(", ts_rank_cd(content_tsv, q) AS rank")
+                .append(" FROM social_post, websearch_to_tsquery('simple', :query) q")
+                .append(" WHERE content_tsv @@ q");
+
+        appendTagRecheck(sql, params, query);
+
+        if (sort == SearchSort.RECENT) {
+            sql.append(" AND post_timestamp IS NOT NULL");
+            if (after != null) {
+                sql.append(" AND (post_timestamp, id) < (:afterTimestamp, :afterId)");
+                params.addValue("afterTimestamp", Timestamp.from(after.sortTimestamp()));
+                params.addValue("afterId", after.getId());
+            }
+            sql.append(" ORDER BY post_timestamp DESC, id DESC");
+        } else {
+            if (after != null) {
+                sql.append(" AND (ts_rank_cd(content_tsv, q), id) < (:afterRank, :afterId)");
+                params.addValue("afterRank", parseRank(after));
+                params.addValue("afterId", after.getId());
+            }
+            sql.append(" ORDER BY rank DESC, id DESC");
+        }
+        sql.append(" LIMIT :limit");
+
+        float[] lastRank = new float[1];
+        List<SocialPost> rows = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            SocialPost post = rowMapper.mapRow(rs, rowNum);
+            if (rowNum == limit - 1) {
+                lastRank[0] = rs.getFloat("rank");
+            }
+            return post;
+        });
+
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<SocialPost> page = rows.subList(0, limit);
+        SocialPost last = page.get(limit - 1);
+        KeysetCursor next = sort == SearchSort.RECENT
+                ? KeysetCursor.ofTimestamp(last.getPostTimestamp(), last.getId())
+                : new KeysetCursor(String.valueOf(lastRank[0]), last.getId());
+        return new CursorPage<>(List.copyOf(page), next.encode());
+    }
+
+    /**
+     * Appends the hashtag and mention re-check, one alternative per {@code or}-separated part of the query.
+     * With a single alternative the full-text match already holds, so only its tags are checked.
+     */
+    private static void appendTagRecheck(StringBuilder sql, MapSqlParameterSource params, String query) {
+        List<String> alternatives = orAlternatives(query);
+        List<String> checks = new ArrayList<>(alternatives.size());
+        boolean anyTags = false;
+        int tag = 0;
+        for (int i = 0; i < alternatives.size(); i++) {
+            List<String> terms = new ArrayList<>();
+            if (alternatives.size() > 1) {
+                terms.add("content_tsv @@ websearch_to_tsquery('simple', :alternative" + i + ")");
+                params.addValue("alternative" + i, alternatives.get(i));
+            }
+            Matcher tags = TAG_TERM.matcher(alternatives.get(i));
+            while (tags.find()) {
+                terms.add("content ~* :tag" + tag);
+                params.addValue("tag" + tag, "(^|[^\\w])" + tags.group(1) + tags.group(2) + "\\M");
+                tag++;
+                anyTags = true;
+            }
+            checks.add(String.join(" AND ", terms));
+        }
+        if (anyTags) {
+            sql.append(" AND ((").append(String.join(") OR (", checks)).append("))");
+        }
+    }
+
+    /**
+     * Splits a query at the {@code or} keywords outside quotes, as {@code websearch_to_tsquery} does; a
+     * leading or trailing {@code or} is an ordinary word.
+     */
+    private static List<String> orAlternatives(String query) {
+        List<String> alternatives = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (String token : query.trim().split("\\s+")) {
+            if (!quoted && token.equalsIgnoreCase("or") && !current.isEmpty()) {
+                alternatives.add(current.toString());
+                current.setLength(0);
+                continue;
+            }
+            if (!current.isEmpty()) {
+                current.append(' ');
+            }
+            current.append(token);
+            if (token.chars().filter(c -> c == '"').count() % 2 == 1) {
+                quoted = !quoted;
+            }
+        }
+        if (current.isEmpty() && !alternatives.isEmpty()) {
+            // A trailing or: websearch_to_tsquery keeps it as a word of the last alternative.
+            current.append(alternatives.remove(alternatives.size() - 1)).append(" or");
+        }
+        alternatives.add(current.toString());
+        return alternatives;
+    }
+
+    private static float parseRank(KeysetCursor cursor) {
+        try {
+            return Float.parseFloat(cursor.getSortValue());
+        } catch (NumberFormatException ex) {
+            throw new ApiException("Cursor does not match the requested sort order", ex);
+        }
+    }
+}
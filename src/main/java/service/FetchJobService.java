@@ -0,0 +1,181 @@
+package service;
+
+import config.FetchJobConfig;
+import exception.ApiException;
+import exception.JobRejectedException;
+import exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import model.FetchJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs keyword fetches as background jobs, so request threads return immediately.
+ * <p>
+ * At most {@code fetch-jobs.concurrency} jobs run at once, on a fixed platform thread pool or, with
+ * {@code fetch-jobs.virtual-threads} on Java 21, on one virtual thread per job gated by a semaphore.
+ * A submission for a keyword that already has a queued or running job returns that job instead of starting
+ * another, so bursts of identical requests cost one fetch. Submissions are rejected once
+ * concurrency plus {@code fetch-jobs.queue-capacity} keywords are in flight.
+ * Finished jobs stay queryable for {@code fetch-jobs.retention-minutes}.
+ * </p>
+ */
+@Service
+public class FetchJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FetchJobService.class);
+
+    private final SocialPostService socialPostService;
+    private final FetchJobConfig config;
+    private final Clock clock;
+    private final ExecutorService executor;
+    private final Semaphore running;
+    private final Map<String, FetchJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, FetchJob> inFlightByKeyword = new ConcurrentHashMap<>();
+
+    @Autowired
+    public FetchJobService(SocialPostService socialPostService, FetchJobConfig config) {
+        this(socialPostService, config, Clock.systemUTC());
+    }
+
+    FetchJobService(SocialPostService socialPostService, FetchJobConfig config, Clock clock) {
+        this.socialPostService = socialPostService;
+        this.config = config;
+        this.clock = clock;
+        ExecutorService virtual = config.isVirtualThreads() ? newVirtualThreadPerTaskExecutor() : null;
+        if (virtual != null) {
+            this.executor = virtual;
+            this.running = new Semaphore(config.getConcurrency());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(config.getConcurrency(), task -> {
+                Thread thread = new Thread(task, "fetch-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.running = null;
+        }
+    }
+
+    /**
+     * Submits a fetch for the keyword, or returns the job already queued or running for it.
+     * Keywords are matched ignoring case and surrounding whitespace.
+     *
+     * @param keyword the keyword to fetch posts for
+     * @return the job that will perform the fetch
+     * @throws JobRejectedException if too many jobs are already in flight
+     */
+    public FetchJob submit(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            throw new ApiException("Keyword must not be blank");
+        }
+        String trimmed = keyword.trim();
+        String key = trimmed.toLowerCase(Locale.ROOT);
+        pruneFinished();
+        return inFlightByKeyword.compute(key, (k, existing) -> {
+            if (existing != null) {
+                logger.debug("Coalesced fetch for keyword '{}' into job {}", trimmed, existing.getId());
+                return existing;
+            }
+            if (inFlightByKeyword.size() >= config.getConcurrency() + config.getQueueCapacity()) {
+                throw new JobRejectedException("Too many fetch jobs in flight; retry later");
+            }
+            FetchJob job = new FetchJob(UUID.randomUUID().toString(), trimmed, clock.instant());
+            jobs.put(job.getId(), job);
+            try {
+                executor.execute(() -> run(job, key));
+            } catch (RejectedExecutionException ex) {
+                jobs.remove(job.getId());
+                throw new JobRejectedException("Fetch job executor is shut down");
+            }
+            logger.info("Submitted fetch job {} for keyword '{}'", job.getId(), trimmed);
+            return job;
+        });
+    }
+
+    /**
+     * @param jobId the job id returned on submission
+     * @return the job and its progress
+     * @throws ResourceNotFoundException if the job is unknown or no longer retained
+     */
+    public FetchJob getJob(String jobId) {
+        FetchJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("FetchJob", jobId);
+        }
+        return job;
+    }
+
+    private void run(FetchJob job, String key) {
+        try {
+            if (running != null) {
+                running.acquire();
+            }
+            try {
+                job.markRunning(clock.instant());
+                socialPostService.fetchAndSavePosts(job.getKeyword(), job::recordBatch);
+                job.markSucceeded(clock.instant());
+            } finally {
+                if (running != null) {
+                    running.release();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.markFailed(clock.instant(), "Interrupted");
+        } catch (RuntimeException ex) {
+            logger.error("Fetch job {} for keyword '{}' failed", job.getId(), job.getKeyword(), ex);
+            job.markFailed(clock.instant(), ex.getMessage());
+        } finally {
+            inFlightByKeyword.remove(key, job);
+        }
+    }
+
+    private void pruneFinished() {
+        Instant cutoff = clock.instant().minus(Duration.ofMinutes(config.getRetentionMinutes()));
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAt().isBefore(cutoff));
+        int excess = jobs.size() - config.getMaxRetainedJobs();
+        if (excess > 0) {
+            List<FetchJob> oldest = jobs.values().stream()
+                    .filter(job -> job.getStatus().isFinished())
+                    .sorted(Comparator.comparing(FetchJob::getFinishedAt))
+                    .limit(excess)
+                    .collect(Collectors.toList());
+            oldest.forEach(job -> jobs.remove(job.getId()));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively, since the build targets Java 17.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("Fetch jobs run on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException ex) {
+            logger.warn("fetch-jobs.virtual-threads requires Java 21; using a platform thread pool");
+            return null;
+        }
+    }
+}
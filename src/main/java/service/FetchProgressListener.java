@@ -0,0 +1,18 @@
+package service;
+
+/**
+ * Receives progress from a running fetch, once per stored batch.
+ */
+@FunctionalInterface
+public interface FetchProgressListener {
+
+    FetchProgressListener NONE = (pages, fetched, saved) -> {
+    };
+
+    /**
+     * @param pages pages read from the platforms for the batch
+     * @param fetched posts returned by the platforms for the batch
+     * @param saved posts of the batch that were new and stored
+     */
+    void onBatch(int pages, int fetched, int saved);
+}
@@ -0,0 +1,313 @@
+package service;
+
+import client.RateLimitStatus;
+import client.TwitterApiClient;
+import config.PollingConfig;
+import config.TwitterConfig;
+import exception.ApiException;
+import exception.ResourceNotFoundException;
+import model.PolledKeyword;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Polls a registered set of keywords, adapting each keyword's cadence to how fast it gets new posts.
+ * <p>
+ * Every keyword has its own interval, sized so a poll is expected to find about
+ * {@code polling.target-posts-per-poll} new posts at the keyword's smoothed post velocity: busy keywords are
+ * polled often and quiet ones back off towards {@code polling.max-interval-seconds}. When the calls needed at
+ * that target would exceed the API's quota, the target is raised for every keyword alike, so quota is shared
+ * in proportion to velocity. A poll stops paging at the first post it already has. The client's rate-limit
+ * tracker paces the calls that remain and waits out exhausted windows.
+ * </p>
+ * Due polls are kept in a delay queue ordered by due time and handed to {@code polling.concurrency} workers
+ * by a single dispatcher thread.
+ */
+@Service
+public class KeywordPollingScheduler implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeywordPollingScheduler.class);
+
+    /**
+     * Share of the rate-limit quota the scheduler plans to use, leaving the rest for on-demand fetches.
+     */
+    private static final double QUOTA_SHARE = 0.8;
+
+    private final SocialPostService socialPostService;
+    private final TwitterApiClient twitterApiClient;
+    private final PollingConfig config;
+    private final int pageSize;
+    private final Map<String, KeywordState> keywords = new ConcurrentHashMap<>();
+    private final DelayQueue<DuePoll> duePolls = new DelayQueue<>();
+    private final Semaphore freeWorkers;
+
+    private volatile boolean running;
+    private ExecutorService workers;
+    private Thread dispatcher;
+
+    public KeywordPollingScheduler(SocialPostService socialPostService, TwitterApiClient twitterApiClient,
+                                   PollingConfig config, TwitterConfig twitterConfig) {
+        this.socialPostService = socialPostService;
+        this.twitterApiClient = twitterApiClient;
+        this.config = config;
+        this.pageSize = twitterConfig.getPageSize();
+        this.freeWorkers = new Semaphore(config.getConcurrency());
+    }
+
+    /**
+     * Adds a keyword to the polled set; its first poll is due immediately.
+     * Keywords are matched ignoring case and surrounding whitespace.
+     *
+     * @param keyword the keyword to poll
+     * @return the keyword's polling state; unchanged if it was already registered
+     */
+    public PolledKeyword register(String keyword) {
+        return register(keyword, 0).snapshot();
+    }
+
+    /**
+     * Removes a keyword from the polled set. A poll already running for it completes.
+     *
+     * @param keyword the keyword to stop polling
+     * @throws ResourceNotFoundException if the keyword is not registered
+     */
+    public void unregister(String keyword) {
+        if (keyword == null || keywords.remove(normalize(keyword)) == null) {
+            throw new ResourceNotFoundException("Polled keyword '" + keyword + "' not found");
+        }
+        logger.info("Unregistered keyword '{}' from polling", keyword.trim());
+    }
+
+    /**
+     * @return every registered keyword with its current cadence, in keyword order
+     */
+    public List<PolledKeyword> getKeywords() {
+        return keywords.values().stream()
+                .map(KeywordState::snapshot)
+                .sorted(Comparator.comparing(PolledKeyword::getKeyword))
+                .collect(Collectors.toList());
+    }
+
+    private KeywordState register(String keyword, long delayMillis) {
+        if (keyword == null || keyword.isBlank()) {
+            throw new ApiException("Keyword must not be blank");
+        }
+        String trimmed = keyword.trim();
+        return keywords.computeIfAbsent(normalize(trimmed), key -> {
+            KeywordState state = new KeywordState(trimmed, config.getInitialIntervalSeconds() * 1000L);
+            schedule(state, delayMillis);
+            logger.info("Registered keyword '{}' for polling", trimmed);
+            return state;
+        });
+    }
+
+    @Override
+    public void start() {
+        // Startup keywords are staggered over the initial interval, so they do not all poll at once.
+        List<String> initial = config.getKeywords().stream().filter(k -> !k.isBlank()).collect(Collectors.toList());
+        long stagger = initial.isEmpty() ? 0 : config.getInitialIntervalSeconds() * 1000L / initial.size();
+        for (int i = 0; i < initial.size(); i++) {
+            register(initial.get(i), i * stagger);
+        }
+        if (!config.isEnabled()) {
+            logger.info("Keyword polling is disabled; {} keywords registered", keywords.size());
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(config.getConcurrency(), task -> {
+            Thread thread = new Thread(task, "keyword-poll-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = new Thread(this::dispatch, "keyword-poll-dispatcher");
+        dispatcher.setDaemon(true);
+        running = true;
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                DuePoll due = duePolls.take();
+                KeywordState state = keywords.get(due.key);
+                if (state == null || state != due.state) {
+                    continue;
+                }
+                freeWorkers.acquire();
+                try {
+                    workers.execute(() -> {
+                        try {
+                            poll(state);
+                        } finally {
+                            freeWorkers.release();
+                        }
+                    });
+                } catch (RejectedExecutionException ex) {
+                    freeWorkers.release();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void poll(KeywordState state) {
+        long startedAt = System.currentTimeMillis();
+        int saved;
+        try {
+            saved = socialPostService.pollNewPosts(state.keyword, config.getMaxPagesPerPoll());
+        } catch (RuntimeException ex) {
+            logger.warn("Poll of keyword '{}' failed: {}", state.keyword, ex.getMessage());
+            saved = -1;
+        }
+        long interval = state.recordPoll(startedAt, saved);
+        if (keywords.get(normalize(state.keyword)) == state) {
+            schedule(state, interval);
+        }
+        logger.debug("Polled '{}': {} new posts, {} posts/min, next poll in {} s",
+                state.keyword, saved, String.format("%.2f", state.velocityPerMinute), interval / 1000);
+    }
+
+    /**
+     * Posts a poll should find for the current demand: the configured target, raised when polling every keyword
+     * at that target would need more calls than the quota share allows.
+     * <p>
+     * A poll that finds n new posts costs about {@code n / pageSize + 1} calls, so at target T the busy keywords
+     * need {@code V / pageSize + V / T} calls per minute for a total velocity V, and each quiet keyword one call
+     * per maximum interval. Solving for the calls left over gives the smallest affordable T.
+     * </p>
+     */
+    private double effectiveTargetPosts() {
+        RateLimitStatus quota = twitterApiClient.getRateLimitStatus();
+        double callsPerMinute = QUOTA_SHARE * quota.getLimit() * 60_000.0 / quota.getWindowMillis();
+        double totalVelocity = 0;
+        int quietKeywords = 0;
+        for (KeywordState state : keywords.values()) {
+            totalVelocity += state.velocityPerMinute;
+            quietKeywords += state.velocityPerMinute > 0 ? 0 : 1;
+        }
+        // A poll cannot return more than its page budget, so a higher target would only lose posts.
+        double maxTarget = (double) config.getMaxPagesPerPoll() * pageSize;
+        double spareCalls = callsPerMinute - totalVelocity / pageSize - quietKeywords * 60.0 / config.getMaxIntervalSeconds();
+        if (spareCalls <= 0) {
+            return maxTarget;
+        }
+        return Math.min(maxTarget, Math.max(config.getTargetPostsPerPoll(), totalVelocity / spareCalls));
+    }
+
+    private void schedule(KeywordState state, long delayMillis) {
+        state.nextPollAtMillis = System.currentTimeMillis() + delayMillis;
+        duePolls.add(new DuePoll(normalize(state.keyword), state, state.nextPollAtMillis));
+    }
+
+    private static String normalize(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Cadence and statistics of one keyword. Updated only by the worker polling it.
+     */
+    private final class KeywordState {
+        final String keyword;
+        volatile long intervalMillis;
+        volatile double velocityPerMinute;
+        volatile long lastPolledAtMillis;
+        volatile long nextPollAtMillis;
+        volatile int lastNewPosts;
+        volatile long totalNewPosts;
+        volatile long polls;
+
+        KeywordState(String keyword, long intervalMillis) {
+            this.keyword = keyword;
+            this.intervalMillis = intervalMillis;
+        }
+
+        /**
+         * Folds a poll's yield into the smoothed velocity and derives the next interval.
+         *
+         * @param saved new posts stored, or -1 if the poll failed
+         * @return delay until the next poll
+         */
+        long recordPoll(long polledAtMillis, int saved) {
+            long minMillis = config.getMinIntervalSeconds() * 1000L;
+            long maxMillis = config.getMaxIntervalSeconds() * 1000L;
+            polls++;
+            long previousPollAt = lastPolledAtMillis;
+            lastPolledAtMillis = polledAtMillis;
+            if (saved < 0) {
+                intervalMillis = Math.min(maxMillis, intervalMillis * 2);
+                return intervalMillis;
+            }
+            lastNewPosts = saved;
+            totalNewPosts += saved;
+            if (previousPollAt == 0) {
+                // The first poll covers an unknown period, so it says nothing about velocity yet.
+                return intervalMillis;
+            }
+            double minutes = Math.max(1, polledAtMillis - previousPollAt) / 60_000.0;
+            double observed = saved / minutes;
+            double alpha = config.getVelocitySmoothing();
+            velocityPerMinute = polls == 2 ? observed : alpha * observed + (1 - alpha) * velocityPerMinute;
+            long next = velocityPerMinute > 0
+                    ? (long) (effectiveTargetPosts() / velocityPerMinute * 60_000)
+                    : intervalMillis * 2;
+            intervalMillis = Math.max(minMillis, Math.min(maxMillis, next));
+            return intervalMillis;
+        }
+
+        PolledKeyword snapshot() {
+            return new PolledKeyword(keyword, intervalMillis / 1000, velocityPerMinute,
+                    lastPolledAtMillis == 0 ? null : Instant.ofEpochMilli(lastPolledAtMillis),
+                    nextPollAtMillis == 0 ? null : Instant.ofEpochMilli(nextPollAtMillis),
+                    lastNewPosts, totalNewPosts, polls);
+        }
+    }
+
+    private static final class DuePoll implements Delayed {
+        final String key;
+        final KeywordState state;
+        final long dueAtMillis;
+
+        DuePoll(String key, KeywordState state, long dueAtMillis) {
+            this.key = key;
+            this.state = state;
+            this.dueAtMillis = dueAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((DuePoll) other).dueAtMillis);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local rule-based sentiment scorer in the style of VADER, driven by {@code sentiment/lexicon.tsv}.
+ * <p>
+ * Each lexicon word contributes its valence. The valence is strengthened or weakened by up to three
+ * preceding intensifiers ("very", "slightly"), flipped by a preceding negation ("not", "don't") in the same clause,
+ * emphasised when written in capitals, and re-weighted around "but". Exclamation marks and simple
+ * emoticons add emphasis. The sum is normalised into [-1, 1].
+ * </p>
+ * Scoring does not allocate: words are hashed and compared against an open-addressing table directly from the
+ * input characters, so throughput is bounded by a single pass over the text.
+ */
+@Component
+@ConditionalOnProperty(name = "sentiment.scorer", havingValue = "lexicon", matchIfMissing = true)
+public class LexiconSentimentScorer implements SentimentScorer {
+
+    private static final String LEXICON = "sentiment/lexicon.tsv";
+
+    private static final byte VALENCE = 0;
+    private static final byte NEGATOR = 1;
+    private static final byte BOOSTER = 2;
+    private static final byte DAMPENER = 3;
+    private static final byte CONTRAST = 4;
+    private static final byte NONE = -1;
+
+    private static final double BOOST = 0.293;
+    private static final double NEGATION = -0.74;
+    private static final double CAPS_EMPHASIS = 0.733;
+    private static final double EXCLAMATION = 0.292;
+    private static final double EMOTICON = 2.0;
+    private static final double NORMALIZATION_ALPHA = 15;
+    private static final int MAX_WORD = 32;
+
+    private static final String[] NEGATORS = {"not", "no", "never", "none", "nobody", "nothing", "neither", "nor",
+            "without", "cant", "cannot", "dont", "doesnt", "didnt", "isnt", "arent", "wasnt", "werent", "wont",
+            "wouldnt", "shouldnt", "couldnt", "aint", "hardly", "nope"};
+    private static final String[] BOOSTERS = {"very", "really", "extremely", "so", "totally", "absolutely",
+            "incredibly", "highly", "completely", "truly", "most", "such", "utterly", "hugely", "seriously"};
+    private static final String[] DAMPENERS = {"kinda", "slightly", "somewhat", "barely", "marginally", "sorta",
+            "partly", "little"};
+
+    private final char[][] keys;
+    private final float[] valences;
+    private final byte[] kinds;
+    private final int mask;
+
+    public LexiconSentimentScorer() {
+        this(loadLexicon());
+    }
+
+    LexiconSentimentScorer(Map<String, Float> lexicon) {
+        Map<String, Byte> kindByWord = new LinkedHashMap<>();
+        lexicon.keySet().forEach(word -> kindByWord.put(word, VALENCE));
+        for (String word : NEGATORS) kindByWord.put(word, NEGATOR);
+        for (String word : BOOSTERS) kindByWord.put(word, BOOSTER);
+        for (String word : DAMPENERS) kindByWord.put(word, DAMPENER);
+        kindByWord.put("but", CONTRAST);
+
+        int capacity = Integer.highestOneBit(Math.max(16, kindByWord.size() * 4) - 1) << 1;
+        this.keys = new char[capacity][];
+        this.valences = new float[capacity];
+        this.kinds = new byte[capacity];
+        this.mask = capacity - 1;
+        for (Map.Entry<String, Byte> entry : kindByWord.entrySet()) {
+            char[] word = entry.getKey().toCharArray();
+            int slot = hash(word, 0, word.length) & mask;
+            while (keys[slot] != null && !Arrays.equals(keys[slot], word)) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = word;
+            kinds[slot] = entry.getValue();
+            valences[slot] = entry.getValue() == VALENCE ? lexicon.get(entry.getKey()) : 0f;
+        }
+    }
+
+    @Override
+    public double score(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int length = text.length();
+        double sum = 0;
+        double contrastWeight = 1;
+        int exclamations = 0;
+        // Kinds and emphasis of the three previous words, most recent first.
+        byte prev1 = NONE, prev2 = NONE, prev3 = NONE;
+
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if ((c == ':' || c == ';') && i + 1 < length) {
+                int face = text.charAt(i + 1) == '-' ? i + 2 : i + 1;
+                double emoticon = face < length ? emoticonValence(text.charAt(face)) : 0;
+                if (emoticon != 0) {
+                    sum += emoticon * contrastWeight;
+                    i = face + 1;
+                    continue;
+                }
+            }
+            if (c == '!' || c == '.' || c == ',' || c == ';' || c == '?') {
+                // Clause boundary: negations and intensifiers do not carry over.
+                exclamations += c == '!' ? 1 : 0;
+                prev1 = prev2 = prev3 = NONE;
+                i++;
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                i++;
+                continue;
+            }
+
+            int start = i;
+            int hash = 0x811c9dc5;
+            int letters = 0;
+            boolean allCaps = true;
+            boolean negatedContraction = false;
+            while (i < length) {
+                char w = text.charAt(i);
+                if (w == '\'' || w == '’') {
+                    negatedContraction |= i + 1 < length && (text.charAt(i + 1) == 't' || text.charAt(i + 1) == 'T')
+                            && i > start && (text.charAt(i - 1) == 'n' || text.charAt(i - 1) == 'N');
+                    i++;
+                    continue;
+                }
+                if (!Character.isLetterOrDigit(w)) {
+                    break;
+                }
+                allCaps &= !Character.isLowerCase(w);
+                hash = (hash ^ lower(w)) * 0x01000193;
+                letters++;
+                i++;
+            }
+
+            byte kind = NONE;
+            double valence = 0;
+            if (letters <= MAX_WORD) {
+                int slot = find(text, start, i, letters, hash);
+                if (slot >= 0) {
+                    kind = kinds[slot];
+                    valence = valences[slot];
+                }
+            }
+            if (negatedContraction) {
+                kind = NEGATOR;
+            }
+
+            if (kind == VALENCE) {
+                double scalar = 0;
+                scalar += modifier(prev1, valence);
+                scalar += modifier(prev2, valence) * 0.95;
+                scalar += modifier(prev3, valence) * 0.9;
+                valence += scalar;
+                if (allCaps && letters > 1) {
+                    valence += Math.signum(valence) * CAPS_EMPHASIS;
+                }
+                if (prev1 == NEGATOR || prev2 == NEGATOR || prev3 == NEGATOR) {
+                    valence *= NEGATION;
+                }
+                sum += valence * contrastWeight;
+            } else if (kind == CONTRAST) {
+                sum *= 0.5;
+                contrastWeight = 1.5;
+            }
+            prev3 = prev2;
+            prev2 = prev1;
+            prev1 = kind;
+        }
+
+        if (sum != 0 && exclamations > 0) {
+            sum += Math.signum(sum) * Math.min(4, exclamations) * EXCLAMATION;
+        }
+        double normalized = sum / Math.sqrt(sum * sum + NORMALIZATION_ALPHA);
+        return Math.max(-1, Math.min(1, normalized));
+    }
+
+    private static double emoticonValence(char face) {
+        if (face == ')' || face == 'D' || face == ']') {
+            return EMOTICON;
+        }
+        if (face == '(' || face == '[') {
+            return -EMOTICON;
+        }
+        return 0;
+    }
+
+    private static double modifier(byte kind, double valence) {
+        if (kind == BOOSTER) {
+            return Math.signum(valence) * BOOST;
+        }
+        if (kind == DAMPENER) {
+            return -Math.signum(valence) * BOOST;
+        }
+        return 0;
+    }
+
+    /**
+     * Probes the table for the word at text[start, end), skipping apostrophes and comparing case-insensitively.
+     */
+    private int find(CharSequence text, int start, int end, int letters, int hash) {
+        int slot = hash & mask;
+        while (true) {
+            char[] key = keys[slot];
+            if (key == null) {
+                return -1;
+            }
+            if (key.length == letters && matches(key, text, start, end)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static boolean matches(char[] key, CharSequence text, int start, int end) {
+        int k = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\'' || c == '’') {
+                continue;
+            }
+            if (key[k++] != lower(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(char[] word, int from, int to) {
+        int hash = 0x811c9dc5;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ word[i]) * 0x01000193;
+        }
+        return hash;
+    }
+
+    private static char lower(char c) {
+        if (c < 128) {
+            return (c >= 'A' && c <= 'Z') ? (char) (c | 0x20) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static Map<String, Float> loadLexicon() {
+        Map<String, Float> lexicon = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(LEXICON).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                int tab = line.indexOf('\t');
+                lexicon.put(line.substring(0, tab).trim(), Float.parseFloat(line.substring(tab + 1).trim()));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not load sentiment lexicon " + LEXICON, ex);
+        }
+        return lexicon;
+    }
+}
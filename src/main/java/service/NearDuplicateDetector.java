@@ -0,0 +1,116 @@
+package service;
+
+import config.NearDuplicateConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import model.SocialPost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import util.SimHash;
+import util.SimHashIndex;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drops posts whose text nearly repeats a post ingested shortly before, such as copy-paste spam and retweet floods,
+ * which carry new source ids and so pass the exact dedup in {@link PostDeduplicator}.
+ * <p>
+ * With {@code near-dup.enabled}, each post gets a {@link SimHash} fingerprint of its terms. The post is dropped if
+ * a post ingested within the last {@code near-dup.window-minutes} has a fingerprint at most
+ * {@code near-dup.max-distance} bits away, and is otherwise remembered in a {@link SimHashIndex} of
+ * {@code near-dup.capacity} posts. Memory is fixed by the capacity, and each post costs a few bucket probes.
+ * The first post of a group is kept, later copies are dropped; posts with fewer than {@code near-dup.min-terms}
+ * terms are always kept. The index is in memory only and starts empty. Dropped posts are counted as
+ * {@code ingest.near.duplicates}.
+ * </p>
+ */
+@Component
+public class NearDuplicateDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearDuplicateDetector.class);
+
+    private final NearDuplicateConfig config;
+    private final Clock clock;
+    private final SimHashIndex index;
+    private final LongAdder dropped = new LongAdder();
+
+    @Autowired
+    public NearDuplicateDetector(NearDuplicateConfig config, MeterRegistry meterRegistry) {
+        this(config, Clock.systemUTC());
+        FunctionCounter.builder("ingest.near.duplicates", dropped, LongAdder::sum)
+                .description("Posts dropped as near-duplicates of a recent post").register(meterRegistry);
+        Gauge.builder("ingest.near.index.size", this, NearDuplicateDetector::size)
+                .description("Recent posts remembered by the near-duplicate index").register(meterRegistry);
+    }
+
+    NearDuplicateDetector(NearDuplicateConfig config, Clock clock) {
+        this.config = config;
+        this.clock = clock;
+        this.index = config.isEnabled() ? new SimHashIndex(config.getCapacity(), config.getMaxDistance()) : null;
+    }
+
+    /**
+     * Returns the posts that are not near-duplicates of a recent post or of an earlier post of the batch, and
+     * remembers them. Returns the posts unchanged when detection is disabled.
+     *
+     * @param posts posts not stored yet
+     * @return the posts to store, in input order
+     */
+    public List<SocialPost> dropNearDuplicates(List<SocialPost> posts) {
+        if (index == null || posts.isEmpty()) {
+            return posts;
+        }
+        long[] fingerprints = new long[posts.size()];
+        boolean[] checked = new boolean[posts.size()];
+        for (int i = 0; i < posts.size(); i++) {
+            Set<String> terms = SimHash.terms(posts.get(i).getContent());
+            checked[i] = terms.size() >= config.getMinTerms();
+            fingerprints[i] = SimHash.fingerprint(terms);
+        }
+
+        List<SocialPost> kept = new ArrayList<>(posts.size());
+        synchronized (index) {
+            long now = clock.millis();
+            long notBefore = now - config.getWindowMinutes() * 60_000;
+            for (int i = 0; i < posts.size(); i++) {
+                SocialPost post = posts.get(i);
+                if (!checked[i]) {
+                    kept.add(post);
+                    continue;
+                }
+                long key = key(post);
+                if (index.containsNear(fingerprints[i], key, notBefore)) {
+                    continue;
+                }
+                index.add(fingerprints[i], key, now);
+                kept.add(post);
+            }
+        }
+        int droppedCount = posts.size() - kept.size();
+        if (droppedCount > 0) {
+            dropped.add(droppedCount);
+            logger.debug("Dropped {} of {} posts as near-duplicates", droppedCount, posts.size());
+        }
+        return kept;
+    }
+
+    private int size() {
+        if (index == null) {
+            return 0;
+        }
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    private static long key(SocialPost post) {
+        return ((long) post.getPlatform().hashCode() << 32) ^ (post.getSourceId().hashCode() & 0xffffffffL);
+    }
+}
@@ -0,0 +1,293 @@
+package service;
+
+import config.ArchiveConfig;
+import exception.ApiException;
+import jakarta.annotation.PreDestroy;
+import model.ArchivedSegment;
+import model.ReplayReport;
+import model.SocialPost.SentimentLabel;
+import model.TrendingTerm;
+import model.VolumeBucket;
+import model.VolumeGranularity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import repository.PostArchiveRepository;
+import repository.PostPartitionRepository;
+import repository.PostPartitionRepository.Partition;
+import repository.PostSegment;
+import util.CountMinSketch;
+import util.TermTokenizer;
+import util.TopKTracker;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Archive tier for old posts: moves expired partitions into segment files and replays them through the analysis.
+ * <p>
+ * With {@code archive.enabled}, every {@code archive.interval-millis} and once at startup, each partition whose
+ * whole range is older than {@code archive.after-days} is moved into {@link PostSegment} files and dropped.
+ * Archived posts no longer appear in listings or search, and cached listing and search pages are discarded after
+ * each archived partition. Partition retention runs separately; with {@code partitions.retention-days} below
+ * {@code archive.after-days}, partitions are dropped before they are archived.
+ * </p>
+ * A replay reads the segments of its range straight from memory-mapped files, {@code archive.replay-parallelism}
+ * segments at a time, without touching the database. Each post is tokenized for trend terms, optionally filtered
+ * by a term, and scored with the current {@link SentimentScorer}, so a replay also shows how a changed scorer
+ * would have labelled history.
+ */
+@Service
+public class PostArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostArchiveService.class);
+
+    static final int MAX_BUCKETS = 10_000;
+
+    private static final int TERM_STRIPES = 16;
+    private static final int TERMS_PER_STRIPE = 64;
+
+    private final PostArchiveRepository archiveRepository;
+    private final PostPartitionRepository partitionRepository;
+    private final SentimentScorer scorer;
+    private final ArchiveConfig config;
+    private final PostQueryCache postQueryCache;
+    private final Clock clock;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile List<PostSegment> segments = List.of();
+
+    @Autowired
+    public PostArchiveService(PostArchiveRepository archiveRepository, PostPartitionRepository partitionRepository,
+                              SentimentScorer scorer, ArchiveConfig config, PostQueryCache postQueryCache) {
+        this(archiveRepository, partitionRepository, scorer, config, postQueryCache, Clock.systemUTC());
+    }
+
+    PostArchiveService(PostArchiveRepository archiveRepository, PostPartitionRepository partitionRepository,
+                       SentimentScorer scorer, ArchiveConfig config, PostQueryCache postQueryCache, Clock clock) {
+        this.archiveRepository = archiveRepository;
+        this.partitionRepository = partitionRepository;
+        this.scorer = scorer;
+        this.config = config;
+        this.postQueryCache = postQueryCache;
+        this.clock = clock;
+        this.pool = new ForkJoinPool(config.getReplayParallelism());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            segments = archiveRepository.loadSegments();
+            if (!segments.isEmpty()) {
+                logger.info("Loaded {} archive segments holding {} posts", segments.size(),
+                        segments.stream().mapToLong(PostSegment::getRowCount).sum());
+            }
+        } catch (IOException ex) {
+            logger.error("Could not load archive segments from {}", config.getDirectory(), ex);
+        }
+        archive();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Archives every partition whose range ended more than {@code archive.after-days} ago, oldest first.
+     * Does nothing unless {@code archive.enabled} is set; overlapping invocations return immediately.
+     */
+    @Scheduled(initialDelayString = "${archive.interval-millis:3600000}",
+            fixedDelayString = "${archive.interval-millis:3600000}")
+    public void archive() {
+        if (!config.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Instant cutoff = clock.instant().minus(Duration.ofDays(config.getAfterDays()));
+            for (Partition partition : partitionRepository.findPartitions()) {
+                if (partition.getTo().isAfter(cutoff)) {
+                    break;
+                }
+                long started = System.nanoTime();
+                List<PostSegment> added = archiveRepository.archivePartition(partition);
+                postQueryCache.invalidateAll();
+                List<PostSegment> all = new ArrayList<>(segments);
+                all.addAll(added);
+                segments = List.copyOf(all);
+                logger.info("Archived post partition {} into {} segments: {} posts, {} KiB in {} ms",
+                        partition.getName(), added.size(), added.stream().mapToLong(PostSegment::getRowCount).sum(),
+                        added.stream().mapToLong(PostSegment::getSizeBytes).sum() / 1024,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+        } catch (IOException | RuntimeException ex) {
+            logger.error("Post archiving failed", ex);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return the archive's segment files, oldest first
+     */
+    public List<ArchivedSegment> findSegments() {
+        return segments.stream()
+                .map(segment -> new ArchivedSegment(segment.getName(), segment.getFirstTimestamp(),
+                        segment.getLastTimestamp(), segment.getRowCount(), segment.getSizeBytes()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Replays archived posts of a time range through the sentiment and trend analysis.
+     * The range is widened to whole buckets.
+     *
+     * @param from inclusive start
+     * @param to exclusive end
+     * @param granularity bucket size of the sentiment series
+     * @param term only count posts containing this term, e.g. a word or #hashtag; null or blank for all posts
+     * @param limit number of top terms to return
+     * @param rescore whether to score posts with the current scorer rather than use the labels stored with them
+     * @return posts per bucket and label, and the most frequent terms
+     * @throws ApiException if the range is empty or too long, or the term is not one the tokenizer produces
+     */
+    public ReplayReport replay(Instant from, Instant to, VolumeGranularity granularity, String term, int limit,
+                               boolean rescore) {
+        if (!from.isBefore(to)) {
+            throw new ApiException("Replay range must end after it starts");
+        }
+        Instant start = granularity.floor(from);
+        Instant end = granularity.floor(to.minusNanos(1)).plus(granularity.getDuration());
+        long bucketCount = Duration.between(start, end).dividedBy(granularity.getDuration());
+        if (bucketCount > MAX_BUCKETS) {
+            throw new ApiException("Replay range spans " + bucketCount + " " + granularity.getCode()
+                    + " buckets; at most " + MAX_BUCKETS + " are allowed");
+        }
+        String filter = term == null || term.isBlank() ? null : normalizeTerm(term);
+        long started = System.nanoTime();
+
+        List<PostSegment> selected = new ArrayList<>();
+        for (PostSegment segment : segments) {
+            if (segment.getRowCount() > 0 && !segment.getLastTimestamp().isBefore(start)
+                    && segment.getFirstTimestamp().isBefore(end)) {
+                selected.add(segment);
+            }
+        }
+        Replay replay = new Replay(start, end, granularity.getDuration().toMillis(), (int) bucketCount, filter,
+                rescore);
+        List<Tally> tallies = pool.submit(() -> selected.parallelStream().map(replay::run).collect(Collectors.toList()))
+                .join();
+
+        long[] counts = new long[(int) bucketCount * 4];
+        long scanned = 0;
+        long matched = 0;
+        for (Tally tally : tallies) {
+            scanned += tally.scanned;
+            matched += tally.matched;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += tally.counts[i];
+            }
+        }
+        List<VolumeBucket> buckets = new ArrayList<>((int) bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            long[] c = Arrays.copyOfRange(counts, b * 4, b * 4 + 4);
+            buckets.add(new VolumeBucket(start.plus(granularity.getDuration().multipliedBy(b)),
+                    c[0] + c[1] + c[2] + c[3], c[0], c[1], c[2], c[3]));
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        logger.debug("Replayed {} archived posts from {} segments in {} ms", scanned, selected.size(), elapsed);
+        return new ReplayReport(start, end, selected.size(), scanned, matched, elapsed, buckets,
+                replay.topTerms(limit));
+    }
+
+    private static String normalizeTerm(String term) {
+        List<String> terms = new ArrayList<>(1);
+        TermTokenizer.forEachTerm(term.trim(), terms::add);
+        if (terms.size() != 1) {
+            throw new ApiException("Invalid term: " + term + " (expected a single word, #hashtag or @mention)");
+        }
+        return terms.get(0);
+    }
+
+    private static int labelIndex(SentimentLabel label) {
+        return label == null ? 3 : label.ordinal();
+    }
+
+    /**
+     * Shared state of one replay. Terms are counted into one sketch by every segment's thread; bucket counts are
+     * kept per segment and summed at the end.
+     */
+    private final class Replay {
+        final Instant start;
+        final Instant end;
+        final long startMillis;
+        final long bucketMillis;
+        final int bucketCount;
+        final String filter;
+        final boolean rescore;
+        final CountMinSketch sketch = new CountMinSketch(config.getReplaySketchWidth(), config.getReplaySketchDepth());
+        final TopKTracker candidates = new TopKTracker(TERM_STRIPES, TERMS_PER_STRIPE);
+
+        Replay(Instant start, Instant end, long bucketMillis, int bucketCount, String filter, boolean rescore) {
+            this.start = start;
+            this.end = end;
+            this.startMillis = start.toEpochMilli();
+            this.bucketMillis = bucketMillis;
+            this.bucketCount = bucketCount;
+            this.filter = filter;
+            this.rescore = rescore;
+        }
+
+        Tally run(PostSegment segment) {
+            Tally tally = new Tally(bucketCount);
+            Set<String> terms = new HashSet<>();
+            tally.scanned = segment.scan(start, end, row -> {
+                String content = row.getContent();
+                terms.clear();
+                TermTokenizer.forEachTerm(content, terms::add);
+                if (filter != null && !terms.contains(filter)) {
+                    return;
+                }
+                tally.matched++;
+                for (String term : terms) {
+                    candidates.offer(term, sketch.add(term, 1));
+                }
+                SentimentLabel label = rescore
+                        ? SentimentLabel.fromScore(scorer.score(content)) : row.getSentimentLabel();
+                int bucket = (int) ((row.getPostTimestampMillis() - startMillis) / bucketMillis);
+                tally.counts[bucket * 4 + labelIndex(label)]++;
+            });
+            return tally;
+        }
+
+        List<TrendingTerm> topTerms(int limit) {
+            List<TrendingTerm> terms = new ArrayList<>();
+            candidates.forEach((term, ignored) -> terms.add(new TrendingTerm(term, sketch.estimate(term))));
+            terms.sort(Comparator.comparingLong(TrendingTerm::getCount).reversed().thenComparing(TrendingTerm::getTerm));
+            return List.copyOf(terms.subList(0, Math.min(limit, terms.size())));
+        }
+    }
+
+    /**
+     * Counts of one segment: matched posts per bucket and label, in label order with unscored last.
+     */
+    private static final class Tally {
+        final long[] counts;
+        long scanned;
+        long matched;
+
+        Tally(int bucketCount) {
+            this.counts = new long[bucketCount * 4];
+        }
+    }
+}
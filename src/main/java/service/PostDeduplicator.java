@@ -0,0 +1,138 @@
+package service;
+
+import config.DedupConfig;
+import model.SocialPost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import repository.PostKeyView;
+import repository.SocialPostRepository;
+import util.BloomFilter;
+
+import java.util.*;
+
+/**
+ * Decides which fetched posts are not yet stored, without scanning the social_post table.
+ * <p>
+ * A Bloom filter over {@code platform:sourceId} keys answers "definitely new" for most posts in memory.
+ * Only keys the filter reports as possibly present are checked against the database, with one batched
+ * {@code IN (...)} lookup per platform (split every {@value #LOOKUP_BATCH_SIZE} keys to stay within the driver's
+ * bind parameter limit), so the cost of a fetch depends on the batch size rather than the table size. The filter is warmed from the database on startup; until warm-up completes every key goes
+ * through the batched lookup, which keeps results exact in the meantime.
+ * </p>
+ */
+@Component
+public class PostDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostDeduplicator.class);
+
+    static final int LOOKUP_BATCH_SIZE = 10_000;
+
+    private final SocialPostRepository socialPostRepository;
+    private final DedupConfig config;
+    private final BloomFilter filter;
+    private volatile boolean warm;
+
+    public PostDeduplicator(SocialPostRepository socialPostRepository, DedupConfig config) {
+        this.socialPostRepository = socialPostRepository;
+        this.config = config;
+        this.filter = new BloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate());
+    }
+
+    /**
+     * Returns the posts that are not yet stored, dropping repeats within the batch itself.
+     *
+     * @param posts freshly fetched posts
+     * @return posts whose platform and sourceId are not present in the database, in input order
+     */
+    public List<SocialPost> filterNew(List<SocialPost> posts) {
+        Map<String, SocialPost> unique = new LinkedHashMap<>();
+        for (SocialPost post : posts) {
+            unique.putIfAbsent(key(post.getPlatform(), post.getSourceId()), post);
+        }
+
+        boolean useFilter = warm;
+        Map<String, List<String>> candidatesByPlatform = new HashMap<>();
+        for (SocialPost post : unique.values()) {
+            if (!useFilter || filter.mightContain(key(post.getPlatform(), post.getSourceId()))) {
+                candidatesByPlatform.computeIfAbsent(post.getPlatform(), p -> new ArrayList<>()).add(post.getSourceId());
+            }
+        }
+
+        for (Map.Entry<String, List<String>> entry : candidatesByPlatform.entrySet()) {
+            String platform = entry.getKey();
+            List<String> sourceIds = entry.getValue();
+            for (int from = 0; from < sourceIds.size(); from += LOOKUP_BATCH_SIZE) {
+                List<String> batch = sourceIds.subList(from, Math.min(sourceIds.size(), from + LOOKUP_BATCH_SIZE));
+                for (String existing : socialPostRepository.findExistingSourceIds(platform, batch)) {
+                    unique.remove(key(platform, existing));
+                }
+            }
+        }
+        logger.debug("Dedup of {} posts: {} checked against database, {} new",
+                posts.size(), candidatesByPlatform.values().stream().mapToInt(List::size).sum(), unique.size());
+        return new ArrayList<>(unique.values());
+    }
+
+    /**
+     * Records posts that were written, so later fetches recognise them without a database lookup.
+     *
+     * @param posts the posts that were persisted
+     */
+    public void markPersisted(Collection<SocialPost> posts) {
+        for (SocialPost post : posts) {
+            filter.put(key(post.getPlatform(), post.getSourceId()));
+        }
+    }
+
+    /**
+     * @return true once the filter reflects every post stored before startup
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Loads the keys of all stored posts into the filter in keyset-paginated batches.
+     * Runs on a background thread so application startup is not blocked.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread thread = new Thread(this::loadExistingKeys, "dedup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void loadExistingKeys() {
+        long started = System.nanoTime();
+        long afterId = 0;
+        long loaded = 0;
+        try {
+            List<PostKeyView> batch;
+            do {
+                batch = socialPostRepository.findKeysAfter(afterId, Limit.of(config.getWarmupBatchSize()));
+                for (PostKeyView row : batch) {
+                    filter.put(key(row.getPlatform(), row.getSourceId()));
+                    afterId = row.getId();
+                }
+                loaded += batch.size();
+            } while (batch.size() == config.getWarmupBatchSize());
+            warm = true;
+            logger.info("Dedup filter warmed with {} keys in {} ms ({} bits)",
+                    loaded, (System.nanoTime() - started) / 1_000_000, filter.bitSize());
+            if (loaded > config.getExpectedInsertions()) {
+                logger.warn("Stored posts ({}) exceed dedup.expected-insertions ({}); false-positive rate will rise",
+                        loaded, config.getExpectedInsertions());
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Dedup filter warm-up failed after {} keys; falling back to database lookups", loaded, ex);
+        }
+    }
+
+    private static String key(String platform, String sourceId) {
+        return platform + ":" + sourceId;
+    }
+}
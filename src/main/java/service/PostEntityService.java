@@ -0,0 +1,92 @@
+package service;
+
+import exception.ApiException;
+import model.CursorPage;
+import model.EntityCount;
+import model.EntityType;
+import model.KeysetCursor;
+import model.SocialPost;
+import org.springframework.stereotype.Service;
+import repository.PostEntityRepository;
+import util.EntityExtractor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Lookups and counts of posts by hashtag, mention or linked domain, served from the entity side tables
+ * instead of scanning post content.
+ */
+@Service
+public class PostEntityService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final PostEntityRepository postEntityRepository;
+
+    public PostEntityService(PostEntityRepository postEntityRepository) {
+        this.postEntityRepository = postEntityRepository;
+    }
+
+    /**
+     * @param type the entity type
+     * @param from inclusive start of the post timestamps
+     * @param to exclusive end of the post timestamps
+     * @param limit maximum number of values to return
+     * @return the values found in the most posts of the range, most posts first
+     * @throws ApiException if the range is empty
+     */
+    public List<EntityCount> top(EntityType type, Instant from, Instant to, int limit) {
+        if (!from.isBefore(to)) {
+            throw new ApiException("from must be before to");
+        }
+        return postEntityRepository.top(type, from, to, limit);
+    }
+
+    /**
+     * @param type the entity type
+     * @param value the value, e.g. "#Launch", "@brand" or "example.com"; matched case-insensitively
+     * @param from inclusive start of the post timestamps, or null for no lower bound
+     * @param to exclusive end of the post timestamps, or null for no upper bound
+     * @return the normalized value and the number of posts containing it
+     * @throws ApiException if the value is not a valid hashtag, username or domain
+     */
+    public EntityCount count(EntityType type, String value, Instant from, Instant to) {
+        String normalized = normalize(type, value);
+        return new EntityCount(normalized, postEntityRepository.count(type, normalized, from, to));
+    }
+
+    /**
+     * Returns one page of the posts containing a value, newest first, using keyset pagination.
+     *
+     * @param type the entity type
+     * @param value the value, e.g. "#Launch", "@brand" or "example.com"; matched case-insensitively
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size maximum number of posts to return, capped at {@value #MAX_PAGE_SIZE}
+     * @return the page of posts and the cursor of the next page
+     * @throws ApiException if the value is not a valid hashtag, username or domain
+     */
+    public CursorPage<SocialPost> findPosts(EntityType type, String value, String cursor, int size) {
+        int limit = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        List<SocialPost> rows = postEntityRepository.findPosts(type, normalize(type, value),
+                KeysetCursor.decode(cursor), limit + 1);
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        SocialPost last = rows.get(limit - 1);
+        return new CursorPage<>(List.copyOf(rows.subList(0, limit)),
+                KeysetCursor.ofTimestamp(last.getPostTimestamp(), last.getId()).encode());
+    }
+
+    private static String normalize(EntityType type, String value) {
+        String normalized = switch (type) {
+            case HASHTAG -> EntityExtractor.hashtag(value);
+            case MENTION -> EntityExtractor.mention(value);
+            case DOMAIN -> EntityExtractor.domain(value);
+        };
+        if (normalized == null) {
+            throw new ApiException("Invalid " + type.name().toLowerCase() + ": " + value);
+        }
+        return normalized;
+    }
+}
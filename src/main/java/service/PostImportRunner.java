@@ -0,0 +1,63 @@
+package service;
+
+import config.ImportConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Runs the bulk import of the files in {@code import.files} once the application has started, e.g.
+ * {@code java -jar app.jar --import.files=dump1.ndjson,dump2.ndjson --spring.main.web-application-type=none}.
+ * <p>
+ * Files are imported one after another; the first failure stops the import, and running it again resumes from
+ * the failed file's checkpoint. With {@code import.exit-when-done} the application then shuts down.
+ * </p>
+ */
+@Component
+public class PostImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostImportRunner.class);
+
+    private final PostImportService postImportService;
+    private final ImportConfig config;
+    private final ApplicationContext context;
+
+    public PostImportRunner(PostImportService postImportService, ImportConfig config, ApplicationContext context) {
+        this.postImportService = postImportService;
+        this.config = config;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (config.getFiles().isEmpty()) {
+            return;
+        }
+        boolean failed = false;
+        for (String file : config.getFiles()) {
+            try {
+                postImportService.importFile(Paths.get(file));
+            } catch (IOException | RuntimeException ex) {
+                logger.error("Import of {} failed; run it again to resume from its checkpoint", file, ex);
+                failed = true;
+                break;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                logger.warn("Import of {} interrupted", file);
+                failed = true;
+                break;
+            }
+        }
+        if (config.isExitWhenDone()) {
+            int status = failed ? 1 : 0;
+            System.exit(SpringApplication.exit(context, () -> status));
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package service;
+
+import client.TweetResponseParser;
+import com.fasterxml.jackson.core.JsonFactory;
+import config.ImportConfig;
+import lombok.Value;
+import model.SocialPost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import repository.ImportCheckpointRepository;
+import repository.ImportCheckpointRepository.Checkpoint;
+import repository.SocialPostRepository;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk import of Twitter API v2 dumps: newline-delimited JSON with one search response page or filtered-stream
+ * message per line.
+ * <p>
+ * A file is cut into chunks of about {@code import.chunk-bytes}, each ending at a line end, and up to
+ * {@code import.parallelism} chunks are loaded at once. A chunk is read into memory with positional reads, its
+ * lines are mapped by the same {@link TweetResponseParser} the API client uses, and its posts go through the
+ * dedup filter and sentiment scoring before they are stored with one COPY
+ * ({@link SocialPostRepository#copyIgnoringDuplicates}). Partitions are created back to the oldest post of a chunk
+ * before it is stored. Lines that cannot be mapped are counted and skipped.
+ * </p>
+ * Chunks finish in any order, but the file's checkpoint only moves past a chunk once all chunks before it are
+ * stored, so an interrupted import resumes where it left off when it is run again.
+ */
+@Service
+public class PostImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostImportService.class);
+
+    private static final int LOGGED_MALFORMED_LINES = 10;
+
+    private final TweetResponseParser parser = new TweetResponseParser(new JsonFactory());
+    private final SocialPostRepository socialPostRepository;
+    private final PostDeduplicator postDeduplicator;
+    private final SentimentService sentimentService;
+    private final PostPartitionService postPartitionService;
+    private final SocialPostService socialPostService;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final IngestMetrics ingestMetrics;
+    private final ImportConfig config;
+
+    public PostImportService(SocialPostRepository socialPostRepository, PostDeduplicator postDeduplicator,
+                             SentimentService sentimentService, PostPartitionService postPartitionService,
+                             SocialPostService socialPostService, ImportCheckpointRepository checkpointRepository,
+                             IngestMetrics ingestMetrics, ImportConfig config) {
+        this.socialPostRepository = socialPostRepository;
+        this.postDeduplicator = postDeduplicator;
+        this.sentimentService = sentimentService;
+        this.postPartitionService = postPartitionService;
+        this.socialPostService = socialPostService;
+        this.checkpointRepository = checkpointRepository;
+        this.ingestMetrics = ingestMetrics;
+        this.config = config;
+    }
+
+    /**
+     * Imports a dump file, resuming from its checkpoint if it was imported before.
+     * A file that is now shorter than its checkpoint is imported again from the start.
+     *
+     * @param file the dump file
+     * @return what was read and stored, including the part imported before a resume
+     * @throws IOException if the file cannot be read
+     * @throws InterruptedException if interrupted while waiting for a chunk
+     */
+    public ImportResult importFile(Path file) throws IOException, InterruptedException {
+        String source = file.toAbsolutePath().normalize().toString();
+        long started = System.nanoTime();
+        if (!postDeduplicator.isWarm()) {
+            // Imports run before the application is ready, so before the filter's background warm-up.
+            postDeduplicator.loadExistingKeys();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Checkpoint checkpoint = checkpointRepository.find(source);
+            if (checkpoint == null || checkpoint.getByteOffset() > size) {
+                checkpoint = new Checkpoint(size, 0, 0, 0);
+            } else if (checkpoint.getByteOffset() > 0) {
+                logger.info("Resuming import of {} at byte {} of {}", source, checkpoint.getByteOffset(), size);
+            }
+            long resumedAt = checkpoint.getByteOffset();
+            long malformed = 0;
+            long lastProgress = started;
+
+            ExecutorService executor = newExecutor();
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            try {
+                long next = resumedAt;
+                while (next < size || !inFlight.isEmpty()) {
+                    while (next < size && inFlight.size() <= config.getParallelism()) {
+                        long start = next;
+                        long end = chunkEnd(channel, start, size);
+                        inFlight.add(executor.submit(() -> loadChunk(source, channel, start, end)));
+                        next = end;
+                    }
+                    ChunkResult chunk = await(inFlight.removeFirst());
+                    malformed += chunk.malformed;
+                    checkpoint = new Checkpoint(size, chunk.end, checkpoint.getPostsRead() + chunk.read,
+                            checkpoint.getPostsInserted() + chunk.inserted);
+                    checkpointRepository.save(source, checkpoint);
+
+                    long now = System.nanoTime();
+                    if (now - lastProgress >= config.getProgressIntervalMillis() * 1_000_000) {
+                        logProgress(source, checkpoint, resumedAt, now - started);
+                        lastProgress = now;
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            ImportResult result = new ImportResult(source, size, checkpoint.getPostsRead(),
+                    checkpoint.getPostsInserted(), malformed, (System.nanoTime() - started) / 1_000_000);
+            logger.info("Imported {}: {} posts read, {} stored, {} malformed lines skipped, took {} ms", source,
+                    result.getPostsRead(), result.getPostsInserted(), malformed, result.getElapsedMillis());
+            return result;
+        }
+    }
+
+    /**
+     * Reads, maps and stores the lines in [start, end) of the file.
+     */
+    private ChunkResult loadChunk(String source, FileChannel channel, long start, long end) throws IOException {
+        byte[] buffer = new byte[(int) (end - start)];
+        ByteBuffer target = ByteBuffer.wrap(buffer);
+        while (target.hasRemaining()) {
+            if (channel.read(target, start + target.position()) < 0) {
+                throw new EOFException("File ended at byte " + (start + target.position()) + ": " + source);
+            }
+        }
+
+        IngestMetrics.Trace trace = ingestMetrics.start("import");
+        List<SocialPost> posts = new ArrayList<>();
+        int malformed = 0;
+        int lineStart = 0;
+        for (int i = 0; i <= buffer.length; i++) {
+            if (i < buffer.length && buffer[i] != '\n') {
+                continue;
+            }
+            if (!isBlank(buffer, lineStart, i)) {
+                try {
+                    posts.addAll(parser.parse(buffer, lineStart, i - lineStart).getPosts());
+                } catch (IOException ex) {
+                    if (malformed++ < LOGGED_MALFORMED_LINES) {
+                        logger.warn("Skipping malformed line at byte {} of {}: {}", start + lineStart, source,
+                                ex.getMessage());
+                    }
+                }
+            }
+            lineStart = i + 1;
+        }
+
+        List<SocialPost> newPosts = trace.time(IngestMetrics.Stage.DEDUP, () -> postDeduplicator.filterNew(posts));
+        trace.run(IngestMetrics.Stage.SENTIMENT, () -> sentimentService.scoreAll(newPosts));
+        newPosts.stream().map(SocialPost::getPostTimestamp).filter(Objects::nonNull).min(Instant::compareTo)
+                .ifPresent(postPartitionService::extendBackTo);
+        List<SocialPost> inserted = trace.time(IngestMetrics.Stage.INSERT,
+                () -> socialPostRepository.copyIgnoringDuplicates(newPosts));
+        socialPostService.recordPersisted(null, newPosts, inserted);
+        trace.recordPosts(posts, inserted);
+        logger.debug("Stored {} of {} posts from bytes [{}, {}) of {} in {}", inserted.size(), posts.size(), start,
+                end, source, trace.finish());
+        return new ChunkResult(end, posts.size(), inserted.size(), malformed);
+    }
+
+    /**
+     * @return the end of the line that reaches {@code import.chunk-bytes} past start, or the file size
+     */
+    private long chunkEnd(FileChannel channel, long start, long size) throws IOException {
+        long position = start + config.getChunkBytes();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static boolean isBlank(byte[] buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ChunkResult await(Future<ChunkResult> chunk) throws IOException, InterruptedException {
+        try {
+            return chunk.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Import chunk failed", cause);
+        }
+    }
+
+    private void logProgress(String source, Checkpoint checkpoint, long resumedAt, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        double bytesPerSecond = (checkpoint.getByteOffset() - resumedAt) / seconds;
+        long remaining = checkpoint.getFileSize() - checkpoint.getByteOffset();
+        logger.info("Import of {}: {}% ({} of {} MiB), {} posts read, {} stored, {} MiB/s, about {} s left", source,
+                checkpoint.getByteOffset() * 100 / Math.max(1, checkpoint.getFileSize()),
+                checkpoint.getByteOffset() >> 20, checkpoint.getFileSize() >> 20, checkpoint.getPostsRead(),
+                checkpoint.getPostsInserted(), String.format("%.1f", bytesPerSecond / (1 << 20)),
+                bytesPerSecond > 0 ? Math.round(remaining / bytesPerSecond) : "?");
+    }
+
+    private ExecutorService newExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(config.getParallelism(), task -> {
+            Thread thread = new Thread(task, "post-import-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * What one chunk of a file contributed.
+     */
+    private static final class ChunkResult {
+
+        private final long end;
+        private final int read;
+        private final int inserted;
+        private final int malformed;
+
+        ChunkResult(long end, int read, int inserted, int malformed) {
+            this.end = end;
+            this.read = read;
+            this.inserted = inserted;
+            this.malformed = malformed;
+        }
+    }
+
+    /**
+     * Totals of an imported dump file.
+     */
+    @Value
+    public static class ImportResult {
+        String source;
+        long bytes;
+        long postsRead;
+        long postsInserted;
+        long malformedLines;
+        long elapsedMillis;
+    }
+}
@@ -0,0 +1,156 @@
+package service;
+
+import config.PartitionConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import repository.PostPartitionRepository;
+import repository.PostPartitionRepository.Partition;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps social_post's post_timestamp partitions ahead of incoming posts and drops expired ones.
+ * <p>
+ * Every {@code partitions.maintenance-interval-millis}, and once at startup, partitions of
+ * {@code partitions.interval-days} are appended after the newest one until {@code partitions.ahead-count}
+ * intervals beyond now are covered. With {@code partitions.retention-enabled}, partitions whose whole range is
+ * older than {@code partitions.retention-days} are dropped. Dropping a partition removes its rows without
+ * deleting them one by one, so retention leaves no dead tuples to vacuum. Expired rows that landed in the default
+ * partition, such as old posts fetched again, are deleted there. Cached listing and search pages are discarded
+ * whenever retention removed posts, so none of them lists a dropped post.
+ * </p>
+ * Post count rollups are kept separately and are not affected by retention.
+ */
+@Service
+public class PostPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostPartitionService.class);
+
+    private final PostPartitionRepository partitionRepository;
+    private final PartitionConfig config;
+    private final PostQueryCache postQueryCache;
+    private final Clock clock;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public PostPartitionService(PostPartitionRepository partitionRepository, PartitionConfig config,
+                                PostQueryCache postQueryCache) {
+        this(partitionRepository, config, postQueryCache, Clock.systemUTC());
+    }
+
+    PostPartitionService(PostPartitionRepository partitionRepository, PartitionConfig config,
+                         PostQueryCache postQueryCache, Clock clock) {
+        this.partitionRepository = partitionRepository;
+        this.config = config;
+        this.postQueryCache = postQueryCache;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Creates partitions ahead and, with retention enabled, drops expired ones.
+     * Overlapping invocations return immediately.
+     */
+    @Scheduled(initialDelayString = "${partitions.maintenance-interval-millis:3600000}",
+            fixedDelayString = "${partitions.maintenance-interval-millis:3600000}")
+    public void maintain() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Instant now = clock.instant();
+            createAhead(now);
+            if (config.isRetentionEnabled()) {
+                dropExpired(now.minus(Duration.ofDays(config.getRetentionDays())));
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Post partition maintenance failed", ex);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Creates partitions before the oldest one, back to the one containing the given timestamp, so that older
+     * posts about to be stored land in range partitions rather than the default partition. Partitions older than
+     * the retention period are dropped again by the next maintenance run.
+     *
+     * @param from the oldest post timestamp about to be stored
+     */
+    public synchronized void extendBackTo(Instant from) {
+        List<Partition> partitions = partitionRepository.findPartitions();
+        if (partitions.isEmpty()) {
+            return;
+        }
+        Duration interval = Duration.ofDays(config.getIntervalDays());
+        Instant start = partitions.get(0).getFrom();
+        while (from.isBefore(start)) {
+            Instant previous = start.minus(interval);
+            String name = partitionRepository.createPartition(previous, start);
+            if (name == null) {
+                logger.warn("A table named like the post partition starting {} already exists; not creating more", previous);
+                return;
+            }
+            logger.info("Created post partition {} for [{}, {})", name, previous, start);
+            start = previous;
+        }
+    }
+
+    private void createAhead(Instant now) {
+        Duration interval = Duration.ofDays(config.getIntervalDays());
+        Instant horizon = now.plus(interval.multipliedBy(config.getAheadCount()));
+        List<Partition> partitions = partitionRepository.findPartitions();
+        Instant end = partitions.isEmpty()
+                ? now.truncatedTo(ChronoUnit.DAYS)
+                : partitions.get(partitions.size() - 1).getTo();
+        while (!end.isAfter(horizon)) {
+            Instant next = end.plus(interval);
+            String name = partitionRepository.createPartition(end, next);
+            if (name == null) {
+                logger.warn("A table named like the post partition starting {} already exists; not creating more", end);
+                return;
+            }
+            logger.info("Created post partition {} for [{}, {})", name, end, next);
+            end = next;
+        }
+    }
+
+    private void dropExpired(Instant cutoff) {
+        long started = System.nanoTime();
+        int dropped = 0;
+        for (Partition partition : partitionRepository.findPartitions()) {
+            if (partition.getTo().isAfter(cutoff)) {
+                break;
+            }
+            partitionRepository.dropPartition(partition);
+            postQueryCache.invalidateAll();
+            logger.info("Dropped expired post partition {} for [{}, {})",
+                    partition.getName(), partition.getFrom(), partition.getTo());
+            dropped++;
+        }
+        int deleted = partitionRepository.deleteDefaultRowsBefore(cutoff);
+        if (deleted > 0) {
+            postQueryCache.invalidateAll();
+        }
+        if (dropped > 0 || deleted > 0) {
+            logger.info("Retention before {}: dropped {} partitions and deleted {} rows from {} in {} ms", cutoff,
+                    dropped, deleted, PostPartitionRepository.DEFAULT_PARTITION,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import config.QueryCacheConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import model.CursorPage;
+import model.SearchSort;
+import model.SocialPost;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of post listing and search result pages, keyed by query, sort, cursor and page size.
+ * <p>
+ * Entries are evicted by size ({@code query-cache.max-entries}, Caffeine's frequency-based policy) and by age
+ * ({@code query-cache.ttl-seconds}). Every write that adds or changes stored posts calls {@link #invalidateAll()},
+ * so a cached page is never older than the last ingest. A page read while an invalidation happens is returned
+ * to its caller but not kept, which closes the race between a slow query and a concurrent insert.
+ * Hit, miss, eviction and size statistics are published as {@code cache.*} metrics tagged {@code cache=posts}.
+ * </p>
+ */
+@Component
+public class PostQueryCache {
+
+    static final String CACHE_NAME = "posts";
+
+    private final boolean enabled;
+    private final Cache<Key, CursorPage<SocialPost>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public PostQueryCache(QueryCacheConfig config, MeterRegistry meterRegistry) {
+        this.enabled = config.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached page of the newest posts, loading it on a miss.
+     *
+     * @param cursor the page cursor, or null for the first page
+     * @param size   the clamped page size
+     * @param loader reads the page from the database
+     * @return the page
+     */
+    public CursorPage<SocialPost> latest(String cursor, int size, Supplier<CursorPage<SocialPost>> loader) {
+        return get(new Key(null, null, cursor, size), loader);
+    }
+
+    /**
+     * Returns the cached page of search results, loading it on a miss.
+     *
+     * @param query  the search query
+     * @param sort   result ordering
+     * @param cursor the page cursor, or null for the first page
+     * @param size   the clamped page size
+     * @param loader runs the search
+     * @return the page
+     */
+    public CursorPage<SocialPost> search(String query, SearchSort sort, String cursor, int size,
+                                         Supplier<CursorPage<SocialPost>> loader) {
+        return get(new Key(query, sort, cursor, size), loader);
+    }
+
+    /**
+     * Drops every cached page. Called after new posts are stored or stored posts change.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private CursorPage<SocialPost> get(Key key, Supplier<CursorPage<SocialPost>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CursorPage<SocialPost> page = cache.getIfPresent(key);
+        if (page != null) {
+            return page;
+        }
+        long loadedAt = generation.get();
+        page = loader.get();
+        if (generation.get() == loadedAt) {
+            cache.put(key, page);
+            // An invalidation between the check and the put would otherwise leave this page cached.
+            if (generation.get() != loadedAt) {
+                cache.invalidate(key);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * A null query marks the unfiltered listing.
+     */
+    @Value
+    private static class Key {
+        String query;
+        SearchSort sort;
+        String cursor;
+        int size;
+    }
+}
@@ -0,0 +1,222 @@
+package service;
+
+import config.RollupConfig;
+import exception.ApiException;
+import jakarta.annotation.PreDestroy;
+import model.SocialPost;
+import model.VolumeBucket;
+import model.VolumeGranularity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import repository.PostCountKey;
+import repository.PostCountRollupRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Post volume over time, per keyword, platform and sentiment label, answered from rollup tables.
+ * <p>
+ * The ingest path counts newly stored posts here by the minute of their post timestamp. Counts are gathered in
+ * memory and written every {@code rollups.flush-millis} with one batched upsert, so a busy ingest costs one
+ * statement per interval rather than one per write; counts gathered since the last flush are lost on a crash.
+ * Each count lands in a minute and an hour counter. Minute counters are kept for
+ * {@code rollups.minute-retention-hours}; hour counters older than {@code rollups.hour-retention-days} are
+ * compacted into days. Hour and day queries never read minute counters, so a query over 30 days reads at most
+ * one row per hour, keyword, platform and label, however many posts are stored.
+ * </p>
+ * Counts start when the rollups were introduced; posts stored before are not counted. A post is counted once,
+ * under the keyword whose fetch stored it.
+ */
+@Service
+public class PostVolumeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostVolumeService.class);
+
+    static final int MAX_BUCKETS = 10_000;
+
+    private final PostCountRollupRepository rollupRepository;
+    private final RollupConfig config;
+    private final Clock clock;
+    private final ReadWriteLock pendingLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compactionRunning = new AtomicBoolean();
+    private Map<PostCountKey, LongAdder> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PostVolumeService(PostCountRollupRepository rollupRepository, RollupConfig config) {
+        this(rollupRepository, config, Clock.systemUTC());
+    }
+
+    PostVolumeService(PostCountRollupRepository rollupRepository, RollupConfig config, Clock clock) {
+        this.rollupRepository = rollupRepository;
+        this.config = config;
+        this.clock = clock;
+    }
+
+    /**
+     * Counts newly stored posts towards the next flush.
+     *
+     * @param keyword the search keyword that found the posts, or null if they did not come from a keyword search
+     * @param posts newly stored posts
+     */
+    public void record(String keyword, Collection<SocialPost> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        String normalized = keyword == null ? "" : normalize(keyword);
+        Instant now = clock.instant();
+        pendingLock.readLock().lock();
+        try {
+            for (SocialPost post : posts) {
+                Instant timestamp = post.getPostTimestamp() == null ? now : post.getPostTimestamp();
+                String label = post.getSentimentLabel() == null
+                        ? PostCountRollupRepository.UNSCORED : post.getSentimentLabel().name();
+                PostCountKey key = new PostCountKey(VolumeGranularity.MINUTE.floor(timestamp), normalized,
+                        post.getPlatform(), label);
+                pending.computeIfAbsent(key, k -> new LongAdder()).increment();
+            }
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the counts gathered since the last flush. Runs every {@code rollups.flush-millis}; counts that fail
+     * to be written are kept for the next run.
+     */
+    @Scheduled(fixedDelayString = "${rollups.flush-millis:1000}")
+    public synchronized void flush() {
+        Map<PostCountKey, LongAdder> batch;
+        pendingLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+        Map<PostCountKey, Long> increments = new HashMap<>(batch.size() * 2);
+        batch.forEach((key, count) -> increments.put(key, count.sum()));
+        try {
+            rollupRepository.increment(increments);
+        } catch (RuntimeException ex) {
+            logger.error("Failed to write {} post counters; keeping them for the next flush", increments.size(), ex);
+            pendingLock.readLock().lock();
+            try {
+                increments.forEach((key, count) -> pending.computeIfAbsent(key, k -> new LongAdder()).add(count));
+            } finally {
+                pendingLock.readLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    /**
+     * Drops minute counters past their retention, and compacts hour counters past theirs into days.
+     * Runs every {@code rollups.compaction-interval-millis}; overlapping invocations return immediately.
+     */
+    @Scheduled(initialDelayString = "${rollups.compaction-interval-millis:300000}",
+            fixedDelayString = "${rollups.compaction-interval-millis:300000}")
+    public void compact() {
+        if (!compactionRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Instant now = clock.instant();
+            long started = System.nanoTime();
+            int minutes = rollupRepository.pruneMinutes(minuteHorizon(now));
+            int days = rollupRepository.compactHours(
+                    VolumeGranularity.DAY.floor(now.minus(Duration.ofDays(config.getHourRetentionDays()))));
+            if (minutes > 0 || days > 0) {
+                logger.info("Dropped {} minute post counters and compacted old hours into {} day counters in {} ms",
+                        minutes, days, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Post counter compaction failed", ex);
+        } finally {
+            compactionRunning.set(false);
+        }
+    }
+
+    /**
+     * Returns the number of posts stored per time bucket, by sentiment label, with empty buckets included.
+     * The range is widened to whole buckets. Minute buckets are only kept for
+     * {@code rollups.minute-retention-hours}; before that, and for days compacted from hours, counts are reported
+     * in the bucket their hour or day starts in.
+     *
+     * @param keyword search keyword, or null or blank for all keywords
+     * @param platform platform name, or null or blank for all platforms
+     * @param granularity bucket size
+     * @param from inclusive start
+     * @param to exclusive end
+     * @return one bucket per step from the start of the range, oldest first
+     * @throws ApiException if the range is empty or spans more than {@value #MAX_BUCKETS} buckets
+     */
+    public List<VolumeBucket> volume(String keyword, String platform, VolumeGranularity granularity,
+                                     Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new ApiException("Volume range must end after it starts");
+        }
+        Instant start = granularity.floor(from);
+        Instant end = granularity.floor(to.minusNanos(1)).plus(granularity.getDuration());
+        long bucketCount = Duration.between(start, end).dividedBy(granularity.getDuration());
+        if (bucketCount > MAX_BUCKETS) {
+            throw new ApiException("Volume range spans " + bucketCount + " " + granularity.getCode()
+                    + " buckets; at most " + MAX_BUCKETS + " are allowed");
+        }
+        String keywordFilter = keyword == null || keyword.isBlank() ? null : normalize(keyword);
+        String platformFilter = platform == null || platform.isBlank() ? null : platform.trim().toLowerCase(Locale.ROOT);
+
+        Instant minuteFrom = granularity == VolumeGranularity.MINUTE ? minuteHorizon(clock.instant()) : end;
+
+        Map<Instant, long[]> counts = new HashMap<>();
+        for (PostCountRollupRepository.BucketCount row
+                : rollupRepository.findCounts(granularity, keywordFilter, platformFilter, start, end, minuteFrom)) {
+            long[] byLabel = counts.computeIfAbsent(row.getBucket(), b -> new long[4]);
+            byLabel[labelIndex(row.getSentimentLabel())] += row.getPosts();
+        }
+        List<VolumeBucket> buckets = new ArrayList<>((int) bucketCount);
+        for (Instant bucket = start; bucket.isBefore(end); bucket = bucket.plus(granularity.getDuration())) {
+            long[] c = counts.getOrDefault(bucket, new long[4]);
+            buckets.add(new VolumeBucket(bucket, c[0] + c[1] + c[2] + c[3], c[0], c[1], c[2], c[3]));
+        }
+        return buckets;
+    }
+
+    /**
+     * Minute counters from here on are complete; older ones may already be dropped.
+     */
+    private Instant minuteHorizon(Instant now) {
+        return VolumeGranularity.HOUR.floor(now.minus(Duration.ofHours(config.getMinuteRetentionHours())));
+    }
+
+    private static int labelIndex(String label) {
+        return switch (label) {
+            case "POSITIVE" -> 0;
+            case "NEUTRAL" -> 1;
+            case "NEGATIVE" -> 2;
+            default -> 3;
+        };
+    }
+
+    private static String normalize(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,314 @@
+package service;
+
+import config.IngestConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import model.SocialPost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import repository.KeywordCheckpointRepository;
+import repository.SocialPostRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind buffer for ingested posts: concurrent keyword fetches and the filtered stream hand their posts to
+ * one writer thread, which stores the writes that arrived together in one transaction (group commit).
+ * <p>
+ * Each commit takes the writes waiting when the previous one finished, up to {@code ingest.commit-posts} posts,
+ * so commits grow with the load. {@code ingest.commit-millis} optionally lingers for more writes first. One
+ * commit inserts the posts of all its writes with one COPY and advances their keyword checkpoints, so a
+ * checkpoint still never gets ahead of the posts it covers. If the commit fails, each write is retried in a
+ * transaction of its own, so one bad write does not fail the others.
+ * A post handed in by two writes of the same commit counts as inserted for the first.
+ * </p>
+ * <p>
+ * At most {@code ingest.write-buffer-capacity} posts wait at a time; writers block for room beyond that, which
+ * slows fetches down to the database's pace. {@link #write} returns once its posts are committed, so callers
+ * still learn which posts were inserted. On shutdown the writer commits everything waiting before it exits,
+ * and writes arriving after that, or with {@code ingest.write-behind} off, run on the caller's thread.
+ * Published as {@code ingest.write.*} metrics: queue depth, posts and writes per commit, and failed commits.
+ * </p>
+ */
+@Component
+public class PostWriteBuffer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostWriteBuffer.class);
+
+    private static final long STOP_TIMEOUT_MILLIS = 30_000;
+
+    private final SocialPostRepository socialPostRepository;
+    private final KeywordCheckpointRepository keywordCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IngestConfig config;
+    private final LinkedBlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    private final Semaphore room;
+    private final AtomicInteger queuedPosts = new AtomicInteger();
+    private final DistributionSummary commitPosts;
+    private final DistributionSummary commitWrites;
+    private final Counter commitFailures;
+    private final Object lock = new Object();
+
+    private volatile boolean accepting;
+    private Thread writerThread;
+
+    public PostWriteBuffer(SocialPostRepository socialPostRepository,
+                           KeywordCheckpointRepository keywordCheckpointRepository,
+                           PlatformTransactionManager transactionManager, IngestConfig config,
+                           MeterRegistry meterRegistry) {
+        this.socialPostRepository = socialPostRepository;
+        this.keywordCheckpointRepository = keywordCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = config;
+        this.room = new Semaphore(config.getWriteBufferCapacity());
+        Gauge.builder("ingest.write.queue.posts", queuedPosts, AtomicInteger::get)
+                .description("Posts waiting for the ingest writer").register(meterRegistry);
+        this.commitPosts = DistributionSummary.builder("ingest.write.commit.posts")
+                .description("Posts per group commit of the ingest writer").register(meterRegistry);
+        this.commitWrites = DistributionSummary.builder("ingest.write.commit.writes")
+                .description("Fetch and stream writes per group commit of the ingest writer").register(meterRegistry);
+        this.commitFailures = Counter.builder("ingest.write.failures")
+                .description("Group commits of the ingest writer that failed and were retried write by write")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inserts the posts not stored yet and moves the keyword's checkpoints forward, in one transaction shared
+     * with other writes, and waits until it is committed.
+     *
+     * @param posts the posts to insert
+     * @param keyword the search keyword the checkpoints belong to, or null if there are none
+     * @param checkpoints new checkpoint per platform, empty for none
+     * @return the posts that were actually inserted, with their generated ids set
+     */
+    public List<SocialPost> write(List<SocialPost> posts, String keyword, Map<String, Long> checkpoints) {
+        if (posts.isEmpty() && checkpoints.isEmpty()) {
+            return List.of();
+        }
+        Write write = new Write(posts, keyword, checkpoints);
+        int permits = Math.min(posts.size(), config.getWriteBufferCapacity());
+        if (!config.isWriteBehind() || !accepting) {
+            return commitAlone(write);
+        }
+        room.acquireUninterruptibly(permits);
+        synchronized (lock) {
+            if (!accepting) {
+                room.release(permits);
+                return commitAlone(write);
+            }
+            write.permits = permits;
+            queuedPosts.addAndGet(posts.size());
+            queue.add(write);
+        }
+        try {
+            return write.result.get();
+        } catch (InterruptedException ex) {
+            // The posts are still committed; only the caller stops waiting for them.
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for posts to be written", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Failed to write posts", ex.getCause());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!config.isWriteBehind()) {
+            logger.info("Write-behind ingest is disabled; each fetch writes its own transaction");
+            return;
+        }
+        accepting = true;
+        writerThread = new Thread(this::writeLoop, "post-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stops accepting writes and commits the waiting ones before returning.
+     */
+    @Override
+    public void stop() {
+        synchronized (lock) {
+            if (!accepting) {
+                return;
+            }
+            accepting = false;
+        }
+        try {
+            writerThread.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            logger.warn("Ingest writer did not finish within {} ms; {} posts are still waiting",
+                    STOP_TIMEOUT_MILLIS, queuedPosts.get());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return accepting;
+    }
+
+    /**
+     * Starts before and stops after the fetch jobs and the stream, which write through the buffer.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1;
+    }
+
+    private void writeLoop() {
+        long commitNanos = TimeUnit.MILLISECONDS.toNanos(config.getCommitMillis());
+        // Runs until no more writes are accepted and everything accepted is committed.
+        while (accepting || !queue.isEmpty()) {
+            Write first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            List<Write> group = new ArrayList<>();
+            group.add(first);
+            int posts = first.posts.size();
+            long deadline = System.nanoTime() + commitNanos;
+            while (posts < config.getCommitPosts()) {
+                Write next = queue.poll();
+                if (next == null) {
+                    long wait = deadline - System.nanoTime();
+                    if (wait <= 0 || !accepting) {
+                        break;
+                    }
+                    try {
+                        next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException ex) {
+                        break;
+                    }
+                    if (next == null) {
+                        break;
+                    }
+                }
+                group.add(next);
+                posts += next.posts.size();
+            }
+            commit(group, posts);
+        }
+        logger.info("Ingest writer stopped");
+    }
+
+    private void commit(List<Write> group, int posts) {
+        queuedPosts.addAndGet(-posts);
+        try {
+            commitPosts.record(posts);
+            commitWrites.record(group.size());
+            try {
+                List<List<SocialPost>> inserted = commitTogether(group);
+                for (int i = 0; i < group.size(); i++) {
+                    group.get(i).result.complete(inserted.get(i));
+                }
+            } catch (RuntimeException ex) {
+                if (group.size() == 1) {
+                    group.get(0).result.completeExceptionally(ex);
+                    return;
+                }
+                commitFailures.increment();
+                logger.warn("Group commit of {} writes failed; retrying them one by one", group.size(), ex);
+                for (Write write : group) {
+                    try {
+                        write.result.complete(commitAlone(write));
+                    } catch (RuntimeException writeFailure) {
+                        write.result.completeExceptionally(writeFailure);
+                    }
+                }
+            }
+        } catch (Throwable ex) {
+            // Keep the writer alive: callers of later writes would otherwise wait forever.
+            logger.error("Group commit of {} writes failed", group.size(), ex);
+            group.forEach(write -> write.result.completeExceptionally(ex));
+        } finally {
+            group.forEach(write -> room.release(write.permits));
+        }
+    }
+
+    private List<List<SocialPost>> commitTogether(List<Write> group) {
+        if (group.size() == 1) {
+            return List.of(commitAlone(group.get(0)));
+        }
+        List<SocialPost> posts = new ArrayList<>();
+        group.forEach(write -> posts.addAll(write.posts));
+        return transactionTemplate.execute(status -> {
+            Set<SocialPost> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+            inserted.addAll(insert(posts));
+            group.forEach(this::advanceCheckpoints);
+            List<List<SocialPost>> results = new ArrayList<>(group.size());
+            for (Write write : group) {
+                List<SocialPost> insertedByWrite = new ArrayList<>();
+                for (SocialPost post : write.posts) {
+                    if (inserted.remove(post)) {
+                        insertedByWrite.add(post);
+                    }
+                }
+                results.add(insertedByWrite);
+            }
+            return results;
+        });
+    }
+
+    private List<SocialPost> commitAlone(Write write) {
+        return transactionTemplate.execute(status -> {
+            List<SocialPost> inserted = insert(write.posts);
+            advanceCheckpoints(write);
+            return inserted;
+        });
+    }
+
+    private List<SocialPost> insert(List<SocialPost> posts) {
+        return posts.isEmpty() ? List.of() : socialPostRepository.copyIgnoringDuplicates(posts);
+    }
+
+    private void advanceCheckpoints(Write write) {
+        write.checkpoints.forEach((platform, sinceId) ->
+                keywordCheckpointRepository.advance(platform, write.keyword, sinceId));
+    }
+
+    /**
+     * One caller's posts and checkpoints, and the result it waits for.
+     */
+    private static final class Write {
+
+        private final List<SocialPost> posts;
+        private final String keyword;
+        private final Map<String, Long> checkpoints;
+        private final CompletableFuture<List<SocialPost>> result = new CompletableFuture<>();
+        private int permits;
+
+        Write(List<SocialPost> posts, String keyword, Map<String, Long> checkpoints) {
+            this.posts = posts;
+            this.keyword = keyword;
+            this.checkpoints = checkpoints;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package service;
+
+/**
+ * Scores the sentiment of a piece of text.
+ * <p>
+ * Implementations must be thread-safe; the ingest path and the backfill job call them from many threads.
+ * The active implementation is selected with the {@code sentiment.scorer} property.
+ * </p>
+ */
+public interface SentimentScorer {
+
+    /**
+     * @param text the text to score, may be null
+     * @return a score in [-1, 1]: negative is unfavourable, positive favourable, 0 neutral or unknown
+     */
+    double score(CharSequence text);
+}
@@ -0,0 +1,130 @@
+package service;
+
+import config.SentimentConfig;
+import jakarta.annotation.PreDestroy;
+import model.SocialPost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import repository.PostContentView;
+import repository.SocialPostRepository;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Sentiment stage of the ingest pipeline, plus a backfill of posts stored without a score.
+ * <p>
+ * Batches of at least {@code sentiment.parallel-threshold} posts are scored on a dedicated fork-join pool of
+ * {@code sentiment.parallelism} threads, so scoring never competes with the common pool; smaller batches
+ * are scored on the calling thread, where the hand-off would cost more than it saves.
+ * The backfill walks unscored rows in id order, reading only id and content, and writes the scores back
+ * with one bulk UPDATE per {@code ingest.batch-size} rows, dropping cached result pages that may show the
+ * posts unscored.
+ * </p>
+ */
+@Service
+public class SentimentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SentimentService.class);
+
+    private final SentimentScorer scorer;
+    private final SocialPostRepository socialPostRepository;
+    private final PostQueryCache postQueryCache;
+    private final SentimentConfig config;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    public SentimentService(SentimentScorer scorer, SocialPostRepository socialPostRepository,
+                            PostQueryCache postQueryCache, SentimentConfig config) {
+        this.scorer = scorer;
+        this.socialPostRepository = socialPostRepository;
+        this.postQueryCache = postQueryCache;
+        this.config = config;
+        this.pool = new ForkJoinPool(config.getParallelism());
+    }
+
+    /**
+     * Sets the sentiment score and label of every post that has no score yet.
+     *
+     * @param posts the posts to score, modified in place
+     */
+    public void scoreAll(List<SocialPost> posts) {
+        forEachIndex(posts.size(), i -> {
+            SocialPost post = posts.get(i);
+            if (post.getSentimentScore() == null) {
+                post.setSentimentScoreAndLabel(scorer.score(post.getContent()));
+            }
+        });
+    }
+
+    /**
+     * Scores stored posts that have no sentiment yet, until none are left.
+     * Runs every {@code sentiment.backfill-interval-millis} when {@code sentiment.backfill-enabled} is set;
+     * overlapping invocations return immediately.
+     *
+     * @return number of posts updated
+     */
+    @Scheduled(initialDelayString = "${sentiment.backfill-interval-millis:60000}",
+            fixedDelayString = "${sentiment.backfill-interval-millis:60000}")
+    public long backfill() {
+        if (!config.isBackfillEnabled() || !backfillRunning.compareAndSet(false, true)) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        long updated = 0;
+        try {
+            long afterId = 0;
+            List<PostContentView> rows;
+            do {
+                rows = socialPostRepository.findUnscoredAfter(afterId, Limit.of(config.getBackfillBatchSize()));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                long[] ids = new long[rows.size()];
+                double[] scores = new double[rows.size()];
+                List<PostContentView> batch = rows;
+                forEachIndex(batch.size(), i -> {
+                    PostContentView row = batch.get(i);
+                    ids[i] = row.getId();
+                    scores[i] = scorer.score(row.getContent());
+                });
+                int batchUpdated = socialPostRepository.updateSentimentScores(ids, scores);
+                if (batchUpdated > 0) {
+                    postQueryCache.invalidateAll();
+                }
+                updated += batchUpdated;
+                afterId = ids[ids.length - 1];
+            } while (rows.size() == config.getBackfillBatchSize());
+        } catch (RuntimeException ex) {
+            logger.error("Sentiment backfill failed after {} posts", updated, ex);
+        } finally {
+            backfillRunning.set(false);
+        }
+        if (updated > 0) {
+            logger.info("Sentiment backfill scored {} posts in {} ms", updated, (System.nanoTime() - started) / 1_000_000);
+        }
+        return updated;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void forEachIndex(int size, IntConsumer action) {
+        if (size < config.getParallelThreshold() || config.getParallelism() == 1) {
+            for (int i = 0; i < size; i++) {
+                action.accept(i);
+            }
+            return;
+        }
+        // A parallel stream started from inside a ForkJoinPool task splits its work across that pool.
+        pool.submit(() -> IntStream.range(0, size).parallel().forEach(action)).join();
+    }
+}
@@ -1,92 +1,363 @@
 package service;
 
-import client.TwitterApiClient;
+import client.PostPageIterator;
+import client.SocialSource;
+import exception.ApiException;
+import model.CursorPage;
+import model.KeysetCursor;
+import model.SearchSort;
 import model.SocialPost;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import repository.KeywordCheckpointRepository;
 import repository.SocialPostRepository;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 /**
  * Service for managing social posts and integrating with external APIs.
+ * Posts are fetched from every registered {@link SocialSource}.
  */
 @Service
 public class SocialPostService {
 
     private static final Logger logger = LoggerFactory.getLogger(SocialPostService.class);
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private final SocialPostRepository socialPostRepository;
-    private final TwitterApiClient twitterApiClient;
+    private final SourceFanOut sourceFanOut;
+    private final PostDeduplicator postDeduplicator;
+    private final NearDuplicateDetector nearDuplicateDetector;
+    private final TrendService trendService;
+    private final PostVolumeService postVolumeService;
+    private final SentimentService sentimentService;
+    private final KeywordCheckpointRepository keywordCheckpointRepository;
+    private final PostQueryCache postQueryCache;
+    private final IngestMetrics ingestMetrics;
+    private final PostWriteBuffer postWriteBuffer;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    public SocialPostService(SocialPostRepository socialPostRepository, TwitterApiClient twitterApiClient) {
+    public SocialPostService(SocialPostRepository socialPostRepository, SourceFanOut sourceFanOut,
+                             PostDeduplicator postDeduplicator, NearDuplicateDetector nearDuplicateDetector,
+                             TrendService trendService,
+                             PostVolumeService postVolumeService, SentimentService sentimentService,
+                             KeywordCheckpointRepository keywordCheckpointRepository, PostQueryCache postQueryCache,
+                             IngestMetrics ingestMetrics, PostWriteBuffer postWriteBuffer,
+                             ObjectMapper objectMapper) {
         this.socialPostRepository = socialPostRepository;
-        this.twitterApiClient = twitterApiClient;
+        this.sourceFanOut = sourceFanOut;
+        this.postDeduplicator = postDeduplicator;
+        this.nearDuplicateDetector = nearDuplicateDetector;
+        this.trendService = trendService;
+        this.postVolumeService = postVolumeService;
+        this.sentimentService = sentimentService;
+        this.keywordCheckpointRepository = keywordCheckpointRepository;
+        this.postQueryCache = postQueryCache;
+        this.ingestMetrics = ingestMetrics;
+        this.postWriteBuffer = postWriteBuffer;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Returns all social posts sorted by postTimestamp descending.
+     * Returns one page of social posts sorted by postTimestamp descending, using keyset pagination.
+     * Posts without a timestamp are not listed; use {@link #exportPosts(OutputStream)} for a complete dump.
+     * Pages are served from {@link PostQueryCache} until new posts are stored.
      *
-     * @return list of all social posts
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size maximum number of posts to return, capped at {@value #MAX_PAGE_SIZE}
+     * @return the page of posts and the cursor of the next page
      */
-    public List<SocialPost> getAllPosts() {
-        return socialPostRepository.findAllByOrderByPostTimestampDesc(Pageable.unpaged()).getContent();
+    public CursorPage<SocialPost> getPosts(String cursor, int size) {
+        int limit = clampPageSize(size);
+        return postQueryCache.latest(cursor, limit, () -> loadPosts(cursor, limit));
+    }
+
+    private CursorPage<SocialPost> loadPosts(String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<SocialPost> rows = after == null
+                ? socialPostRepository.findLatest(Limit.of(limit + 1))
+                : socialPostRepository.findLatestBefore(after.sortTimestamp(), after.getId(), Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        SocialPost last = rows.get(limit - 1);
+        return new CursorPage<>(List.copyOf(rows.subList(0, limit)),
+                KeysetCursor.ofTimestamp(last.getPostTimestamp(), last.getId()).encode());
     }
 
     /**
-     * Fetches tweets by keyword, maps to SocialPost, deduplicates, saves new posts, and logs the process.
+     * Writes every social post as newline-delimited JSON, newest first.
+     * Rows are read through a server-side cursor and detached as soon as they are written,
+     * so heap use stays flat regardless of how many posts are exported.
+     *
+     * @param out the stream to write to; it is flushed but not closed
+     * @return number of posts written
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public long exportPosts(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        long count = 0;
+        try (Stream<SocialPost> posts = socialPostRepository.streamAllByRecency()) {
+            Iterator<SocialPost> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                SocialPost post = iterator.next();
+                buffered.write(writer.writeValueAsBytes(post));
+                buffered.write('\n');
+                entityManager.detach(post);
+                count++;
+            }
+        }
+        buffered.flush();
+        logger.info("Exported {} posts", count);
+        return count;
+    }
+
+    /**
+     * Fetches posts by keyword from every registered platform, deduplicates, scores sentiment, saves new posts,
+     * and logs the process.
      * Idempotent for the same keyword invocation.
      *
-     * @param keyword the keyword to search tweets for
+     * @param keyword the keyword to search posts for
      */
-    @Transactional
     public void fetchAndSavePosts(String keyword) {
+        fetchAndSavePosts(keyword, FetchProgressListener.NONE);
+    }
+
+    /**
+     * Same as {@link #fetchAndSavePosts(String)}, reporting each stored page to the listener.
+     * All platforms are searched at once, each on its own bulkhead (see {@link SourceFanOut}), and only for posts
+     * newer than the keyword's checkpoint on that platform (since_id). Each platform stores every page as soon as
+     * it has read it, while its next page prefetches in the background, so a fetch holds a few pages per platform
+     * however many it reads. No transaction spans the remote calls, so a slow platform response never holds a
+     * database connection. A platform that fails or times out keeps the pages it already stored, but its
+     * checkpoint stays put; the fetch only fails when no platform answered.
+     *
+     * @param keyword the keyword to search posts for
+     * @param listener receives the counts of each stored page
+     */
+    public void fetchAndSavePosts(String keyword, FetchProgressListener listener) {
+        fetchFromSources("fetch", keyword, (source, sinceId) -> source.search(keyword, sinceId), listener, false);
+    }
+
+    /**
+     * Fetches the newest posts for a keyword from every registered platform and saves those not stored yet,
+     * for periodic polling.
+     * Results arrive newest first, so each platform stops paging at the first page holding a post that was
+     * already stored: older pages were covered by earlier polls, and requesting them would only spend
+     * rate-limit quota. For the same reason pages are not prefetched.
+     *
+     * @param keyword the keyword to search posts for
+     * @param maxPages maximum number of pages to request per platform
+     * @return number of new posts saved
+     */
+    public int pollNewPosts(String keyword, int maxPages) {
+        return fetchFromSources("poll", keyword, (source, sinceId) -> source.searchNewest(keyword, sinceId, maxPages),
+                FetchProgressListener.NONE, true);
+    }
+
+    /**
+     * Reads and stores every platform's pages concurrently, then moves the keyword checkpoints of the platforms
+     * that answered in one final write.
+     * <p>
+     * Each page is written through {@link PostWriteBuffer}, which commits it together with the pages other
+     * platforms and concurrent fetches wrote at the same time. The checkpoints are written only after every page
+     * behind them is committed, so a crash can never advance a checkpoint past unsaved posts; posts saved before
+     * a crash are skipped as stored when the gap is fetched again. A checkpoint only moves when the platform's
+     * fetch read everything after the old one, i.e. reached the end of the results, or when there was no
+     * checkpoint yet. A fetch cut short by its page budget, by its timeout, or by stopping at a stored post
+     * (which another keyword may have stored), leaves the checkpoint alone, so the gap behind it is fetched again
+     * next time rather than skipped.
+     * With {@code near-dup.enabled}, posts repeating the text of a recent post are dropped by
+     * {@link NearDuplicateDetector} before they are scored and stored.
+     * </p>
+     * The INSERT stage includes the wait for each commit.
+     * Stage times are traced through {@link IngestMetrics} and logged with the result.
+     */
+    private int fetchFromSources(String path, String keyword, BiFunction<SocialSource, Long, PostPageIterator> search,
+                                 FetchProgressListener listener, boolean stopAtStoredPost) {
         logger.info("Starting fetch for keyword: {}", keyword);
-        List<SocialPost> fetchedPosts;
-        try {
-            fetchedPosts = twitterApiClient.searchTweets(keyword)
-                    .stream()
-                    .map(tweet -> SocialPost.builder()
-                            .platform("TWITTER")
-                            .sourceId(String.valueOf(tweet.getId()))
-                            .author(tweet.getAuthor())
-                            .content(tweet.getContent())
-                            .postTimestamp(tweet.getCreatedAt())
-                            .build()
-                    )
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            logger.error("Failed to fetch tweets for keyword: {}", keyword, e);
-            throw new RuntimeException("Failed to fetch tweets for keyword: " + keyword, e);
+        IngestMetrics.Trace trace = ingestMetrics.start(path);
+        AtomicInteger saved = new AtomicInteger();
+        List<SourceFanOut.Outcome<SourceFetch>> outcomes = sourceFanOut.invokeAll(
+                source -> readSource(source, keyword, search, stopAtStoredPost, listener, saved, trace));
+
+        List<SourceFetch> fetches = new ArrayList<>(outcomes.size());
+        RuntimeException failure = null;
+        for (SourceFanOut.Outcome<SourceFetch> outcome : outcomes) {
+            String platform = outcome.getSource().getPlatform();
+            if (outcome.isSucceeded()) {
+                fetches.add(outcome.getResult());
+                continue;
+            }
+            logger.error("Failed to fetch posts for keyword: {} from {}", keyword, platform, outcome.getFailure());
+            if (failure == null) {
+                failure = new RuntimeException("Failed to fetch posts for keyword: " + keyword, outcome.getFailure());
+            } else {
+                failure.addSuppressed(outcome.getFailure());
+            }
+        }
+        if (fetches.isEmpty() && failure != null) {
+            throw failure;
         }
 
-        Set<String> existingKeys = socialPostRepository
-                .findByPlatform("TWITTER", Pageable.unpaged())
-                .getContent()
-                .stream()
-                .map(post -> post.getPlatform() + ":" + post.getSourceId())
-                .collect(Collectors.toSet());
+        int fetchedCount = 0;
+        Map<String, Long> checkpoints = new HashMap<>();
+        for (SourceFetch fetch : fetches) {
+            fetchedCount += fetch.fetched;
+            if (fetch.checkpoint != null) {
+                checkpoints.put(fetch.platform, fetch.checkpoint);
+            } else if (fetch.sinceId != null && fetch.fetched > 0) {
+                logger.info("Fetch for keyword: {} did not reach its {} checkpoint; checkpoint stays at {}",
+                        keyword, fetch.platform, fetch.sinceId);
+            }
+        }
+        trace.time(IngestMetrics.Stage.INSERT, () -> postWriteBuffer.write(List.of(), keyword, checkpoints));
+        logger.info("Fetch complete for keyword: {}. Platforms: {}, fetched: {}, new posts saved: {}, took {}",
+                keyword, fetches.size(), fetchedCount, saved.get(), trace.finish());
+        return saved.get();
+    }
 
-        List<SocialPost> newPosts = fetchedPosts.stream()
-                .filter(post -> !existingKeys.contains(post.getPlatform() + ":" + post.getSourceId()))
-                .collect(Collectors.toList());
+    /**
+     * Reads one platform's pages for a keyword and stores the posts not stored yet, page by page; runs on the
+     * platform's bulkhead.
+     */
+    private SourceFetch readSource(SocialSource source, String keyword,
+                                   BiFunction<SocialSource, Long, PostPageIterator> search, boolean stopAtStoredPost,
+                                   FetchProgressListener listener, AtomicInteger saved, IngestMetrics.Trace trace) {
+        String platform = source.getPlatform();
+        SourceFetch fetch = new SourceFetch(platform, keywordCheckpointRepository.findSinceId(platform, keyword));
+        try (PostPageIterator pages = search.apply(source, fetch.sinceId)) {
+            while (pages.hasNext()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // Timed out: the fan-out has already given up on this platform.
+                    return fetch;
+                }
+                List<SocialPost> page = trace.time(IngestMetrics.Stage.API, pages::next);
+                List<SocialPost> newPosts = trace.time(IngestMetrics.Stage.DEDUP, () -> postDeduplicator.filterNew(page));
+                int stored = storePage(platform, keyword, page, newPosts, trace);
+                fetch.fetched += page.size();
+                saved.addAndGet(stored);
+                listener.onBatch(1, page.size(), stored);
+                logger.debug("Stored page {} for keyword: {} from {}. New posts: {}",
+                        pages.getPagesRequested(), keyword, platform, stored);
+                if (stopAtStoredPost && newPosts.size() < page.size()) {
+                    break;
+                }
+            }
+            fetch.checkpoint = pages.isReachedEnd() || fetch.sinceId == null ? pages.getNewestId() : null;
+        }
+        return fetch;
+    }
+
+    /**
+     * Drops near-duplicates from a page's new posts, scores and stores them; the keyword's checkpoints are left
+     * to the final write of the fetch.
+     *
+     * @return number of posts inserted
+     */
+    private int storePage(String platform, String keyword, List<SocialPost> page, List<SocialPost> newPosts,
+                          IngestMetrics.Trace trace) {
+        List<SocialPost> posts = trace.time(IngestMetrics.Stage.DEDUP,
+                () -> nearDuplicateDetector.dropNearDuplicates(newPosts));
+        trace.run(IngestMetrics.Stage.SENTIMENT, () -> sentimentService.scoreAll(posts));
+        List<SocialPost> inserted = trace.time(IngestMetrics.Stage.INSERT,
+                () -> postWriteBuffer.write(posts, keyword, Map.of()));
+        recordPersisted(keyword, posts, inserted);
+        trace.recordPosts(platform, page.size(), inserted.size());
+        return inserted.size();
+    }
+
+    /**
+     * Stores a batch of posts received from the filtered stream, skipping those already stored and, if enabled,
+     * near-duplicates of recent posts.
+     *
+     * @param posts streamed posts, as mapped by the client, platform included
+     * @return number of new posts saved
+     */
+    public int saveStreamedPosts(List<SocialPost> posts) {
+        IngestMetrics.Trace trace = ingestMetrics.start("stream");
+        List<SocialPost> newPosts = trace.time(IngestMetrics.Stage.DEDUP,
+                () -> nearDuplicateDetector.dropNearDuplicates(postDeduplicator.filterNew(posts)));
+        trace.run(IngestMetrics.Stage.SENTIMENT, () -> sentimentService.scoreAll(newPosts));
+        List<SocialPost> inserted = trace.time(IngestMetrics.Stage.INSERT,
+                () -> postWriteBuffer.write(newPosts, null, Map.of()));
+        recordPersisted(null, newPosts, inserted);
+        trace.recordPosts(posts, inserted);
+        logger.debug("Stored {} of {} streamed posts in {}", inserted.size(), posts.size(), trace.finish());
+        return inserted.size();
+    }
 
-        socialPostRepository.saveAll(newPosts);
-        logger.info("Fetch complete for keyword: {}. New posts saved: {}", keyword, newPosts.size());
+    /**
+     * Post-insert bookkeeping shared by every ingest path: the dedup filter learns the written keys, cached
+     * result pages are dropped, and the inserted posts are counted for trends and volume rollups.
+     * Also called by {@link PostImportService} for imported posts.
+     *
+     * @param keyword the search keyword that found the posts, or null if they did not come from a keyword search
+     */
+    void recordPersisted(String keyword, List<SocialPost> written, List<SocialPost> inserted) {
+        postDeduplicator.markPersisted(written);
+        if (!inserted.isEmpty()) {
+            postQueryCache.invalidateAll();
+        }
+        trendService.record(inserted);
+        postVolumeService.record(keyword, inserted);
+    }
+
+    /**
+     * What one platform returned for a keyword fetch.
+     */
+    private static final class SourceFetch {
+
+        private final String platform;
+        private final Long sinceId;
+        private int fetched;
+        private Long checkpoint;
+
+        SourceFetch(String platform, Long sinceId) {
+            this.platform = platform;
+            this.sinceId = sinceId;
+        }
     }
 
     /**
-     * Searches posts by keyword in content, case-insensitively, with pagination.
+     * Searches posts with full-text search over their content, with keyset pagination.
      *
-     * @param keyword the keyword to search for
-     * @param pageable pagination information
-     * @return list of matching social posts
+     * @param query the search query (words, "phrases", #hashtags, @mentions, -exclusions)
+     * @param sort result ordering
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size maximum number of posts to return, capped at {@value #MAX_PAGE_SIZE}
+     * @return matching social posts and the cursor of the next page
      */
-    public List<SocialPost> searchPosts(String keyword, Pageable pageable) {
-        return socialPostRepository.findByContentContainingIgnoreCase(keyword, pageable).getContent();
+    public CursorPage<SocialPost> searchPosts(String query, SearchSort sort, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new ApiException("Search query must not be blank");
+        }
+        int limit = clampPageSize(size);
+        return postQueryCache.search(query, sort, cursor, limit,
+                () -> socialPostRepository.searchFullText(query, sort, KeysetCursor.decode(cursor), limit));
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, size));
     }
 }
@@ -0,0 +1,240 @@
+package service;
+
+import client.SocialSource;
+import config.SourceConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs a task against every registered {@link SocialSource} at once, each on its own bulkhead.
+ * <p>
+ * A bulkhead is a fixed thread pool per platform that admits at most its threads plus its queue capacity in
+ * calls, sized by {@link SourceConfig}. A platform that is slow or down can only occupy its own threads: once
+ * they and its queue are full, further calls skip that platform instead of waiting, and a call that has not
+ * finished within the platform's timeout (queueing included) is cancelled and reported as failed while the other
+ * platforms' results are returned. Pool usage is published as {@code executor.*} metrics tagged
+ * {@code name=sources.<platform>}; skipped, timed-out and failed calls are counted as {@code sources.failures}.
+ * </p>
+ */
+@Component
+public class SourceFanOut {
+
+    private static final Logger logger = LoggerFactory.getLogger(SourceFanOut.class);
+
+    /**
+     * Result of one source's task: either a value or the reason there is none.
+     */
+    public static final class Outcome<T> {
+
+        private final SocialSource source;
+        private final T result;
+        private final Throwable failure;
+
+        private Outcome(SocialSource source, T result, Throwable failure) {
+            this.source = source;
+            this.result = result;
+            this.failure = failure;
+        }
+
+        public SocialSource getSource() {
+            return source;
+        }
+
+        /**
+         * @return the task's result; null if it failed
+         */
+        public T getResult() {
+            return result;
+        }
+
+        /**
+         * @return why the task has no result (rejected, timed out or thrown); null if it succeeded
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        public boolean isSucceeded() {
+            return failure == null;
+        }
+    }
+
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+    public SourceFanOut(List<SocialSource> sources, SourceConfig config, MeterRegistry meterRegistry) {
+        for (SocialSource source : sources) {
+            String platform = source.getPlatform();
+            if (bulkheads.containsKey(platform)) {
+                throw new IllegalStateException("More than one source registered for platform '" + platform + "'");
+            }
+            bulkheads.put(platform, new Bulkhead(source, config.bulkheadFor(platform), meterRegistry));
+        }
+        logger.info("Registered social sources: {}", bulkheads.keySet());
+    }
+
+    /**
+     * @return the registered sources, in registration order
+     */
+    public List<SocialSource> getSources() {
+        return bulkheads.values().stream().map(bulkhead -> bulkhead.source).toList();
+    }
+
+    /**
+     * Runs the task against every source concurrently and waits for all of them, each up to its own timeout.
+     *
+     * @param task the work to do with one source; runs on that source's bulkhead
+     * @return one outcome per source, in registration order
+     */
+    public <T> List<Outcome<T>> invokeAll(Function<SocialSource, T> task) {
+        List<Future<T>> futures = new ArrayList<>(bulkheads.size());
+        List<Long> deadlines = new ArrayList<>(bulkheads.size());
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            deadlines.add(System.nanoTime() + bulkhead.timeoutNanos);
+            futures.add(bulkhead.trySubmit(() -> task.apply(bulkhead.source)));
+        }
+
+        List<Outcome<T>> outcomes = new ArrayList<>(bulkheads.size());
+        int i = 0;
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            Future<T> future = futures.get(i);
+            long deadline = deadlines.get(i++);
+            if (future == null) {
+                outcomes.add(bulkhead.failed("rejected", new RejectedExecutionException(
+                        "Bulkhead of platform '" + bulkhead.source.getPlatform() + "' is full")));
+                continue;
+            }
+            try {
+                outcomes.add(new Outcome<>(bulkhead.source, future.get(Math.max(0, deadline - System.nanoTime()),
+                        TimeUnit.NANOSECONDS), null));
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                outcomes.add(bulkhead.failed("timeout", new TimeoutException("Platform '" + bulkhead.source.getPlatform()
+                        + "' did not answer within " + TimeUnit.NANOSECONDS.toSeconds(bulkhead.timeoutNanos) + " s")));
+            } catch (ExecutionException ex) {
+                outcomes.add(bulkhead.failed("error", ex.getCause()));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                outcomes.add(bulkhead.failed("interrupted", ex));
+            }
+        }
+        return outcomes;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        bulkheads.values().forEach(bulkhead -> bulkhead.executor.shutdownNow());
+    }
+
+    private static final class Bulkhead {
+
+        private final SocialSource source;
+        private final ExecutorService executor;
+        private final Semaphore slots;
+        private final long timeoutNanos;
+        private final MeterRegistry meterRegistry;
+
+        Bulkhead(SocialSource source, SourceConfig.Bulkhead limits, MeterRegistry meterRegistry) {
+            this.source = source;
+            this.timeoutNanos = TimeUnit.SECONDS.toNanos(limits.getTimeoutSeconds());
+            this.meterRegistry = meterRegistry;
+            this.slots = new Semaphore(limits.getConcurrency() + limits.getQueueCapacity());
+            String platform = source.getPlatform();
+            AtomicInteger counter = new AtomicInteger();
+            // Admission is decided by the slots, so the queue itself never refuses a task: a bounded or
+            // synchronous queue would also refuse one while a finished worker is on its way back to it.
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(limits.getConcurrency(), limits.getConcurrency(),
+                    0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "source-" + platform + "-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }) {
+                @Override
+                protected void afterExecute(Runnable task, Throwable failure) {
+                    // A task cancelled before it started never ran its own release.
+                    ((SlotTask<?>) task).release();
+                }
+            };
+            this.executor = pool;
+            new ExecutorServiceMetrics(pool, "sources." + platform, Tags.empty()).bindTo(meterRegistry);
+        }
+
+        /**
+         * @return the running or queued task, or null if the platform's threads and queue are all taken
+         */
+        <T> Future<T> trySubmit(Callable<T> task) {
+            if (!slots.tryAcquire()) {
+                return null;
+            }
+            SlotTask<T> slotTask = new SlotTask<>(task, slots);
+            try {
+                executor.execute(slotTask);
+            } catch (RejectedExecutionException ex) {
+                slotTask.release();
+                return null;
+            }
+            return slotTask;
+        }
+
+        <T> Outcome<T> failed(String reason, Throwable failure) {
+            Counter.builder("sources.failures")
+                    .description("Source calls of a keyword fetch that were skipped, timed out or failed")
+                    .tags("platform", source.getPlatform(), "reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+            return new Outcome<>(source, null, failure);
+        }
+    }
+
+    /**
+     * A bulkhead task holding one of its slots. The slot is given back as soon as the task's work ends, before
+     * its result is published, so a caller that has seen the result can always use the slot again.
+     */
+    private static final class SlotTask<T> extends FutureTask<T> {
+
+        private final Runnable release;
+
+        private SlotTask(Callable<T> task, Runnable release) {
+            super(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    release.run();
+                }
+            });
+            this.release = release;
+        }
+
+        SlotTask(Callable<T> task, Semaphore slots) {
+            this(task, releaseOnce(slots));
+        }
+
+        void release() {
+            release.run();
+        }
+
+        private static Runnable releaseOnce(Semaphore slots) {
+            AtomicBoolean released = new AtomicBoolean();
+            return () -> {
+                if (released.compareAndSet(false, true)) {
+                    slots.release();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package service;
+
+import client.StreamStatus;
+import client.TweetStreamClient;
+import client.TweetStreamIngester;
+import config.StreamConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Filtered-stream ingestion mode: when {@code stream.enabled} is set, keeps a stream connection open for the
+ * application's lifetime and stores its posts through {@link SocialPostService#saveStreamedPosts}.
+ * <p>
+ * The stream complements keyword polling for high-volume keywords; which posts arrive is decided by the
+ * stream rules registered with the API. Progress is published as {@code stream.*} metrics.
+ * </p>
+ */
+@Service
+public class StreamIngestionService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamIngestionService.class);
+
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+    private final StreamConfig config;
+    private final TweetStreamIngester ingester;
+
+    public StreamIngestionService(TweetStreamClient streamClient, SocialPostService socialPostService,
+                                  StreamConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.ingester = new TweetStreamIngester(streamClient, config, socialPostService::saveStreamedPosts);
+        registerMetrics(meterRegistry);
+    }
+
+    /**
+     * @return the stream's counters since startup
+     */
+    public StreamStatus getStatus() {
+        return ingester.status();
+    }
+
+    @Override
+    public void start() {
+        if (!config.isEnabled()) {
+            logger.info("Filtered-stream ingestion is disabled");
+            return;
+        }
+        ingester.start();
+    }
+
+    @Override
+    public void stop() {
+        ingester.stop(STOP_TIMEOUT_MILLIS);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ingester.isRunning();
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        Gauge.builder("stream.buffer.size", ingester, i -> i.status().getBuffered())
+                .description("Streamed posts waiting to be written").register(registry);
+        Gauge.builder("stream.connected", ingester, i -> i.status().isConnected() ? 1 : 0)
+                .description("Whether the filtered stream is connected").register(registry);
+        counter(registry, "stream.posts.received", "Posts read from the filtered stream", s -> s.getReceived());
+        counter(registry, "stream.posts.stored", "Streamed posts stored as new", s -> s.getStored());
+        counter(registry, "stream.reconnects", "Filtered-stream reconnects", s -> s.getReconnects());
+        counter(registry, "stream.stalls", "Connections dropped because the buffer stayed full", s -> s.getStalls());
+        counter(registry, "stream.write.failures", "Failed batch writes of streamed posts", s -> s.getWriteFailures());
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<StreamStatus> value) {
+        FunctionCounter.builder(name, ingester, i -> value.applyAsDouble(i.status()))
+                .description(description).register(registry);
+    }
+}
@@ -0,0 +1,234 @@
+package service;
+
+import config.TrendConfig;
+import model.SocialPost;
+import model.TrendWindow;
+import model.TrendingTerm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import util.CountMinSketch;
+import util.TermTokenizer;
+import util.TopKTracker;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory sliding-window trending-terms engine fed from the ingest path.
+ * <p>
+ * Term counts are kept per time bucket, with one ring of buckets per window: five 1-minute buckets for 5m,
+ * twelve 5-minute buckets for 1h and twenty-four 1-hour buckets for 24h. The newest bucket of a ring is the
+ * one still filling, so a window covers between its length minus one bucket and its full length.
+ * Each bucket holds a {@link CountMinSketch} and a striped {@link TopKTracker}
+ * of heavy-hitter candidates, so memory is fixed by configuration and independent of vocabulary size.
+ * Buckets live in ring buffers and are rotated by compare-and-set when a new minute or hour starts, so
+ * ingestion threads never take a global lock. A query sums the sketch estimates of every candidate over the
+ * buckets in its window; answers are reused for {@code trends.query-cache-millis}.
+ * </p>
+ */
+@Service
+public class TrendService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendService.class);
+
+    private static final int CACHED_TERMS = 100;
+    private static final int REFINE_FACTOR = 3;
+
+    private final TrendConfig config;
+    private final Clock clock;
+    private final Map<TrendWindow, BucketRing> rings = new EnumMap<>(TrendWindow.class);
+    private final Map<TrendWindow, AtomicReference<CachedAnswer>> answers = new EnumMap<>(TrendWindow.class);
+
+    @Autowired
+    public TrendService(TrendConfig config) {
+        this(config, Clock.systemUTC());
+    }
+
+    TrendService(TrendConfig config, Clock clock) {
+        this.config = config;
+        this.clock = clock;
+        rings.put(TrendWindow.FIVE_MINUTES, new BucketRing(TimeUnit.MINUTES.toMillis(1), 5));
+        rings.put(TrendWindow.ONE_HOUR, new BucketRing(TimeUnit.MINUTES.toMillis(5), 12));
+        rings.put(TrendWindow.ONE_DAY, new BucketRing(TimeUnit.HOURS.toMillis(1), 24));
+        int totalBuckets = 0;
+        for (TrendWindow window : TrendWindow.values()) {
+            answers.put(window, new AtomicReference<>());
+            totalBuckets += rings.get(window).slots.length();
+        }
+        long bytesPerBucket = (long) new CountMinSketch(config.getSketchWidth(), config.getSketchDepth()).size() * Long.BYTES;
+        logger.info("Trend engine uses up to {} KiB of sketch counters", bytesPerBucket * totalBuckets / 1024);
+    }
+
+    /**
+     * Counts the terms of newly stored posts. Each term is counted at most once per post,
+     * in the buckets of the post's timestamp; posts older than 24 hours are ignored.
+     *
+     * @param posts newly stored posts
+     */
+    public void record(Collection<SocialPost> posts) {
+        long nowMillis = clock.millis();
+        long horizonMillis = TrendWindow.ONE_DAY.getDuration().toMillis();
+        Set<String> terms = new HashSet<>();
+        TrendBucket[] buckets = new TrendBucket[rings.size()];
+        for (SocialPost post : posts) {
+            Instant timestamp = post.getPostTimestamp();
+            long millis = timestamp == null ? nowMillis : Math.min(timestamp.toEpochMilli(), nowMillis);
+            if (nowMillis - millis >= horizonMillis) {
+                continue;
+            }
+            terms.clear();
+            TermTokenizer.forEachTerm(post.getContent(), terms::add);
+            if (terms.isEmpty()) {
+                continue;
+            }
+            int i = 0;
+            for (BucketRing ring : rings.values()) {
+                buckets[i++] = ring.bucketFor(millis, config);
+            }
+            for (String term : terms) {
+                for (TrendBucket bucket : buckets) {
+                    if (bucket != null) {
+                        bucket.add(term);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the most frequent terms in the window ending now.
+     *
+     * @param window the look-back window
+     * @param limit  maximum number of terms to return
+     * @return terms ordered by estimated count, highest first
+     */
+    public List<TrendingTerm> topTerms(TrendWindow window, int limit) {
+        long nowMillis = clock.millis();
+        AtomicReference<CachedAnswer> slot = answers.get(window);
+        CachedAnswer cached = slot.get();
+        if (cached == null || nowMillis - cached.computedAtMillis >= config.getQueryCacheMillis()
+                || (cached.terms.size() < limit && cached.limit < limit)) {
+            int computeLimit = Math.max(limit, CACHED_TERMS);
+            cached = new CachedAnswer(nowMillis, computeLimit, computeTopTerms(window, nowMillis, computeLimit));
+            slot.set(cached);
+        }
+        return cached.terms.subList(0, Math.min(limit, cached.terms.size()));
+    }
+
+    private List<TrendingTerm> computeTopTerms(TrendWindow window, long nowMillis, int limit) {
+        List<TrendBucket> buckets = rings.get(window).current(nowMillis);
+
+        // A candidate's tracked estimate in a bucket is its sketch estimate there, so the sum over the buckets
+        // that track it is a lower bound of its window count. Only the best candidates by that bound are
+        // refined with full sketch sums, which keeps the query cost independent of candidate churn.
+        Map<String, long[]> lowerBounds = new HashMap<>();
+        for (TrendBucket bucket : buckets) {
+            bucket.candidates.forEach((term, estimate) -> lowerBounds.computeIfAbsent(term, t -> new long[1])[0] += estimate);
+        }
+        List<Map.Entry<String, long[]>> ranked = new ArrayList<>(lowerBounds.entrySet());
+        int refineCount = Math.min(ranked.size(), limit * REFINE_FACTOR);
+        ranked.sort((x, y) -> Long.compare(y.getValue()[0], x.getValue()[0]));
+
+        PriorityQueue<TrendingTerm> best = new PriorityQueue<>(limit + 1, Comparator.comparingLong(TrendingTerm::getCount));
+        for (Map.Entry<String, long[]> candidate : ranked.subList(0, refineCount)) {
+            String term = candidate.getKey();
+            long total = 0;
+            for (TrendBucket bucket : buckets) {
+                total += bucket.sketch.estimate(term);
+            }
+            if (best.size() < limit) {
+                best.add(new TrendingTerm(term, total));
+            } else if (total > best.peek().getCount()) {
+                best.poll();
+                best.add(new TrendingTerm(term, total));
+            }
+        }
+        List<TrendingTerm> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingLong(TrendingTerm::getCount).reversed().thenComparing(TrendingTerm::getTerm));
+        return List.copyOf(result);
+    }
+
+    /**
+     * Fixed ring of consecutive time buckets, rotated by compare-and-set.
+     */
+    private static final class BucketRing {
+        final long bucketMillis;
+        final AtomicReferenceArray<TrendBucket> slots;
+
+        BucketRing(long bucketMillis, int slotCount) {
+            this.bucketMillis = bucketMillis;
+            this.slots = new AtomicReferenceArray<>(slotCount);
+        }
+
+        /**
+         * Returns the bucket covering the timestamp, installing a fresh one if its slot still holds an older
+         * epoch. Returns null if the slot has already moved on to a newer epoch, i.e. the timestamp is too old.
+         */
+        TrendBucket bucketFor(long millis, TrendConfig config) {
+            long epoch = millis / bucketMillis;
+            int slot = (int) Math.floorMod(epoch, slots.length());
+            while (true) {
+                TrendBucket current = slots.get(slot);
+                if (current != null && current.epoch == epoch) {
+                    return current;
+                }
+                if (current != null && current.epoch > epoch) {
+                    return null;
+                }
+                TrendBucket fresh = new TrendBucket(epoch, config);
+                if (slots.compareAndSet(slot, current, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+
+        /**
+         * @return the buckets of the window ending at the given time, oldest first
+         */
+        List<TrendBucket> current(long nowMillis) {
+            long currentEpoch = nowMillis / bucketMillis;
+            List<TrendBucket> buckets = new ArrayList<>(slots.length());
+            for (long epoch = currentEpoch - slots.length() + 1; epoch <= currentEpoch; epoch++) {
+                TrendBucket bucket = slots.get((int) Math.floorMod(epoch, slots.length()));
+                if (bucket != null && bucket.epoch == epoch) {
+                    buckets.add(bucket);
+                }
+            }
+            return buckets;
+        }
+    }
+
+    private static final class TrendBucket {
+        final long epoch;
+        final CountMinSketch sketch;
+        final TopKTracker candidates;
+
+        TrendBucket(long epoch, TrendConfig config) {
+            this.epoch = epoch;
+            this.sketch = new CountMinSketch(config.getSketchWidth(), config.getSketchDepth());
+            this.candidates = new TopKTracker(config.getTopKStripes(), config.getTopKPerStripe());
+        }
+
+        void add(String term) {
+            candidates.offer(term, sketch.add(term, 1));
+        }
+    }
+
+    private static final class CachedAnswer {
+        final long computedAtMillis;
+        final int limit;
+        final List<TrendingTerm> terms;
+
+        CachedAnswer(long computedAtMillis, int limit, List<TrendingTerm> terms) {
+            this.computedAtMillis = computedAtMillis;
+            this.limit = limit;
+            this.terms = terms;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe Bloom filter over strings.
+ * <p>
+ * Memory is fixed at construction from the expected number of insertions and the target
+ * false-positive rate; inserting more elements than expected only raises the false-positive rate.
+ * Bits are set with CAS, so concurrent {@link #put(CharSequence)} and {@link #mightContain(CharSequence)}
+ * calls need no locking.
+ * </p>
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong approximateSize = new AtomicLong();
+
+    /**
+     * Creates a Bloom filter sized for the given capacity and false-positive rate.
+     *
+     * @param expectedInsertions number of elements the filter is sized for
+     * @param falsePositiveRate  target false-positive probability at that size (0 &lt; p &lt; 1)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        // Bit indexes are derived from int hashes, so the array is capped at 2^31 bits (256 MiB).
+        int wordCount = (int) Math.max(1, Math.min(1L << 25, (bits + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Adds the value to the filter.
+     *
+     * @param value the value to add
+     * @return true if at least one bit changed, i.e. the value was definitely not present before
+     */
+    public boolean put(CharSequence value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 1; i <= hashCount; i++) {
+            int combined = h1 + i * h2;
+            if (combined < 0) {
+                combined = ~combined;
+            }
+            changed |= setBit(combined % bitCount);
+        }
+        if (changed) {
+            approximateSize.incrementAndGet();
+        }
+        return changed;
+    }
+
+    /**
+     * @param value the value to test
+     * @return false if the value was definitely never added, true if it might have been
+     */
+    public boolean mightContain(CharSequence value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int combined = h1 + i * h2;
+            if (combined < 0) {
+                combined = ~combined;
+            }
+            long index = combined % bitCount;
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of distinct insertions observed (an upper bound on distinct values added)
+     */
+    public long approximateSize() {
+        return approximateSize.get();
+    }
+
+    /**
+     * @return size of the bit array in bits
+     */
+    public long bitSize() {
+        return bitCount;
+    }
+
+    private boolean setBit(long index) {
+        int wordIndex = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = words.get(wordIndex);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(wordIndex, current, current | mask));
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 fmix64 avalanche step.
+     */
+    static long hash64(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,74 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Count-Min Sketch over strings.
+ * <p>
+ * Estimates never undercount; they overcount by at most {@code e/width * totalCount} with probability
+ * {@code 1 - e^-depth}. Memory is {@code width * depth} counters, independent of the number of distinct keys.
+ * Counters are updated with atomic adds, so concurrent writers never block each other.
+ * </p>
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width counters per row; rounded up to a power of two
+     * @param depth number of rows (independent hash functions)
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("width and depth must be positive");
+        }
+        int roundedWidth = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+        this.counters = new AtomicLongArray(roundedWidth * depth);
+    }
+
+    /**
+     * Adds to the key's count.
+     *
+     * @param key   the key
+     * @param count amount to add
+     * @return the key's estimated count after the update
+     */
+    public long add(CharSequence key, long count) {
+        long hash = BloomFilter.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = (h1 + row * h2) & widthMask;
+            estimate = Math.min(estimate, counters.addAndGet(row * (widthMask + 1) + column, count));
+        }
+        return estimate;
+    }
+
+    /**
+     * @param key the key
+     * @return the key's estimated count (never less than the true count)
+     */
+    public long estimate(CharSequence key) {
+        long hash = BloomFilter.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = (h1 + row * h2) & widthMask;
+            estimate = Math.min(estimate, counters.get(row * (widthMask + 1) + column));
+        }
+        return estimate;
+    }
+
+    /**
+     * @return the number of counters, i.e. the memory footprint in longs
+     */
+    public int size() {
+        return counters.length();
+    }
+}
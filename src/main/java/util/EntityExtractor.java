@@ -0,0 +1,179 @@
+package util;
+
+import model.PostEntities;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds and normalizes the hashtags, mentions and links of a post.
+ * <p>
+ * A hashtag is a {@code #} followed by letters, digits or underscores, at least one of them not a digit; a mention
+ * is an {@code @} followed by up to 15 ASCII letters, digits or underscores. Neither counts when glued to a
+ * preceding word, so e-mail addresses and HTML entities are not matched. Both are lower-cased and stored without
+ * their prefix. Links are http(s) URLs up to the next whitespace, minus trailing punctuation, and are looked up
+ * by their lower-cased host without {@code www.}. Values are kept once per post, in order of appearance.
+ * </p>
+ */
+public final class EntityExtractor {
+
+    private static final int MAX_HASHTAG_LENGTH = 140;
+    private static final int MAX_MENTION_LENGTH = 15;
+    private static final int MAX_DOMAIN_LENGTH = 255;
+
+    private EntityExtractor() {
+    }
+
+    /**
+     * @param text post text, may be null
+     * @return the text's hashtags, mentions and links
+     */
+    public static PostEntities extract(CharSequence text) {
+        Set<String> hashtags = new LinkedHashSet<>();
+        Set<String> mentions = new LinkedHashSet<>();
+        Set<String> urls = new LinkedHashSet<>();
+        int length = text == null ? 0 : text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            boolean boundary = i == 0 || !isWordChar(text.charAt(i - 1));
+            if ((c == 'h' || c == 'H') && boundary && isUrlStart(text, i)) {
+                int end = i;
+                while (end < length && !Character.isWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                int trimmed = end;
+                while (trimmed > i && ".,;:!?)]}\"'".indexOf(text.charAt(trimmed - 1)) >= 0) {
+                    trimmed--;
+                }
+                String url = text.subSequence(i, trimmed).toString();
+                if (domain(url) != null) {
+                    urls.add(url);
+                }
+                i = end;
+            } else if (c == '#' && boundary && (i == 0 || text.charAt(i - 1) != '&')) {
+                int end = i + 1;
+                while (end < length && isWordChar(text.charAt(end))) {
+                    end++;
+                }
+                addIfPresent(hashtags, hashtag(text.subSequence(i + 1, end).toString()));
+                i = Math.max(end, i + 1);
+            } else if (c == '@' && boundary) {
+                int end = i + 1;
+                while (end < length && isWordChar(text.charAt(end))) {
+                    end++;
+                }
+                addIfPresent(mentions, mention(text.subSequence(i + 1, end).toString()));
+                i = Math.max(end, i + 1);
+            } else {
+                i++;
+            }
+        }
+        return new PostEntities(new ArrayList<>(hashtags), new ArrayList<>(mentions), new ArrayList<>(urls));
+    }
+
+    /**
+     * @param tag a hashtag, with or without its {@code #}
+     * @return the stored form of the hashtag, or null if it is not a valid hashtag
+     */
+    public static String hashtag(String tag) {
+        String value = strip(tag, '#');
+        if (value.isEmpty() || value.length() > MAX_HASHTAG_LENGTH) {
+            return null;
+        }
+        boolean hasNonDigit = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isWordChar(c)) {
+                return null;
+            }
+            hasNonDigit |= !Character.isDigit(c);
+        }
+        return hasNonDigit ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * @param username a username, with or without its {@code @}
+     * @return the stored form of the username, or null if it is not a valid username
+     */
+    public static String mention(String username) {
+        String value = strip(username, '@');
+        if (value.isEmpty() || value.length() > MAX_MENTION_LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c < 128 && (Character.isLetterOrDigit(c) || c == '_'))) {
+                return null;
+            }
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param url an absolute http(s) URL, or a bare host name
+     * @return the URL's lower-cased host without {@code www.}, or null if it has none
+     */
+    public static String domain(String url) {
+        if (url == null) {
+            return null;
+        }
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        String host = url.substring(start, end);
+        host = host.substring(host.lastIndexOf('@') + 1);
+        int port = host.lastIndexOf(':');
+        if (port >= 0 && !host.startsWith("[")) {
+            host = host.substring(0, port);
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+        while (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1);
+        }
+        return host.isEmpty() || host.length() > MAX_DOMAIN_LENGTH || host.indexOf(' ') >= 0 ? null : host;
+    }
+
+    private static void addIfPresent(Set<String> values, String value) {
+        if (value != null) {
+            values.add(value);
+        }
+    }
+
+    private static String strip(String value, char prefix) {
+        if (value == null) {
+            return "";
+        }
+        String trimmed = value.trim();
+        return !trimmed.isEmpty() && trimmed.charAt(0) == prefix ? trimmed.substring(1) : trimmed;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean isUrlStart(CharSequence text, int i) {
+        return regionMatches(text, i, "http://") || regionMatches(text, i, "https://");
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String prefix) {
+        if (offset + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int j = 0; j < prefix.length(); j++) {
+            if (Character.toLowerCase(text.charAt(offset + j)) != prefix.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
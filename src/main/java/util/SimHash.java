@@ -0,0 +1,61 @@
+package util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 64-bit SimHash fingerprints of post text, for finding near-duplicates.
+ * <p>
+ * The text is split with {@link TermTokenizer}; mentions are left out, so copies addressed to different users
+ * match, and so are URLs, pure numbers and stop words. Each distinct term votes on every bit with its 64-bit
+ * hash, and the fingerprint keeps the majority. Texts with the same terms get the same fingerprint whatever their
+ * order, case or punctuation, and texts that differ in a few terms get fingerprints a few bits apart.
+ * </p>
+ */
+public final class SimHash {
+
+    private SimHash() {
+    }
+
+    /**
+     * @param text post text, may be null
+     * @return the distinct terms the fingerprint is computed from, in order of appearance
+     */
+    public static Set<String> terms(CharSequence text) {
+        Set<String> terms = new LinkedHashSet<>();
+        TermTokenizer.forEachTerm(text, term -> {
+            if (term.charAt(0) != '@') {
+                terms.add(term);
+            }
+        });
+        return terms;
+    }
+
+    /**
+     * @param terms distinct terms of a text
+     * @return the fingerprint; 0 for no terms
+     */
+    public static long fingerprint(Iterable<String> terms) {
+        int[] votes = new int[Long.SIZE];
+        for (String term : terms) {
+            long hash = BloomFilter.hash64(term);
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                votes[bit] += (int) ((hash >>> bit) & 1) * 2 - 1;
+            }
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (votes[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @return the number of bits in which the fingerprints differ
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
@@ -0,0 +1,125 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Sliding-window LSH index of {@link SimHash} fingerprints: tells whether a fingerprint within a Hamming distance
+ * of a new one was added recently.
+ * <p>
+ * Fingerprints are cut into {@code maxDistance + 1} bands. Two fingerprints at most {@code maxDistance} bits apart
+ * agree exactly on at least one band, so looking up the bucket of each band finds every match, and only bucket
+ * entries are compared bit by bit. Entries live in a ring buffer of fixed capacity, the newest overwriting the
+ * oldest, and each bucket chains its entries newest first through the ring. Memory is therefore fixed at
+ * construction, and a lookup stops at the first entry that is overwritten or older than the window. A lookup
+ * compares at most {@value #MAX_PROBES} entries per band, so a bucket crowded with non-matching entries cannot
+ * slow ingest down; a match further down such a bucket is missed.
+ * </p>
+ * Not thread-safe.
+ */
+public class SimHashIndex {
+
+    static final int MAX_PROBES = 256;
+
+    private static final int MAX_BUCKET_BITS = 16;
+
+    private final int capacity;
+    private final int maxDistance;
+    private final int bands;
+    private final int bandBits;
+    private final long bandMask;
+    private final int bucketMask;
+    private final long[] fingerprints;
+    private final long[] keys;
+    private final long[] times;
+    private final long[][] heads;
+    private final long[][] next;
+    private long nextSeq;
+
+    /**
+     * @param capacity number of fingerprints kept; older ones are forgotten first
+     * @param maxDistance largest Hamming distance that counts as a match, 0 to 7
+     */
+    public SimHashIndex(int capacity, int maxDistance) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (maxDistance < 0 || maxDistance > 7) {
+            throw new IllegalArgumentException("maxDistance must be between 0 and 7");
+        }
+        this.capacity = capacity;
+        this.maxDistance = maxDistance;
+        this.bands = maxDistance + 1;
+        this.bandBits = Long.SIZE / bands;
+        this.bandMask = bandBits == Long.SIZE ? -1L : (1L << bandBits) - 1;
+        this.bucketMask = (1 << Math.min(bandBits, MAX_BUCKET_BITS)) - 1;
+        this.fingerprints = new long[capacity];
+        this.keys = new long[capacity];
+        this.times = new long[capacity];
+        this.heads = new long[bands][bucketMask + 1];
+        this.next = new long[bands][capacity];
+        for (long[] bandHeads : heads) {
+            Arrays.fill(bandHeads, -1);
+        }
+    }
+
+    /**
+     * @param fingerprint the fingerprint to look up
+     * @param key identifies the post, e.g. a hash of platform and sourceId; entries with the same key never match,
+     *            so a post that is offered again is not its own near-duplicate
+     * @param notBefore entries added before this time, in milliseconds, are ignored
+     * @return true if an entry within the distance was added at or after notBefore
+     */
+    public boolean containsNear(long fingerprint, long key, long notBefore) {
+        long oldest = nextSeq - capacity;
+        for (int band = 0; band < bands; band++) {
+            long bandValue = band(fingerprint, band);
+            long seq = heads[band][bucket(bandValue)];
+            for (int probes = 0; seq >= 0 && seq >= oldest && probes < MAX_PROBES; probes++) {
+                int slot = (int) (seq % capacity);
+                if (times[slot] < notBefore) {
+                    break;
+                }
+                if (keys[slot] != key && band(fingerprints[slot], band) == bandValue
+                        && SimHash.distance(fingerprints[slot], fingerprint) <= maxDistance) {
+                    return true;
+                }
+                seq = next[band][slot];
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a fingerprint, forgetting the oldest one if the index is full.
+     * @param fingerprint the fingerprint
+     * @param key identifies the post
+     * @param time when the post was seen, in milliseconds; should not decrease between calls
+     */
+    public void add(long fingerprint, long key, long time) {
+        long seq = nextSeq++;
+        int slot = (int) (seq % capacity);
+        fingerprints[slot] = fingerprint;
+        keys[slot] = key;
+        times[slot] = time;
+        for (int band = 0; band < bands; band++) {
+            int bucket = bucket(band(fingerprint, band));
+            next[band][slot] = heads[band][bucket];
+            heads[band][bucket] = seq;
+        }
+    }
+
+    /**
+     * @return number of fingerprints held, at most the capacity
+     */
+    public int size() {
+        return (int) Math.min(nextSeq, capacity);
+    }
+
+    private long band(long fingerprint, int band) {
+        return (fingerprint >>> (band * bandBits)) & bandMask;
+    }
+
+    private int bucket(long bandValue) {
+        return (int) (bandValue & bucketMask);
+    }
+}
@@ -0,0 +1,103 @@
+package util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer thread.
+ * <p>
+ * Slots form a power-of-two ring addressed by two ever-increasing indexes: the producer only advances the tail
+ * and the consumer only advances the head, so neither side ever waits for the other or retries a CAS. Indexes
+ * are published with ordered (release) writes after the slot itself, which is all the ordering one producer
+ * and one consumer need. {@link #offer} fails instead of blocking when the ring is full, leaving the producer
+ * to decide how to apply backpressure.
+ * </p>
+ *
+ * @param <E> the element type
+ */
+public final class SpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity maximum number of buffered elements; rounded up to a power of two
+     */
+    public SpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int rounded = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(rounded);
+        this.mask = rounded - 1;
+    }
+
+    /**
+     * Adds an element. Must only be called from the producer thread.
+     *
+     * @param element the element, not null
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            return false;
+        }
+        slots.lazySet((int) t & mask, element);
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest element. Must only be called from the consumer thread.
+     *
+     * @return the oldest element, or null if the buffer is empty
+     */
+    public E poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return null;
+        }
+        int slot = (int) h & mask;
+        E element = slots.get(slot);
+        slots.lazySet(slot, null);
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * Moves up to {@code max} of the oldest elements into the target. Must only be called from the consumer thread.
+     *
+     * @param target receives the elements in order
+     * @param max    maximum number of elements to move
+     * @return number of elements moved
+     */
+    public int drainTo(Collection<? super E> target, int max) {
+        long h = head.get();
+        int count = (int) Math.min(max, tail.get() - h);
+        for (int i = 0; i < count; i++) {
+            int slot = (int) (h + i) & mask;
+            target.add(slots.get(slot));
+            slots.lazySet(slot, null);
+        }
+        head.lazySet(h + count);
+        return count;
+    }
+
+    /**
+     * @return the number of buffered elements; exact only when read from the producer or consumer thread
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * @return the maximum number of buffered elements
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
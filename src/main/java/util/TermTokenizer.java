@@ -0,0 +1,100 @@
+package util;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Splits post text into normalized terms for trend counting.
+ * <p>
+ * Terms are lower-cased runs of letters and digits. A leading {@code #} or {@code @} is kept, so hashtags and
+ * mentions are counted separately from plain words. URLs, pure numbers, single characters and common
+ * English stop words are skipped. The text is scanned once, and only emitted terms allocate.
+ * </p>
+ */
+public final class TermTokenizer {
+
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 64;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "can", "did", "do", "does", "for",
+            "from", "had", "has", "have", "he", "her", "his", "how", "i", "if", "in", "into", "is", "it", "its",
+            "just", "me", "my", "no", "not", "of", "on", "or", "our", "out", "rt", "so", "she", "that", "the",
+            "their", "them", "then", "there", "they", "this", "to", "too", "up", "us", "was", "we", "were",
+            "what", "when", "which", "who", "why", "will", "with", "you", "your", "amp", "im", "dont", "via");
+
+    private TermTokenizer() {
+    }
+
+    /**
+     * Emits each term of the text, in order, to the consumer.
+     *
+     * @param text     the text to tokenize, may be null
+     * @param consumer receives each term
+     */
+    public static void forEachTerm(CharSequence text, Consumer<String> consumer) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isUrlStart(text, i)) {
+                while (i < length && !Character.isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                continue;
+            }
+            boolean prefixed = (c == '#' || c == '@') && i + 1 < length && Character.isLetterOrDigit(text.charAt(i + 1));
+            if (!prefixed && !Character.isLetterOrDigit(c)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            i++;
+            boolean hasLetter = Character.isLetter(c);
+            while (i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_'
+                    || (text.charAt(i) == '\'' && i + 1 < length && Character.isLetter(text.charAt(i + 1))))) {
+                hasLetter |= Character.isLetter(text.charAt(i));
+                i++;
+            }
+            emit(text, start, i, prefixed, hasLetter, consumer);
+        }
+    }
+
+    private static void emit(CharSequence text, int start, int end, boolean prefixed, boolean hasLetter,
+                             Consumer<String> consumer) {
+        int length = end - start;
+        if (length < MIN_LENGTH || length > MAX_LENGTH || (!hasLetter && !prefixed)) {
+            return;
+        }
+        StringBuilder term = new StringBuilder(length);
+        for (int j = start; j < end; j++) {
+            char c = text.charAt(j);
+            if (c != '\'') {
+                term.append(Character.toLowerCase(c));
+            }
+        }
+        String value = term.toString();
+        if (prefixed || !STOP_WORDS.contains(value)) {
+            consumer.accept(value);
+        }
+    }
+
+    private static boolean isUrlStart(CharSequence text, int i) {
+        return regionMatches(text, i, "http://") || regionMatches(text, i, "https://") || regionMatches(text, i, "www.");
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String prefix) {
+        if (offset + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int j = 0; j < prefix.length(); j++) {
+            if (Character.toLowerCase(text.charAt(offset + j)) != prefix.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
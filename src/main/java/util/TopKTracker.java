@@ -0,0 +1,103 @@
+package util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Bounded set of heavy-hitter candidates, fed with (key, estimated count) pairs from a {@link CountMinSketch}.
+ * <p>
+ * Keys are spread over independently locked stripes by hash, so writers for different keys rarely contend.
+ * Each stripe keeps at most {@code perStripe} keys and, when full, replaces its smallest entry only if the
+ * offered estimate is larger. Memory is bounded by {@code stripes * perStripe} entries.
+ * </p>
+ */
+public class TopKTracker {
+
+    private final Stripe[] stripes;
+
+    /**
+     * @param stripes   number of independently locked stripes; rounded up to a power of two
+     * @param perStripe candidates kept per stripe
+     */
+    public TopKTracker(int stripes, int perStripe) {
+        int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Offers a key with its current estimated count.
+     *
+     * @param key      the key
+     * @param estimate the key's estimated count
+     */
+    public void offer(String key, long estimate) {
+        int spread = key.hashCode() * 0x9E3779B9;
+        stripes[(spread >>> 16) & (stripes.length - 1)].offer(key, estimate);
+    }
+
+    /**
+     * Visits every candidate with the last estimate offered for it.
+     *
+     * @param visitor receives each candidate key and estimate
+     */
+    public void forEach(BiConsumer<String, Long> visitor) {
+        for (Stripe stripe : stripes) {
+            stripe.forEach(visitor);
+        }
+    }
+
+    private static final class Stripe {
+        private final int capacity;
+        private final Map<String, Long> entries;
+        private String minKey;
+        private long minValue = Long.MAX_VALUE;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.entries = new HashMap<>(capacity * 2);
+        }
+
+        synchronized void offer(String key, long estimate) {
+            Long previous = entries.get(key);
+            if (previous != null) {
+                entries.put(key, estimate);
+                if (key.equals(minKey)) {
+                    recomputeMin();
+                }
+                return;
+            }
+            if (entries.size() < capacity) {
+                entries.put(key, estimate);
+                if (estimate < minValue) {
+                    minKey = key;
+                    minValue = estimate;
+                }
+                return;
+            }
+            if (estimate > minValue) {
+                entries.remove(minKey);
+                entries.put(key, estimate);
+                recomputeMin();
+            }
+        }
+
+        synchronized void forEach(BiConsumer<String, Long> visitor) {
+            entries.forEach(visitor);
+        }
+
+        private void recomputeMin() {
+            minKey = null;
+            minValue = Long.MAX_VALUE;
+            for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                if (entry.getValue() < minValue) {
+                    minKey = entry.getKey();
+                    minValue = entry.getValue();
+                }
+            }
+        }
+    }
+}
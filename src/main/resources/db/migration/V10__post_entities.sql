@@ -0,0 +1,52 @@
+-- Hashtags, mentions and linked domains of each post, one row per post and distinct value, so lookups and
+-- counts by value no longer scan social_post.content.
+--
+-- The primary key (value, post_timestamp, post_id) serves lookups and counts for one value, newest first, as
+-- index-only scans; the (post_timestamp) INCLUDE (value) index serves top values over a time window the same way,
+-- and removes the rows of a dropped partition. The tables are not partitioned: dropping a social_post partition
+-- deletes their rows in its range.
+--
+-- Existing posts are backfilled from their text; tweets stored from now on use the entities reported by the API,
+-- including expanded links instead of t.co.
+
+CREATE TABLE post_hashtag (
+    tag            VARCHAR(140) NOT NULL,
+    post_timestamp TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    post_id        BIGINT NOT NULL,
+    PRIMARY KEY (tag, post_timestamp, post_id)
+);
+
+CREATE TABLE post_mention (
+    username       VARCHAR(64) NOT NULL,
+    post_timestamp TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    post_id        BIGINT NOT NULL,
+    PRIMARY KEY (username, post_timestamp, post_id)
+);
+
+CREATE TABLE post_url (
+    domain         VARCHAR(255) NOT NULL,
+    post_timestamp TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    post_id        BIGINT NOT NULL,
+    url            TEXT NOT NULL,
+    PRIMARY KEY (domain, post_timestamp, post_id)
+);
+
+INSERT INTO post_hashtag (tag, post_timestamp, post_id)
+SELECT DISTINCT lower(m[1]), p.post_timestamp, p.id
+FROM social_post p, regexp_matches(p.content, '(?:^|[^\w&])#(\w*[^\W\d]\w*)', 'g') m
+WHERE length(m[1]) <= 140;
+
+INSERT INTO post_mention (username, post_timestamp, post_id)
+SELECT DISTINCT lower(m[1]), p.post_timestamp, p.id
+FROM social_post p, regexp_matches(p.content, '(?:^|\W)@([A-Za-z0-9_]{1,15})(?![\w@])', 'g') m;
+
+INSERT INTO post_url (domain, post_timestamp, post_id, url)
+SELECT regexp_replace(lower(m[2]), '^www\.', ''), p.post_timestamp, p.id,
+       regexp_replace(m[1], '[.,;:!?)\]}"'']+$', '')
+FROM social_post p, regexp_matches(p.content, '(?:^|\W)(https?://([^/\s?#:]+)\S*)', 'gi') m
+WHERE length(m[2]) <= 255
+ON CONFLICT DO NOTHING;
+
+CREATE INDEX idx_post_hashtag_timestamp ON post_hashtag (post_timestamp) INCLUDE (tag);
+CREATE INDEX idx_post_mention_timestamp ON post_mention (post_timestamp) INCLUDE (username);
+CREATE INDEX idx_post_url_timestamp ON post_url (post_timestamp) INCLUDE (domain);
@@ -0,0 +1,25 @@
+-- Enforces one row per (platform, source_id) across all partitions of social_post.
+--
+-- Since V7 the only unique constraint on social_post is (platform, source_id, post_timestamp), as a partitioned
+-- table's unique keys must include the partition key. The NOT EXISTS guard the bulk insert used on top of it was
+-- a separate read, so concurrent writers could both pass it, and the COPY path had none; V7's note that the bulk
+-- insert skips rows stored in any partition did not hold. It also probed every partition for each row.
+--
+-- social_post_key is not partitioned and its primary key decides: both insert paths add a post's key in the same
+-- statement as the post, with ON CONFLICT DO NOTHING, and only posts whose key was added are inserted. A second
+-- writer of the same key waits for the first one's transaction and then skips the post. post_timestamp lets
+-- retention remove the keys of dropped posts by range.
+
+CREATE TABLE social_post_key (
+    platform       VARCHAR(255) NOT NULL,
+    source_id      VARCHAR(255) NOT NULL,
+    post_timestamp TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (platform, source_id)
+);
+
+INSERT INTO social_post_key (platform, source_id, post_timestamp)
+SELECT DISTINCT ON (platform, source_id) platform, source_id, post_timestamp
+FROM social_post
+ORDER BY platform, source_id, post_timestamp;
+
+CREATE INDEX idx_social_post_key_timestamp ON social_post_key (post_timestamp);
@@ -0,0 +1,22 @@
+-- Baseline schema for SocialPost.
+-- Ids come from a sequence incremented by 50 to match the entity's allocationSize, so Hibernate can
+-- batch inserts and the bulk insert path can draw ids with nextval() inside one statement.
+
+CREATE SEQUENCE IF NOT EXISTS social_post_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS social_post (
+    id              BIGINT PRIMARY KEY,
+    platform        VARCHAR(255) NOT NULL,
+    source_id       VARCHAR(255) NOT NULL,
+    author          VARCHAR(255) NOT NULL,
+    content         TEXT NOT NULL,
+    post_timestamp  TIMESTAMP(6) WITH TIME ZONE,
+    url             VARCHAR(255),
+    sentiment_score DOUBLE PRECISION,
+    sentiment_label VARCHAR(255) CHECK (sentiment_label IN ('POSITIVE', 'NEUTRAL', 'NEGATIVE')),
+    created_at      TIMESTAMP(6) WITH TIME ZONE,
+    updated_at      TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_social_post_platform_source_id UNIQUE (platform, source_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_platform ON social_post (platform);
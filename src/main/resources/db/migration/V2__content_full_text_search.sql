@@ -0,0 +1,12 @@
+-- Full-text search over social_post.content.
+-- content_tsv is a stored generated column, so PostgreSQL keeps it in sync on every insert/update
+-- without application involvement. The 'simple' configuration lower-cases tokens without stemming or
+-- stop-word removal, which suits short social posts, hashtags and handles.
+
+ALTER TABLE social_post
+    ADD COLUMN IF NOT EXISTS content_tsv tsvector GENERATED ALWAYS AS (to_tsvector('simple', content)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_social_post_content_tsv ON social_post USING GIN (content_tsv);
+
+-- Supports keyset pagination of search results and listings ordered by recency.
+CREATE INDEX IF NOT EXISTS idx_social_post_timestamp_id ON social_post (post_timestamp DESC, id DESC);
@@ -0,0 +1,5 @@
+-- Partial index over posts that still need a sentiment score.
+-- The sentiment backfill walks it in id order; rows drop out of the index as soon as they are scored,
+-- so the index stays small once the backlog is cleared.
+
+CREATE INDEX IF NOT EXISTS idx_social_post_unscored ON social_post (id) WHERE sentiment_score IS NULL;
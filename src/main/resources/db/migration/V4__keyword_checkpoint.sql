@@ -0,0 +1,11 @@
+-- Newest post id seen per platform and keyword, so repeated fetches only request newer posts (since_id).
+-- Keywords are stored trimmed and lower-cased. since_id only moves forward; it is written in the same
+-- transaction as the posts it covers.
+
+CREATE TABLE IF NOT EXISTS keyword_checkpoint (
+    platform   VARCHAR(255) NOT NULL,
+    keyword    VARCHAR(512) NOT NULL,
+    since_id   BIGINT NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_keyword_checkpoint PRIMARY KEY (platform, keyword)
+);
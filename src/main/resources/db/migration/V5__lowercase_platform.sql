@@ -0,0 +1,20 @@
+-- Platform names are stored lower case ("twitter"), as the sources report them. Earlier fetches stored
+-- "TWITTER"; those rows are renamed, and where the lower-case row already exists the upper-case duplicate
+-- is dropped. Checkpoints of both spellings are merged, keeping the newest since_id.
+
+DELETE FROM social_post p
+WHERE p.platform <> lower(p.platform)
+  AND EXISTS (SELECT 1 FROM social_post q WHERE q.platform = lower(p.platform) AND q.source_id = p.source_id);
+
+UPDATE social_post SET platform = lower(platform) WHERE platform <> lower(platform);
+
+INSERT INTO keyword_checkpoint (platform, keyword, since_id, updated_at)
+SELECT lower(platform), keyword, max(since_id), max(updated_at)
+FROM keyword_checkpoint
+WHERE platform <> lower(platform)
+GROUP BY lower(platform), keyword
+ON CONFLICT (platform, keyword) DO UPDATE
+    SET since_id   = GREATEST(keyword_checkpoint.since_id, EXCLUDED.since_id),
+        updated_at = GREATEST(keyword_checkpoint.updated_at, EXCLUDED.updated_at);
+
+DELETE FROM keyword_checkpoint WHERE platform <> lower(platform);
@@ -0,0 +1,37 @@
+-- Post counts per time bucket, keyword, platform and sentiment label, kept at ingest so volume queries never
+-- scan social_post. New counts land in both post_count_minute and post_count_hour. Old minutes are dropped,
+-- and old hours are compacted into post_count_day, so post_count_hour and post_count_day together hold every
+-- count exactly once. Bucket starts are UTC-aligned. keyword is the trimmed, lower-cased search keyword, or '' for posts that did not come from a
+-- keyword search; sentiment_label is 'NONE' for posts stored without a score.
+
+CREATE TABLE IF NOT EXISTS post_count_minute (
+    keyword         VARCHAR(512) NOT NULL,
+    bucket_start    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    platform        VARCHAR(255) NOT NULL,
+    sentiment_label VARCHAR(16) NOT NULL,
+    post_count      BIGINT NOT NULL,
+    CONSTRAINT pk_post_count_minute PRIMARY KEY (keyword, bucket_start, platform, sentiment_label)
+);
+
+CREATE TABLE IF NOT EXISTS post_count_hour (
+    keyword         VARCHAR(512) NOT NULL,
+    bucket_start    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    platform        VARCHAR(255) NOT NULL,
+    sentiment_label VARCHAR(16) NOT NULL,
+    post_count      BIGINT NOT NULL,
+    CONSTRAINT pk_post_count_hour PRIMARY KEY (keyword, bucket_start, platform, sentiment_label)
+);
+
+CREATE TABLE IF NOT EXISTS post_count_day (
+    keyword         VARCHAR(512) NOT NULL,
+    bucket_start    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    platform        VARCHAR(255) NOT NULL,
+    sentiment_label VARCHAR(16) NOT NULL,
+    post_count      BIGINT NOT NULL,
+    CONSTRAINT pk_post_count_day PRIMARY KEY (keyword, bucket_start, platform, sentiment_label)
+);
+
+-- Volume queries across all keywords, and compaction, select by time alone.
+CREATE INDEX IF NOT EXISTS idx_post_count_minute_bucket ON post_count_minute (bucket_start);
+CREATE INDEX IF NOT EXISTS idx_post_count_hour_bucket ON post_count_hour (bucket_start);
+CREATE INDEX IF NOT EXISTS idx_post_count_day_bucket ON post_count_day (bucket_start);
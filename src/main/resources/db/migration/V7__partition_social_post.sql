@@ -0,0 +1,65 @@
+-- Range-partitions social_post by post_timestamp, so queries on recent posts only touch recent partitions and
+-- retention drops whole partitions instead of deleting rows.
+--
+-- A unique constraint on a partitioned table must include the partition key, so uniqueness is now declared on
+-- (platform, source_id, post_timestamp). A post's platform timestamp never changes, which makes that the same
+-- key as (platform, source_id); the bulk insert additionally skips rows whose (platform, source_id) is stored in
+-- any partition. post_timestamp becomes NOT NULL; rows without one take their created_at.
+--
+-- Existing rows are copied into UTC week partitions covering them, and four weeks ahead are created. The
+-- application creates later partitions ahead of time (partitions.*). social_post_default catches rows outside
+-- every partition, such as posts older than the retention period.
+
+CREATE TABLE social_post_partitioned (
+    id              BIGINT NOT NULL,
+    platform        VARCHAR(255) NOT NULL,
+    source_id       VARCHAR(255) NOT NULL,
+    author          VARCHAR(255) NOT NULL,
+    content         TEXT NOT NULL,
+    post_timestamp  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    url             VARCHAR(255),
+    sentiment_score DOUBLE PRECISION,
+    sentiment_label VARCHAR(255) CONSTRAINT social_post_sentiment_label_check
+                        CHECK (sentiment_label IN ('POSITIVE', 'NEUTRAL', 'NEGATIVE')),
+    created_at      TIMESTAMP(6) WITH TIME ZONE,
+    updated_at      TIMESTAMP(6) WITH TIME ZONE,
+    content_tsv     tsvector GENERATED ALWAYS AS (to_tsvector('simple', content)) STORED
+) PARTITION BY RANGE (post_timestamp);
+
+CREATE TABLE social_post_default PARTITION OF social_post_partitioned DEFAULT;
+
+DO $$
+DECLARE
+    week_start TIMESTAMP;
+    last_week  TIMESTAMP := date_trunc('week', now() AT TIME ZONE 'UTC') + INTERVAL '4 weeks';
+BEGIN
+    SELECT date_trunc('week', min(coalesce(post_timestamp, created_at, now())) AT TIME ZONE 'UTC')
+    INTO week_start
+    FROM social_post;
+    week_start := least(coalesce(week_start, last_week), date_trunc('week', now() AT TIME ZONE 'UTC'));
+    WHILE week_start <= last_week LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF social_post_partitioned FOR VALUES FROM (%L) TO (%L)',
+                       'social_post_p' || to_char(week_start, 'YYYYMMDD'),
+                       (week_start AT TIME ZONE 'UTC'),
+                       ((week_start + INTERVAL '1 week') AT TIME ZONE 'UTC'));
+        week_start := week_start + INTERVAL '1 week';
+    END LOOP;
+END
+$$;
+
+INSERT INTO social_post_partitioned (id, platform, source_id, author, content, post_timestamp, url,
+                                     sentiment_score, sentiment_label, created_at, updated_at)
+SELECT id, platform, source_id, author, content, coalesce(post_timestamp, created_at, now()), url,
+       sentiment_score, sentiment_label, created_at, updated_at
+FROM social_post;
+
+DROP TABLE social_post;
+ALTER TABLE social_post_partitioned RENAME TO social_post;
+
+ALTER TABLE social_post ADD CONSTRAINT social_post_pkey PRIMARY KEY (id, post_timestamp);
+ALTER TABLE social_post
+    ADD CONSTRAINT uk_social_post_platform_source_id UNIQUE (platform, source_id, post_timestamp);
+CREATE INDEX idx_platform ON social_post (platform);
+CREATE INDEX idx_social_post_content_tsv ON social_post USING GIN (content_tsv);
+CREATE INDEX idx_social_post_timestamp_id ON social_post (post_timestamp DESC, id DESC);
+CREATE INDEX idx_social_post_unscored ON social_post (id) WHERE sentiment_score IS NULL;
@@ -0,0 +1,12 @@
+-- Progress of bulk imports, so an interrupted import resumes after the last chunk it loaded. byte_offset always
+-- points at the start of a line; everything before it has been stored.
+
+CREATE TABLE IF NOT EXISTS import_checkpoint (
+    source         VARCHAR(1024) NOT NULL,
+    file_size      BIGINT NOT NULL,
+    byte_offset    BIGINT NOT NULL,
+    posts_read     BIGINT NOT NULL,
+    posts_inserted BIGINT NOT NULL,
+    updated_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_import_checkpoint PRIMARY KEY (source)
+);
@@ -0,0 +1,10 @@
+-- Segment files of the post archive, recorded in the transaction that drops the rows they hold. Files in the
+-- archive directory without a row here were left by an archive run that did not commit.
+
+CREATE TABLE IF NOT EXISTS archive_segment (
+    file_name      VARCHAR(255) NOT NULL,
+    partition_name VARCHAR(255) NOT NULL,
+    posts          BIGINT NOT NULL,
+    created_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_archive_segment PRIMARY KEY (file_name)
+);
@@ -0,0 +1,136 @@
+package client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the filtered-stream endpoint, emitting synthetic NDJSON tweets at a configurable rate.
+ * <p>
+ * Each connection gets tweets with ever-increasing ids, in ticks of {@value #TICK_MILLIS} ms, with a blank
+ * keep-alive line between ticks. A connection can be ended after a fixed number of tweets, and the first
+ * connections can be refused with an HTTP status, to exercise reconnects.
+ * </p>
+ */
+class StubTweetStreamServer implements AutoCloseable {
+
+    static final String PATH = "/tweets/search/stream";
+
+    private static final int TICK_MILLIS = 10;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final int postsPerSecond;
+    private final AtomicLong nextId = new AtomicLong(1_000_000);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile long postsPerConnection = Long.MAX_VALUE;
+    private volatile int refuseFirst;
+    private volatile int refuseStatus;
+
+    /**
+     * @param postsPerSecond tweets emitted per second on each connection
+     */
+    StubTweetStreamServer(int postsPerSecond) throws IOException {
+        this.postsPerSecond = postsPerSecond;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Ends every connection after the given number of tweets.
+     */
+    StubTweetStreamServer endEachConnectionAfter(long posts) {
+        this.postsPerConnection = posts;
+        return this;
+    }
+
+    /**
+     * Answers the first connection attempts with an error status instead of a stream.
+     */
+    StubTweetStreamServer refuseFirstConnections(int count, int status) {
+        this.refuseFirst = count;
+        this.refuseStatus = status;
+        return this;
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return connection attempts so far, refused ones included
+     */
+    int connections() {
+        return connections.get();
+    }
+
+    /**
+     * @return tweets written to connections so far
+     */
+    long sent() {
+        return sent.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int connection = connections.incrementAndGet();
+        if (connection <= refuseFirst) {
+            byte[] body = "{\"title\":\"Service Unavailable\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(refuseStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        double perTick = postsPerSecond * TICK_MILLIS / 1000.0;
+        double owed = 0;
+        long written = 0;
+        try (OutputStream out = exchange.getResponseBody()) {
+            while (written < postsPerConnection) {
+                owed += perTick;
+                StringBuilder chunk = new StringBuilder();
+                int tweets = 0;
+                while (owed >= 1 && written + tweets < postsPerConnection) {
+                    chunk.append(tweet(nextId.getAndIncrement())).append("\r\n");
+                    owed--;
+                    tweets++;
+                }
+                chunk.append("\r\n");
+                out.write(chunk.toString().getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                written += tweets;
+                sent.addAndGet(tweets);
+                TimeUnit.MILLISECONDS.sleep(TICK_MILLIS);
+            }
+        } catch (IOException | InterruptedException ex) {
+            // Client went away, or the server is shutting down.
+        }
+    }
+
+    private static String tweet(long id) {
+        return "{\"data\":{\"id\":\"" + id + "\",\"author_id\":\"42\",\"text\":\"streamed post " + id
+                + " #stub\",\"created_at\":\"" + Instant.now() + "\",\"edit_history_tweet_ids\":[\"" + id + "\"]},"
+                + "\"includes\":{\"users\":[{\"id\":\"42\",\"name\":\"Stub\",\"username\":\"stub\"}]},"
+                + "\"matching_rules\":[{\"id\":\"1\",\"tag\":\"stub\"}]}";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,139 @@
+package client;
+
+import model.SocialPost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the page and post budgets, end detection, prefetching and cancellation of {@link TweetPageIterator}
+ * against a {@link TweetPageIterator.PageFetcher} that serves numbered pages.
+ */
+class TweetPageIteratorTests {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void trimsTheLastPageToThePostBudget() {
+        TweetPageIterator pages = new TweetPageIterator(pagesOf(10, 5), executor, 10, 10, 25);
+
+        List<Integer> sizes = new ArrayList<>();
+        while (pages.hasNext()) {
+            sizes.add(pages.next().size());
+        }
+
+        // The last request asks for the remaining 5 posts, rounded up to the API's minimum of 10.
+        assertThat(requests).containsExactly("null/10", "t1/10", "t2/10");
+        assertThat(sizes).containsExactly(10, 10, 5);
+        assertThat(pages.getPagesRequested()).isEqualTo(3);
+        assertThat(pages.isReachedEnd()).isFalse();
+    }
+
+    @Test
+    void stopsAtThePageBudgetWithoutReachingTheEnd() {
+        TweetPageIterator pages = new TweetPageIterator(pagesOf(10, 5), executor, 10, 2, 1000);
+
+        pages.next();
+        pages.next();
+
+        assertThat(pages.hasNext()).isFalse();
+        assertThat(pages.getPagesRequested()).isEqualTo(2);
+        assertThat(pages.isReachedEnd()).isFalse();
+    }
+
+    @Test
+    void reachesTheEndOnThePageWithoutNextToken() {
+        TweetPageIterator pages = new TweetPageIterator(pagesOf(10, 2), executor, 10, 10, 1000);
+
+        pages.next();
+        assertThat(pages.isReachedEnd()).isFalse();
+        pages.next();
+
+        assertThat(pages.hasNext()).isFalse();
+        assertThat(pages.isReachedEnd()).isTrue();
+    }
+
+    @Test
+    void takesTheNewestIdFromTheFirstPage() {
+        TweetPageIterator pages = new TweetPageIterator(pagesOf(10, 3), executor, 10, 10, 1000);
+
+        assertThat(pages.getNewestId()).isNull();
+        pages.next();
+        pages.next();
+
+        assertThat(pages.getNewestId()).isEqualTo(1001L);
+    }
+
+    @Test
+    void requestsNothingAheadWithoutPrefetch() {
+        TweetPageIterator pages = new TweetPageIterator(pagesOf(10, 5), null, 10, 10, 1000, false);
+
+        assertThat(requests).isEmpty();
+        assertThat(pages.hasNext()).isTrue();
+        pages.next();
+        assertThat(requests).containsExactly("null/10");
+        pages.close();
+
+        assertThat(pages.hasNext()).isFalse();
+        assertThat(requests).containsExactly("null/10");
+    }
+
+    @Test
+    void closeInterruptsTheInFlightPrefetch() throws InterruptedException {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        TweetPageIterator pages = new TweetPageIterator((nextToken, maxResults) -> {
+            if (nextToken == null) {
+                return page(1, 10, "t1");
+            }
+            fetching.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return page(2, 10, null);
+        }, executor, 10, 10, 1000);
+
+        pages.next();
+        assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+        pages.close();
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(pages.hasNext()).isFalse();
+    }
+
+    /**
+     * @return a fetcher serving the given number of full pages, each pointing to the next until the last
+     */
+    private TweetPageIterator.PageFetcher pagesOf(int size, int count) {
+        return (nextToken, maxResults) -> {
+            requests.add(nextToken + "/" + maxResults);
+            int number = nextToken == null ? 1 : Integer.parseInt(nextToken.substring(1)) + 1;
+            return page(number, Math.min(size, maxResults), number < count ? "t" + number : null);
+        };
+    }
+
+    private static TweetPage page(int number, int size, String nextToken) {
+        List<SocialPost> posts = IntStream.range(0, size)
+                .mapToObj(i -> SocialPost.builder().sourceId(number + "-" + i).build())
+                .toList();
+        return new TweetPage(posts, nextToken, 1000L + number);
+    }
+}
@@ -0,0 +1,140 @@
+package client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.PostEntities;
+import model.SocialPost;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import util.EntityExtractor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks {@link TweetResponseParser} against a Jackson tree mapping of the recorded search responses the
+ * parsing benchmark uses, and on the edge cases of the response shape.
+ */
+class TweetResponseParserTests {
+
+    private static final Path FIXTURES = Path.of("src/jmh/resources/fixtures");
+
+    private final TweetResponseParser parser = new TweetResponseParser(new JsonFactory());
+
+    @ParameterizedTest
+    @ValueSource(strings = {"search-recent-10.json", "search-recent-100.json"})
+    void mapsRecordedResponsesLikeTheTreeMapping(String fixture) throws IOException {
+        byte[] body = Files.readAllBytes(FIXTURES.resolve(fixture));
+        JsonNode tree = new ObjectMapper().readTree(body);
+        Map<String, String> usernames = new HashMap<>();
+        tree.path("includes").path("users").forEach(user -> usernames.put(user.path("id").asText(),
+                user.path("username").asText()));
+
+        TweetPage page;
+        try (InputStream in = Files.newInputStream(FIXTURES.resolve(fixture))) {
+            page = parser.parse(in);
+        }
+
+        JsonNode data = tree.path("data");
+        assertThat(page.getPosts()).hasSize(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            JsonNode tweet = data.get(i);
+            SocialPost post = page.getPosts().get(i);
+            String username = usernames.get(tweet.path("author_id").asText());
+            assertThat(post.getPlatform()).isEqualTo("twitter");
+            assertThat(post.getSourceId()).isEqualTo(tweet.path("id").asText());
+            assertThat(post.getContent()).isEqualTo(tweet.path("text").asText());
+            assertThat(post.getPostTimestamp()).isEqualTo(Instant.parse(tweet.path("created_at").asText()));
+            assertThat(post.getAuthor()).isEqualTo(username);
+            assertThat(post.getUrl()).isEqualTo("https://twitter.com/" + username + "/status/" + post.getSourceId());
+            assertThat(post.getEntities().getHashtags()).containsExactlyElementsOf(tweet.path("entities")
+                    .path("hashtags").findValuesAsText("tag").stream().map(EntityExtractor::hashtag).toList());
+            assertThat(post.getEntities().getUrls()).containsExactlyElementsOf(tweet.path("entities")
+                    .path("urls").findValuesAsText("expanded_url"));
+        }
+        JsonNode meta = tree.path("meta");
+        assertThat(page.getNextToken()).isEqualTo(meta.has("next_token") ? meta.path("next_token").asText() : null);
+        assertThat(page.getNewestId()).isEqualTo(meta.path("newest_id").asLong());
+    }
+
+    @Test
+    void fallsBackToTheHighestIdWithoutMeta() throws IOException {
+        TweetPage page = parse("""
+                {"data": [%s, %s]}""".formatted(tweet("17", "a"), tweet("42", "b")));
+
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.getNextToken()).isNull();
+        assertThat(page.getNewestId()).isEqualTo(42L);
+    }
+
+    @Test
+    void skipsUnknownNestedFieldsAndReadsEntities() throws IOException {
+        TweetPage page = parse("""
+                {"meta": {"result_count": 1, "extra": {"nested": [1, {"deep": true}]}, "newest_id": "7"},
+                 "data": [{"id": "7", "unknown": {"a": [{"b": {"id": "wrong"}}]}, "author_id": "9",
+                           "created_at": "2026-01-05T10:00:00.000Z", "text": "hi #Java @Someone",
+                           "entities": {"hashtags": [{"start": 3, "end": 8, "tag": "Java"}],
+                                        "mentions": [{"start": 9, "end": 17, "username": "Someone", "id": "3"}],
+                                        "annotations": [{"start": 0, "end": 1, "probability": 0.5}],
+                                        "urls": [{"url": "https://t.co/x"}]}}],
+                 "includes": {"tweets": [{"id": "8"}], "users": [{"id": "9", "username": "author", "name": "A"}]}}""");
+
+        assertThat(page.getPosts()).hasSize(1);
+        SocialPost post = page.getPosts().get(0);
+        assertThat(post.getSourceId()).isEqualTo("7");
+        assertThat(post.getAuthor()).isEqualTo("author");
+        assertThat(post.getContent()).isEqualTo("hi #Java @Someone");
+        assertThat(post.getEntities()).isEqualTo(
+                new PostEntities(List.of("java"), List.of("someone"), List.of("https://t.co/x")));
+        assertThat(page.getNewestId()).isEqualTo(7L);
+    }
+
+    @Test
+    void leavesEntitiesUnsetWhenNotRequested() throws IOException {
+        TweetPage page = parse("""
+                {"data": {"id": "5", "created_at": "2026-01-05T10:00:00Z", "text": "streamed"}}""");
+
+        assertThat(page.getPosts()).singleElement().satisfies(post -> assertThat(post.getEntities()).isNull());
+    }
+
+    @Test
+    void rejectsATweetWithoutId() {
+        assertThatThrownBy(() -> parse("""
+                {"data": [{"created_at": "2026-01-05T10:00:00Z", "text": "no id"}]}"""))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("without id");
+    }
+
+    @Test
+    void rejectsATweetWithoutCreatedAt() {
+        assertThatThrownBy(() -> parse("""
+                {"data": [{"id": "5", "text": "no timestamp"}]}"""))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("without created_at");
+        assertThatThrownBy(() -> parse("""
+                {"data": [{"id": "5", "created_at": "yesterday", "text": "bad timestamp"}]}"""))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("invalid created_at");
+    }
+
+    private TweetPage parse(String json) throws IOException {
+        return parser.parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String tweet(String id, String text) {
+        return """
+                {"id": "%s", "created_at": "2026-01-05T10:00:00.000Z", "text": "%s"}""".formatted(id, text);
+    }
+}
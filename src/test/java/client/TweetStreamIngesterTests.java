@@ -0,0 +1,148 @@
+package client;
+
+import config.StreamConfig;
+import config.TwitterConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link TweetStreamIngester} against {@link StubTweetStreamServer} on a local port.
+ */
+class TweetStreamIngesterTests {
+
+    private StubTweetStreamServer server;
+    private TweetStreamIngester ingester;
+    private TweetStreamClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (ingester != null) {
+            ingester.stop(5000);
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void writesStreamedPostsInBatches() throws Exception {
+        server = new StubTweetStreamServer(5000);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        start(1024, 100, 30000, 50, posts -> {
+            batchSizes.add(posts.size());
+            posts.forEach(post -> ids.add(post.getSourceId()));
+            return posts.size();
+        });
+
+        await(() -> ids.size() >= 2000);
+
+        assertThat(batchSizes).allMatch(size -> size <= 100);
+        assertThat(ids).contains("1000000", "1000999", "1001999");
+        StreamStatus status = ingester.status();
+        assertThat(status.getReceived()).isGreaterThanOrEqualTo(2000);
+        assertThat(status.getReconnects()).isZero();
+    }
+
+    @Test
+    void reconnectsWithoutLosingPostsWhenTheServerEndsTheStream() throws Exception {
+        server = new StubTweetStreamServer(2000).endEachConnectionAfter(100);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        start(1024, 50, 30000, 10, posts -> {
+            posts.forEach(post -> ids.add(post.getSourceId()));
+            return posts.size();
+        });
+
+        await(() -> ids.size() >= 400);
+
+        assertThat(ingester.status().getReconnects()).isGreaterThanOrEqualTo(3);
+        for (long id = 1_000_000; id < 1_000_400; id++) {
+            assertThat(ids).contains(Long.toString(id));
+        }
+    }
+
+    @Test
+    void backsOffExponentiallyOnHttpErrors() throws Exception {
+        server = new StubTweetStreamServer(1000).refuseFirstConnections(3, 503);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        long started = System.nanoTime();
+        start(1024, 50, 30000, 10, posts -> {
+            posts.forEach(post -> ids.add(post.getSourceId()));
+            return posts.size();
+        });
+
+        await(() -> !ids.isEmpty());
+
+        // Three refusals with an http-retry of 100 ms: 100 + 200 + 400 ms before the fourth attempt.
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(700);
+        assertThat(server.connections()).isEqualTo(4);
+    }
+
+    @Test
+    void appliesBackpressureWhenTheWriterFallsBehind() throws Exception {
+        server = new StubTweetStreamServer(20000);
+        CountDownLatch databaseBack = new CountDownLatch(1);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        start(64, 16, 300, 10, posts -> {
+            try {
+                databaseBack.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            posts.forEach(post -> ids.add(post.getSourceId()));
+            return posts.size();
+        });
+
+        // The writer is stuck on its first batch; the reader fills the buffer, then stops reading.
+        await(() -> ingester.status().getBuffered() == 64);
+        long receivedWhileFull = ingester.status().getReceived();
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(ingester.status().getReceived()).isEqualTo(receivedWhileFull);
+        assertThat(receivedWhileFull).isLessThanOrEqualTo(64 + 16 + 1);
+
+        // Still full after the backpressure timeout: the connection is dropped rather than left to stall.
+        await(() -> ingester.status().getStalls() >= 1);
+        assertThat(ingester.status().isConnected()).isFalse();
+
+        databaseBack.countDown();
+        await(() -> ingester.status().getReconnects() >= 1 && ingester.status().getReceived() > receivedWhileFull + 1000);
+        ingester.stop(5000);
+
+        // Every post taken off the connection, including the one in hand at the stall, was written.
+        StreamStatus status = ingester.status();
+        assertThat(status.getWritten()).isEqualTo(status.getReceived());
+        assertThat(ids).hasSize((int) status.getReceived());
+    }
+
+    private void start(int bufferCapacity, int batchSize, long backpressureTimeoutMillis, long flushMillis,
+                       TweetStreamIngester.BatchWriter writer) {
+        TwitterConfig twitterConfig = new TwitterConfig(server.baseUrl(), "test-token", null, null, null, null,
+                null, null, null, null, null, null, null, null, null);
+        StreamConfig streamConfig = new StreamConfig(true, StubTweetStreamServer.PATH, 5, bufferCapacity, batchSize,
+                flushMillis, backpressureTimeoutMillis, 20L, 100L, 1000L, 10_000L);
+        client = new TweetStreamClient(twitterConfig, streamConfig);
+        ingester = new TweetStreamIngester(client, streamConfig, writer);
+        ingester.start();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 20 s").isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
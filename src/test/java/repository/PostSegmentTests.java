@@ -0,0 +1,97 @@
+package repository;
+
+import model.SocialPost.SentimentLabel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that posts written by {@link PostSegmentWriter} read back unchanged from a mapped {@link PostSegment}.
+ */
+class PostSegmentTests {
+
+    private static final Instant START = Instant.parse("2026-01-05T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackEveryColumnAcrossBlocks() throws IOException {
+        int rows = PostSegment.BLOCK_ROWS * 2 + 17;
+        PostSegment segment = write("p.0.seg", rows);
+
+        List<String> seen = new ArrayList<>();
+        long visited = segment.scan(START, START.plusSeconds(rows), row -> {
+            long i = row.getId();
+            assertThat(row.getPostTimestamp()).isEqualTo(START.plusSeconds(i));
+            assertThat(row.getPlatform()).isEqualTo(i % 2 == 0 ? "twitter" : "reddit");
+            assertThat(row.getAuthor()).isEqualTo("author" + i % 7);
+            assertThat(row.getSourceId()).isEqualTo("src" + i);
+            assertThat(row.getUrl()).isEqualTo(i % 3 == 0 ? null : "https://x.test/" + i);
+            assertThat(row.getSentimentScore()).isEqualTo(i % 5 == 0 ? null : 0.5);
+            assertThat(row.getSentimentLabel()).isEqualTo(i % 5 == 0 ? null : SentimentLabel.POSITIVE);
+            seen.add(row.getContent());
+        });
+
+        assertThat(visited).isEqualTo(rows);
+        assertThat(segment.getRowCount()).isEqualTo(rows);
+        assertThat(segment.getFirstTimestamp()).isEqualTo(START);
+        assertThat(segment.getLastTimestamp()).isEqualTo(START.plusSeconds(rows - 1));
+        assertThat(seen).hasSize(rows);
+        assertThat(seen.get(rows - 1)).isEqualTo("post " + (rows - 1) + " über #trend");
+    }
+
+    @Test
+    void scansOnlyTheRequestedRange() throws IOException {
+        PostSegment segment = write("p.0.seg", 10_000);
+        List<Long> ids = new ArrayList<>();
+
+        long visited = segment.scan(START.plusSeconds(4090), START.plusSeconds(4100), row -> ids.add(row.getId()));
+
+        assertThat(visited).isEqualTo(10);
+        assertThat(ids).containsExactly(4090L, 4091L, 4092L, 4093L, 4094L, 4095L, 4096L, 4097L, 4098L, 4099L);
+        assertThat(segment.scan(START.minusSeconds(10), START, row -> ids.add(-1L))).isZero();
+        assertThat(segment.scan(START.plusSeconds(20_000), START.plusSeconds(30_000), row -> ids.add(-1L))).isZero();
+    }
+
+    @Test
+    void rejectsAFileThatIsNotASegment() throws IOException {
+        Path file = Files.write(directory.resolve("bad.seg"), new byte[PostSegment.HEADER_BYTES]);
+
+        assertThatThrownBy(() -> PostSegment.open(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void leavesNoFileWhenNotFinished() throws IOException {
+        Path target = directory.resolve("p.0.seg");
+        try (PostSegmentWriter writer = new PostSegmentWriter(target)) {
+            writer.append(1, "twitter", "1", "a", "text", START, null, null, null);
+        }
+
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private PostSegment write(String name, int rows) throws IOException {
+        Path target = directory.resolve(name);
+        try (PostSegmentWriter writer = new PostSegmentWriter(target)) {
+            for (int i = 0; i < rows; i++) {
+                writer.append(i, i % 2 == 0 ? "twitter" : "reddit", "src" + i, "author" + i % 7,
+                        "post " + i + " über #trend", START.plusSeconds(i), i % 3 == 0 ? null : "https://x.test/" + i,
+                        i % 5 == 0 ? null : 0.5, i % 5 == 0 ? null : SentimentLabel.POSITIVE);
+            }
+            writer.finish();
+        }
+        return PostSegment.open(target);
+    }
+}
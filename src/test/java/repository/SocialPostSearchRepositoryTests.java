@@ -0,0 +1,57 @@
+package repository;
+
+import com.example.TrendAnalyzerAPI.TrendAnalyzerApiApplication;
+import model.SearchSort;
+import model.SocialPost;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the hashtag and mention re-check of {@link SocialPostSearchRepositoryImpl} against the database.
+ */
+@SpringBootTest(classes = TrendAnalyzerApiApplication.class)
+class SocialPostSearchRepositoryTests {
+
+    @Autowired
+    private SocialPostRepository socialPostRepository;
+
+    private final String suffix = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+
+    @Test
+    void matchesEitherTagOfAnOrQuery() {
+        String java = "java" + suffix;
+        String kotlin = "kotlin" + suffix;
+        store("tagged-java", "learning #" + java + " today");
+        store("tagged-kotlin", "shipping #" + kotlin + " now");
+        store("untagged", "plain " + java + " and " + kotlin + " words");
+        store("glued", "foo#" + java + " and x@" + kotlin);
+
+        assertThat(search("#" + java + " or #" + kotlin)).containsExactlyInAnyOrder("tagged-java", "tagged-kotlin");
+        assertThat(search("#" + java + " #" + kotlin)).isEmpty();
+        assertThat(search("#" + java + " or " + kotlin))
+                .containsExactlyInAnyOrder("tagged-java", "tagged-kotlin", "untagged", "glued");
+    }
+
+    private void store(String name, String content) {
+        socialPostRepository.insertIgnoringDuplicates(List.of(SocialPost.builder()
+                .platform("test")
+                .sourceId(name + "-" + suffix)
+                .author("tester")
+                .content(content)
+                .postTimestamp(Instant.now())
+                .build()));
+    }
+
+    private List<String> search(String query) {
+        return socialPostRepository.searchFullText(query, SearchSort.RELEVANCE, null, 10).getItems().stream()
+                .map(post -> post.getSourceId().substring(0, post.getSourceId().length() - suffix.length() - 1))
+                .toList();
+    }
+}
@@ -0,0 +1,119 @@
+package service;
+
+import config.DedupConfig;
+import model.SocialPost;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import repository.PostKeyView;
+import repository.SocialPostRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that {@link PostDeduplicator} looks up stored posts in batches per platform while its filter is cold,
+ * and afterwards only for the keys the filter might contain.
+ */
+class PostDeduplicatorTests {
+
+    private final SocialPostRepository repository = mock(SocialPostRepository.class);
+    private final List<String> lookups = new CopyOnWriteArrayList<>();
+    private Set<String> stored = Set.of();
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findExistingSourceIds(anyString(), anyCollection())).thenAnswer(invocation -> {
+            String platform = invocation.getArgument(0);
+            Collection<String> sourceIds = invocation.getArgument(1);
+            lookups.add(platform + "/" + sourceIds.size());
+            return sourceIds.stream().filter(id -> stored.contains(platform + ":" + id)).toList();
+        });
+    }
+
+    @Test
+    void looksUpEveryKeyInBatchesPerPlatformWhileCold() {
+        PostDeduplicator deduplicator = new PostDeduplicator(repository, new DedupConfig(1000L, 0.01, 100));
+        stored = Set.of("twitter:5", "twitter:20000", "other:o1");
+        int twitterPosts = 2 * PostDeduplicator.LOOKUP_BATCH_SIZE + 1;
+        List<SocialPost> posts = new ArrayList<>();
+        for (int i = 0; i < twitterPosts; i++) {
+            posts.add(post("twitter", String.valueOf(i)));
+        }
+        posts.add(post("twitter", "7"));
+        posts.add(post("other", "o1"));
+        posts.add(post("other", "o2"));
+
+        List<SocialPost> fresh = deduplicator.filterNew(posts);
+
+        assertThat(lookups).containsExactlyInAnyOrder("twitter/10000", "twitter/10000", "twitter/1", "other/2");
+        assertThat(fresh).hasSize(twitterPosts - 2 + 1);
+        assertThat(fresh).extracting(SocialPost::getSourceId).doesNotContain("5", "20000", "o1")
+                .containsOnlyOnce("7");
+    }
+
+    @Test
+    void looksUpOnlyFilterHitsOnceWarm() {
+        when(repository.findKeysAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            return afterId == 0
+                    ? List.of(key(1, "twitter", "100"), key(2, "twitter", "200"))
+                    : afterId == 2 ? List.of(key(3, "other", "300")) : List.of();
+        });
+        PostDeduplicator deduplicator = new PostDeduplicator(repository, new DedupConfig(1000L, 0.01, 2));
+        deduplicator.loadExistingKeys();
+        assertThat(deduplicator.isWarm()).isTrue();
+        // 200 was deleted since warm-up, so the filter hit is a false positive the lookup corrects.
+        stored = Set.of("twitter:100", "other:300");
+        List<SocialPost> posts = new ArrayList<>(List.of(post("twitter", "100"), post("twitter", "200"),
+                post("other", "300")));
+        for (int i = 0; i < 50; i++) {
+            posts.add(post("twitter", "new-" + i));
+        }
+
+        List<SocialPost> fresh = deduplicator.filterNew(posts);
+
+        assertThat(lookups).containsExactlyInAnyOrder("twitter/2", "other/1");
+        assertThat(fresh).hasSize(51).extracting(SocialPost::getSourceId).contains("200")
+                .doesNotContain("100", "300");
+
+        deduplicator.markPersisted(List.of(post("twitter", "new-0")));
+        lookups.clear();
+        deduplicator.filterNew(List.of(post("twitter", "new-0")));
+        assertThat(lookups).containsExactly("twitter/1");
+    }
+
+    private static SocialPost post(String platform, String sourceId) {
+        return SocialPost.builder().platform(platform).sourceId(sourceId).build();
+    }
+
+    private static PostKeyView key(long id, String platform, String sourceId) {
+        return new PostKeyView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getPlatform() {
+                return platform;
+            }
+
+            @Override
+            public String getSourceId() {
+                return sourceId;
+            }
+        };
+    }
+}
@@ -0,0 +1,200 @@
+package service;
+
+import config.IngestConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.SocialPost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import repository.KeywordCheckpointRepository;
+import repository.SocialPostRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that {@link PostWriteBuffer} hands each write of a group commit its own result, isolates a failing
+ * write, and commits what is still queued when it stops.
+ * <p>
+ * The first write holds the writer inside its commit until the test has queued the writes that should share
+ * the next one. Posts named {@code dup-*} count as stored already; a post named {@code bad} fails its insert.
+ * </p>
+ */
+class PostWriteBufferTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch holding = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Integer> commits = new CopyOnWriteArrayList<>();
+    private final List<String> checkpoints = new CopyOnWriteArrayList<>();
+    private final ExecutorService writers = Executors.newCachedThreadPool();
+    private PostWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        SocialPostRepository posts = mock(SocialPostRepository.class);
+        when(posts.copyIgnoringDuplicates(anyList())).thenAnswer(invocation -> copy(invocation.getArgument(0)));
+        KeywordCheckpointRepository keywords = new KeywordCheckpointRepository(null) {
+            @Override
+            public void advance(String platform, String keyword, long sinceId) {
+                checkpoints.add(platform + ":" + keyword + ":" + sinceId);
+            }
+        };
+        buffer = new PostWriteBuffer(posts, keywords, new NoTransactionManager(),
+                new IngestConfig(null, null, true, null, null, null), registry);
+        buffer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        buffer.stop();
+        writers.shutdownNow();
+    }
+
+    @Test
+    void returnsEachWriteItsOwnInsertedPosts() throws Exception {
+        holdWriter();
+        SocialPost b1 = post("b1");
+        SocialPost b2 = post("dup-b2");
+        SocialPost c1 = post("c1");
+        CompletableFuture<List<SocialPost>> b = write(List.of(b1, b2), "k", Map.of("test", 5L));
+        CompletableFuture<List<SocialPost>> c = write(List.of(c1), null, Map.of());
+        awaitQueuedPosts(3);
+
+        release.countDown();
+
+        assertThat(b.get(5, TimeUnit.SECONDS)).containsExactly(b1);
+        assertThat(c.get(5, TimeUnit.SECONDS)).containsExactly(c1);
+        assertThat(commits).containsExactly(1, 3);
+        assertThat(checkpoints).containsExactly("test:k:5");
+    }
+
+    @Test
+    void failsOnlyTheBadWriteOfAGroup() throws Exception {
+        holdWriter();
+        SocialPost b1 = post("b1");
+        SocialPost c1 = post("c1");
+        CompletableFuture<List<SocialPost>> b = write(List.of(b1), null, Map.of());
+        CompletableFuture<List<SocialPost>> bad = write(List.of(post("bad")), null, Map.of());
+        CompletableFuture<List<SocialPost>> c = write(List.of(c1), null, Map.of());
+        awaitQueuedPosts(3);
+
+        release.countDown();
+
+        assertThat(b.get(5, TimeUnit.SECONDS)).containsExactly(b1);
+        assertThat(c.get(5, TimeUnit.SECONDS)).containsExactly(c1);
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("bad post");
+        assertThat(registry.counter("ingest.write.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    void commitsQueuedWritesOnStop() throws Exception {
+        holdWriter();
+        SocialPost b1 = post("b1");
+        SocialPost c1 = post("c1");
+        CompletableFuture<List<SocialPost>> b = write(List.of(b1), null, Map.of());
+        CompletableFuture<List<SocialPost>> c = write(List.of(c1), null, Map.of());
+        awaitQueuedPosts(2);
+
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(buffer::stop, writers);
+        awaitCondition("buffer stops accepting", () -> !buffer.isRunning());
+        release.countDown();
+        stopped.get(5, TimeUnit.SECONDS);
+
+        assertThat(b.get(5, TimeUnit.SECONDS)).containsExactly(b1);
+        assertThat(c.get(5, TimeUnit.SECONDS)).containsExactly(c1);
+        SocialPost late = post("late");
+        assertThat(buffer.write(List.of(late), null, Map.of())).containsExactly(late);
+    }
+
+    private List<SocialPost> copy(List<SocialPost> posts) throws InterruptedException {
+        commits.add(posts.size());
+        if (posts.stream().anyMatch(post -> post.getSourceId().equals("hold"))) {
+            holding.countDown();
+            release.await();
+        }
+        if (posts.stream().anyMatch(post -> post.getSourceId().equals("bad"))) {
+            throw new IllegalStateException("bad post");
+        }
+        return posts.stream().filter(post -> !post.getSourceId().startsWith("dup-")).toList();
+    }
+
+    /**
+     * Starts a write whose commit blocks until {@link #release} opens, and waits until the writer is in it.
+     */
+    private void holdWriter() throws InterruptedException {
+        write(List.of(post("hold")), null, Map.of());
+        assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private CompletableFuture<List<SocialPost>> write(List<SocialPost> posts, String keyword,
+                                                      Map<String, Long> checkpoints) {
+        return CompletableFuture.supplyAsync(() -> buffer.write(posts, keyword, checkpoints), writers);
+    }
+
+    private void awaitQueuedPosts(int posts) throws InterruptedException {
+        awaitCondition(posts + " queued posts",
+                () -> registry.get("ingest.write.queue.posts").gauge().value() == posts);
+    }
+
+    private static void awaitCondition(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting for " + what);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static SocialPost post(String sourceId) {
+        return SocialPost.builder()
+                .platform("test")
+                .sourceId(sourceId)
+                .author("tester")
+                .content("post " + sourceId)
+                .postTimestamp(Instant.now())
+                .build();
+    }
+
+    /**
+     * Runs the buffer's transactions without a database.
+     */
+    private static final class NoTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
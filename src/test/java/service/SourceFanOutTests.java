@@ -0,0 +1,112 @@
+package service;
+
+import client.PostPageIterator;
+import client.SocialSource;
+import config.SourceConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that {@link SourceFanOut} keeps platforms apart: a slow or saturated platform only affects itself.
+ */
+class SourceFanOutTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SourceFanOut fanOut;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (fanOut != null) {
+            fanOut.shutdown();
+        }
+    }
+
+    @Test
+    void returnsOtherPlatformsWhenOneTimesOut() {
+        fanOut = new SourceFanOut(List.of(new StubSource("slow"), new StubSource("fast")),
+                new SourceConfig(1, 0, 30, Map.of("slow", new SourceConfig.Bulkhead(null, null, 1))), registry);
+
+        long started = System.nanoTime();
+        List<SourceFanOut.Outcome<String>> outcomes = fanOut.invokeAll(source -> {
+            if (source.getPlatform().equals("slow")) {
+                awaitRelease();
+            }
+            return source.getPlatform() + " done";
+        });
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isBetween(900L, 5000L);
+        assertThat(outcomes.get(0).getFailure()).isInstanceOf(TimeoutException.class);
+        assertThat(outcomes.get(1).getResult()).isEqualTo("fast done");
+        assertThat(registry.counter("sources.failures", "platform", "slow", "reason", "timeout").count()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsAPlatformWhoseBulkheadIsFull() throws Exception {
+        fanOut = new SourceFanOut(List.of(new StubSource("busy"), new StubSource("idle")),
+                new SourceConfig(1, 0, 30, null), registry);
+        CountDownLatch occupied = new CountDownLatch(1);
+        Thread first = new Thread(() -> fanOut.invokeAll(source -> {
+            if (source.getPlatform().equals("busy")) {
+                occupied.countDown();
+                awaitRelease();
+            }
+            return null;
+        }));
+        first.start();
+        assertThat(occupied.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitCompletedTasks("idle", 1);
+
+        List<SourceFanOut.Outcome<String>> outcomes = fanOut.invokeAll(SocialSource::getPlatform);
+
+        assertThat(outcomes.get(0).getFailure()).isInstanceOf(RejectedExecutionException.class);
+        assertThat(outcomes.get(1).getResult()).isEqualTo("idle");
+        release.countDown();
+        first.join(5000);
+    }
+
+    private void awaitCompletedTasks(String platform, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("executor.completed").tag("name", "sources." + platform).functionCounter().count() < count) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record StubSource(String platform) implements SocialSource {
+
+        @Override
+        public String getPlatform() {
+            return platform;
+        }
+
+        @Override
+        public PostPageIterator search(String keyword, Long sinceId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PostPageIterator searchNewest(String keyword, Long sinceId, int maxPages) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
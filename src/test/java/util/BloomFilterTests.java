@@ -0,0 +1,48 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that {@link BloomFilter} never forgets a key and stays near its configured false-positive rate when
+ * filled to its expected size.
+ */
+class BloomFilterTests {
+
+    private static final int INSERTIONS = 200_000;
+
+    @Test
+    void hasNoFalseNegativesAndTheConfiguredFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("twitter:" + (1_800_000_000_000_000_000L + i));
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("twitter:" + (1_800_000_000_000_000_000L + i))).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < INSERTIONS; i++) {
+            if (filter.mightContain("twitter:" + (1_700_000_000_000_000_000L + i))) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / INSERTIONS).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    void sizesTheBitArrayFromCapacityAndRate() {
+        // m = -n ln p / (ln 2)^2, rounded up to whole 64-bit words
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+        assertThat(filter.bitSize()).isBetween(9_585_059L, 9_585_059L + 64);
+        assertThat(filter.approximateSize()).isZero();
+        assertThat(filter.put("a")).isTrue();
+        assertThat(filter.put("a")).isFalse();
+        assertThat(filter.approximateSize()).isEqualTo(1);
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
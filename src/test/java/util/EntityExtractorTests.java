@@ -0,0 +1,43 @@
+package util;
+
+import model.PostEntities;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks which hashtags, mentions and links {@link EntityExtractor} finds in post text.
+ */
+class EntityExtractorTests {
+
+    @Test
+    void findsEntitiesOncePerPostInOrder() {
+        PostEntities entities = EntityExtractor.extract(
+                "Big #Launch today with @Brand_HQ! See https://www.Example.com/news?id=1. #launch #2024 @brand_hq");
+
+        assertThat(entities.getHashtags()).containsExactly("launch");
+        assertThat(entities.getMentions()).containsExactly("brand_hq");
+        assertThat(entities.getUrls()).containsExactly("https://www.Example.com/news?id=1");
+        assertThat(EntityExtractor.domain(entities.getUrls().get(0))).isEqualTo("example.com");
+    }
+
+    @Test
+    void ignoresPrefixesGluedToWords() {
+        PostEntities entities = EntityExtractor.extract(
+                "mail me at someone@example.com, C# and &#39; are not tags, @averyveryverylongname is too long");
+
+        assertThat(entities.getHashtags()).isEmpty();
+        assertThat(entities.getMentions()).isEmpty();
+        assertThat(entities.getUrls()).isEmpty();
+    }
+
+    @Test
+    void normalizesRequestValues() {
+        assertThat(EntityExtractor.hashtag("#Über_Cool")).isEqualTo("über_cool");
+        assertThat(EntityExtractor.hashtag("2024")).isNull();
+        assertThat(EntityExtractor.mention("@Brand")).isEqualTo("brand");
+        assertThat(EntityExtractor.mention("bad-name")).isNull();
+        assertThat(EntityExtractor.domain("WWW.Example.com")).isEqualTo("example.com");
+        assertThat(EntityExtractor.domain("https://user@sub.example.org:8443/x")).isEqualTo("sub.example.org");
+    }
+}
@@ -0,0 +1,57 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that {@link SimHash} fingerprints of copied posts land close together and that {@link SimHashIndex}
+ * finds them only within its window and capacity.
+ */
+class SimHashIndexTests {
+
+    private static final String ORIGINAL =
+            "Huge outage at the data center this morning, every service down and engineers scrambling to restore power";
+
+    @Test
+    void matchesRetweetsAndCopiesWithOtherLinksAndMentions() {
+        SimHashIndex index = new SimHashIndex(1024, 3);
+        index.add(fingerprint(ORIGINAL), 1, 1000);
+
+        assertThat(index.containsNear(fingerprint("RT @newsdesk: " + ORIGINAL), 2, 0)).isTrue();
+        assertThat(index.containsNear(fingerprint(ORIGINAL.toUpperCase() + " https://t.co/x1 @alice"), 3, 0))
+                .isTrue();
+        assertThat(index.containsNear(
+                fingerprint("Coffee shop on main street has the best pastries and friendly baristas every weekend"),
+                4, 0)).isFalse();
+    }
+
+    @Test
+    void ignoresTheSamePostAndEntriesOutsideTheWindow() {
+        SimHashIndex index = new SimHashIndex(1024, 3);
+        long fingerprint = fingerprint(ORIGINAL);
+        index.add(fingerprint, 1, 1000);
+
+        assertThat(index.containsNear(fingerprint, 1, 0)).isFalse();
+        assertThat(index.containsNear(fingerprint, 2, 1000)).isTrue();
+        assertThat(index.containsNear(fingerprint, 2, 1001)).isFalse();
+    }
+
+    @Test
+    void forgetsTheOldestEntriesWhenFull() {
+        SimHashIndex index = new SimHashIndex(4, 3);
+        long fingerprint = fingerprint(ORIGINAL);
+        index.add(fingerprint, 1, 1000);
+        for (int i = 0; i < 4; i++) {
+            index.add(~fingerprint, 10 + i, 1000 + i);
+        }
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.containsNear(fingerprint, 2, 0)).isFalse();
+        assertThat(index.containsNear(~fingerprint, 2, 0)).isTrue();
+    }
+
+    private static long fingerprint(String text) {
+        return SimHash.fingerprint(SimHash.terms(text));
+    }
+}